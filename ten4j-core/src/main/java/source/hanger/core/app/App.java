@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.concurrent.Agent;
@@ -32,6 +33,7 @@ import source.hanger.core.graph.PredefinedGraphEntry;
 import source.hanger.core.graph.runtime.PredefinedGraphRuntimeInfo;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.DefaultCommandExecutionHandle;
+import source.hanger.core.message.FutureCommandExecutionHandle;
 import source.hanger.core.message.Location;
 import source.hanger.core.message.Message;
 import source.hanger.core.message.MessageType;
@@ -128,7 +130,7 @@ public class App implements Agent, MessageReceiver { // 修正：添加 MessageR
         commandHandles = new ConcurrentHashMap<>(); // 初始化 commandHandles
         this.predefinedGraphRuntimeInfos = new ConcurrentHashMap<>(); // 初始化 predefinedGraphRuntimeInfos
 
-        this.pathTable = new PathTable(PathTableAttachedTo.APP, this, appEnvProxy); // <-- 将 this 替换为 appEnvProxy
+        this.pathTable = new PathTable(PathTableAttachedTo.APP, this, appEnvProxy, appRunloop); // <-- 将 this 替换为 appEnvProxy
 
         log.info("App {} created with hasOwnRunloopPerEngine={}", appUri, hasOwnRunloopPerEngine);
     }
@@ -409,6 +411,7 @@ public class App implements Agent, MessageReceiver { // 修正：添加 MessageR
         boolean success = inMsgs.offer(new QueuedMessage(message, connection));
         if (!success) {
             log.warn("App {}: 内部消息队列已满，消息 {} 被丢弃。", appUri, message.getId());
+            ReferenceCountUtil.release(message);
             return false;
         }
 
@@ -420,7 +423,7 @@ public class App implements Agent, MessageReceiver { // 修正：添加 MessageR
     @Override
     public int doWork() {
         // 从输入队列中排水并处理消息
-        return inMsgs.drain(queuedMessage -> {
+        int workCount = inMsgs.drain(queuedMessage -> {
             Message message = queuedMessage.message;
             Connection connection = queuedMessage.connection;
 
@@ -501,6 +504,8 @@ public class App implements Agent, MessageReceiver { // 修正：添加 MessageR
                 }
             }
         });
+        // 推进路径过期定时器轮，回收长时间未收到结果的 PathIn
+        return workCount + pathTable.pollExpiredPaths(System.currentTimeMillis());
     }
 
     @Override
@@ -526,8 +531,23 @@ public class App implements Agent, MessageReceiver { // 修正：添加 MessageR
      * @return 一个 CompletableFuture，当命令处理完成并返回结果时，它将被完成。
      */
     public CommandExecutionHandle<CommandResult> submitCommandWithResultHandle(Command command) {
-        CommandExecutionHandle<CommandResult> handle = new DefaultCommandExecutionHandle<>(appRunloop);
+        return submitCommandWithHandle(command, new DefaultCommandExecutionHandle<>(appRunloop));
+    }
+
+    /**
+     * 提交一个只关心最终结果的命令，使用不构建 RxJava 管道的 FutureCommandExecutionHandle。
+     *
+     * @param command 要提交的命令。
+     * @return 轻量的 CommandExecutionHandle，在 App 的 Runloop 上直接完成。
+     */
+    public CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command) {
+        return submitCommandWithHandle(command, new FutureCommandExecutionHandle<>());
+    }
+
+    private CommandExecutionHandle<CommandResult> submitCommandWithHandle(Command command,
+        CommandExecutionHandle<CommandResult> handle) {
         commandHandles.put(command.getId(), handle);
+        handle.toCompletedFuture().whenComplete((results, error) -> commandHandles.remove(command.getId(), handle));
 
         // 确保在 App 的 Runloop 线程中执行命令提交
         if (appRunloop.isNotCurrentThread()) {
@@ -51,6 +51,11 @@ public class AppEnvImpl implements TenEnv {
         return app.submitCommandWithResultHandle(command);
     }
 
+    @Override
+    public CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command) {
+        return app.submitCommandWithFutureHandle(command);
+    }
+
     @Override
     public void sendCmd(Command command) {
         app.handleInboundMessage(command, null);
@@ -174,6 +179,11 @@ public class AppEnvImpl implements TenEnv {
         throw new UnsupportedOperationException("AppEnvImpl: 从 JSON 初始化属性已不再支持。");
     }
 
+    @Override
+    public <T> T bindProperties(Class<T> configType) {
+        throw new UnsupportedOperationException("AppEnvImpl: 属性绑定已不再支持。");
+    }
+
     @Override
     public String getAppUri() {
         return app.getAppUri();
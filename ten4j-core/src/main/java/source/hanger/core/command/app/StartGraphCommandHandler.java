@@ -5,7 +5,6 @@ import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.app.App;
 import source.hanger.core.app.AppEnvImpl;
@@ -72,25 +71,12 @@ public class StartGraphCommandHandler implements AppCommandHandler {
         GraphDefinition graphDefinition = null;
         if (targetGraphId != null && app.getPredefinedGraphsByName().containsKey(targetGraphId)) {
             PredefinedGraphEntry entry = app.getPredefinedGraphsByName().get(targetGraphId);
-            if (entry != null) {
-                // 从 PredefinedGraphEntry 获取 GraphDefinition，然后序列化
-                GraphDefinition loadedDefinition = entry.getGraph(); // 直接获取 GraphDefinition
-                try {
-                    // 注意：这里需要一个 ObjectMapper 来序列化 loadedDefinition
-                    // StartGraphCommandHandler 缺乏 ObjectMapper 实例，可以考虑作为依赖注入或静态实例
-                    // 暂时使用新的 ObjectMapper 实例
-                    String graphJson = new ObjectMapper().writeValueAsString(loadedDefinition);
-                    graphDefinition = GraphLoader.loadGraphDefinitionFromJson(graphJson,
-                        startCommand.getProperties()); // 重新加载以确保完整性
-                    graphDefinition.setGraphId(IdGenerator.generateShortId());
-                    log.info("StartGraphCommandHandler: 找到预定义图 {}。", targetGraphId);
-                    graphDefinition.setGraphName(targetGraphId);
-                } catch (JsonProcessingException e) {
-                    log.error("StartGraphCommandHandler: 自动启动图 {} 时，序列化/解析预定义图的 JSON 失败: {}",
-                        entry.getName(),
-                        e.getMessage());
-                    // 即使解析失败，也不应阻止后续尝试从 command 的 json 定义加载
-                }
+            if (entry != null && entry.getGraph() != null) {
+                // 使用加载时编译好的图模板实例化，只复制节点并对预编译的表达式求值
+                graphDefinition = GraphLoader.instantiatePredefinedGraph(entry, startCommand.getProperties());
+                graphDefinition.setGraphId(IdGenerator.generateShortId());
+                log.info("StartGraphCommandHandler: 找到预定义图 {}。", targetGraphId);
+                graphDefinition.setGraphName(targetGraphId);
             }
         }
 
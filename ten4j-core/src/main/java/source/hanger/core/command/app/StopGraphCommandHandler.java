@@ -28,6 +28,7 @@ public class StopGraphCommandHandler implements AppCommandHandler {
             Engine engineToStop = app.getEngines().remove(graphIdToStop); // 从 App 中移除 Engine
             if (engineToStop != null) {
                 engineToStop.stop(); // 停止 Engine
+                app.getPathTable().cleanupPathsForGraph(graphIdToStop); // 清理 App 路径表中属于该 Graph 的路径与统计
                 log.info("StopGraphCommandHandler: Engine {} 已停止并从 App 中移除。", graphIdToStop);
                 if (connection != null) {
                     CommandResult successResult = CommandResult.success(command,
@@ -2,6 +2,7 @@ package source.hanger.core.command.engine;
 
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.command.EngineCommandHandler;
+import source.hanger.core.engine.EngineTimerService;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.command.Command;
 import source.hanger.core.message.command.TimeoutCommand;
@@ -10,11 +11,18 @@ import source.hanger.core.tenenv.TenEnv;
 
 /**
  * `TimerCommandHandler` 处理 `TimerCommand` 命令。
- * 这是一个 Engine 内部的命令处理器，用于处理定时器触发事件。
+ * 这是一个 Engine 内部的命令处理器，把定时器的登记、替换与取消交给 Engine 的 {@link EngineTimerService}，
+ * 到期后由它向请求方 Extension 投递 `TimeoutCommand`。
  */
 @Slf4j
 public class TimerCommandHandler implements EngineCommandHandler {
 
+    private final EngineTimerService timerService;
+
+    public TimerCommandHandler(EngineTimerService timerService) {
+        this.timerService = timerService;
+    }
+
     @Override
     public Object handle(TenEnv engineEnv, Command command) {
         if (!(command instanceof TimerCommand)) {
@@ -29,8 +37,13 @@ public class TimerCommandHandler implements EngineCommandHandler {
     public Object handleTimerCommand(TenEnv engineEnv, TimerCommand command) {
         log.debug("TimerCommand received for timerId: {}, timeoutUs: {}, times: {}",
                 command.getTimerId(), command.getTimeoutUs(), command.getTimes());
-        // TODO: Implement timer logic
-        return "Timer %d handled.".formatted(command.getTimerId());
+        try {
+            timerService.schedule(command);
+        } catch (IllegalArgumentException e) {
+            log.warn("TimerCommandHandler: 无效的 TimerCommand {}: {}", command.getId(), e.getMessage());
+            return CommandResult.fail(command, e.getMessage());
+        }
+        return CommandResult.success(command, "Timer %d scheduled.".formatted(command.getTimerId()));
     }
 
     @Override
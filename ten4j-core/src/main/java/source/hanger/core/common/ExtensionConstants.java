@@ -17,6 +17,13 @@ public final class ExtensionConstants {
     public static final String CMD_IN_FLUSH = "flush";
     public static final String CMD_OUT_FLUSH = "flush";
 
+    // VAD 相关的常量
+    public static final String VAD_DATA_OUT_NAME = "vad_event";
+    public static final String DATA_OUT_PROPERTY_VAD_EVENT = "event";
+    public static final String DATA_OUT_PROPERTY_VAD_ENERGY_DB = "energy_db";
+    public static final String VAD_EVENT_SPEECH_START = "speech_start";
+    public static final String VAD_EVENT_SPEECH_END = "speech_end";
+
     public static final String CMD_IN_ON_USER_JOINED = "on_user_joined";
     public static final String CMD_IN_ON_USER_LEFT = "on_user_left";
 
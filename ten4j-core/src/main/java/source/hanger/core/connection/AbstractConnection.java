@@ -3,6 +3,7 @@ package source.hanger.core.connection;
 import java.net.SocketAddress;
 
 import io.netty.channel.Channel;
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.app.App;
@@ -108,27 +109,37 @@ public abstract class AbstractConnection implements Connection {
             if (this.attachToState != ConnectionAttachTo.REMOTE) {
                 log.warn("Connection {}: 接收到非命令消息 {} (Type: {}) 但未依附于 Remote，消息被丢弃",
                         connectionId, message.getId(), message.getType());
+                ReferenceCountUtil.release(message); // 丢弃时释放解码器持有的池化缓冲区引用
                 return; // 直接丢弃消息
             }
         }
 
         // 消息接收逻辑。如果当前 Runloop 存在，将消息提交到该 Runloop 进行处理。
-        if (currentRunloop != null) {
-            log.debug("Connection {}: 接收到消息，提交到当前 Runloop: type={}, id={}", connectionId, message.getType(),
-                    message.getId());
-            currentRunloop.postTask(() -> {
-                // 在 Runloop 线程中，将消息传递给依附的 MessageReceiver
-                if (messageReceiver != null) {
-                    messageReceiver.handleInboundMessage(message, this);
-                } else {
-                    log.warn("Connection {}: 消息 {} 没有注册的 MessageReceiver，消息被丢弃。", connectionId,
-                            message.getId());
-                }
-            });
-        } else {
+        Runloop runloop = currentRunloop;
+        if (runloop == null) {
             log.warn("Connection {}: 接收到消息但没有关联的 Runloop，消息将被丢弃: type={}, id={}", connectionId,
                     message.getType(),
                     message.getId());
+            ReferenceCountUtil.release(message);
+            return;
+        }
+        log.debug("Connection {}: 接收到消息，提交到当前 Runloop: type={}, id={}", connectionId, message.getType(),
+                message.getId());
+        boolean posted = runloop.postTask(() -> {
+            // 在 Runloop 线程中，将消息传递给依附的 MessageReceiver，其后由接收方负责释放
+            MessageReceiver receiver = messageReceiver;
+            if (receiver != null) {
+                receiver.handleInboundMessage(message, this);
+            } else {
+                log.warn("Connection {}: 消息 {} 没有注册的 MessageReceiver，消息被丢弃。", connectionId,
+                        message.getId());
+                ReferenceCountUtil.release(message);
+            }
+        });
+        if (!posted) {
+            log.warn("Connection {}: Runloop 任务队列已满，消息被丢弃: type={}, id={}", connectionId,
+                    message.getType(), message.getId());
+            ReferenceCountUtil.release(message);
         }
     }
 
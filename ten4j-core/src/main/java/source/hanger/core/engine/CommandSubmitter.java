@@ -21,6 +21,16 @@ public interface CommandSubmitter {
      */
     CommandExecutionHandle<CommandResult> submitCommandWithResultHandle(Command command);
 
+    /**
+     * 提交一个只关心最终结果的命令，返回不构建响应式管道的轻量句柄（{@link
+     * source.hanger.core.message.FutureCommandExecutionHandle}）。
+     * 结果在命令结束后一次性交付，不支持逐条接收中间结果。
+     *
+     * @param command 要提交的命令。
+     * @return 用于获取命令最终结果的 CommandExecutionHandle。
+     */
+    CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command);
+
     /**
      * 提交一个命令结果。
      *
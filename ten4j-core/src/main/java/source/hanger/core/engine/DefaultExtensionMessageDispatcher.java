@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
 
+import io.netty.util.ReferenceCountUtil;
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.extension.ExtensionInfo;
 import source.hanger.core.graph.DestinationInfo;
@@ -50,9 +51,13 @@ public class DefaultExtensionMessageDispatcher implements ExtensionMessageDispat
                 "DefaultExtensionMessageDispatcher: 消息 {} (Name: {}, Type: {}) 没有明确的 Extension "
                     + "目的地，也无法从图配置中确定，无法派发。",
                 message.getId(), message.getName(), message.getType());
+            ReferenceCountUtil.release(message);
             return;
         }
 
+        // 多目的地时每个副本各持有一份引用（音频帧共享同一池化缓冲区），原消息的引用在派发结束后释放
+        boolean fanOut = size(targetLocations) > 1;
+        boolean dispatched = false;
         for (Location targetLocation : targetLocations) {
             // 确保目的地是当前 Engine 内部的 Extension
             if (!targetLocation.getGraphId().equals(
@@ -73,7 +78,9 @@ public class DefaultExtensionMessageDispatcher implements ExtensionMessageDispat
                 finalMessageToSend = message.cloneBuilder().build();
                 // 为克隆的消息设置单目的地，避免在下一层再次处理多目的地
                 finalMessageToSend.setDestLocs(singletonList(targetLocation));
+                ReferenceCountUtil.retain(finalMessageToSend);
             }
+            dispatched = true;
 
             try {
                 // 只有当 finalMessageToSend 的目的地列表为单个目标时，才传递其 extensionName
@@ -97,5 +104,8 @@ public class DefaultExtensionMessageDispatcher implements ExtensionMessageDispat
                 }
             }
         }
+        if (fanOut || !dispatched) {
+            ReferenceCountUtil.release(message);
+        }
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.concurrent.Agent;
@@ -22,10 +23,12 @@ import source.hanger.core.command.engine.TimeoutCommandHandler;
 import source.hanger.core.command.engine.TimerCommandHandler;
 import source.hanger.core.connection.Connection;
 import source.hanger.core.graph.GraphDefinition;
+import source.hanger.core.graph.GraphRunloopConfig;
 import source.hanger.core.graph.NodeDefinition;
 import source.hanger.core.message.CommandExecutionHandle;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.DefaultCommandExecutionHandle;
+import source.hanger.core.message.FutureCommandExecutionHandle;
 import source.hanger.core.message.Location;
 import source.hanger.core.message.Message;
 import source.hanger.core.message.MessageType;
@@ -69,6 +72,7 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
     private final App app; // 引用所属的 App 实例
     @Getter
     private final TenEnvProxy<EngineEnvImpl> engineEnvProxy; // 新增：Engine 自身的 TenEnvProxy 实例
+    private final EngineTimerService timerService; // Engine 级别定时器，处理 TimerCommand
     private final ConcurrentMap<String, CommandExecutionHandle<CommandResult>> commandHandles; // 管理所有命令的
     // Engine 自身的 RunloopFuture
     // 映射
@@ -83,8 +87,9 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
 
         // Engine 自身的 Runloop 初始化
         if (hasOwnLoop) {
+            GraphRunloopConfig runloopConfig = graphDefinition.getRunloop();
             runloop = Runloop.createRunloopWithWorker("Engine[%s]".formatted(graphId),
-                    this); // 每个 Engine 都有自己的 Runloop
+                    this, runloopConfig != null ? runloopConfig.getEngine() : null); // 每个 Engine 都有自己的 Runloop
         } else {
             // 如果没有自己的 Runloop，则尝试使用 App 的 Runloop
             // 确保 app.getAppRunloop() 不为 null，否则这是一个逻辑错误
@@ -99,7 +104,7 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
         commandHandles = new ConcurrentHashMap<>(); // 初始化 CommandExecutionHandle 映射
 
         // 修正 pathTable 的初始化，使用 Engine 自身作为 MessageSubmitter 和 CommandSubmitter
-        pathTable = new PathTable(PathTableAttachedTo.ENGINE, this, this); // Update
+        pathTable = new PathTable(PathTableAttachedTo.ENGINE, this, this, runloop); // Update
 
         // 修正 extensionContext 的初始化，使用 Engine 自身作为 MessageSubmitter 和 CommandSubmitter
         engineExtensionContext = new EngineExtensionContext(this, app, pathTable, this,
@@ -110,6 +115,10 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
         messageDispatcher = new DefaultExtensionMessageDispatcher(engineExtensionContext,
                 (ConcurrentMap) commandHandles); // Cast
 
+        // 定时器到期时直接在 Engine Runloop 上把 TimeoutCommand 派发到请求方 Extension
+        timerService = new EngineTimerService(new Location(app.getAppUri(), graphId, null), runloop,
+                messageDispatcher::dispatchMessage);
+
         inMsgs = new ManyToOneConcurrentArrayQueue<>(Runloop.DEFAULT_INTERNAL_QUEUE_CAPACITY); // 初始化消息输入队列
         orphanConnections = new CopyOnWriteArrayList<>(); // 替换为 CopyOnWriteArrayList
         remotes = new ConcurrentHashMap<>(); // 初始化远程连接映射
@@ -122,7 +131,7 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
 
         // 注册 Engine 级别的命令处理器
         commandHandlers = new HashMap<>(); // Initialize commandHandlers map here
-        commandHandlers.put(CMD_TIMER, new TimerCommandHandler());
+        commandHandlers.put(CMD_TIMER, new TimerCommandHandler(timerService));
         commandHandlers.put(CMD_TIMEOUT, new TimeoutCommandHandler());
 
         log.info("Engine {} created with hasOwnLoop={}", graphId, hasOwnLoop);
@@ -141,9 +150,12 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
             return 0; // 返回 0，触发 IdleStrategy，Runloop 将暂停
         }
         // 从输入队列中排水并处理消息
-        return inMsgs.drain(message -> {
+        int workCount = inMsgs.drain(message -> {
             processMessage(message.message(), message.connection()); // 传递 message 和 connection
         });
+        // 推进 TimerCommand 定时器与路径过期定时器轮
+        long nowMs = System.currentTimeMillis();
+        return workCount + timerService.poll(nowMs) + pathTable.pollExpiredPaths(nowMs);
     }
 
     @Override
@@ -214,8 +226,8 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
         // 清理孤立连接
         orphanConnections.clear();
 
-        // 清理消息队列
-        inMsgs.clear();
+        // 清理消息队列，释放未处理消息持有的缓冲区引用
+        inMsgs.drain(queued -> ReferenceCountUtil.release(queued.message()));
 
         // 停止 Engine 的 Runloop
         if (hasOwnLoop) {
@@ -224,6 +236,7 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
             // 如果使用 App 的 Runloop，则不应由 Engine 关闭
             log.info("Engine {}: 使用 App 的 Runloop，不关闭 Runloop。", graphId);
         }
+        timerService.clear(); // 取消所有未到期的定时器
 
         // 关闭 Engine 的 TenEnvProxy
         if (engineEnvProxy != null) {
@@ -285,6 +298,7 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
                             CommandResult.fail(command.getId(), command.getType(), command.getName(),
                                     "Engine not ready and queue full. Message dropped."));
                 }
+                ReferenceCountUtil.release(message);
             }
             return;
         }
@@ -384,7 +398,11 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
                     EngineCommandHandler handler = commandHandlers.get(command.getType());
                     if (handler != null) {
                         try {
-                            handler.handle(engineEnvProxy, command);
+                            // 处理器返回的结果与其他 Engine 处理的命令一样经 PathTable 回到调用方
+                            Object result = handler.handle(engineEnvProxy, command);
+                            if (result instanceof CommandResult commandResult) {
+                                submitCommandResult(commandResult);
+                            }
                         } catch (Exception e) {
                             log.error("Engine {}: 命令处理器处理命令 {} 失败: {}", graphId, command.getId(),
                                     e.getMessage(),
@@ -581,8 +599,23 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
      */
     @Override
     public CommandExecutionHandle<CommandResult> submitCommandWithResultHandle(Command command) {
-        CommandExecutionHandle<CommandResult> handle = new DefaultCommandExecutionHandle<>(runloop); // 创建具体实现类
+        return submitCommandWithHandle(command, new DefaultCommandExecutionHandle<>(runloop));
+    }
+
+    /**
+     * 提交一个只关心最终结果的命令，使用不构建 RxJava 管道的 FutureCommandExecutionHandle，
+     * 结果由 PathTable 在 Engine 的 Runloop 上直接完成。
+     */
+    @Override
+    public CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command) {
+        return submitCommandWithHandle(command, new FutureCommandExecutionHandle<>());
+    }
+
+    private CommandExecutionHandle<CommandResult> submitCommandWithHandle(Command command,
+            CommandExecutionHandle<CommandResult> handle) {
         commandHandles.put(command.getId(), handle);
+        // 无论正常完成、失败还是路径超时，结束后都从映射中移除，避免长会话中累积
+        handle.toCompletedFuture().whenComplete((results, error) -> commandHandles.remove(command.getId(), handle));
         // 将原始命令提交到内部队列进行处理
         submitInboundMessage(command, null);
         return handle;
@@ -598,6 +631,7 @@ public class Engine implements Agent, MessageSubmitter, CommandSubmitter,
         boolean success = inMsgs.offer(new QueuedMessage(message, connection));
         if (!success) {
             log.warn("Engine {}: 内部消息队列已满，消息 {} 被丢弃。", graphId, message.getId());
+            ReferenceCountUtil.release(message); // 入队失败时由 Engine 释放，调用方不再持有该消息
             return false;
         }
 
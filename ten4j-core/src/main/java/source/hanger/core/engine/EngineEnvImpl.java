@@ -51,6 +51,11 @@ public class EngineEnvImpl implements TenEnv {
         return engine.submitCommandWithResultHandle(command);
     }
 
+    @Override
+    public CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command) {
+        return engine.submitCommandWithFutureHandle(command);
+    }
+
     @Override
     public void sendCmd(Command command) {
         engine.submitInboundMessage(command, null);
@@ -175,6 +180,11 @@ public class EngineEnvImpl implements TenEnv {
         throw new UnsupportedOperationException("EngineEnvImpl: 从 JSON 初始化属性已不再支持。");
     }
 
+    @Override
+    public <T> T bindProperties(Class<T> configType) {
+        throw new UnsupportedOperationException("EngineEnvImpl: 属性绑定已不再支持。");
+    }
+
     @Override
     public String getAppUri() {
         return app.getAppUri();
@@ -5,7 +5,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -20,16 +22,18 @@ import source.hanger.core.extension.ExtensionThread;
 import source.hanger.core.extension.submitter.ExtensionCommandSubmitter;
 import source.hanger.core.extension.submitter.ExtensionMessageSubmitter;
 import source.hanger.core.graph.AllMessageDestInfo;
+import source.hanger.core.graph.ConnectionDefinition;
 import source.hanger.core.graph.DestinationInfo;
+import source.hanger.core.graph.GraphRunloopConfig;
 import source.hanger.core.graph.RoutingRuleDefinition;
 import source.hanger.core.message.CommandExecutionHandle;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.Location;
 import source.hanger.core.message.Message;
 import source.hanger.core.message.MessageConversionContext;
+import source.hanger.core.message.MessageType;
 import source.hanger.core.message.command.Command;
 import source.hanger.core.path.PathTable;
-import source.hanger.core.util.MessageConverter;
 import source.hanger.core.util.ReflectionUtils;
 
 import static java.util.Collections.emptyList;
@@ -64,6 +68,9 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
     @Getter
     private final String roleName;
 
+    // 路由索引快照，Extension 加载/卸载后整体重建并替换，分发路径只读
+    private volatile ExtensionRoutingTable routingTable = ExtensionRoutingTable.EMPTY;
+
     public EngineExtensionContext(Engine engine, App app, PathTable pathTable, MessageSubmitter engineMessageSubmitter,
         CommandSubmitter engineCommandSubmitter) {
         this.engine = Objects.requireNonNull(engine, "Engine must not be null.");
@@ -94,11 +101,8 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
         String extensionGroupName, Map<String, Object> property) {
 
         // 获取或创建 ExtensionThread。每个 ExtensionGroup 将对应一个 ExtensionThread。
-        ExtensionThread extensionThread = extensionThreads.computeIfAbsent(extensionGroupName, k -> {
-            ExtensionThread newThread = new ExtensionThread("ExtensionThread[%s]".formatted(k), this);
-            newThread.start(); // 启动线程，以便其 Runloop 可用
-            return newThread;
-        });
+        ExtensionThread extensionThread = extensionThreads.computeIfAbsent(extensionGroupName,
+            this::createExtensionThread);
 
         // 获取或创建 ExtensionGroup。
         extensionGroups.computeIfAbsent(extensionGroupName, k -> {
@@ -170,7 +174,7 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
                 extensionName // extensionName
             ),
             property != null ? property : emptyMap(), // property
-            emptyList(), // msgConversionContexts (暂时为空，或从 property 解析)
+            collectMsgConversions(extensionName), // msgConversionContexts，来自以该 Extension 为目的地的 msg_conversion
             messageDestInfo // 传入填充好的 AllMessageDestInfo 实例
         );
 
@@ -192,6 +196,7 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
             targetGroup.addManagedExtension(extensionName, extension, extensionEnv, extInfo);
             EngineExtensionContext.log.info("Extension {} successfully added to ExtensionGroup {}.", extensionName,
                 extensionGroupName);
+            rebuildRoutingTable();
         } else {
             EngineExtensionContext.log.error("ExtensionGroup {} not found for Extension {}. Cannot manage extension.",
                 extensionGroupName,
@@ -226,11 +231,8 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
 
         // 获取或创建 ExtensionThread。每个 ExtensionGroup 将对应一个 ExtensionThread。
         // 这里假设 ExtensionGroup 的名称直接对应 ExtensionThread 的名称。
-        ExtensionThread extensionThread = extensionThreads.computeIfAbsent(extensionGroupName, k -> {
-            ExtensionThread newThread = new ExtensionThread("ExtensionThread[%s]".formatted(k), this);
-            newThread.start(); // 启动线程，以便其 Runloop 可用
-            return newThread;
-        });
+        ExtensionThread extensionThread = extensionThreads.computeIfAbsent(extensionGroupName,
+            this::createExtensionThread);
 
         // 创建 ExtensionGroupInfo 实例
         ExtensionGroupInfo groupInfo = new ExtensionGroupInfo(
@@ -262,6 +264,7 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
         extensionGroupEnv.onInit();
 
         extensionGroups.put(extensionGroupName, newGroup); // 添加到管理列表
+        rebuildRoutingTable();
 
         EngineExtensionContext.log.info("ExtensionGroup {} (Addon: {}) loaded for Engine {} on ExtensionThread {}.",
             extensionGroupName, extensionGroupAddonName, engine.getGraphId(), extensionThread.getThreadName());
@@ -269,6 +272,31 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
         return newGroup;
     }
 
+    /**
+     * 为 ExtensionGroup 创建并启动 ExtensionThread，Runloop 配置取自图定义的 "runloop" 字段。
+     *
+     * @param extensionGroupName ExtensionGroup 名称。
+     * @return 已启动的 ExtensionThread。
+     */
+    private ExtensionThread createExtensionThread(String extensionGroupName) {
+        GraphRunloopConfig runloopConfig = engine.getGraphDefinition().getRunloop();
+        ExtensionThread newThread = new ExtensionThread("ExtensionThread[%s]".formatted(extensionGroupName), this,
+            runloopConfig != null ? runloopConfig.resolveExtensionGroup(extensionGroupName) : null);
+        newThread.start(); // 启动线程，以便其 Runloop 可用
+        return newThread;
+    }
+
+    /**
+     * 根据当前的 ExtensionGroup 与 ExtensionThread 重建路由索引并原子替换。
+     * 加载/卸载可能发生在不同线程上，重建过程串行执行。
+     */
+    private synchronized void rebuildRoutingTable() {
+        ExtensionRoutingTable table = ExtensionRoutingTable.build(extensionGroups, extensionThreads,
+            app.getAppUri(), engine.getGraphId());
+        routingTable = table;
+        EngineExtensionContext.log.debug("ExtensionContext: 路由索引已重建，共 {} 个 Extension。", table.size());
+    }
+
     /**
      * 卸载并销毁一个 Extension 实例。
      *
@@ -276,10 +304,8 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
      */
     public void unloadExtension(String extensionName) {
         // 找到包含该 Extension 的 ExtensionGroup
-        ExtensionGroup targetGroup = extensionGroups.values().stream()
-            .filter(group -> group.getExtensions().containsKey(extensionName))
-            .findFirst()
-            .orElse(null);
+        ExtensionRoutingTable.ExtensionRoute route = routingTable.route(extensionName);
+        ExtensionGroup targetGroup = route != null ? route.group() : null;
 
         if (targetGroup == null) {
             EngineExtensionContext.log.warn("ExtensionGroup for Extension {} not found. Cannot unload Extension.",
@@ -303,9 +329,13 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
                 targetGroup.getName());
 
             // 如果 ExtensionGroup 不再管理任何 Extension，则关闭其关联的 ExtensionThread
-            if (targetGroup.getExtensions().isEmpty()) {
+            boolean groupEmpty = targetGroup.getExtensions().isEmpty();
+            if (groupEmpty) {
                 extensionGroups.remove(targetGroup.getName());
                 extensionThreads.remove(targetGroup.getName());
+            }
+            rebuildRoutingTable();
+            if (groupEmpty) {
                 extensionThread.close();
                 EngineExtensionContext.log.info("ExtensionGroup {} is empty. Associated ExtensionThread {} closed.",
                     targetGroup.getName(), extensionThread.getThreadName());
@@ -356,6 +386,50 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
         }
     }
 
+    /**
+     * 收集图配置中以指定 Extension 为目的地的 msg_conversion。
+     * 未指定 src_msg_name / src_msg_type 的转换配置按所在路由规则的名称与消息类型补全，
+     * 并记录所在连接的源 Extension，只转换该来源发出的消息（复制一份，不修改图定义）。
+     */
+    private List<MessageConversionContext> collectMsgConversions(String extensionName) {
+        List<MessageConversionContext> contexts = new ArrayList<>();
+        for (ConnectionDefinition conn : engine.getGraphDefinition().getConnections()) {
+            String source = conn.getExtension();
+            collectMsgConversions(conn.getCmd(), MessageType.CMD, source, extensionName, contexts);
+            collectMsgConversions(conn.getData(), MessageType.DATA, source, extensionName, contexts);
+            collectMsgConversions(conn.getVideoFrame(), MessageType.VIDEO_FRAME, source, extensionName, contexts);
+            collectMsgConversions(conn.getAudioFrame(), MessageType.AUDIO_FRAME, source, extensionName, contexts);
+        }
+        return contexts;
+    }
+
+    private static void collectMsgConversions(List<RoutingRuleDefinition> rules, MessageType type,
+        String srcExtensionName, String extensionName, List<MessageConversionContext> contexts) {
+        if (isEmpty(rules)) {
+            return;
+        }
+        for (RoutingRuleDefinition rule : rules) {
+            if (isEmpty(rule.getDestinations())) {
+                continue;
+            }
+            for (DestinationInfo destInfo : rule.getDestinations()) {
+                MessageConversionContext conversion = destInfo.getMsgConversion();
+                if (conversion == null || !extensionName.equals(destInfo.getExtensionName())) {
+                    continue;
+                }
+                contexts.add(new MessageConversionContext()
+                    .setSrcExtensionName(conversion.getSrcExtensionName() != null
+                        ? conversion.getSrcExtensionName() : srcExtensionName)
+                    .setSrcMsgName(conversion.getSrcMsgName() != null ? conversion.getSrcMsgName() : rule.getName())
+                    .setSrcMsgType(conversion.getSrcMsgType() != null ? conversion.getSrcMsgType() : type)
+                    .setDstMsgName(conversion.getDstMsgName())
+                    .setConversionType(conversion.getConversionType())
+                    .setRules(conversion.getRules())
+                    .setCondition(conversion.getCondition()));
+            }
+        }
+    }
+
     /**
      * 将消息提交给 Extension 进行处理。
      * 这是 Engine 消息分发到 Extension 的入口点，消息将在 Extension 专属线程上处理。
@@ -368,11 +442,13 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
             EngineExtensionContext.log.warn(
                 "ExtensionContext: 目标 Extension ID 为空或 null，无法分发消息 {}.getId()。跳过分发。",
                 message.getId());
+            ReferenceCountUtil.release(message);
             return;
         }
 
         // 查找目标 Extension 所在的 ExtensionThread
-        ExtensionThread extensionThread = findExtensionThreadForExtension(extensionName);
+        ExtensionRoutingTable.ExtensionRoute route = routingTable.route(extensionName);
+        ExtensionThread extensionThread = route != null ? route.thread() : null;
         if (extensionThread == null) {
             EngineExtensionContext.log.error(
                 "ExtensionContext: 未找到 ExtensionThread 来处理 Extension {} 的消息 {} (Type: {}).",
@@ -384,68 +460,32 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
                     command.getSrcLoc().getExtensionName() != null ? command.getSrcLoc().getExtensionName()
                         : "Engine"); // 使用 command.getSrcLoc().getExtensionName() 作为 sourceExtensionName
             }
+            ReferenceCountUtil.release(message);
             return;
         }
 
         // --- 消息转换逻辑开始 ---
-        Message processedMessage = message;
-        // 从 ExtensionGroup 中获取 ExtensionInfo 进行消息转换
-        ExtensionGroup targetGroup = extensionThread.getExtensionGroup();
-        if (targetGroup == null) {
-            EngineExtensionContext.log.warn(
-                "ExtensionContext: ExtensionThread {} 没有关联 ExtensionGroup，无法执行消息转换。忽略消息 {}.",
-                extensionThread.getThreadName(), message.getId());
-            return;
-        }
-        ExtensionInfo targetExtInfo = targetGroup.getExtensionInfo(extensionName);
-        if (targetExtInfo != null && targetExtInfo.getMsgConversionContexts() != null) {
-            for (MessageConversionContext context : targetExtInfo.getMsgConversionContexts()) {
-                Message converted = MessageConverter.convertMessage(processedMessage, context);
-                if (converted != processedMessage) { // 如果消息被转换了
-                    processedMessage = converted;
-                    EngineExtensionContext.log.debug("ExtensionContext: 消息 {} 被转换。", processedMessage.getId());
-                }
-            }
+        // 使用路由索引中预编译的转换计划，没有匹配规则时直接返回原消息
+        Message processedMessage = route.conversionPlan().apply(message);
+        if (processedMessage != message) {
+            EngineExtensionContext.log.debug("ExtensionContext: 消息 {} 被转换。", processedMessage.getId());
         }
         // --- 消息转换逻辑结束 ---
 
         // 将处理后的消息委托给 ExtensionThread 进行分发
-        Message finalProcessedMessage = processedMessage;
-        extensionThread.dispatchMessage(finalProcessedMessage, extensionName);
-    }
-
-    // 辅助方法：根据 ExtensionId 查找其所属的 ExtensionThread
-    // Note: 目前假设一个 ExtensionThread 管理一个 Extension，后续可根据 ExtensionGroup 逻辑调整
-    private ExtensionThread findExtensionThreadForExtension(String extensionName) {
-        return extensionGroups.values().stream()
-            .filter(extensionGroup -> extensionGroup.getExtensions().containsKey(extensionName))
-            .map(ExtensionGroup::getName)
-            .map(extensionThreads::get)
-            .findAny().orElse(null);
+        extensionThread.dispatchMessage(processedMessage, extensionName);
     }
 
-    // 获取 Extension 实例 (通过 ExtensionGroup)
+    // 获取 Extension 实例 (通过路由索引)
     public Extension getExtension(String extensionId) {
-        // 遍历所有 ExtensionGroup 查找包含该 Extension 的组
-        for (ExtensionGroup group : extensionGroups.values()) {
-            Extension extension = group.getExtension(extensionId);
-            if (extension != null) {
-                return extension;
-            }
-        }
-        return null;
+        ExtensionEnvImpl env = getExtensionEnv(extensionId);
+        return env != null ? env.getExtension() : null;
     }
 
-    // 辅助方法，用于在需要时从 ExtensionGroup 获取 ExtensionEnvImpl
+    // 辅助方法，用于在需要时从路由索引获取 ExtensionEnvImpl
     public ExtensionEnvImpl getExtensionEnv(String extensionId) {
-        // 遍历所有 ExtensionGroup 查找包含该 Extension 的组
-        for (ExtensionGroup group : extensionGroups.values()) {
-            ExtensionEnvImpl env = group.getManagedExtensionEnv(extensionId);
-            if (env != null) {
-                return env;
-            }
-        }
-        return null;
+        ExtensionRoutingTable.ExtensionRoute route = routingTable.route(extensionId);
+        return route != null ? route.env() : null;
     }
 
     /**
@@ -456,37 +496,38 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
      * @return 对应的 ExtensionInfo 实例，如果未找到则返回 null。
      */
     public ExtensionInfo getExtensionInfo(String extensionName) {
-        // 首先找到 Extension 所在的 ExtensionGroup
-        ExtensionGroup targetGroup = extensionGroups.values().stream()
-            .filter(group -> group.getExtensionInfos().containsKey(extensionName))
-            .findFirst()
-            .orElse(null);
-
-        if (targetGroup != null) {
-            return targetGroup.getExtensionInfo(extensionName);
-        }
-        return null;
+        ExtensionRoutingTable.ExtensionRoute route = routingTable.route(extensionName);
+        return route != null ? route.extInfo() : null;
     }
 
     // 实现 ExtensionCommandSubmitter 接口方法
     @Override
     public CommandExecutionHandle<CommandResult> submitCommandFromExtension(Command command, String sourceExtensionName) {
+        prepareExtensionCommand(command, sourceExtensionName);
+        return engineCommandSubmitter.submitCommandWithResultHandle(command);
+    }
+
+    @Override
+    public CommandExecutionHandle<CommandResult> submitFutureCommandFromExtension(Command command,
+        String sourceExtensionName) {
+        prepareExtensionCommand(command, sourceExtensionName);
+        return engineCommandSubmitter.submitCommandWithFutureHandle(command);
+    }
+
+    /**
+     * 补全 Extension 提交的命令的源位置，未指定目的地时按图配置确定。
+     */
+    private void prepareExtensionCommand(Command command, String sourceExtensionName) {
         // 命令从 Extension 提交，委托给 Engine 的 commandSubmitter
         log.info("[{}] ExtensionContext: 提交命令 {} {} {} 到 Engine。",
             sourceExtensionName,
             command.getId(), command.getName(), command.getProperties());
         // 修改 srcLoc 以反映真实的真实来源 Extension
-        if (command.getSrcLoc() == null) {
-            command.setSrcLoc(new Location(app.getAppUri(), engine.getGraphId(), sourceExtensionName));
-        } else {
-            command.getSrcLoc().setGraphId(engine.getGraphId()).setExtensionName(sourceExtensionName);
-        }
-        command.getSrcLoc().setExtensionName(sourceExtensionName);
+        command.setSrcLoc(sourceLocation(command.getSrcLoc(), sourceExtensionName));
         // 确定消息目的地
         if (command.getDestLocs() == null) {
             command.setDestLocs(determineMessageDestinationsFromGraph(command));
         }
-        return engineCommandSubmitter.submitCommandWithResultHandle(command);
     }
 
     // 实现 ExtensionMessageSubmitter 接口方法
@@ -496,18 +537,13 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
         EngineExtensionContext.log.debug("ExtensionContext: Extension {} 提交消息 {} 到 Engine。", sourceExtensionName,
             message.getId());
         // 修改 srcLoc 以反映真实的真实来源 Extension
-        if (message.getSrcLoc() == null) {
-            message.setSrcLoc(new Location(app.getAppUri(), engine.getGraphId(), sourceExtensionName));
-        } else {
-            message.getSrcLoc().setGraphId(engine.getGraphId()).setExtensionName(sourceExtensionName);
-        }
-        Location srcLoc = message.getSrcLoc();
-        if (CollectionUtils.isNotEmpty(message.getDestLocs())) {
-            List<Location> selfDestLocs = message.getDestLocs().stream().filter(srcLoc::equals).toList();
-            if (CollectionUtils.isNotEmpty(selfDestLocs)) {
-                message.getDestLocs().removeIf(loc -> loc.equals(srcLoc));
-                log.warn("ExtensionContext: 忽略消息 {} 的目的地 {}，因为消息的源和目的地相同。", message.getId(), srcLoc);
-            }
+        Location srcLoc = sourceLocation(message.getSrcLoc(), sourceExtensionName);
+        message.setSrcLoc(srcLoc);
+        if (CollectionUtils.isNotEmpty(message.getDestLocs()) && message.getDestLocs().contains(srcLoc)) {
+            // 目的地列表可能是路由索引中共享的只读列表，过滤后替换而不是原地修改
+            message.setDestLocs(message.getDestLocs().stream().filter(loc -> !loc.equals(srcLoc))
+                .collect(Collectors.toCollection(ArrayList::new)));
+            log.warn("ExtensionContext: 忽略消息 {} 的目的地 {}，因为消息的源和目的地相同。", message.getId(), srcLoc);
         }
         // 确定消息目的地
         if (isEmpty(message.getDestLocs())) {
@@ -516,13 +552,28 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
         engineMessageSubmitter.submitInboundMessage(message, null); // 传入 null 作为 connection 参数
     }
 
+    /**
+     * 来自 Extension 的消息的源位置：保留原有的 appUri，graphId 与 extensionName 改为本 Engine 与提交方 Extension。
+     * 原 Location 已符合时直接复用。
+     */
+    private Location sourceLocation(Location srcLoc, String sourceExtensionName) {
+        if (srcLoc == null) {
+            return new Location(app.getAppUri(), engine.getGraphId(), sourceExtensionName);
+        }
+        if (Objects.equals(srcLoc.getGraphId(), engine.getGraphId())
+            && Objects.equals(srcLoc.getExtensionName(), sourceExtensionName)) {
+            return srcLoc;
+        }
+        return new Location(srcLoc.getAppUri(), engine.getGraphId(), sourceExtensionName);
+    }
+
     /**
      * 根据图的配置（Graph Definition）为消息确定目的地。
      * 模拟 C 语言的 `_extension_determine_out_msg_dest_from_graph` 逻辑。
      * 此方法在消息没有明确目的地时被调用。
      *
      * @param message 待处理的消息。
-     * @return 包含根据图配置确定的目的地 Location 列表。如果未找到规则，则返回空列表。
+     * @return 根据图配置确定的只读目的地列表，与路由索引共享。如果未找到规则，则返回空列表。
      */
     private List<Location> determineMessageDestinationsFromGraph(Message message) {
         // 1. 获取消息的源 Extension 名称
@@ -534,70 +585,21 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
             return emptyList();
         }
 
-        // 2. 获取源 Extension 的 ExtensionInfo (其中包含 AllMessageDestInfo)
-        ExtensionInfo sourceExtInfo = getExtensionInfo(sourceExtensionName);
-        if (sourceExtInfo == null || sourceExtInfo.getMsgDestInfo() == null) {
+        // 2. 从路由索引中取出源 Extension 预构建的目的地
+        ExtensionRoutingTable.ExtensionRoute route = routingTable.route(sourceExtensionName);
+        if (route == null || route.extInfo() == null || route.extInfo().getMsgDestInfo() == null) {
             log.warn(
                 "DefaultExtensionMessageDispatcher: 未找到源 Extension {} 的消息目的地信息 (AllMessageDestInfo) 或 ExtensionInfo。",
                 sourceExtensionName);
             return emptyList();
         }
 
-        // 3. 根据消息类型获取对应的路由规则列表
-        List<RoutingRuleDefinition> rules;
-        switch (message.getType()) {
-            case CMD:
-                rules = sourceExtInfo.getMsgDestInfo().getCommandRules();
-                break;
-            case DATA:
-                rules = sourceExtInfo.getMsgDestInfo().getDataRules();
-                break;
-            case VIDEO_FRAME:
-                rules = sourceExtInfo.getMsgDestInfo().getVideoFrameRules();
-                break;
-            case AUDIO_FRAME:
-                rules = sourceExtInfo.getMsgDestInfo().getAudioFrameRules();
-                break;
-            default:
-                log.debug("DefaultExtensionMessageDispatcher: 消息类型 {} 不需要通过图配置进行路由。",
-                    message.getType());
-                return emptyList();
-        }
-
-        if (isEmpty(rules)) {
-            log.debug("DefaultExtensionMessageDispatcher: 源 Extension {} 没有为消息类型 {} 配置路由规则。",
-                sourceExtensionName, message.getType());
-            return emptyList();
-        }
-
-        List<Location> determinedLocations = new java.util.ArrayList<>();
-        String appUri = getEngine().getApp().getAppUri();
-        String graphId = getEngine().getGraphId();
-
-        // 4. 遍历规则，查找匹配的 Destination
-        for (RoutingRuleDefinition rule : rules) {
-            // 消息名称匹配：如果规则定义了名称，则消息的名称必须与规则名称匹配。
-            // 否则，如果规则名称为 null，则视为匹配成功（不进行名称过滤）。
-            boolean nameMatches = StringUtils.isEmpty(rule.getName())
-                || StringUtils.isNotEmpty(message.getName()) && rule.getName().equals(message.getName());
-
-            if (nameMatches && isNotEmpty(rule.getDestinations())) { // 修正：getDest() -> getDestinations()
-                for (DestinationInfo destInfo : rule.getDestinations()) { // 修正：getDest() -> getDestinations()
-                    // 将 DestinationInfo 转换为 Location
-                    // 假设目的地在同一个 App 和 Graph 内，只关心 ExtensionName
-                    // 复杂的跨 App/Graph 路由在 Engine/App 层面处理
-                    String targetExtensionName = destInfo.getExtensionName(); // 修正：getExtension() -> getExtensionName()
-                    if (StringUtils.isNotEmpty(targetExtensionName)) {
-                        determinedLocations.add(new Location(appUri, graphId, targetExtensionName));
-                    } else {
-                        log.warn("DefaultExtensionMessageDispatcher: 路由规则中目的地 Extension 名称为空，规则: {}",
-                            rule);
-                    }
-                }
-            }
+        // 3. 按 (消息类型, 消息名称) 查找，规则匹配已在索引构建时完成
+        List<Location> determinedLocations = route.destinationsOf(message.getType(), message.getName());
+        if (log.isDebugEnabled()) {
+            log.debug("DefaultExtensionMessageDispatcher: 根据图配置为消息 {} (Name: {}, Type: {}) 确定了 {} 个目的地。",
+                message.getId(), message.getName(), message.getType(), determinedLocations.size());
         }
-        log.debug("DefaultExtensionMessageDispatcher: 根据图配置为消息 {} (Name: {}, Type: {}) 确定了 {} 个目的地。",
-            message.getId(), message.getName(), message.getType(), determinedLocations.size());
         return determinedLocations;
     }
 
@@ -636,6 +638,7 @@ public class EngineExtensionContext implements ExtensionCommandSubmitter, Extens
      * 此方法通常在 Engine 启动时调用，以确保所有 ExtensionGroup 都已准备好其扩展。
      */
     public void startExtensionGroups() { // 重命名方法
+        rebuildRoutingTable();
         EngineExtensionContext.log.info("ExtensionContext: Triggering onCreateExtensions for all loaded ExtensionGroups.");
         extensionGroups.values().forEach(extensionGroup -> {
             EngineExtensionContext.log.info("ExtensionContext: Triggering onCreateExtensions for ExtensionGroup: {}",
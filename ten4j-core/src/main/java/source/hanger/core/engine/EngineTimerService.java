@@ -0,0 +1,266 @@
+package source.hanger.core.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+import source.hanger.core.message.Location;
+import source.hanger.core.message.Message;
+import source.hanger.core.message.command.TimeoutCommand;
+import source.hanger.core.message.command.TimerCommand;
+import source.hanger.core.runloop.Runloop;
+
+/**
+ * Engine 级别的定时器服务，处理 Extension 发来的 {@link TimerCommand}，到期时向请求方 Extension 投递
+ * {@link TimeoutCommand}（携带相同的 timerId），由 Extension 在自己的线程上通过 onCmd 收到。
+ *
+ * 基于 Agrona DeadlineTimerWheel（1ms 刻度、每圈 1024 格），登记、取消与到期均为 O(1)，
+ * 上万个并发定时器也只占用 Engine 自身的 Runloop，不为每个定时器创建线程或调度任务。
+ *
+ * TimerCommand 语义：
+ * - timer_id：由请求方指定，在同一 Extension 内唯一；重复登记同一 timerId 会替换之前的定时器
+ * - timeout_us：触发间隔（微秒），按毫秒向上取整
+ * - times：触发次数，-1 表示无限重复，0 表示取消该 timerId 的定时器
+ *
+ * 非线程安全：所有方法都应在 Engine 的 Runloop 上调用（TimerCommandHandler 与 Engine.doWork）。
+ */
+@Slf4j
+public class EngineTimerService {
+
+    public static final int INFINITE_TIMES = -1;
+
+    private static final long TICK_RESOLUTION_MS = 1;
+    private static final int TICKS_PER_WHEEL = 1024;
+
+    private final Location engineLocation;
+    private final Runloop runloop;
+    private final Consumer<TimeoutCommand> timeoutSink;
+    private final DeadlineTimerWheel timerWheel;
+    private final Long2ObjectHashMap<EngineTimer> timersByWheelId = new Long2ObjectHashMap<>();
+    private final Map<TimerKey, EngineTimer> timersByKey = new HashMap<>();
+    private final List<EngineTimer> expiredBuffer = new ArrayList<>();
+    private final DeadlineTimerWheel.TimerHandler expiryHandler = this::onTimerExpiry;
+    // 已登记的最早唤醒时间，仅在 Runloop 需要定时唤醒时维护
+    private long armedWakeupMs = Long.MAX_VALUE;
+
+    /**
+     * @param engineLocation TimeoutCommand 的源位置（Engine 自身）
+     * @param runloop        Engine 的 Runloop，用于在 SHARED / blocking 模式下登记定时唤醒
+     * @param timeoutSink    到期后派发 TimeoutCommand 的出口，通常为 Engine 的消息派发器
+     */
+    public EngineTimerService(Location engineLocation, Runloop runloop, Consumer<TimeoutCommand> timeoutSink) {
+        this(engineLocation, runloop, timeoutSink, System.currentTimeMillis());
+    }
+
+    /**
+     * @param startMs 定时器轮的起始时间（epoch 毫秒），测试中用于注入时钟
+     */
+    EngineTimerService(Location engineLocation, Runloop runloop, Consumer<TimeoutCommand> timeoutSink, long startMs) {
+        this.engineLocation = Objects.requireNonNull(engineLocation, "engineLocation");
+        this.runloop = Objects.requireNonNull(runloop, "runloop");
+        this.timeoutSink = Objects.requireNonNull(timeoutSink, "timeoutSink");
+        this.timerWheel = new DeadlineTimerWheel(TimeUnit.MILLISECONDS, startMs, TICK_RESOLUTION_MS, TICKS_PER_WHEEL);
+    }
+
+    /**
+     * 按 TimerCommand 登记、替换或取消定时器。
+     *
+     * @param command 定时器命令，srcLoc 为请求方 Extension
+     * @throws IllegalArgumentException 缺少 timerId / 请求方，或 timeout_us 不合法
+     */
+    public void schedule(TimerCommand command) {
+        schedule(command, System.currentTimeMillis());
+    }
+
+    /**
+     * @param nowMs 当前时间（epoch 毫秒），首次到期时间为 nowMs + 触发间隔
+     */
+    void schedule(TimerCommand command, long nowMs) {
+        Location owner = command.getSrcLoc();
+        if (command.getTimerId() == null || owner == null || owner.getExtensionName() == null) {
+            throw new IllegalArgumentException("TimerCommand requires timer_id and a source extension.");
+        }
+        TimerKey key = new TimerKey(owner.getExtensionName(), command.getTimerId());
+        int times = command.getTimes() != null ? command.getTimes() : 1;
+        if (times == 0) {
+            cancel(key.extensionName(), key.timerId());
+            return;
+        }
+        if (times < INFINITE_TIMES) {
+            throw new IllegalArgumentException("Invalid times: %d".formatted(times));
+        }
+        long timeoutUs = command.getTimeoutUs() != null ? command.getTimeoutUs() : 0;
+        if (timeoutUs <= 0) {
+            throw new IllegalArgumentException("Invalid timeout_us: %d".formatted(timeoutUs));
+        }
+
+        EngineTimer previous = timersByKey.remove(key);
+        if (previous != null) {
+            cancelWheelTimer(previous);
+        }
+        long intervalMs = Math.max(1, TimeUnit.MICROSECONDS.toMillis(timeoutUs + 999));
+        EngineTimer timer = new EngineTimer(key, owner, intervalMs, times);
+        timersByKey.put(key, timer);
+        arm(timer, nowMs + intervalMs);
+        log.debug("EngineTimerService: 登记定时器 extension={}, timerId={}, intervalMs={}, times={}",
+            key.extensionName(), key.timerId(), intervalMs, times);
+    }
+
+    /**
+     * 取消指定 Extension 的定时器。
+     *
+     * @return 定时器存在并被取消时返回 true
+     */
+    public boolean cancel(String extensionName, long timerId) {
+        EngineTimer timer = timersByKey.remove(new TimerKey(extensionName, timerId));
+        if (timer == null) {
+            return false;
+        }
+        cancelWheelTimer(timer);
+        log.debug("EngineTimerService: 取消定时器 extension={}, timerId={}", extensionName, timerId);
+        return true;
+    }
+
+    /**
+     * 推进定时器轮并投递到期的 TimeoutCommand，由 Engine 在 doWork 中调用。
+     *
+     * @param nowMs 当前时间（epoch 毫秒）
+     * @return 本次到期的定时器数
+     */
+    public int poll(long nowMs) {
+        if (timerWheel.timerCount() == 0) {
+            timerWheel.currentTickTime(nowMs);
+            armedWakeupMs = Long.MAX_VALUE;
+            return 0;
+        }
+        do {
+            timerWheel.poll(nowMs, expiryHandler, Integer.MAX_VALUE);
+        } while (nowMs >= timerWheel.currentTickTime());
+
+        int expired = expiredBuffer.size();
+        for (int i = 0; i < expired; i++) {
+            fire(expiredBuffer.get(i), nowMs);
+        }
+        expiredBuffer.clear();
+
+        if (runloop.requiresTimedWakeup()) {
+            refreshWakeup(nowMs);
+        }
+        return expired;
+    }
+
+    /**
+     * 取消全部定时器，Engine 停止时调用。
+     */
+    public void clear() {
+        timerWheel.clear();
+        timersByWheelId.clear();
+        timersByKey.clear();
+        expiredBuffer.clear();
+        armedWakeupMs = Long.MAX_VALUE;
+    }
+
+    public int getActiveTimerCount() {
+        return timersByKey.size();
+    }
+
+    private boolean onTimerExpiry(TimeUnit timeUnit, long now, long wheelTimerId) {
+        EngineTimer timer = timersByWheelId.remove(wheelTimerId);
+        if (timer != null) {
+            timer.wheelTimerId = DeadlineTimerWheel.NULL_DEADLINE;
+            expiredBuffer.add(timer);
+        }
+        return true;
+    }
+
+    private void fire(EngineTimer timer, long nowMs) {
+        if (timersByKey.get(timer.key) != timer) {
+            return; // 到期后、投递前已被取消或替换
+        }
+        if (timer.remainingTimes > 0) {
+            timer.remainingTimes--;
+        }
+        if (timer.remainingTimes == 0) {
+            timersByKey.remove(timer.key);
+        } else {
+            // 以上一次的到期时间为基准重新登记，避免周期漂移；落后超过一个周期时从当前时间重新计算
+            long nextDeadlineMs = timer.deadlineMs + timer.intervalMs;
+            arm(timer, nextDeadlineMs > nowMs ? nextDeadlineMs : nowMs + timer.intervalMs);
+        }
+
+        TimeoutCommand timeoutCommand = Message.defaultMessage(TimeoutCommand.builder())
+            .name("timeout")
+            .timerId(timer.key.timerId())
+            .srcLoc(engineLocation)
+            .destLocs(List.of(timer.owner))
+            .build();
+        try {
+            timeoutSink.accept(timeoutCommand);
+        } catch (Exception e) {
+            log.error("EngineTimerService: 投递定时器 {} 到 Extension {} 失败: {}", timer.key.timerId(),
+                timer.key.extensionName(), e.getMessage(), e);
+        }
+    }
+
+    private void arm(EngineTimer timer, long deadlineMs) {
+        timer.deadlineMs = deadlineMs;
+        timer.wheelTimerId = timerWheel.scheduleTimer(deadlineMs);
+        timersByWheelId.put(timer.wheelTimerId, timer);
+        if (runloop.requiresTimedWakeup() && deadlineMs < armedWakeupMs) {
+            armedWakeupMs = deadlineMs;
+            runloop.wakeupAt(deadlineMs);
+        }
+    }
+
+    private void cancelWheelTimer(EngineTimer timer) {
+        if (timer.wheelTimerId != DeadlineTimerWheel.NULL_DEADLINE) {
+            timerWheel.cancelTimer(timer.wheelTimerId);
+            timersByWheelId.remove(timer.wheelTimerId);
+            timer.wheelTimerId = DeadlineTimerWheel.NULL_DEADLINE;
+        }
+    }
+
+    /**
+     * 维护 Runloop 的定时唤醒，仅 SHARED / blocking 模式需要，其他模式下 doWork 会被周期性调用。
+     * 已登记的唤醒到达后按剩余定时器中最早的到期时间重新登记（O(n)，只在唤醒到达时发生）；
+     * Runloop 只保留最早的一次待触发唤醒，因此每次轮询都重新提交一次，保证被它覆盖的请求不会丢失。
+     */
+    private void refreshWakeup(long nowMs) {
+        if (nowMs >= armedWakeupMs) {
+            long earliest = Long.MAX_VALUE;
+            for (EngineTimer timer : timersByWheelId.values()) {
+                earliest = Math.min(earliest, timer.deadlineMs);
+            }
+            armedWakeupMs = earliest;
+        }
+        if (armedWakeupMs != Long.MAX_VALUE) {
+            runloop.wakeupAt(armedWakeupMs);
+        }
+    }
+
+    private record TimerKey(String extensionName, long timerId) {
+    }
+
+    private static final class EngineTimer {
+        private final TimerKey key;
+        private final Location owner;
+        private final long intervalMs;
+        private int remainingTimes;
+        private long deadlineMs;
+        private long wheelTimerId = DeadlineTimerWheel.NULL_DEADLINE;
+
+        private EngineTimer(TimerKey key, Location owner, long intervalMs, int remainingTimes) {
+            this.key = key;
+            this.owner = owner;
+            this.intervalMs = intervalMs;
+            this.remainingTimes = remainingTimes;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package source.hanger.core.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import source.hanger.core.extension.ExtensionEnvImpl;
+import source.hanger.core.extension.ExtensionGroup;
+import source.hanger.core.extension.ExtensionInfo;
+import source.hanger.core.extension.ExtensionThread;
+import source.hanger.core.graph.AllMessageDestInfo;
+import source.hanger.core.graph.DestinationInfo;
+import source.hanger.core.graph.RoutingRuleDefinition;
+import source.hanger.core.message.Location;
+import source.hanger.core.message.MessageType;
+import source.hanger.core.util.MessageConversionPlan;
+
+import static java.util.Collections.emptyList;
+import static org.apache.commons.collections4.CollectionUtils.isEmpty;
+
+/**
+ * Engine 内 Extension 路由的不可变索引。
+ * 在图启动及 Extension 加载/卸载时整体重建并原子替换，消息分发路径上只做一次 HashMap 查找：
+ * - extensionName -> 所在 ExtensionThread / ExtensionGroup / ExtensionInfo / ExtensionEnvImpl
+ * - (源 extensionName, 消息类型, 消息名称) -> 预构建的目的地列表
+ * - 目标 extensionName -> 预编译的消息转换计划
+ *
+ * Location 不可变，{@link ExtensionRoute#destinationsOf} 直接返回索引中的只读列表，所有消息共享同一份目的地，
+ * 消息路由路径上不产生分配；需要调整目的地的调用方应替换消息上的列表而不是原地修改。
+ */
+@Slf4j
+final class ExtensionRoutingTable {
+
+    static final ExtensionRoutingTable EMPTY = new ExtensionRoutingTable(Collections.emptyMap());
+
+    private static final MessageType[] ROUTABLE_TYPES = {
+        MessageType.CMD, MessageType.DATA, MessageType.VIDEO_FRAME, MessageType.AUDIO_FRAME
+    };
+
+    private final Map<String, ExtensionRoute> routes;
+
+    private ExtensionRoutingTable(Map<String, ExtensionRoute> routes) {
+        this.routes = routes;
+    }
+
+    /**
+     * 根据当前的 ExtensionGroup 与 ExtensionThread 构建路由索引。
+     *
+     * @param extensionGroups  ExtensionGroup 名称 -> ExtensionGroup。
+     * @param extensionThreads ExtensionGroup 名称 -> ExtensionThread。
+     * @param appUri           目的地 Location 使用的 appUri。
+     * @param graphId          目的地 Location 使用的 graphId。
+     * @return 新的路由索引。
+     */
+    static ExtensionRoutingTable build(Map<String, ExtensionGroup> extensionGroups,
+        Map<String, ExtensionThread> extensionThreads, String appUri, String graphId) {
+        Map<String, ExtensionRoute> routes = new HashMap<>();
+        // 同一 graph 中目的地 Location 只有 extensionName 不同，按名称复用
+        Map<String, Location> locationCache = new HashMap<>();
+        for (ExtensionGroup group : extensionGroups.values()) {
+            ExtensionThread thread = extensionThreads.get(group.getName());
+            for (Map.Entry<String, ExtensionEnvImpl> entry : group.getExtensions().entrySet()) {
+                String extensionName = entry.getKey();
+                ExtensionInfo extInfo = group.getExtensionInfo(extensionName);
+                MessageDestinations[] destinations = new MessageDestinations[MessageType.values().length];
+                for (MessageType type : ROUTABLE_TYPES) {
+                    destinations[type.ordinal()] = MessageDestinations.compile(
+                        rulesOf(extInfo != null ? extInfo.getMsgDestInfo() : null, type),
+                        appUri, graphId, locationCache);
+                }
+                MessageConversionPlan conversionPlan = MessageConversionPlan.compile(
+                    extInfo != null ? extInfo.getMsgConversionContexts() : null);
+                routes.put(extensionName,
+                    new ExtensionRoute(thread, group, extInfo, entry.getValue(), destinations, conversionPlan));
+            }
+        }
+        return new ExtensionRoutingTable(routes);
+    }
+
+    private static List<RoutingRuleDefinition> rulesOf(AllMessageDestInfo destInfo, MessageType type) {
+        if (destInfo == null) {
+            return null;
+        }
+        return switch (type) {
+            case CMD -> destInfo.getCommandRules();
+            case DATA -> destInfo.getDataRules();
+            case VIDEO_FRAME -> destInfo.getVideoFrameRules();
+            case AUDIO_FRAME -> destInfo.getAudioFrameRules();
+            default -> null;
+        };
+    }
+
+    /**
+     * @param extensionName Extension 名称。
+     * @return 对应的路由项，未加载时返回 null。
+     */
+    ExtensionRoute route(String extensionName) {
+        return extensionName != null ? routes.get(extensionName) : null;
+    }
+
+    int size() {
+        return routes.size();
+    }
+
+    /**
+     * 单个 Extension 的路由项。
+     *
+     * @param thread         Extension 所在的 ExtensionThread。
+     * @param group          Extension 所在的 ExtensionGroup。
+     * @param extInfo        Extension 的 ExtensionInfo。
+     * @param env            Extension 的 ExtensionEnvImpl。
+     * @param destinations   按 MessageType.ordinal() 索引的出站目的地，不可路由的类型为 null。
+     * @param conversionPlan 发往该 Extension 的消息的预编译转换计划，没有转换规则时为 {@link MessageConversionPlan#EMPTY}。
+     */
+    record ExtensionRoute(ExtensionThread thread, ExtensionGroup group, ExtensionInfo extInfo,
+                          ExtensionEnvImpl env, MessageDestinations[] destinations,
+                          MessageConversionPlan conversionPlan) {
+
+        /**
+         * 查找以该 Extension 为源的消息在图配置中的目的地。
+         *
+         * @param type 消息类型。
+         * @param name 消息名称，可以为 null。
+         * @return 索引中预构建的只读目的地列表；未配置时返回空列表。
+         */
+        List<Location> destinationsOf(MessageType type, String name) {
+            MessageDestinations byName = type != null ? destinations[type.ordinal()] : null;
+            return byName != null ? byName.resolve(name) : emptyList();
+        }
+    }
+
+    /**
+     * 某一消息类型下按消息名称预先展开的目的地。
+     * 与逐条匹配规则的结果一致：名称为空的规则匹配所有消息，命名规则仅匹配同名消息，目的地保持规则的声明顺序。
+     */
+    static final class MessageDestinations {
+
+        private final List<Location> unnamed;
+        private final Map<String, List<Location>> named;
+
+        private MessageDestinations(List<Location> unnamed, Map<String, List<Location>> named) {
+            this.unnamed = unnamed;
+            this.named = named;
+        }
+
+        static MessageDestinations compile(List<RoutingRuleDefinition> rules, String appUri, String graphId,
+            Map<String, Location> locationCache) {
+            if (isEmpty(rules)) {
+                return null;
+            }
+            // 先收集所有出现过的规则名称，再按声明顺序为每个名称展开匹配到的目的地
+            Map<String, List<Location>> named = new LinkedHashMap<>();
+            for (RoutingRuleDefinition rule : rules) {
+                if (StringUtils.isNotEmpty(rule.getName())) {
+                    named.putIfAbsent(rule.getName(), new ArrayList<>());
+                }
+            }
+            List<Location> unnamed = new ArrayList<>();
+            for (RoutingRuleDefinition rule : rules) {
+                if (isEmpty(rule.getDestinations())) {
+                    continue;
+                }
+                for (DestinationInfo destInfo : rule.getDestinations()) {
+                    String targetExtensionName = destInfo.getExtensionName();
+                    if (StringUtils.isEmpty(targetExtensionName)) {
+                        log.warn("ExtensionRoutingTable: 路由规则中目的地 Extension 名称为空，规则: {}", rule);
+                        continue;
+                    }
+                    Location location = locationCache.computeIfAbsent(targetExtensionName,
+                        k -> new Location(appUri, graphId, k));
+                    if (StringUtils.isEmpty(rule.getName())) {
+                        unnamed.add(location);
+                        named.values().forEach(list -> list.add(location));
+                    } else {
+                        named.get(rule.getName()).add(location);
+                    }
+                }
+            }
+            Map<String, List<Location>> frozen = new HashMap<>(named.size() * 2);
+            named.forEach((name, locations) -> frozen.put(name, List.copyOf(locations)));
+            return new MessageDestinations(List.copyOf(unnamed), frozen);
+        }
+
+        List<Location> resolve(String name) {
+            if (StringUtils.isEmpty(name)) {
+                return unnamed;
+            }
+            List<Location> locations = named.get(name);
+            return locations != null ? locations : unnamed;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package source.hanger.core.extension;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import lombok.Getter;
+
+/**
+ * 单个 Extension 的消息处理统计，由 ExtensionThread 在每条消息的 onXXX 回调结束后记录，可在任意线程读取。
+ *
+ * 耗时记录在按 2 的幂划分的微秒直方图中：第 i 个桶统计耗时落在 [2^(i-1), 2^i) 微秒的消息数（第 0 个桶为不足 1 微秒），
+ * 最后一个桶收纳所有更长的耗时。同一 Extension 的消息只在其所属 Runloop 上串行处理，因此计数只有一个写者，
+ * 使用 lazySet 更新，不需要 CAS。
+ */
+@Getter
+public class ExtensionDispatchMetrics {
+
+    public static final int LATENCY_BUCKETS = 26; // 最后一个桶从 2^24 微秒（约 16.8 秒）开始
+
+    /**
+     * 已处理的消息数。
+     */
+    private final AtomicLong dispatched = new AtomicLong();
+    /**
+     * onXXX 回调抛出异常的消息数。
+     */
+    private final AtomicLong failed = new AtomicLong();
+    /**
+     * 耗时超过慢处理阈值的消息数。
+     */
+    private final AtomicLong slowDispatches = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS);
+
+    /**
+     * 记录一次处理耗时。只能由处理该 Extension 消息的 Runloop 调用。
+     *
+     * @param durationNanos 处理耗时（纳秒）
+     * @param slow          是否超过慢处理阈值
+     */
+    void record(long durationNanos, boolean slow) {
+        dispatched.lazySet(dispatched.get() + 1);
+        totalLatencyNanos.lazySet(totalLatencyNanos.get() + durationNanos);
+        if (durationNanos > maxLatencyNanos.get()) {
+            maxLatencyNanos.lazySet(durationNanos);
+        }
+        int bucket = bucketOf(durationNanos);
+        latencyBuckets.lazySet(bucket, latencyBuckets.get(bucket) + 1);
+        if (slow) {
+            slowDispatches.lazySet(slowDispatches.get() + 1);
+        }
+    }
+
+    void recordFailure() {
+        failed.lazySet(failed.get() + 1);
+    }
+
+    /**
+     * 按直方图估算耗时分位数，返回所在桶的上界。
+     *
+     * @param quantile 分位数，取值 (0, 1]，例如 0.99
+     * @return 耗时上界（微秒），尚无记录时返回 0
+     */
+    public long latencyPercentileMicros(double quantile) {
+        long total = 0;
+        long[] counts = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            counts[i] = latencyBuckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long)Math.ceil(total * quantile));
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i == LATENCY_BUCKETS - 1
+                    ? TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get()) : 1L << i;
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get());
+    }
+
+    public long averageLatencyMicros() {
+        long count = dispatched.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatencyNanos.get() / count);
+    }
+
+    private static int bucketOf(long durationNanos) {
+        long micros = durationNanos / 1000;
+        return Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+
+    @Override
+    public String toString() {
+        return "dispatched=%d, failed=%d, slow=%d, avg=%dus, p50<=%dus, p99<=%dus, max=%dus".formatted(
+            dispatched.get(), failed.get(), slowDispatches.get(), averageLatencyMicros(),
+            latencyPercentileMicros(0.5), latencyPercentileMicros(0.99),
+            TimeUnit.NANOSECONDS.toMicros(maxLatencyNanos.get()));
+    }
+}
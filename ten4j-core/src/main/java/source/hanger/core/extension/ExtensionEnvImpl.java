@@ -13,10 +13,12 @@ import source.hanger.core.message.CommandExecutionHandle;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.DataMessage;
 import source.hanger.core.message.DefaultCommandExecutionHandle;
+import source.hanger.core.message.FutureCommandExecutionHandle;
 import source.hanger.core.message.VideoFrameMessage;
 import source.hanger.core.message.command.Command;
 import source.hanger.core.runloop.Runloop;
 import source.hanger.core.tenenv.TenEnv;
+import source.hanger.core.util.PropertyBinder;
 
 /**
  * `ExtensionEnvImpl` 是 `Extension` 组件的 `TenEnv` 接口实现。
@@ -38,6 +40,8 @@ public class ExtensionEnvImpl implements TenEnv {
     private final EngineExtensionContext extensionContext;
     // 【更改】提供获取运行时信息实例的方法，现在返回 BaseExtensionRuntimeInfo
     private final BaseExtensionRuntimeInfo runtimeInfo; // 更改类型为 BaseExtensionRuntimeInfo，并更名为 runtimeInfo
+    // 发往该 Extension 的消息处理统计，由 ExtensionThread 在分发时记录
+    private final ExtensionDispatchMetrics dispatchMetrics = new ExtensionDispatchMetrics();
 
     public ExtensionEnvImpl(Extension extension,
         ExtensionCommandSubmitter commandSubmitter, ExtensionMessageSubmitter messageSubmitter,
@@ -84,6 +88,19 @@ public class ExtensionEnvImpl implements TenEnv {
         }
     }
 
+    @Override
+    public CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command) {
+        if (commandSubmitter != null) {
+            // 轻量句柄只在命令结束时向 Extension 的 Runloop 投递一次
+            return commandSubmitter.submitFutureCommandFromExtension(command, extensionName)
+                .onRunloop(extensionRunloop);
+        }
+        CommandExecutionHandle<CommandResult> handle = new FutureCommandExecutionHandle<>();
+        handle.closeExceptionally(new IllegalStateException(
+            "ExtensionCommandSubmitter is null, cannot send command for Extension: %s".formatted(extensionName)));
+        return handle;
+    }
+
     @Override
     public void sendCmd(Command command) {
         if (commandSubmitter != null) {
@@ -152,7 +169,32 @@ public class ExtensionEnvImpl implements TenEnv {
         if (runtimeInfo == null || runtimeInfo.getProperty() == null) {
             return Optional.empty();
         }
-        return Optional.ofNullable(runtimeInfo.getProperty().get(path));
+        Map<String, Object> property = runtimeInfo.getProperty();
+        Object value = property.get(path);
+        if (value == null && path != null && path.indexOf('.') > 0) {
+            value = resolveNestedProperty(property, path);
+        }
+        return Optional.ofNullable(value);
+    }
+
+    /**
+     * 按 "a.b.c" 形式的路径逐级读取嵌套 Map 中的属性。完整的 key 优先，因此含 '.' 的属性名仍可直接读取。
+     */
+    private static Object resolveNestedProperty(Map<String, Object> property, String path) {
+        Object current = property;
+        int start = 0;
+        while (start <= path.length()) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return null;
+            }
+            int end = path.indexOf('.', start);
+            if (end < 0) {
+                end = path.length();
+            }
+            current = map.get(path.substring(start, end));
+            start = end + 1;
+        }
+        return current;
     }
 
     @Override
@@ -241,6 +283,11 @@ public class ExtensionEnvImpl implements TenEnv {
         throw new UnsupportedOperationException("initPropertyFromJson is deprecated. Use onConfigure instead.");
     }
 
+    @Override
+    public <T> T bindProperties(Class<T> configType) {
+        return PropertyBinder.bind(runtimeInfo != null ? runtimeInfo.getProperty() : null, configType);
+    }
+
     // 新增：Extension 生命周期方法
     public void onConfigure(Map<String, Object> properties) {
         extensionRunloop.postTask(() -> {
@@ -1,5 +1,8 @@
 package source.hanger.core.extension;
 
+import java.util.concurrent.TimeUnit;
+
+import io.netty.util.ReferenceCountUtil;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +15,7 @@ import source.hanger.core.message.Message;
 import source.hanger.core.message.VideoFrameMessage;
 import source.hanger.core.message.command.Command;
 import source.hanger.core.runloop.Runloop;
+import source.hanger.core.runloop.RunloopConfig;
 import org.apache.commons.lang3.time.StopWatch; // 引入 StopWatch
 
 /**
@@ -22,6 +26,10 @@ import org.apache.commons.lang3.time.StopWatch; // 引入 StopWatch
 @Slf4j
 public class ExtensionThread implements Agent {
 
+    private static final long SLOW_DISPATCH_NANOS = TimeUnit.MILLISECONDS.toNanos(
+        Math.max(1, Long.getLong("ten4j.extension.slow-dispatch-ms", 200)));
+    private static final long SLOW_DISPATCH_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
     @Getter
     private final String threadName;
     @Getter
@@ -30,11 +38,17 @@ public class ExtensionThread implements Agent {
     @Setter
     @Getter // 新增：为 extensionGroup 添加 Getter 注解
     private ExtensionGroup extensionGroup; // 新增：ExtensionGroup 实例
+    private long lastSlowDispatchReportNanos = System.nanoTime() - SLOW_DISPATCH_REPORT_INTERVAL_NANOS; // 只在 Runloop 上访问
 
     public ExtensionThread(String threadName, EngineExtensionContext engineExtensionContext) {
+        this(threadName, engineExtensionContext, null);
+    }
+
+    public ExtensionThread(String threadName, EngineExtensionContext engineExtensionContext,
+        RunloopConfig runloopConfig) {
         this.threadName = threadName;
         this.engineExtensionContext = engineExtensionContext;
-        runloop = Runloop.createRunloop("%s".formatted(threadName));
+        runloop = Runloop.createRunloop("%s".formatted(threadName), runloopConfig);
         log.info("ExtensionThread {} created.", threadName);
     }
 
@@ -171,16 +185,100 @@ public class ExtensionThread implements Agent {
     /**
      * 将消息分发给此 ExtensionThread 上的目标 Extension。
      * 确保此方法可以从任何线程调用，并通过 Runloop 异步调度实际分发。
+     * 每条消息只分配一个 {@link MessageDispatchTask}，耗时由 Runloop 统一计时后记录到目标 Extension 的
+     * {@link ExtensionDispatchMetrics}，慢处理按间隔汇总输出，不再逐条打印。
      */
     public void dispatchMessage(Message message, String targetExtensionName) {
-        runloop.postTask(() -> {
-            StopWatch stopWatch = StopWatch.createStarted(); // 启动 StopWatch
-            String messageId = message.getId();
-            String messageType = message.getType().name();
+        if (!runloop.postTask(new MessageDispatchTask(message, targetExtensionName))) {
+            ReferenceCountUtil.release(message);
+        }
+    }
+
+    /**
+     * 将命令分发给此 ExtensionThread 上的目标 Extension。
+     * 确保此方法可以从任何线程调用，并通过 Runloop 异步调度实际分发。
+     */
+    public void dispatchCommand(Command command, String targetExtensionId) {
+        dispatchMessage(command, targetExtensionId); // 命令也是一种消息，直接委托给 dispatchMessage 处理
+    }
+
+    private void deliver(ExtensionEnvImpl extensionEnv, Extension extension, Message message,
+        String targetExtensionName) {
+        switch (message.getType()) {
+            case CMD:
+            case CMD_TIMEOUT: // Engine 定时器到期，由登记定时器的 Extension 在 onCmd 中按 timerId 处理
+                extension.onCmd(extensionEnv, (Command)message);
+                break;
+            case CMD_RESULT:
+                extension.onCmdResult(extensionEnv, (CommandResult)message);
+                break;
+            case DATA:
+                extension.onDataMessage(extensionEnv, (DataMessage)message);
+                break;
+            case AUDIO_FRAME:
+                extension.onAudioFrame(extensionEnv, (AudioFrameMessage)message);
+                break;
+            case VIDEO_FRAME:
+                extension.onVideoFrame(extensionEnv, (VideoFrameMessage)message);
+                break;
+            case CMD_CLOSE_APP:
+            case CMD_START_GRAPH:
+            case CMD_STOP_GRAPH:
+            case CMD_TIMER:
+                log.warn(
+                    "ExtensionThread {}: 收到不应由 Extension {} 直接处理的命令 {} (Type: {}), 已忽略。该命令应在 Engine/App "
+                        + "级别处理。",
+                    threadName, targetExtensionName, message.getId(), message.getType());
+                if (message instanceof Command command) {
+                    engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
+                            "App/Engine-level command not handled by Extension: %s"
+                                .formatted(command.getType())),
+                        targetExtensionName);
+                }
+                break;
+            default:
+                log.warn("ExtensionThread {}: 收到 Extension {} 未知消息类型 {} (ID: {}), 已忽略。",
+                    threadName, targetExtensionName, message.getType(), message.getId());
+                if (message instanceof Command command) {
+                    engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
+                            "Unknown message type not handled by Extension: %s".formatted(command.getType())),
+                        targetExtensionName);
+                }
+                break;
+        }
+    }
+
+    private void reportSlowDispatch(ExtensionEnvImpl extensionEnv, Message message, long durationNanos) {
+        long now = System.nanoTime();
+        if (now - lastSlowDispatchReportNanos < SLOW_DISPATCH_REPORT_INTERVAL_NANOS) {
+            return;
+        }
+        lastSlowDispatchReportNanos = now;
+        log.warn("ExtensionThread {}: Extension {} 处理消息耗时过长: {} ms (最近一条: {} Type: {})。统计: {}",
+            threadName, extensionEnv.getExtensionName(), TimeUnit.NANOSECONDS.toMillis(durationNanos),
+            message.getId(), message.getType(), extensionEnv.getDispatchMetrics());
+    }
+
+    /**
+     * 单条消息的分发任务，直接作为 Runloop 队列元素。目标 Extension 在执行时才查找，以便感知期间的卸载。
+     */
+    private final class MessageDispatchTask implements Runloop.MeasuredTask {
+
+        private final Message message;
+        private final String targetExtensionName;
+        private ExtensionEnvImpl extensionEnv; // 找到目标 Extension 后记录，供 onMeasured 使用
+
+        private MessageDispatchTask(Message message, String targetExtensionName) {
+            this.message = message;
+            this.targetExtensionName = targetExtensionName;
+        }
+
+        @Override
+        public void run() {
             try {
                 if (extensionGroup == null) {
                     log.error("ExtensionThread {}: ExtensionGroup 未设置，无法分发消息 {} (Type: {}) 到 Extension {}.",
-                        threadName, messageId, messageType, targetExtensionName);
+                        threadName, message.getId(), message.getType(), targetExtensionName);
                     if (message instanceof Command command) {
                         engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
                                 "ExtensionGroup is null for ExtensionThread: %s".formatted(threadName)),
@@ -189,69 +287,30 @@ public class ExtensionThread implements Agent {
                     return;
                 }
 
-                ExtensionEnvImpl extensionEnv = extensionGroup.getManagedExtensionEnv(targetExtensionName);
-                Extension extension = (extensionEnv != null) ? extensionEnv.getExtension() : null;
+                ExtensionEnvImpl env = extensionGroup.getManagedExtensionEnv(targetExtensionName);
+                Extension extension = (env != null) ? env.getExtension() : null;
 
                 if (extension == null) {
                     log.error(
                         "ExtensionThread {}: 无法找到 Extension {} 或其环境，无法分发消息 {} (Type: {}). 请检查 extensionName 和 "
                             + "extensionGroup 配置.",
-                        threadName, targetExtensionName, messageId, messageType);
+                        threadName, targetExtensionName, message.getId(), message.getType());
                     if (message instanceof Command command) {
                         engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
                                 "Extension or ExtensionEnv not found in group: %s for message %s"
-                                    .formatted(targetExtensionName, messageId)),
+                                    .formatted(targetExtensionName, message.getId())),
                             targetExtensionName);
                     }
                     return;
                 }
 
+                extensionEnv = env;
                 try {
-                    switch (message.getType()) {
-                        case CMD:
-                            extension.onCmd(extensionEnv, (Command)message);
-                            break;
-                        case CMD_RESULT:
-                            extension.onCmdResult(extensionEnv, (CommandResult)message);
-                            break;
-                        case DATA:
-                            extension.onDataMessage(extensionEnv, (DataMessage)message);
-                            break;
-                        case AUDIO_FRAME:
-                            extension.onAudioFrame(extensionEnv, (AudioFrameMessage)message);
-                            break;
-                        case VIDEO_FRAME:
-                            extension.onVideoFrame(extensionEnv, (VideoFrameMessage)message);
-                            break;
-                        case CMD_CLOSE_APP:
-                        case CMD_START_GRAPH:
-                        case CMD_STOP_GRAPH:
-                        case CMD_TIMER:
-                        case CMD_TIMEOUT:
-                            log.warn(
-                                "ExtensionThread {}: 收到不应由 Extension {} 直接处理的命令 {} (Type: {}), 已忽略。该命令应在 Engine/App "
-                                    + "级别处理。",
-                                threadName, targetExtensionName, messageId, messageType);
-                            if (message instanceof Command command) {
-                                engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
-                                        "App/Engine-level command not handled by Extension: %s"
-                                            .formatted(command.getType())),
-                                    targetExtensionName);
-                            }
-                            break;
-                        default:
-                            log.warn("ExtensionThread {}: 收到 Extension {} 未知消息类型 {} (ID: {}), 已忽略。",
-                                threadName, targetExtensionName, messageType, messageId);
-                            if (message instanceof Command command) {
-                                engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
-                                        "Unknown message type not handled by Extension: %s".formatted(command.getType())),
-                                    targetExtensionName);
-                            }
-                            break;
-                    }
+                    deliver(env, extension, message, targetExtensionName);
                 } catch (Exception e) {
+                    env.getDispatchMetrics().recordFailure();
                     log.error("ExtensionThread {}: Extension {} 处理消息 {} (Type: {}) 时发生异常: {}",
-                        threadName, targetExtensionName, messageId, messageType, e.getMessage(), e);
+                        threadName, targetExtensionName, message.getId(), message.getType(), e.getMessage(), e);
                     if (message instanceof Command command) {
                         engineExtensionContext.submitCommandResultFromExtension(CommandResult.fail(command,
                                 "Error processing message by Extension: %s".formatted(e.getMessage())),
@@ -259,22 +318,26 @@ public class ExtensionThread implements Agent {
                     }
                 }
             } finally {
-                stopWatch.stop(); // 停止计时
-                long duration = stopWatch.getTime(); // 获取耗时
-                if (duration > 200) {
-                    log.error("ExtensionThread {}: 消息 {} (Type: {}) 分发到 Extension onXXX {} 耗时过长: {} ms. {}",
-                        threadName, messageId, messageType, targetExtensionName, duration,
-                        Thread.currentThread().getStackTrace());
-                }
+                // 释放分发时转移过来的引用（音频帧的池化缓冲区），Extension 需要继续持有时应自行 retain
+                ReferenceCountUtil.release(message);
             }
-        });
-    }
+        }
 
-    /**
-     * 将命令分发给此 ExtensionThread 上的目标 Extension。
-     * 确保此方法可以从任何线程调用，并通过 Runloop 异步调度实际分发。
-     */
-    public void dispatchCommand(Command command, String targetExtensionId) {
-        dispatchMessage(command, targetExtensionId); // 命令也是一种消息，直接委托给 dispatchMessage 处理
+        @Override
+        public void onMeasured(long durationNanos) {
+            if (extensionEnv == null) {
+                return;
+            }
+            boolean slow = durationNanos > SLOW_DISPATCH_NANOS;
+            extensionEnv.getDispatchMetrics().record(durationNanos, slow);
+            if (slow) {
+                reportSlowDispatch(extensionEnv, message, durationNanos);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "MessageDispatchTask[%s -> %s]".formatted(message.getId(), targetExtensionName);
+        }
     }
 }
\ No newline at end of file
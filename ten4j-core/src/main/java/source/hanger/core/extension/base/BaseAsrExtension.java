@@ -10,6 +10,7 @@ import source.hanger.core.extension.component.common.OutputBlock;
 import source.hanger.core.extension.component.stream.DefaultStreamPipelineChannel;
 import source.hanger.core.extension.component.stream.StreamOutputBlockConsumer;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
+import source.hanger.core.extension.component.stream.StreamPipelineConfig;
 import source.hanger.core.message.AudioFrameMessage;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.CommandResult.CommandResultBuilder;
@@ -35,7 +36,7 @@ public abstract class BaseAsrExtension extends BaseExtension {
     @Override
     protected void onExtensionConfigure(TenEnv env, Map<String, Object> properties) {
         // 初始化 StreamPipelineChannel (使用统一的状态提供者)
-        this.streamPipelineChannel = createStreamPipelineChannel(createOutputBlockConsumer());
+        this.streamPipelineChannel = createStreamPipelineChannel(createOutputBlockConsumer(), StreamPipelineConfig.from(env));
         log.info("[{}] 配置中，初始化 StreamPipelineChannel。", env.getExtensionName());
         // 初始化 ASRStreamAdapter (由子类提供具体实现)
         this.asrStreamAdapter = createASRStreamAdapter();
@@ -96,7 +97,8 @@ public abstract class BaseAsrExtension extends BaseExtension {
                 env.getExtensionName(), audioFrame.getId());
             return;
         }
-        asrStreamAdapter.onRequestAudioInput(env, ByteBufUtils.toByteBuffer(audioFrame.getBuf()));
+        // ASR SDK 异步消费音频，而帧缓冲区在回调返回后即被释放回池，这里复制一次交给 SDK
+        asrStreamAdapter.onRequestAudioInput(env, ByteBufUtils.copyToByteBuffer(audioFrame.getBuf()));
     }
 
     protected void sendAsrError(TenEnv env, String messageId, MessageType messageType, String messageName,
@@ -112,8 +114,8 @@ public abstract class BaseAsrExtension extends BaseExtension {
      * 抽象方法：创建 StreamPipelineChannel 实例。
      */
     protected StreamPipelineChannel<OutputBlock> createStreamPipelineChannel(
-        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer) {
-        return new DefaultStreamPipelineChannel(extensionStateProvider, streamOutputBlockConsumer);
+        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer, StreamPipelineConfig config) {
+        return new DefaultStreamPipelineChannel(extensionStateProvider, streamOutputBlockConsumer, config);
     }
 
     /**
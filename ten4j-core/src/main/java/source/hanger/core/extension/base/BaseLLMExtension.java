@@ -19,6 +19,7 @@ import source.hanger.core.extension.component.llm.ToolCallOutputBlock;
 import source.hanger.core.extension.component.stream.DefaultStreamPipelineChannel;
 import source.hanger.core.extension.component.stream.StreamOutputBlockConsumer;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
+import source.hanger.core.extension.component.stream.StreamPipelineConfig;
 import source.hanger.core.extension.component.tool.LLMToolOrchestrator;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.DataMessage;
@@ -65,7 +66,7 @@ public abstract class BaseLLMExtension<MESSAGE, TOOL_FUNCTION> extends BaseExten
         log.info("[{}] 配置中，初始化 LLMContextManager。", env.getExtensionName());
 
         // 3. 初始化 StreamPipelineManager，需要 StreamItemHandler (由子类提供具体实现)
-        this.streamPipelineChannel = createStreamPipelineChannel(createStreamLLMOutputBlockConsumer());
+        this.streamPipelineChannel = createStreamPipelineChannel(createStreamLLMOutputBlockConsumer(), StreamPipelineConfig.from(env));
         log.info("[{}] 配置中，初始化 StreamPipelineManager。", env.getExtensionName());
 
         // 4. 初始化 LLMStreamAdapter (由子类提供具体实现)
@@ -115,8 +116,8 @@ public abstract class BaseLLMExtension<MESSAGE, TOOL_FUNCTION> extends BaseExten
             return;
         }
 
-        String userText = dataMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse("");
-        if (!dataMessage.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL).orElse(false)) {
+        String userText = dataMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, "");
+        if (!dataMessage.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL, false)) {
             log.info("[{}] LLM扩展收到非最终数据: text={}", env.getExtensionName(), userText);
             return;
         }
@@ -153,7 +154,7 @@ public abstract class BaseLLMExtension<MESSAGE, TOOL_FUNCTION> extends BaseExten
         if (CMD_TOOL_REGISTER.equals(command.getName())) {
             try {
                 // 工具元数据
-                String toolJson = command.getPropertyString(CMD_PROPERTY_TOOL).orElse(null);
+                String toolJson = command.getPropertyString(CMD_PROPERTY_TOOL, null);
                 LLMToolMetadata LLMToolMetadata = objectMapper.readValue(toolJson, LLMToolMetadata.class);
                 llmToolOrchestrator.registerTool(LLMToolMetadata);
             } catch (JsonProcessingException e) {
@@ -226,8 +227,8 @@ public abstract class BaseLLMExtension<MESSAGE, TOOL_FUNCTION> extends BaseExten
      * @param streamOutputBlockConsumer 流项目处理器。
      */
     protected StreamPipelineChannel<OutputBlock> createStreamPipelineChannel(
-        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer) {
-        return new DefaultStreamPipelineChannel(extensionStateProvider, streamOutputBlockConsumer);
+        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer, StreamPipelineConfig config) {
+        return new DefaultStreamPipelineChannel(extensionStateProvider, streamOutputBlockConsumer, config);
     }
 
     /**
@@ -54,7 +54,7 @@ public abstract class BaseRealtimeExtension<REALTIME_EVENT> extends BaseFlushExt
             log.warn("[{}] 当前扩展已中断，丢弃数据消息", env.getExtensionName());
             return;
         }
-        String text = data.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse("");
+        String text = data.getPropertyString(DATA_OUT_PROPERTY_TEXT, "");
         if (!text.isEmpty()) {
             onSendTextToRealtime(env, text, data);
         } else {
@@ -103,9 +103,11 @@ public abstract class BaseRealtimeExtension<REALTIME_EVENT> extends BaseFlushExt
     /**
      * 抽象方法：发送音频数据到 Realtime API。
      * 子类必须实现此方法以将音频数据发送到底层的 Realtime API 客户端。
+     * audioData 是入站帧的池化切片（通常是直接缓冲区，没有 backing array），只在本次回调内有效；
+     * 需要异步使用时应先 retain 或复制一份。
      *
      * @param env             当前的 TenEnv 环境
-     * @param audioData       音频数据字节数组
+     * @param audioData       音频数据缓冲区
      * @param originalMessage 原始消息（用于关联）
      */
     protected abstract void onSendAudioToRealtime(TenEnv env, ByteBuf audioData, Message originalMessage);
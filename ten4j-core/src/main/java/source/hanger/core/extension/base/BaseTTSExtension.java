@@ -13,7 +13,9 @@ import source.hanger.core.extension.component.output.MessageOutputSender;
 import source.hanger.core.extension.component.state.ExtensionStateProvider;
 import source.hanger.core.extension.component.stream.DefaultStreamPipelineChannel;
 import source.hanger.core.extension.component.stream.StreamOutputBlockConsumer;
+import source.hanger.core.extension.component.stream.StreamOverflowStrategy;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
+import source.hanger.core.extension.component.stream.StreamPipelineConfig;
 import source.hanger.core.extension.component.tts.TTSAudioOutputBlock;
 import source.hanger.core.extension.component.tts.TTSStreamAdapter;
 import source.hanger.core.message.CommandResult;
@@ -38,6 +40,11 @@ import static source.hanger.core.util.SentenceProcessor.*;
 @Slf4j
 public abstract class BaseTTSExtension extends BaseExtension {
 
+    /**
+     * 默认提前合成的句子数（含当前句），可通过属性 tts_prefetch_sentences 配置，1 表示逐句合成。
+     */
+    public static final int DEFAULT_TTS_PREFETCH_SENTENCES = 2;
+
     private final CompositeDisposable disposables = new CompositeDisposable();
     protected FlushOperationCoordinator flushOperationCoordinator;
     protected StreamPipelineChannel<OutputBlock> streamPipelineChannel;
@@ -45,7 +52,11 @@ public abstract class BaseTTSExtension extends BaseExtension {
 
     @Override
     protected void onExtensionConfigure(TenEnv env, Map<String, Object> properties) {
-        this.streamPipelineChannel = createStreamPipelineChannel(createOutputBlockConsumer());
+        this.streamPipelineChannel = createStreamPipelineChannel(createOutputBlockConsumer(),
+            StreamPipelineConfig.from(env)
+                .withDefaultOverflowStrategy(StreamOverflowStrategy.DROP_OLDEST) // 音频块可丢弃，优先保证实时性
+                .setMaxConcurrentPayloads(
+                env.getPropertyInt("tts_prefetch_sentences").orElse(DEFAULT_TTS_PREFETCH_SENTENCES)));
         log.info("[{}] 配置中，初始化 StreamPipelineChannel。", env.getExtensionName());
         this.ttsStreamAdapter = createTTSStreamAdapter(streamPipelineChannel);
         log.info("[{}] 配置中，初始化 TTSStreamAdapter。", env.getExtensionName());
@@ -123,7 +134,7 @@ public abstract class BaseTTSExtension extends BaseExtension {
             log.warn("[{}] TTS Extension未运行，忽略语音转录", env.getExtensionName());
             return;
         }
-        String inputText = dataMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse("");
+        String inputText = dataMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, "");
         // 使用 EmojiManager 过滤掉 inputText 中的 emoji
         String filteredInputText = EmojiManager.removeAllEmojis(inputText)
                 // 移除换行符和空格
@@ -157,9 +168,13 @@ public abstract class BaseTTSExtension extends BaseExtension {
         log.error("[{}] TTS Error [{}]: {}", env.getExtensionName(), messageName, errorMessage);
     }
 
+    /**
+     * @param config 管道配置，其中 maxConcurrentPayloads 为同时进行合成的句子数上限。后续句子的音频先缓冲，
+     *               按句子顺序输出，flush 时全部取消并归还各自借用的合成器。
+     */
     protected StreamPipelineChannel<OutputBlock> createStreamPipelineChannel(
-        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer) {
-        return new DefaultStreamPipelineChannel(extensionStateProvider, streamOutputBlockConsumer);
+        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer, StreamPipelineConfig config) {
+        return new DefaultStreamPipelineChannel(extensionStateProvider, streamOutputBlockConsumer, config);
     }
 
     protected abstract TTSStreamAdapter createTTSStreamAdapter(
@@ -172,7 +187,7 @@ public abstract class BaseTTSExtension extends BaseExtension {
                 log.info(
                     "[{}] TTSStream输出 (Audio): text={} originalId={} sampleRate={}, channels={}, "
                         + "sampleBytes={}",
-                    env.getExtensionName(), originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""),
+                    env.getExtensionName(), originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""),
                     originalMessage.getId(),
                     ttsAudioBlock.getSampleRate(), ttsAudioBlock.getChannels(), ttsAudioBlock.getSampleBytes());
 
@@ -0,0 +1,67 @@
+package source.hanger.core.extension.component.asr;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.core.tenenv.TenEnv;
+
+/**
+ * {@link ASRSessionManager} 的会话切换配置，可通过 ASR Extension 的属性配置：
+ *
+ * <pre>
+ * "property": {
+ *   "asr_replay_buffer_ms": 3000,
+ *   "asr_sample_rate": 16000,
+ *   "asr_standby_enabled": true
+ * }
+ * </pre>
+ */
+@Slf4j
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class ASRSessionConfig {
+
+    /**
+     * 重放缓冲保留的最近音频时长（毫秒）。会话断开期间到达的音频超过该时长后，最早的部分将被丢弃。
+     */
+    @JsonProperty("asr_replay_buffer_ms")
+    private int replayBufferMs = 3000;
+
+    /**
+     * 输入音频采样率，按 16 bit 单声道 PCM 换算重放缓冲的字节容量。
+     */
+    @JsonProperty("asr_sample_rate")
+    private int sampleRate = 16000;
+
+    /**
+     * 为 true 时在会话开始后预先创建下一个会话（识别器与请求参数），会话断开时直接切换，省去创建识别器的耗时。
+     */
+    @JsonProperty("asr_standby_enabled")
+    private boolean standbyEnabled = true;
+
+    /**
+     * @return 重放缓冲的字节容量
+     */
+    public long replayBufferBytes() {
+        return (long)Math.max(0, replayBufferMs) * Math.max(1, sampleRate) * 2 / 1000;
+    }
+
+    public static ASRSessionConfig defaults() {
+        return new ASRSessionConfig();
+    }
+
+    /**
+     * 从 Extension 属性绑定配置，属性无效时记录日志并使用默认值。
+     */
+    public static ASRSessionConfig from(TenEnv env) {
+        try {
+            return env.bindProperties(ASRSessionConfig.class);
+        } catch (RuntimeException e) {
+            log.warn("[{}] ASR 会话配置无效，使用默认配置: {}", env.getExtensionName(), e.getMessage());
+            return defaults();
+        }
+    }
+}
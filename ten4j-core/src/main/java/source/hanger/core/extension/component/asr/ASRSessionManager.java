@@ -0,0 +1,248 @@
+package source.hanger.core.extension.component.asr;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.reactivex.Flowable;
+import io.reactivex.processors.UnicastProcessor;
+import io.reactivex.schedulers.Schedulers;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.core.extension.component.asr.PcmReplayBuffer.BufferedFrame;
+
+/**
+ * ASR 识别会话管理器：把连续的音频输入分配给依次建立的识别会话，会话断开（超时、出错后重试）时音频不丢失。
+ *
+ * - 每个会话有自己的音频输入流，会话建立后到识别服务开始接收音频之前到达的帧先在会话内缓冲
+ * - 所有输入帧同时写入 {@link PcmReplayBuffer}；新会话开始时，先重放上一个会话尚未交给识别服务的帧，再接收实时音频，
+ *   断开期间超出重放缓冲的部分计入丢弃统计
+ * - 开启备用会话时，每个会话开始后都会在 IO 线程上预先创建下一个会话（识别器与请求参数），断开后直接订阅备用会话
+ *
+ * 识别服务在订阅时才建立连接，并会关闭长时间没有音频的任务，因此备用会话不会提前连接，避免空闲连接自身超时。
+ *
+ * {@link #offerAudio(ByteBuffer)} 由 Extension Runloop 调用，会话的建立与结束发生在 IO 线程，内部状态由锁保护。
+ *
+ * @param <R> 识别服务的原始结果类型
+ */
+@Slf4j
+public class ASRSessionManager<R> {
+
+    private static final AtomicLong SESSION_ID = new AtomicLong();
+
+    private final String name;
+    private final ASRSessionConfig config;
+    private final Function<Flowable<ByteBuffer>, Flowable<R>> sessionFactory;
+    @Getter
+    private final ASRSessionMetrics metrics = new ASRSessionMetrics();
+    private final Object lock = new Object();
+    private final PcmReplayBuffer replayBuffer;
+
+    // 以下字段由 lock 保护
+    private Session active;
+    private Session standby;
+    private boolean closed = true;
+    private long pendingSequence = 1; // 尚未交给任何会话的第一帧的序号
+    private long pendingOffset; // 以及它的起始字节偏移
+    private long detachedAtNanos; // 上一个会话断开的时间，0 表示无需统计重连耗时
+
+    /**
+     * @param name           所属 Extension 名称，用于日志
+     * @param config         会话配置
+     * @param sessionFactory 根据会话的音频输入流创建识别服务的原始结果流，需在订阅时才建立连接
+     */
+    public ASRSessionManager(String name, ASRSessionConfig config,
+        Function<Flowable<ByteBuffer>, Flowable<R>> sessionFactory) {
+        this.name = name;
+        this.config = config != null ? config : ASRSessionConfig.defaults();
+        this.sessionFactory = sessionFactory;
+        this.replayBuffer = new PcmReplayBuffer(this.config.replayBufferBytes());
+    }
+
+    /**
+     * 开始接收音频。此后到达的音频在没有会话时进入重放缓冲。
+     */
+    public void open() {
+        synchronized (lock) {
+            closed = false;
+            detachedAtNanos = 0;
+        }
+    }
+
+    /**
+     * 停止接收音频：结束当前会话的音频输入，丢弃备用会话和重放缓冲中的音频。
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            if (active != null) {
+                active.audio.onComplete();
+                active = null;
+            }
+            standby = null;
+            skipBuffered();
+        }
+    }
+
+    /**
+     * 返回跨会话的识别结果流：每次订阅（包括出错后的重新订阅）都会开始一个新会话，优先使用备用会话。
+     */
+    public Flowable<R> sessions() {
+        return Flowable.defer(() -> {
+            Session session = takeStandby();
+            if (session == null) {
+                session = new Session(false);
+            }
+            if (!activate(session)) {
+                return Flowable.<R>empty();
+            }
+            Session current = session;
+            return current.results.doFinally(() -> deactivate(current));
+        });
+    }
+
+    /**
+     * 提交一帧音频。
+     *
+     * @return 管理器已关闭、音频被忽略时返回 false
+     */
+    public boolean offerAudio(ByteBuffer data) {
+        synchronized (lock) {
+            if (closed) {
+                return false;
+            }
+            BufferedFrame frame = replayBuffer.add(data);
+            if (active != null) {
+                active.audio.onNext(frame);
+            }
+            return true;
+        }
+    }
+
+    private boolean activate(Session session) {
+        synchronized (lock) {
+            if (closed) {
+                return false;
+            }
+            if (active != null) {
+                // 重试可能在上一个会话的 doFinally 之前同步重新订阅，这里先结束上一个会话
+                active.audio.onComplete();
+                active = null;
+                detachedAtNanos = System.nanoTime();
+            }
+            long firstSequence = replayBuffer.firstRetainedSequence();
+            if (firstSequence > pendingSequence) {
+                long droppedFrames = firstSequence - pendingSequence;
+                long droppedBytes = replayBuffer.firstRetainedOffset() - pendingOffset;
+                metrics.recordDropped(droppedFrames, droppedBytes);
+                pendingSequence = firstSequence;
+                pendingOffset = replayBuffer.firstRetainedOffset();
+                log.warn("[{}] ASR 会话切换期间音频超出重放缓冲，丢弃 {} 帧 {} 字节. {}", name, droppedFrames,
+                    droppedBytes, metrics);
+            }
+            List<BufferedFrame> replay = replayBuffer.framesFrom(pendingSequence);
+            long replayedBytes = 0;
+            for (BufferedFrame frame : replay) {
+                session.audio.onNext(frame);
+                replayedBytes += frame.size();
+            }
+            if (!replay.isEmpty()) {
+                metrics.recordReplay(replay.size(), replayedBytes);
+            }
+            active = session;
+            metrics.recordSession(session.prepared);
+            log.info("[{}] ASR 会话开始 sessionId={} standby={} replayFrames={}", name, session.id, session.prepared,
+                replay.size());
+        }
+        if (config.isStandbyEnabled()) {
+            Schedulers.io().scheduleDirect(this::prepareStandby);
+        }
+        return true;
+    }
+
+    private void deactivate(Session session) {
+        synchronized (lock) {
+            session.audio.onComplete();
+            if (active == session) {
+                active = null;
+                detachedAtNanos = closed ? 0 : System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * 识别服务开始接收会话的音频，即连接与任务建立完成。
+     */
+    private void onAudioSubscribed(Session session) {
+        synchronized (lock) {
+            if (active == session && detachedAtNanos != 0) {
+                metrics.recordReconnect(System.nanoTime() - detachedAtNanos);
+                detachedAtNanos = 0;
+                log.info("[{}] ASR 会话已重连 sessionId={} {}", name, session.id, metrics);
+            }
+        }
+    }
+
+    /**
+     * 帧已交给识别服务，之后切换会话时不再重放。
+     */
+    private void onDelivered(Session session, BufferedFrame frame) {
+        synchronized (lock) {
+            if (active == session && frame.sequence() >= pendingSequence) {
+                pendingSequence = frame.sequence() + 1;
+                pendingOffset = frame.endOffset();
+            }
+        }
+    }
+
+    private void skipBuffered() {
+        replayBuffer.clear();
+        pendingSequence = replayBuffer.nextSequence();
+        pendingOffset = replayBuffer.nextOffset();
+    }
+
+    private Session takeStandby() {
+        synchronized (lock) {
+            Session session = standby;
+            standby = null;
+            return session;
+        }
+    }
+
+    private void prepareStandby() {
+        synchronized (lock) {
+            if (closed || standby != null) {
+                return;
+            }
+        }
+        Session session;
+        try {
+            session = new Session(true); // 创建识别器可能较慢，不在锁内进行
+        } catch (RuntimeException e) {
+            log.warn("[{}] ASR 备用会话创建失败: {}", name, e.getMessage());
+            return;
+        }
+        synchronized (lock) {
+            if (!closed && standby == null) {
+                standby = session;
+            }
+        }
+    }
+
+    private final class Session {
+
+        private final long id = SESSION_ID.incrementAndGet();
+        private final boolean prepared; // 是否为预先创建的备用会话
+        private final UnicastProcessor<BufferedFrame> audio = UnicastProcessor.create();
+        private final Flowable<R> results;
+
+        private Session(boolean prepared) {
+            this.prepared = prepared;
+            this.results = sessionFactory.apply(audio
+                .doOnSubscribe(_ -> onAudioSubscribed(this))
+                .doOnNext(frame -> onDelivered(this, frame))
+                .map(frame -> frame.data().duplicate()));
+        }
+    }
+}
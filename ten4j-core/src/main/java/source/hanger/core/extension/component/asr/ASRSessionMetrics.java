@@ -0,0 +1,81 @@
+package source.hanger.core.extension.component.asr;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * ASR 会话切换统计，跨会话累计，可在任意线程读取。
+ *
+ * 所有计数都在 {@link ASRSessionManager} 的锁内更新，只有一个写者，使用 lazySet 更新。
+ */
+@Getter
+public class ASRSessionMetrics {
+
+    /**
+     * 已开始的识别会话数。
+     */
+    private final AtomicLong sessions = new AtomicLong();
+    /**
+     * 会话断开后重新连上识别服务的次数。
+     */
+    private final AtomicLong reconnects = new AtomicLong();
+    /**
+     * 直接使用预先创建的备用会话的次数。
+     */
+    private final AtomicLong standbyHits = new AtomicLong();
+    /**
+     * 从会话断开到新会话开始接收音频的耗时。
+     */
+    private final AtomicLong totalReconnectNanos = new AtomicLong();
+    private final AtomicLong maxReconnectNanos = new AtomicLong();
+    /**
+     * 切换会话时重放给新会话的帧数与字节数。
+     */
+    private final AtomicLong replayedFrames = new AtomicLong();
+    private final AtomicLong replayedBytes = new AtomicLong();
+    /**
+     * 会话断开期间超出重放缓冲、未能送达任何会话的帧数与字节数。
+     */
+    private final AtomicLong droppedFrames = new AtomicLong();
+    private final AtomicLong droppedBytes = new AtomicLong();
+
+    void recordSession(boolean standby) {
+        sessions.lazySet(sessions.get() + 1);
+        if (standby) {
+            standbyHits.lazySet(standbyHits.get() + 1);
+        }
+    }
+
+    void recordReconnect(long latencyNanos) {
+        reconnects.lazySet(reconnects.get() + 1);
+        totalReconnectNanos.lazySet(totalReconnectNanos.get() + latencyNanos);
+        if (latencyNanos > maxReconnectNanos.get()) {
+            maxReconnectNanos.lazySet(latencyNanos);
+        }
+    }
+
+    void recordReplay(long frames, long bytes) {
+        replayedFrames.lazySet(replayedFrames.get() + frames);
+        replayedBytes.lazySet(replayedBytes.get() + bytes);
+    }
+
+    void recordDropped(long frames, long bytes) {
+        droppedFrames.lazySet(droppedFrames.get() + frames);
+        droppedBytes.lazySet(droppedBytes.get() + bytes);
+    }
+
+    public long averageReconnectMillis() {
+        long count = reconnects.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalReconnectNanos.get() / count);
+    }
+
+    @Override
+    public String toString() {
+        return ("sessions=%d, standbyHits=%d, reconnects=%d, avgReconnect=%dms, maxReconnect=%dms, "
+            + "replayed=%d frames/%d bytes, dropped=%d frames/%d bytes").formatted(sessions.get(), standbyHits.get(),
+            reconnects.get(), averageReconnectMillis(), TimeUnit.NANOSECONDS.toMillis(maxReconnectNanos.get()),
+            replayedFrames.get(), replayedBytes.get(), droppedFrames.get(), droppedBytes.get());
+    }
+}
@@ -5,9 +5,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Flowable;
 import io.reactivex.disposables.CompositeDisposable;
-import io.reactivex.processors.FlowableProcessor;
-import io.reactivex.processors.PublishProcessor;
 import io.reactivex.schedulers.Schedulers;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.common.DefaultSchedulers;
 import source.hanger.core.extension.component.common.OutputBlock;
@@ -21,6 +20,11 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 /**
  * ASR 流服务抽象基类。
  * 负责 ASR 原始输出的复杂解析、文本聚合，并将其转换为更高级的“逻辑块”推送到主管道。
+ *
+ * 音频输入经 {@link ASRSessionManager} 分配给识别会话：会话超时后短暂延迟即切换到新会话（不重建主管道），
+ * 其他错误按指数退避重试；切换期间到达的音频先进入重放缓冲，新会话开始后按顺序重放，不会丢失。
+ * 连续超时的延迟同样逐次翻倍，超过 MAX_CONSECUTIVE_TIMEOUTS 次仍没有识别结果时按普通错误重试，
+ * 避免网络中断等持续的连接超时变成无限的快速重连；两个计数都只在会话产生识别结果后清零。
  */
 @Slf4j
 public abstract class BaseASRStreamAdapter<RECOGNITION_RESULT> implements ASRStreamAdapter {
@@ -28,13 +32,21 @@ public abstract class BaseASRStreamAdapter<RECOGNITION_RESULT> implements ASRStr
     // 新增：最大重试次数和初始退避时间
     private static final int MAX_RETRY_ATTEMPTS = 5;
     private static final int INITIAL_DELAY_MS = 200;
+    private static final int MAX_CONSECUTIVE_TIMEOUTS = 10;
+    private static final int TIMEOUT_INITIAL_DELAY_MS = 20;
+    private static final int TIMEOUT_MAX_DELAY_MS = 2000;
     protected final ExtensionStateProvider extensionStateProvider;
     protected final StreamPipelineChannel<OutputBlock> streamPipelineChannel;
-    private final FlowableProcessor<ByteBuffer> audioInputStreamProcessor; // 新增的音频输入处理器
     private final CompositeDisposable disposables = new CompositeDisposable();
     // 新增：重连尝试次数计数器
     private final AtomicInteger retryCount = new AtomicInteger(0);
+    private final AtomicInteger consecutiveTimeouts = new AtomicInteger(0);
     protected transient boolean reconnecting = false;
+    /**
+     * 识别会话管理器，首次启动 ASR 流时按 Extension 属性创建，跨重连复用。
+     */
+    @Getter
+    private ASRSessionManager<RECOGNITION_RESULT> sessionManager;
     /**
      * 构造函数。
      *
@@ -46,22 +58,42 @@ public abstract class BaseASRStreamAdapter<RECOGNITION_RESULT> implements ASRStr
         StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
         this.extensionStateProvider = extensionStateProvider;
         this.streamPipelineChannel = streamPipelineChannel;
-        this.audioInputStreamProcessor = PublishProcessor.<ByteBuffer>create().toSerialized();
     }
 
     @Override
     public void startASRStream(TenEnv env) {
         log.info("[{}] ASR 流式配器启动 channelId={}", env.getExtensionName(), streamPipelineChannel.uuid());
+        if (sessionManager == null) {
+            sessionManager = new ASRSessionManager<>(env.getExtensionName(), ASRSessionConfig.from(env),
+                audioInput -> getRawAsrFlowable(env, audioInput));
+        }
+        sessionManager.open();
+        retryCount.set(0);
+        consecutiveTimeouts.set(0);
 
-        Flowable<PipelinePacket<OutputBlock>> flowable = getRawAsrFlowable(env, audioInputStreamProcessor)
+        Flowable<PipelinePacket<OutputBlock>> flowable = sessionManager.sessions()
+            .doOnNext(_ -> {
+                // 会话确实产生了识别结果，之前的超时与错误不再算作连续失败
+                retryCount.set(0);
+                consecutiveTimeouts.set(0);
+            })
             // transform执行在 IO_OFFLOAD_SCHEDULER
             .observeOn(DefaultSchedulers.IO_OFFLOAD_SCHEDULER)
             .flatMap(result -> transformSingleRecognitionResult(result, env))
             .takeWhile(_ -> !extensionStateProvider.isInterrupted())
             // 引入 retryWhen 实现指数退避和重试限制
             .retryWhen(throwableFlowable -> throwableFlowable.flatMap(e -> {
-                if (e.getMessage().contains("timeout")) {
-                    return Flowable.error(e);
+                if (isTimeout(e)) {
+                    int timeouts = consecutiveTimeouts.incrementAndGet();
+                    if (timeouts <= MAX_CONSECUTIVE_TIMEOUTS) {
+                        // 会话因长时间无语音被服务端关闭，短暂延迟后切换到新会话，期间的音频由会话管理器重放
+                        long delay = Math.min(TIMEOUT_MAX_DELAY_MS, (long)TIMEOUT_INITIAL_DELAY_MS << (timeouts - 1));
+                        log.info("[{}] ASR Stream timeout #{}, switching session in {}ms. channelId={}",
+                            env.getExtensionName(), timeouts, delay, streamPipelineChannel.uuid());
+                        return Flowable.timer(delay, MILLISECONDS, Schedulers.io());
+                    }
+                    log.warn("[{}] ASR Stream {} consecutive timeouts without results, retrying as error.",
+                        env.getExtensionName(), timeouts);
                 }
                 int count = retryCount.incrementAndGet();
                 if (count > MAX_RETRY_ATTEMPTS) {
@@ -79,26 +111,14 @@ public abstract class BaseASRStreamAdapter<RECOGNITION_RESULT> implements ASRStr
                 return Flowable.timer(delay, MILLISECONDS, Schedulers.io());
             }))
             .doOnError(e -> {
-                if (e.getMessage().contains("timeout")) {
-                    env.postTask(() -> {
-                        log.info("[{}] ASR Stream timeout, reconnecting... channelId={}",
-                            env.getExtensionName(), streamPipelineChannel.uuid());
-                        onReconnect(env);
-                    });;
-                } else {
-                    log.error("[{}] ASR Stream final error after all retries: {}", env.getExtensionName(), e.getMessage(), e);
-                }
+                log.error("[{}] ASR Stream final error after all retries: {}", env.getExtensionName(), e.getMessage(), e);
                 // 最终失败后，可以根据业务需求做一些收尾工作，比如通知上层服务
             })
-            .doOnSubscribe(subscription -> {
-                // 成功订阅后重置重试计数器
-                retryCount.set(0);
-            })
             .doOnComplete(() -> {
                 // 流正常完成时，也重置重试计数器
                 retryCount.set(0);
-                log.info("[{}] ASR Stream completed. channelId={}",
-                    env.getExtensionName(), streamPipelineChannel.uuid());
+                log.info("[{}] ASR Stream completed. channelId={} {}",
+                    env.getExtensionName(), streamPipelineChannel.uuid(), sessionManager.getMetrics());
             });
 
         // 由于 retryWhen 已经包含了重连逻辑，我们不再需要在 doOnError/doOnComplete 中手动调用 onReconnect
@@ -108,11 +128,7 @@ public abstract class BaseASRStreamAdapter<RECOGNITION_RESULT> implements ASRStr
     @Override
     public void onRequestAudioInput(TenEnv env, ByteBuffer rawAudioInput) {
         log.debug("[{}] Received audio frame with buffer size: {}", env.getExtensionName(), rawAudioInput.remaining());
-        if (audioInputStreamProcessor != null
-            && !audioInputStreamProcessor.hasComplete()
-            && !audioInputStreamProcessor.hasThrowable()) {
-            audioInputStreamProcessor.onNext(rawAudioInput);
-        } else {
+        if (sessionManager == null || !sessionManager.offerAudio(rawAudioInput)) {
             log.warn("[{}] Audio input processor is not active, cannot send audio frame. ASR Stream not started or already stopped?", env.getExtensionName());
         }
     }
@@ -147,12 +163,25 @@ public abstract class BaseASRStreamAdapter<RECOGNITION_RESULT> implements ASRStr
         );
     }
 
+    @Override
+    public void onStop(TenEnv env) {
+        if (sessionManager != null) {
+            log.info("[{}] ASR 会话统计: {}", env.getExtensionName(), sessionManager.getMetrics());
+            sessionManager.close();
+        }
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        return e.getMessage() != null && e.getMessage().contains("timeout");
+    }
+
     /**
      * 抽象方法：获取 ASR 供应商的原始响应流。
-     * 由具体实现类提供。
+     * 由具体实现类提供。每个识别会话调用一次，可能在 IO 线程上预先调用以创建备用会话，
+     * 因此返回的流应在订阅时才建立连接，且不同会话之间不能共享有状态的识别器实例。
      *
      * @param env 当前的 TenEnv 环境。
-     * @param audioInputFlowable 音频输入流。
+     * @param audioInputFlowable 当前会话的音频输入流。
      * @return 包含原始 ASR 响应的 Flowable 流。
      */
     protected abstract Flowable<RECOGNITION_RESULT> getRawAsrFlowable(TenEnv env, Flowable<ByteBuffer> audioInputFlowable);
@@ -0,0 +1,118 @@
+package source.hanger.core.extension.component.asr;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 最近一段 PCM 音频的环形缓冲，按字节数限制容量，超出后丢弃最早的帧。
+ *
+ * 每帧按到达顺序分配从 1 开始的递增序号，并记录它在整个音频流中的起始字节偏移，
+ * 这样即使帧已被淘汰，也能精确算出某个位置之后缺失了多少帧、多少字节。
+ * 缓冲区持有帧的原始 ByteBuffer，读取方需使用 duplicate() 后的视图，不能改变原缓冲区的 position。
+ *
+ * 非线程安全，由 {@link ASRSessionManager} 加锁访问。
+ */
+public class PcmReplayBuffer {
+
+    private final ArrayDeque<BufferedFrame> frames = new ArrayDeque<>();
+    private final long capacityBytes;
+    private long bufferedBytes;
+    private long nextSequence = 1;
+    private long nextOffset;
+
+    /**
+     * @param capacityBytes 最多保留的音频字节数，至少保留最近的一帧
+     */
+    public PcmReplayBuffer(long capacityBytes) {
+        this.capacityBytes = Math.max(0, capacityBytes);
+    }
+
+    /**
+     * 追加一帧音频，必要时淘汰最早的帧。
+     *
+     * @return 新追加的帧
+     */
+    public BufferedFrame add(ByteBuffer data) {
+        BufferedFrame frame = new BufferedFrame(nextSequence++, nextOffset, data);
+        nextOffset += frame.size();
+        frames.addLast(frame);
+        bufferedBytes += frame.size();
+        while (bufferedBytes > capacityBytes && frames.size() > 1) {
+            bufferedBytes -= frames.removeFirst().size();
+        }
+        return frame;
+    }
+
+    /**
+     * @param sequence 起始序号（含）
+     * @return 缓冲区中序号不小于 sequence 的帧，按到达顺序排列
+     */
+    public List<BufferedFrame> framesFrom(long sequence) {
+        List<BufferedFrame> result = new ArrayList<>();
+        for (BufferedFrame frame : frames) {
+            if (frame.sequence() >= sequence) {
+                result.add(frame);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return 缓冲区中最早一帧的序号；缓冲区为空时返回下一帧将使用的序号
+     */
+    public long firstRetainedSequence() {
+        return frames.isEmpty() ? nextSequence : frames.peekFirst().sequence();
+    }
+
+    /**
+     * @return 缓冲区中最早一帧的起始字节偏移；缓冲区为空时返回下一帧的起始偏移
+     */
+    public long firstRetainedOffset() {
+        return frames.isEmpty() ? nextOffset : frames.peekFirst().offset();
+    }
+
+    /**
+     * @return 下一帧将使用的序号
+     */
+    public long nextSequence() {
+        return nextSequence;
+    }
+
+    /**
+     * @return 下一帧的起始字节偏移，即累计写入的字节数
+     */
+    public long nextOffset() {
+        return nextOffset;
+    }
+
+    public void clear() {
+        frames.clear();
+        bufferedBytes = 0;
+    }
+
+    public int frameCount() {
+        return frames.size();
+    }
+
+    public long bufferedBytes() {
+        return bufferedBytes;
+    }
+
+    /**
+     * @param sequence 帧序号，从 1 开始
+     * @param offset   帧在整个音频流中的起始字节偏移
+     * @param data     帧数据（原始缓冲区）
+     */
+    public record BufferedFrame(long sequence, long offset, ByteBuffer data) {
+
+        public int size() {
+            return data.remaining();
+        }
+
+        public long endOffset() {
+            return offset + size();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package source.hanger.core.extension.component.llm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,7 +15,8 @@ import source.hanger.core.extension.component.flush.InterruptionStateProvider;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
 import source.hanger.core.message.Message;
 import source.hanger.core.tenenv.TenEnv;
-import source.hanger.core.util.SentenceProcessor;
+import source.hanger.core.util.SentenceSegmentationPolicy;
+import source.hanger.core.util.SentenceSegmenter;
 
 import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_TEXT;
 
@@ -34,10 +36,12 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
     protected final StreamPipelineChannel<OutputBlock> streamPipelineChannel;
     protected final Map<String, ToolCallOutputFragment> accumulatingToolCallFragments = new ConcurrentHashMap<>();
 
-    protected final String TEXT_BUFFER_STATE = "textBuffer";
+    protected final String SENTENCE_SEGMENTER_STATE = "sentenceSegmenter";
     protected final String FULL_TEXT_BUFFER_STATE = "fullTextBuffer";
     protected final String HAS_STREAMING_ENDING_STATE = "hasStreamingEnding";
 
+    private volatile SentenceSegmentationPolicy sentenceSegmentationPolicy;
+
     /**
      * 构造函数。
      *
@@ -56,14 +60,14 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
         Message originalMessage) {
         log.info("[{}] 开始请求LLM并处理流. channelId={} originalId={} text={}",
             env.getExtensionName(), streamPipelineChannel.uuid(), originalMessage.getId(),
-            originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""));
+            originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""));
 
         Map<String, Object> streamContexts = initStreamContexts(env, messages, tools);
 
         // 获取 LLM 原始响应流
         log.info("[{}] 获取 LLM 原始响应流. channelId={} originalId={} text={}", env.getExtensionName(),
             streamPipelineChannel.uuid(), originalMessage.getId(),
-            originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""));
+            originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""));
         Flowable<GENERATION_RAW_RESULT> rawLlmFlowable = getRawLlmFlowable(env, messages, tools);
 
         // 转换原始 LLM 流为 LLMOutputBlock 流，实现真正的流式处理
@@ -92,12 +96,31 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
 
     protected Map<String, Object> initStreamContexts(TenEnv env, List<MESSAGE> messages, List<TOOL_FUNCTION> tools) {
         Map<String, Object> streamContexts = new HashMap<>();
-        streamContexts.put(TEXT_BUFFER_STATE, new StringBuilder());
+        streamContexts.put(SENTENCE_SEGMENTER_STATE, new SentenceSegmenter(getSentenceSegmentationPolicy(env)));
         streamContexts.put(FULL_TEXT_BUFFER_STATE, new StringBuilder());
         streamContexts.put(HAS_STREAMING_ENDING_STATE, false);
         return streamContexts;
     }
 
+    /**
+     * 获取分句策略。首次调用时从 Extension 属性绑定（见 {@link SentenceSegmentationPolicy}），之后复用。
+     * 子类可以覆盖以使用固定的策略。
+     */
+    protected SentenceSegmentationPolicy getSentenceSegmentationPolicy(TenEnv env) {
+        SentenceSegmentationPolicy policy = sentenceSegmentationPolicy;
+        if (policy == null) {
+            try {
+                policy = env.bindProperties(SentenceSegmentationPolicy.class);
+            } catch (RuntimeException e) {
+                log.warn("[{}] 分句策略属性无效，使用默认策略. channelId={} error={}", env.getExtensionName(),
+                    streamPipelineChannel.uuid(), e.getMessage());
+                policy = SentenceSegmentationPolicy.defaults();
+            }
+            sentenceSegmentationPolicy = policy;
+        }
+        return policy;
+    }
+
     /**
      * 辅助方法：处理单个 LLM 原始响应结果。
      * 从结果中提取文本片段和工具调用片段，并将其转换为 Flowable<PipelinePacket<LLMOutputBlock>>。
@@ -115,14 +138,14 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
         log.info("[{}] 处理单个 LLM 原始响应结果. channelId={} originalId={} text={}", env.getExtensionName(),
             streamPipelineChannel.uuid(),
             originalMessage.getId(),
-            originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""));
-        StringBuilder textBuffer = (StringBuilder)streamContexts.get(TEXT_BUFFER_STATE);
+            originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""));
+        SentenceSegmenter sentenceSegmenter = (SentenceSegmenter)streamContexts.get(SENTENCE_SEGMENTER_STATE);
         StringBuilder fullTextBuffer = (StringBuilder)streamContexts.get(FULL_TEXT_BUFFER_STATE);
         Boolean hasStreamEnding = (Boolean)streamContexts.get(HAS_STREAMING_ENDING_STATE);
         if (hasStreamEnding) {
             return Flowable.empty();
         }
-        List<PipelinePacket<OutputBlock>> packetsToEmit = new java.util.ArrayList<>();
+        List<PipelinePacket<OutputBlock>> packetsToEmit = new ArrayList<>();
 
         // 提前获取 finishReason
         String finishReason = getFinishReason(result);
@@ -135,7 +158,7 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
             streamContexts.put(HAS_STREAMING_ENDING_STATE, true);
         }
         // 1. 处理文本片段并聚合为句子或逻辑块
-        processTextStreamResult(result, originalMessage, textBuffer, fullTextBuffer, env, isStreamEnding, endOfSegment,
+        processTextStreamResult(result, originalMessage, sentenceSegmenter, fullTextBuffer, env, isStreamEnding, endOfSegment,
             packetsToEmit);
 
         // 2. 处理工具调用片段并聚合
@@ -147,7 +170,7 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
         if (endOfSegment && packetsToEmit.isEmpty()) {
             log.warn("[{}] LLM流响应block为空 channelId={} originalId={} text={}", env.getExtensionName(),
                 streamPipelineChannel.uuid(),
-                originalMessage.getId(), originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""));
+                originalMessage.getId(), originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""));
         }
 
         return Flowable.fromIterable(packetsToEmit);
@@ -164,7 +187,7 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
      *
      * @param result          LLM 原始响应结果。
      * @param originalMessage 原始消息。
-     * @param textBuffer      textBuffer
+     * @param sentenceSegmenter 本次流式响应的分句器，保存尚未成句的片段。
      * @param fullTextBuffer  fullTextBuffer
      * @param env             当前的 TenEnv 环境。
      * @param isStreamEnding  是否流已结束。
@@ -174,22 +197,16 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
     protected void processTextStreamResult(
         GENERATION_RAW_RESULT result,
         Message originalMessage,
-        StringBuilder textBuffer, StringBuilder fullTextBuffer, TenEnv env,
+        SentenceSegmenter sentenceSegmenter, StringBuilder fullTextBuffer, TenEnv env,
         boolean isStreamEnding,
         boolean endOfSegment,
         List<PipelinePacket<OutputBlock>> packetsToEmit) {
         String textFragment = extractTextFragment(result, fullTextBuffer, env);
         if (textFragment != null && !textFragment.isEmpty()) {
             fullTextBuffer.append(textFragment);
-            // 使用 SentenceProcessor 解析句子，并更新 textBuffer 为剩余片段
-            SentenceProcessor.SentenceParsingResult parsingResult =
-                SentenceProcessor.parseSentences(textBuffer.toString(), textFragment);
-
-            textBuffer.setLength(0); // 清空缓冲区
-            textBuffer.append(parsingResult.getRemainingFragment()); // 更新为剩余片段
-
-            // 发出所有完整的句子
-            for (String sentence : parsingResult.getSentences()) {
+            // 分句器只扫描新到达的字符，未成句的部分保留在分句器内部
+            // 发出所有完整的句子，返回的列表由分句器复用
+            for (String sentence : sentenceSegmenter.append(textFragment)) {
                 log.debug("[{}] 发出LLMTextOutputBlock. channelId={} sentence={}", env.getExtensionName(),
                     streamPipelineChannel.uuid(), sentence);
                 packetsToEmit.add(new PipelinePacket<>(
@@ -203,12 +220,12 @@ public abstract class BaseLLMStreamAdapter<GENERATION_RAW_RESULT, MESSAGE, TOOL_
         if ((isStreamEnding || endOfSegment)) {
             if (!fullTextBuffer.isEmpty()) {
                 packetsToEmit.add(new PipelinePacket<>(
-                    new TextOutputBlock(originalMessage.getId(), textBuffer.toString(), true,
+                    new TextOutputBlock(originalMessage.getId(), sentenceSegmenter.flush(), true,
                         fullTextBuffer.toString()),
                     originalMessage
                 ));
             }
-            textBuffer.setLength(0);
+            sentenceSegmenter.reset();
             fullTextBuffer.setLength(0);
         }
     }
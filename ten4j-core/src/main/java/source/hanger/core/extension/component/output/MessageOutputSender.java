@@ -9,6 +9,7 @@ import source.hanger.core.message.AudioFrameMessage;
 import source.hanger.core.message.DataMessage;
 import source.hanger.core.message.Message;
 import source.hanger.core.tenenv.TenEnv;
+import source.hanger.core.util.IdGenerator;
 
 import static java.util.Collections.*;
 import static source.hanger.core.common.ExtensionConstants.ASR_DATA_OUT_NAME;
@@ -27,7 +28,7 @@ public abstract class MessageOutputSender {
         boolean endOfSegment) { // 使用 core 包的 Message
         try {
             DataMessage outputData = DataMessage.createBuilder(TEXT_DATA_OUT_NAME)
-                .id("%s_%s_%d".formatted(originalMessage.getId(), TEXT_DATA_OUT_NAME, System.currentTimeMillis()))
+                .id(originalMessage.getId() + "_" + TEXT_DATA_OUT_NAME + "_" + IdGenerator.generateShortId())
                 .property(DATA_OUT_PROPERTY_TEXT, text)
                 .property(DATA_OUT_PROPERTY_ROLE, "assistant")
                 .property(DATA_OUT_PROPERTY_END_OF_SEGMENT, endOfSegment)
@@ -47,7 +48,7 @@ public abstract class MessageOutputSender {
     public static void sendAsrTranscriptionOutput(TenEnv env, ASRTranscriptionOutputBlock block) {
         try {
             DataMessage message = DataMessage.createBuilder(ASR_DATA_OUT_NAME)
-                .id("%s_%s_%d".formatted(block.getRequestId(), ASR_DATA_OUT_NAME, System.currentTimeMillis()))
+                .id(block.getRequestId() + "_" + ASR_DATA_OUT_NAME + "_" + IdGenerator.generateShortId())
                 .property(DATA_OUT_PROPERTY_ROLE, "user")
                 .property("asr_request_id", block.getRequestId())
                 .property(DATA_OUT_PROPERTY_TEXT, block.getText())
@@ -71,17 +72,20 @@ public abstract class MessageOutputSender {
         int sampleRate, int bytesPerSample,
         int numberOfChannels) {
         try {
+            // 取llm留下来的group_timestamp 也就是llm一组回复
+            long groupTimestamp = originalMessage.getPropertyLong("group_timestamp", Long.MIN_VALUE);
+            if (groupTimestamp == Long.MIN_VALUE) {
+                throw new RuntimeException("group_timestamp not found");
+            }
             AudioFrameMessage audioFrame = AudioFrameMessage.createBuilder("pcm_frame")
-                .id("%s_%s_%d".formatted(originalMessage.getId(), "pcm_frame", System.currentTimeMillis()))
+                .id(originalMessage.getId() + "_pcm_frame_" + IdGenerator.generateShortId())
                 .sampleRate(sampleRate)
                 .bytesPerSample(bytesPerSample)
                 .numberOfChannel(numberOfChannels)
                 .samplesPerChannel(audioData.readableBytes() / (bytesPerSample * numberOfChannels))
                 .buf(audioData)
-                .property("audio_text", originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""))
-                // 取llm留下来的group_timestamp 也就是llm一组回复
-                .property("group_timestamp", originalMessage.getPropertyLong("group_timestamp")
-                    .orElseThrow(() -> new RuntimeException("group_timestamp not found")))
+                .property("audio_text", originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""))
+                .property("group_timestamp", groupTimestamp)
                 .build();
             env.sendMessage(audioFrame);
 
@@ -1,12 +1,18 @@
 package source.hanger.core.extension.component.stream;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import io.reactivex.Flowable;
 import io.reactivex.disposables.Disposable;
 import io.reactivex.processors.FlowableProcessor;
 import io.reactivex.processors.PublishProcessor;
 import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subscribers.DisposableSubscriber;
 import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.OneToOneConcurrentArrayQueue;
 import source.hanger.core.extension.component.common.OutputBlock;
 import source.hanger.core.extension.component.common.PipelinePacket;
 import source.hanger.core.extension.component.flush.InterruptionStateProvider;
@@ -16,12 +22,29 @@ import source.hanger.core.util.IdGenerator;
 /**
  * 流管道管理器接口的实现类。
  * 负责拥有、创建和管理 Extension 的主数据流管道。
+ *
+ * 默认逐个订阅提交的流（concatMap），前一个流结束后才订阅下一个。指定 maxConcurrentPayloads > 1 时改用
+ * concatMapEager：最多同时订阅 maxConcurrentPayloads 个流，后面流的输出先缓冲，仍按提交顺序输出。
+ * 适用于 TTS 等每个流都有较长首包延迟的场景；dispose / flush 时所有已订阅的流都会被取消。
+ *
+ * 输出块先进入有界的投递队列，再由 Extension Runloop 上的投递任务批量交给 StreamOutputBlockConsumer，
+ * 每个任务最多处理 deliveryBatchSize 个。上游按投递进度请求数据，队列之外最多再缓冲 bufferSize 个输出块，
+ * 超出后按 {@link StreamOverflowStrategy} 处理。管道释放（flush）或中断后，尚未投递的输出块直接丢弃。
+ * 投递统计见 {@link #getMetrics()}。
  */
 @Slf4j
 public class DefaultStreamPipelineChannel implements StreamPipelineChannel<OutputBlock> { // 实现泛型接口
 
+    /**
+     * Runloop 拒绝投递任务（任务队列已满）后重新提交的延迟。
+     */
+    static final long DRAIN_RETRY_DELAY_MS = 10;
+
     private final InterruptionStateProvider interruptionStateProvider;
     private final StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer; // 类型改为新的 StreamItemHandler 接口
+    private final StreamPipelineConfig config;
+    @Getter
+    private final StreamPipelineMetrics metrics = new StreamPipelineMetrics();
     private FlowableProcessor<Flowable<PipelinePacket<OutputBlock>>> streamProcessor;
     private Disposable disposable;
     private TenEnv env;
@@ -36,8 +59,19 @@ public class DefaultStreamPipelineChannel implements StreamPipelineChannel<Outpu
     public DefaultStreamPipelineChannel(
         InterruptionStateProvider interruptionStateProvider,
         StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer) { // 构造函数参数类型改为 StreamItemHandler
+        this(interruptionStateProvider, streamOutputBlockConsumer, StreamPipelineConfig.defaults());
+    }
+
+    /**
+     * @param config 缓冲、溢出策略、批量投递与并发订阅配置。
+     */
+    public DefaultStreamPipelineChannel(
+        InterruptionStateProvider interruptionStateProvider,
+        StreamOutputBlockConsumer<OutputBlock> streamOutputBlockConsumer,
+        StreamPipelineConfig config) {
         this.interruptionStateProvider = interruptionStateProvider;
         this.streamOutputBlockConsumer = streamOutputBlockConsumer;
+        this.config = config != null ? config : StreamPipelineConfig.defaults();
     }
 
     @Override
@@ -62,28 +96,39 @@ public class DefaultStreamPipelineChannel implements StreamPipelineChannel<Outpu
         streamProcessor = PublishProcessor.<Flowable<PipelinePacket<OutputBlock>>>create().toSerialized();
 
         // 建立主订阅，实际处理逻辑在这里
-        Disposable delegate = streamProcessor
-            .onBackpressureBuffer() // 防止上游发射过快
+        Flowable<Flowable<PipelinePacket<OutputBlock>>> payloads = streamProcessor
+            .onBackpressureBuffer() // 防止上游发射过快（这里缓冲的是待订阅的流，而不是输出块）
             .subscribeOn(Schedulers.io())
-            .takeWhile(_ -> !interruptionStateProvider.isInterrupted())
-            .concatMap(flowablePayload -> flowablePayload // 使用 concatMap 保证内部流的顺序执行
+            .takeWhile(_ -> !interruptionStateProvider.isInterrupted());
+        int maxConcurrentPayloads = Math.max(1, config.getMaxConcurrentPayloads());
+        int bufferSize = Math.max(1, config.getBufferSize());
+        Flowable<PipelinePacket<OutputBlock>> packets = maxConcurrentPayloads > 1
+            // 提前订阅后续的流，输出按提交顺序重排
+            ? payloads.concatMapEager(flowablePayload -> flowablePayload
+                .takeWhile(_ -> !interruptionStateProvider.isInterrupted()),
+            maxConcurrentPayloads, Flowable.bufferSize())
+            : payloads.concatMap(flowablePayload -> flowablePayload // 使用 concatMap 保证内部流的顺序执行
                 .takeWhile(_ -> !interruptionStateProvider.isInterrupted())
-            )
-            .subscribe(
-                packet -> env.postTask(() -> {
-                    streamOutputBlockConsumer.consumeOutputBlock(packet.item(), packet.originalMessage(), env);
-                }),
-                error -> {
-                    log.error("[{}] StreamPipelineManager: 主管道处理错误 channelId={}", env.getExtensionName(),
-                        ((DisposableWrapper)disposable).uuid, error);
-                },
-                () -> log.info("[{}] StreamPipelineManager: 主管道处理完成 channelId={}", env.getExtensionName(), uuid)
             );
+        StreamOverflowStrategy overflowStrategy = config.effectiveOverflowStrategy();
+        Flowable<PipelinePacket<OutputBlock>> buffered = overflowStrategy == StreamOverflowStrategy.BUFFER
+            // 不丢弃输出块：bufferSize 只作为初始容量，积压由投递进度自然消化
+            ? packets.onBackpressureBuffer(bufferSize, false, true)
+            : packets.onBackpressureBuffer(bufferSize, () -> {
+                long overflows = metrics.recordOverflow();
+                if ((overflows & (overflows - 1)) == 0) { // 按 2 的幂次记录，避免持续溢出时刷屏
+                    log.warn("[{}] StreamPipelineManager: 缓冲区已满，按 {} 处理. channelId={} {}",
+                        env.getExtensionName(), overflowStrategy, uuid, metrics);
+                }
+            }, overflowStrategy.toBackpressureOverflowStrategy());
+        Disposable delegate = buffered
+            .subscribeWith(new BatchDeliverySubscriber(env, uuid, bufferSize,
+                Math.max(1, config.getDeliveryBatchSize())));
 
         // 包装 Disposable 方便排查跟踪，disposable响应flush
         disposable = new DisposableWrapper(delegate, env, uuid);
-        log.info("[{}] StreamPipelineManager: 订阅主管道成功 channelId={} isDisposed={}", env.getExtensionName(), uuid,
-            disposable.isDisposed());
+        log.info("[{}] StreamPipelineManager: 订阅主管道成功 channelId={} isDisposed={} config={}",
+            env.getExtensionName(), uuid, disposable.isDisposed(), config);
     }
 
     @Override
@@ -117,6 +162,131 @@ public class DefaultStreamPipelineChannel implements StreamPipelineChannel<Outpu
         }
     }
 
+    /**
+     * 将输出块批量投递到 Extension Runloop。onNext 在管道的订阅线程上串行调用（单生产者），
+     * drain 只在 Runloop 上执行且同一时间最多有一个投递任务（单消费者）。
+     * 队列中有数据时一定有一个投递任务已提交或正在执行，或者投递任务被 Runloop 拒绝、已安排稍后重试。
+     */
+    private final class BatchDeliverySubscriber extends DisposableSubscriber<PipelinePacket<OutputBlock>> {
+
+        private final TenEnv env;
+        private final String uuid;
+        private final int bufferSize;
+        private final int batchSize;
+        private final OneToOneConcurrentArrayQueue<QueuedPacket> queue;
+        private final AtomicBoolean drainScheduled = new AtomicBoolean();
+        private final Runnable drainTask = this::drain;
+
+        private BatchDeliverySubscriber(TenEnv env, String uuid, int bufferSize, int batchSize) {
+            this.env = env;
+            this.uuid = uuid;
+            this.bufferSize = bufferSize;
+            this.batchSize = batchSize;
+            this.queue = new OneToOneConcurrentArrayQueue<>(bufferSize);
+        }
+
+        @Override
+        protected void onStart() {
+            request(bufferSize);
+        }
+
+        @Override
+        public void onNext(PipelinePacket<OutputBlock> packet) {
+            // 请求量不超过队列容量，正常情况下不会入队失败
+            if (!queue.offer(new QueuedPacket(packet, System.nanoTime()))) {
+                metrics.recordOverflow();
+                log.error("[{}] StreamPipelineManager: 投递队列已满，丢弃输出块. channelId={}", env.getExtensionName(),
+                    uuid);
+                return;
+            }
+            metrics.recordEnqueued();
+            scheduleDrain();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            log.error("[{}] StreamPipelineManager: 主管道处理错误 channelId={}", env.getExtensionName(), uuid, error);
+        }
+
+        @Override
+        public void onComplete() {
+            log.info("[{}] StreamPipelineManager: 主管道处理完成 channelId={}", env.getExtensionName(), uuid);
+        }
+
+        private void scheduleDrain() {
+            if (drainScheduled.compareAndSet(false, true)) {
+                postDrain();
+            }
+        }
+
+        /**
+         * 提交投递任务。Runloop 任务队列已满时任务会被拒绝，此时清除标志并稍后重试，
+         * 否则上游请求量已用完、不会再有 onNext 触发调度，队列中的输出块将永远得不到投递。
+         */
+        private void postDrain() {
+            if (env.getRunloop().postTask(drainTask)) {
+                return;
+            }
+            drainScheduled.set(false);
+            long rejections = metrics.recordDrainRejected();
+            if ((rejections & (rejections - 1)) == 0) { // 按 2 的幂次记录，避免持续拒绝时刷屏
+                log.warn("[{}] StreamPipelineManager: Runloop 拒绝投递任务，{}ms 后重试. channelId={} {}",
+                    env.getExtensionName(), DRAIN_RETRY_DELAY_MS, uuid, metrics);
+            }
+            if (!isDisposed()) {
+                Schedulers.computation().scheduleDirect(this::retryDrain, DRAIN_RETRY_DELAY_MS,
+                    TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void retryDrain() {
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void drain() {
+            metrics.recordBatch();
+            if (interruptionStateProvider.isInterrupted() && !isDisposed()) {
+                // 中断后立即取消上游订阅，不必等到下一个元素到达 takeWhile
+                log.info("[{}] StreamPipelineManager: 检测到中断，取消上游订阅. channelId={}", env.getExtensionName(),
+                    uuid);
+                dispose();
+            }
+            int consumed = 0;
+            QueuedPacket queued;
+            while (consumed < batchSize && (queued = queue.poll()) != null) {
+                consumed++;
+                if (isDisposed() || interruptionStateProvider.isInterrupted()) {
+                    // 管道已释放或已中断：丢弃尚未投递的输出块，不再交给下游
+                    metrics.recordDiscarded();
+                    continue;
+                }
+                metrics.recordDelivered(System.nanoTime() - queued.enqueuedNanos());
+                PipelinePacket<OutputBlock> packet = queued.packet();
+                try {
+                    streamOutputBlockConsumer.consumeOutputBlock(packet.item(), packet.originalMessage(), env);
+                } catch (Exception e) {
+                    log.error("[{}] StreamPipelineManager: 处理输出块异常 channelId={}", env.getExtensionName(), uuid, e);
+                }
+            }
+            if (consumed > 0 && !isDisposed()) {
+                request(consumed);
+            }
+            if (!queue.isEmpty()) {
+                postDrain(); // 还有剩余，让出 Runloop 后继续投递
+                return;
+            }
+            drainScheduled.set(false);
+            if (!queue.isEmpty()) {
+                scheduleDrain(); // 释放标志前生产者又入队了数据
+            }
+        }
+    }
+
+    private record QueuedPacket(PipelinePacket<OutputBlock> packet, long enqueuedNanos) {
+    }
+
     @AllArgsConstructor
     static class DisposableWrapper implements Disposable {
         private final Disposable delegate;
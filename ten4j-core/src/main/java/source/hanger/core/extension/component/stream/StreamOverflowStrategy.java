@@ -0,0 +1,57 @@
+package source.hanger.core.extension.component.stream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.reactivex.BackpressureOverflowStrategy;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 流管道缓冲区满时的处理方式。
+ *
+ * - BUFFER：不丢弃，超过 bufferSize 后继续缓冲（LLM / ASR 等文本通道的默认值，丢块会破坏对话内容）。
+ * - DROP_OLDEST：丢弃缓冲区中最早的输出块，保证实时性（TTS 音频通道的默认值）。
+ * - DROP_LATEST：丢弃新到达的输出块，保留已缓冲的内容。
+ * - ERROR：以 MissingBackpressureException 结束当前管道，直到下一次 flush 重新创建。
+ */
+public enum StreamOverflowStrategy {
+    @JsonProperty("buffer")
+    BUFFER(null),
+    @JsonProperty("drop_oldest")
+    DROP_OLDEST(BackpressureOverflowStrategy.DROP_OLDEST),
+    @JsonProperty("drop_latest")
+    DROP_LATEST(BackpressureOverflowStrategy.DROP_LATEST),
+    @JsonProperty("error")
+    ERROR(BackpressureOverflowStrategy.ERROR);
+
+    private final BackpressureOverflowStrategy backpressureOverflowStrategy;
+
+    StreamOverflowStrategy(BackpressureOverflowStrategy backpressureOverflowStrategy) {
+        this.backpressureOverflowStrategy = backpressureOverflowStrategy;
+    }
+
+    /**
+     * @return 对应的 RxJava 溢出策略；BUFFER 不丢弃任何输出块，返回 null。
+     */
+    public BackpressureOverflowStrategy toBackpressureOverflowStrategy() {
+        return backpressureOverflowStrategy;
+    }
+
+    /**
+     * 解析配置中的溢出策略，大小写不敏感，支持 "-" 与 "_" 两种分隔写法。
+     *
+     * @param value        配置值，可以为 null。
+     * @param defaultValue 无法解析时使用的默认值。
+     * @return 解析得到的溢出策略。
+     */
+    public static StreamOverflowStrategy parse(String value, StreamOverflowStrategy defaultValue) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        String normalized = value.trim().replace('-', '_').toUpperCase();
+        for (StreamOverflowStrategy strategy : values()) {
+            if (strategy.name().equals(normalized)) {
+                return strategy;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,84 @@
+package source.hanger.core.extension.component.stream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.core.tenenv.TenEnv;
+
+/**
+ * {@link DefaultStreamPipelineChannel} 的缓冲与投递配置，可通过 Extension 的属性配置：
+ *
+ * <pre>
+ * "property": {
+ *   "stream_buffer_size": 1024,
+ *   "stream_overflow_strategy": "buffer",
+ *   "stream_delivery_batch_size": 32
+ * }
+ * </pre>
+ */
+@Slf4j
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class StreamPipelineConfig {
+
+    /**
+     * 等待投递到 Extension Runloop 的输出块上限。超出后按 overflowStrategy 处理，上游按实际投递进度请求数据。
+     */
+    @JsonProperty("stream_buffer_size")
+    private int bufferSize = 1024;
+
+    /**
+     * 缓冲区满时的处理方式，为 null 时使用通道的默认值，见 {@link #withDefaultOverflowStrategy}。
+     */
+    @JsonProperty("stream_overflow_strategy")
+    private StreamOverflowStrategy overflowStrategy;
+
+    /**
+     * 单个 Runloop 任务最多处理的输出块数量。
+     */
+    @JsonProperty("stream_delivery_batch_size")
+    private int deliveryBatchSize = 32;
+
+    /**
+     * 最多同时订阅的流数量，小于等于 1 时逐个订阅，见 {@link DefaultStreamPipelineChannel}。
+     */
+    @JsonProperty("stream_max_concurrent_payloads")
+    private int maxConcurrentPayloads = 1;
+
+    public static StreamPipelineConfig defaults() {
+        return new StreamPipelineConfig();
+    }
+
+    /**
+     * 未配置 stream_overflow_strategy 时使用给定的策略。
+     * 可丢弃的音频通道（TTS）使用 DROP_OLDEST，其余通道保持 {@link StreamOverflowStrategy#BUFFER}。
+     */
+    public StreamPipelineConfig withDefaultOverflowStrategy(StreamOverflowStrategy defaultStrategy) {
+        if (overflowStrategy == null) {
+            overflowStrategy = defaultStrategy;
+        }
+        return this;
+    }
+
+    /**
+     * @return 实际生效的溢出策略，未配置时不丢弃输出块。
+     */
+    public StreamOverflowStrategy effectiveOverflowStrategy() {
+        return overflowStrategy != null ? overflowStrategy : StreamOverflowStrategy.BUFFER;
+    }
+
+    /**
+     * 从 Extension 属性绑定配置，属性无效时记录日志并使用默认值。
+     */
+    public static StreamPipelineConfig from(TenEnv env) {
+        try {
+            return env.bindProperties(StreamPipelineConfig.class);
+        } catch (RuntimeException e) {
+            log.warn("[{}] 流管道配置无效，使用默认配置: {}", env.getExtensionName(), e.getMessage());
+            return defaults();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package source.hanger.core.extension.component.stream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * 流管道的投递统计，跨 flush 重建累计，可在任意线程读取。
+ *
+ * 入队相关的计数只由管道的订阅线程（串行的 onNext）更新，出队相关的计数只由 Extension Runloop 更新，
+ * 每个计数都只有一个写者，使用 lazySet 更新；投递任务被拒绝的次数可能由多个线程更新，使用原子自增。
+ */
+@Getter
+public class StreamPipelineMetrics {
+
+    /**
+     * 进入投递队列的输出块数。
+     */
+    private final AtomicLong enqueued = new AtomicLong();
+    /**
+     * 已交给 StreamOutputBlockConsumer 的输出块数。
+     */
+    private final AtomicLong delivered = new AtomicLong();
+    /**
+     * 因中断或管道释放而丢弃的已入队输出块数。
+     */
+    private final AtomicLong discarded = new AtomicLong();
+    /**
+     * 缓冲区溢出的次数（按溢出策略丢弃或报错）。
+     */
+    private final AtomicLong overflows = new AtomicLong();
+    /**
+     * 投递任务（Runloop 任务）数。
+     */
+    private final AtomicLong batches = new AtomicLong();
+    /**
+     * 投递任务被 Runloop 拒绝（任务队列已满）的次数，每次拒绝后都会稍后重试。
+     */
+    private final AtomicLong drainRejections = new AtomicLong();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private final AtomicLong totalQueueNanos = new AtomicLong();
+    private final AtomicLong maxQueueNanos = new AtomicLong();
+
+    void recordEnqueued() {
+        long count = enqueued.get() + 1;
+        enqueued.lazySet(count);
+        long depth = count - delivered.get() - discarded.get();
+        if (depth > maxQueueDepth.get()) {
+            maxQueueDepth.lazySet(depth);
+        }
+    }
+
+    void recordDelivered(long queueNanos) {
+        delivered.lazySet(delivered.get() + 1);
+        totalQueueNanos.lazySet(totalQueueNanos.get() + queueNanos);
+        if (queueNanos > maxQueueNanos.get()) {
+            maxQueueNanos.lazySet(queueNanos);
+        }
+    }
+
+    void recordDiscarded() {
+        discarded.lazySet(discarded.get() + 1);
+    }
+
+    long recordOverflow() {
+        long count = overflows.get() + 1;
+        overflows.lazySet(count);
+        return count;
+    }
+
+    long recordDrainRejected() {
+        return drainRejections.incrementAndGet();
+    }
+
+    void recordBatch() {
+        batches.lazySet(batches.get() + 1);
+    }
+
+    /**
+     * @return 当前等待投递的输出块数（近似值）
+     */
+    public long queueDepth() {
+        return Math.max(0, enqueued.get() - delivered.get() - discarded.get());
+    }
+
+    public long averageQueueMicros() {
+        long count = delivered.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalQueueNanos.get() / count);
+    }
+
+    @Override
+    public String toString() {
+        return ("enqueued=%d, delivered=%d, discarded=%d, overflows=%d, batches=%d, drainRejections=%d, depth=%d, "
+            + "maxDepth=%d, avgWait=%dus, maxWait=%dus").formatted(enqueued.get(), delivered.get(), discarded.get(),
+                overflows.get(), batches.get(), drainRejections.get(), queueDepth(),
+                maxQueueDepth.get(), averageQueueMicros(), TimeUnit.NANOSECONDS.toMicros(maxQueueNanos.get()));
+    }
+}
@@ -92,7 +92,7 @@ public abstract class BaseLLMToolOrchestrator<MESSAGE, LLM_TOOL_FUNCTION> implem
             .property(CMD_TOOL_CALL_PROPERTY_NAME, toolCallOutputBlock.getToolName())
             .property(CMD_TOOL_CALL_PROPERTY_ARGUMENTS, toolCallOutputBlock.getArgumentsJson())
             .property(CMD_TOOL_CALL_PROPERTY_TOOL_CALL_ID, toolCallOutputBlock.getId())
-            .property(DATA_OUT_PROPERTY_TEXT, originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""))
+            .property(DATA_OUT_PROPERTY_TEXT, originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""))
             //.property(MESSAGE_GROUP_TIMESTAMP_NAME, originalMessage.getPropertyLong(MESSAGE_GROUP_TIMESTAMP_NAME)
             //    .orElse(System.currentTimeMillis()))
             .build();
@@ -160,9 +160,9 @@ public abstract class BaseLLMToolOrchestrator<MESSAGE, LLM_TOOL_FUNCTION> implem
                     return;
                 }
                 if (cmdResult.isSuccess()) {
-                    toolCallContent = cmdResult.getPropertyString(CMD_TOOL_PROPERTY_TOOL_CALL_CONTENT).orElse("");
-                    assistantMessage = cmdResult.getPropertyString(CMD_TOOL_PROPERTY_ASSISTANT_MESSAGE).orElse("");
-                    secondRound = cmdResult.getPropertyBoolean(CMD_TOOL_PROPERTY_SECOND_ROUND).orElse(false);
+                    toolCallContent = cmdResult.getPropertyString(CMD_TOOL_PROPERTY_TOOL_CALL_CONTENT, "");
+                    assistantMessage = cmdResult.getPropertyString(CMD_TOOL_PROPERTY_ASSISTANT_MESSAGE, "");
+                    secondRound = cmdResult.getPropertyBoolean(CMD_TOOL_PROPERTY_SECOND_ROUND, false);
                     log.info("[{}] 工具调用命令执行成功: toolName={}, toolCallContent={} assistantMessage={}",
                         env.getExtensionName(), callOutputBlock.getToolName(), toolCallContent, assistantMessage);
                     // 将工具执行结果添加到历史
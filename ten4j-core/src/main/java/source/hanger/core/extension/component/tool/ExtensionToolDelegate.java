@@ -93,14 +93,14 @@ public abstract class ExtensionToolDelegate {
     }
 
     public void handleToolCallCommand(TenEnv env, Command command) {
-        String toolName = command.getPropertyString(CMD_TOOL_CALL_PROPERTY_NAME).orElse("");
+        String toolName = command.getPropertyString(CMD_TOOL_CALL_PROPERTY_NAME, "");
         if (!tools.containsKey(toolName)) {
             env.sendResult(invalid(command, "收到非本扩展的工具调用或工具名称为空"));
             log.warn("[{}] 收到非本扩展的工具调用或工具名称为空，忽略。toolName={}", env.getExtensionName(), toolName);
             return;
         }
         try {
-            String arguments = command.getPropertyString(CMD_TOOL_CALL_PROPERTY_ARGUMENTS).orElse("{}");
+            String arguments = command.getPropertyString(CMD_TOOL_CALL_PROPERTY_ARGUMENTS, "{}");
             Map<String, Object> args = objectMapper.readValue(arguments, new TypeReference<>() {});
             tools.get(toolName).runTool(emitter(env, command), env, command, args);
 
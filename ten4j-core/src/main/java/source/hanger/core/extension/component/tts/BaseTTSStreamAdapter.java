@@ -40,7 +40,7 @@ public abstract class BaseTTSStreamAdapter<RAW_TTS_RESULT> implements TTSStreamA
             .takeWhile(_ -> !interruptionStateProvider.isInterrupted())
             .doOnError(error -> {
                 log.error("[{}] TTS流处理错误. originalId={} text={}. 错误: {}", env.getExtensionName(),
-                    originalMessage.getId(), originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""), error.getMessage(), error);
+                    originalMessage.getId(), originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""), error.getMessage(), error);
             })
             .doOnComplete(() -> {
                 // 确保所有日志都带有前缀
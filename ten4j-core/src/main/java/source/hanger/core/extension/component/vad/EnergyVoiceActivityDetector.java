@@ -0,0 +1,131 @@
+package source.hanger.core.extension.component.vad;
+
+import lombok.Getter;
+
+/**
+ * 基于短时能量与过零率的语音活动检测器，只依赖 CPU，不需要外部服务或模型。
+ *
+ * - 每帧计算平均能量（dBFS）与过零率，能量高于自适应噪声基底 {@link VadConfig#getSnrDb()} 分贝且过零率不过高时判为语音帧
+ * - 噪声基底按最小值统计估计：取最近约 3 秒（6 个 0.5 秒的块）内的最小帧能量。语音的字词间总有能量较低的间隙，
+ *   因此基底不会被语音抬高；背景噪声变大时，基底在一个窗口时长内跟上，不会长时间把噪声判为语音
+ * - 连续语音达到 minSpeechMs 判定语音开始，语音开始后连续静音达到 hangoverMs 判定语音结束
+ *
+ * 输入为 16 bit PCM 采样的 short 数组，检测过程不分配对象。非线程安全，一个实例对应一路音频。
+ */
+public class EnergyVoiceActivityDetector {
+
+    private static final double FULL_SCALE_SQUARED = 32768.0 * 32768.0;
+    private static final double SILENCE_DB = -100;
+    private static final long NOISE_BLOCK_MICROS = 500_000;
+    private static final int NOISE_BLOCKS = 6;
+
+    private final VadConfig config;
+    @Getter
+    private boolean speaking;
+    @Getter
+    private double noiseFloorDb = SILENCE_DB;
+    @Getter
+    private double lastEnergyDb = SILENCE_DB;
+    @Getter
+    private double lastZeroCrossingRate;
+    private long speechRunMicros;
+    private long silenceRunMicros;
+    private final double[] blockMinima = new double[NOISE_BLOCKS]; // 已结束的块的最小能量，环形覆盖
+    private int completedBlocks;
+    private double currentBlockMin = Double.MAX_VALUE;
+    private long currentBlockMicros;
+
+    public EnergyVoiceActivityDetector(VadConfig config) {
+        this.config = config != null ? config : VadConfig.defaults();
+    }
+
+    /**
+     * 检测一帧音频。
+     *
+     * @param samples        单声道 16 bit PCM 采样
+     * @param length         有效采样数
+     * @param durationMicros 该帧的时长（微秒）
+     * @return 本帧引起的状态变化
+     */
+    public Transition process(short[] samples, int length, long durationMicros) {
+        boolean speech = length > 0 && classify(samples, length, durationMicros);
+        if (speech) {
+            speechRunMicros += durationMicros;
+            silenceRunMicros = 0;
+            if (!speaking && speechRunMicros >= config.getMinSpeechMs() * 1000L) {
+                speaking = true;
+                return Transition.SPEECH_START;
+            }
+        } else {
+            silenceRunMicros += durationMicros;
+            if (!speaking) {
+                speechRunMicros = 0;
+            } else if (silenceRunMicros >= config.getHangoverMs() * 1000L) {
+                speaking = false;
+                speechRunMicros = 0;
+                return Transition.SPEECH_END;
+            }
+        }
+        return Transition.NONE;
+    }
+
+    public void reset() {
+        speaking = false;
+        speechRunMicros = 0;
+        silenceRunMicros = 0;
+        completedBlocks = 0;
+        currentBlockMin = Double.MAX_VALUE;
+        currentBlockMicros = 0;
+        noiseFloorDb = SILENCE_DB;
+        lastEnergyDb = SILENCE_DB;
+        lastZeroCrossingRate = 0;
+    }
+
+    /**
+     * @return 本帧是否为语音帧，同时更新噪声基底
+     */
+    private boolean classify(short[] samples, int length, long durationMicros) {
+        long sumSquares = 0;
+        int crossings = 0;
+        int previous = samples[0];
+        for (int i = 0; i < length; i++) {
+            int sample = samples[i];
+            sumSquares += (long)sample * sample;
+            if ((sample ^ previous) < 0) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        double meanSquare = (double)sumSquares / length;
+        double energyDb = meanSquare > 0 ? 10 * Math.log10(meanSquare / FULL_SCALE_SQUARED) : SILENCE_DB;
+        double zeroCrossingRate = length > 1 ? (double)crossings / (length - 1) : 0;
+        updateNoiseFloor(energyDb, durationMicros);
+        double threshold = Math.max(config.getMinEnergyDb(), noiseFloorDb + config.getSnrDb());
+        boolean speech = energyDb >= threshold && zeroCrossingRate <= config.getMaxZeroCrossingRate();
+        lastEnergyDb = energyDb;
+        lastZeroCrossingRate = zeroCrossingRate;
+        return speech;
+    }
+
+    private void updateNoiseFloor(double energyDb, long durationMicros) {
+        currentBlockMin = Math.min(currentBlockMin, energyDb);
+        currentBlockMicros += durationMicros;
+        double floor = currentBlockMin;
+        for (int i = 0, n = Math.min(completedBlocks, NOISE_BLOCKS); i < n; i++) {
+            floor = Math.min(floor, blockMinima[i]);
+        }
+        noiseFloorDb = floor;
+        if (currentBlockMicros >= NOISE_BLOCK_MICROS) {
+            blockMinima[completedBlocks % NOISE_BLOCKS] = currentBlockMin;
+            completedBlocks++;
+            currentBlockMin = Double.MAX_VALUE;
+            currentBlockMicros = 0;
+        }
+    }
+
+    public enum Transition {
+        NONE,
+        SPEECH_START,
+        SPEECH_END
+    }
+}
@@ -0,0 +1,82 @@
+package source.hanger.core.extension.component.vad;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * {@link EnergyVoiceActivityDetector} 与 VAD Extension 的配置，可通过 Extension 的属性配置：
+ *
+ * <pre>
+ * "property": {
+ *   "vad_snr_db": 10,
+ *   "vad_min_energy_db": -55,
+ *   "vad_max_zero_crossing_rate": 0.4,
+ *   "vad_min_speech_ms": 60,
+ *   "vad_hangover_ms": 400,
+ *   "vad_pre_roll_ms": 300,
+ *   "vad_gate_audio": true
+ * }
+ * </pre>
+ *
+ * 能量以 dBFS 表示（满幅正弦约为 -3 dBFS）。一帧的能量高于噪声基底 snrDb 且不低于 minEnergyDb，
+ * 同时过零率不高于 maxZeroCrossingRate 时判为语音帧。
+ */
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class VadConfig {
+
+    /**
+     * 语音帧能量需高出自适应噪声基底的分贝数。
+     */
+    @JsonProperty("vad_snr_db")
+    private double snrDb = 10;
+
+    /**
+     * 语音帧能量的绝对下限（dBFS），避免安静环境下噪声基底过低时把微弱噪声判为语音。
+     */
+    @JsonProperty("vad_min_energy_db")
+    private double minEnergyDb = -55;
+
+    /**
+     * 语音帧的最大过零率（相邻采样符号变化的比例，0 ~ 1）。白噪声约为 0.5，浊音通常低于 0.15。
+     */
+    @JsonProperty("vad_max_zero_crossing_rate")
+    private double maxZeroCrossingRate = 0.4;
+
+    /**
+     * 连续语音达到该时长才判定语音开始，过滤短促的敲击声等噪声。
+     */
+    @JsonProperty("vad_min_speech_ms")
+    private int minSpeechMs = 60;
+
+    /**
+     * 语音开始后连续静音达到该时长才判定语音结束（拖尾平滑），避免在字词间的停顿处断开。
+     */
+    @JsonProperty("vad_hangover_ms")
+    private int hangoverMs = 400;
+
+    /**
+     * 静音期间保留的最近音频时长，语音开始时先发送这部分音频，补上判定语音开始之前的起音。
+     */
+    @JsonProperty("vad_pre_roll_ms")
+    private int preRollMs = 300;
+
+    /**
+     * 为 true 时只向下游转发语音段（含 pre-roll 与拖尾）的音频，为 false 时转发全部音频，只输出语音事件。
+     */
+    @JsonProperty("vad_gate_audio")
+    private boolean gateAudio = true;
+
+    /**
+     * 音频帧未携带采样率时使用的采样率。
+     */
+    @JsonProperty("vad_sample_rate")
+    private int sampleRate = 16000;
+
+    public static VadConfig defaults() {
+        return new VadConfig();
+    }
+}
@@ -0,0 +1,90 @@
+package source.hanger.core.extension.component.vad;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * VAD Extension 的统计，可在任意线程读取。
+ *
+ * 计数只由处理音频帧的 Extension Runloop 更新，只有一个写者，使用 lazySet 更新。
+ */
+@Getter
+public class VadMetrics {
+
+    /**
+     * 已检测的音频帧数与其中的语音帧数（语音开始到语音结束之间，含拖尾）。
+     */
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong speechFrames = new AtomicLong();
+    /**
+     * 转发给下游的帧数与字节数。
+     */
+    private final AtomicLong forwardedFrames = new AtomicLong();
+    private final AtomicLong forwardedBytes = new AtomicLong();
+    /**
+     * 因静音未转发的帧数与字节数。
+     */
+    private final AtomicLong gatedFrames = new AtomicLong();
+    private final AtomicLong gatedBytes = new AtomicLong();
+    private final AtomicLong speechStarts = new AtomicLong();
+    private final AtomicLong speechEnds = new AtomicLong();
+    /**
+     * 检测耗时（不含转发）。
+     */
+    private final AtomicLong totalDetectNanos = new AtomicLong();
+    private final AtomicLong maxDetectNanos = new AtomicLong();
+
+    void recordFrame(boolean speaking, long detectNanos) {
+        frames.lazySet(frames.get() + 1);
+        if (speaking) {
+            speechFrames.lazySet(speechFrames.get() + 1);
+        }
+        totalDetectNanos.lazySet(totalDetectNanos.get() + detectNanos);
+        if (detectNanos > maxDetectNanos.get()) {
+            maxDetectNanos.lazySet(detectNanos);
+        }
+    }
+
+    void recordForwarded(int bytes) {
+        forwardedFrames.lazySet(forwardedFrames.get() + 1);
+        forwardedBytes.lazySet(forwardedBytes.get() + bytes);
+    }
+
+    void recordGated(int bytes) {
+        gatedFrames.lazySet(gatedFrames.get() + 1);
+        gatedBytes.lazySet(gatedBytes.get() + bytes);
+    }
+
+    void recordTransition(EnergyVoiceActivityDetector.Transition transition) {
+        switch (transition) {
+            case SPEECH_START -> speechStarts.lazySet(speechStarts.get() + 1);
+            case SPEECH_END -> speechEnds.lazySet(speechEnds.get() + 1);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * @return 未转发的字节占比，即节省的上行 ASR 带宽
+     */
+    public double gatedRatio() {
+        long total = forwardedBytes.get() + gatedBytes.get();
+        return total == 0 ? 0 : (double)gatedBytes.get() / total;
+    }
+
+    public long averageDetectNanos() {
+        long count = frames.get();
+        return count == 0 ? 0 : totalDetectNanos.get() / count;
+    }
+
+    @Override
+    public String toString() {
+        return ("frames=%d, speechFrames=%d, forwarded=%d frames/%d bytes, gated=%d frames/%d bytes (%.1f%%), "
+            + "speechStarts=%d, speechEnds=%d, avgDetect=%dns, maxDetect=%dus").formatted(frames.get(),
+            speechFrames.get(), forwardedFrames.get(), forwardedBytes.get(), gatedFrames.get(), gatedBytes.get(),
+            gatedRatio() * 100, speechStarts.get(), speechEnds.get(), averageDetectNanos(),
+            TimeUnit.NANOSECONDS.toMicros(maxDetectNanos.get()));
+    }
+}
@@ -0,0 +1,135 @@
+package source.hanger.core.extension.component.vad;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+import io.netty.buffer.ByteBuf;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.core.extension.component.vad.EnergyVoiceActivityDetector.Transition;
+import source.hanger.core.message.AudioFrameMessage;
+
+/**
+ * 按语音活动检测结果决定音频帧是否继续发往下游（通常是 ASR）。
+ *
+ * 静音期间的帧不转发，只在 pre-roll 缓冲中保留最近 {@link VadConfig#getPreRollMs()} 毫秒；
+ * 判定语音开始时先按顺序转发 pre-roll 中的帧，再转发当前帧，之后直到语音结束（含拖尾）的帧全部转发。
+ * 关闭 gateAudio 时所有帧都会转发。
+ *
+ * 只支持 16 bit PCM，多声道时按第一个声道检测；其他格式的帧不做检测，直接转发。
+ *
+ * 引用计数：传给 forward 的帧已持有一份引用，由接收方负责发送或释放；pre-roll 中的帧在淘汰或 {@link #clear()} 时释放。
+ * 非线程安全，只能在所属 Extension 的 Runloop 上调用。
+ */
+@Slf4j
+public class VoiceActivityGate {
+
+    private final VadConfig config;
+    @Getter
+    private final EnergyVoiceActivityDetector detector;
+    @Getter
+    private final VadMetrics metrics = new VadMetrics();
+    private final ArrayDeque<AudioFrameMessage> preRoll = new ArrayDeque<>();
+    private long preRollMicros;
+    private short[] samples = new short[1024];
+    private boolean unsupportedFormatReported;
+
+    public VoiceActivityGate(VadConfig config) {
+        this.config = config != null ? config : VadConfig.defaults();
+        this.detector = new EnergyVoiceActivityDetector(this.config);
+    }
+
+    /**
+     * 检测一帧音频，并将需要转发的帧按顺序交给 forward。
+     *
+     * @param frame   收到的音频帧，调用方在返回后仍会释放自己的引用
+     * @param forward 接收需要转发的帧
+     * @return 本帧引起的语音状态变化
+     */
+    public Transition onAudioFrame(AudioFrameMessage frame, Consumer<AudioFrameMessage> forward) {
+        ByteBuf buf = frame.getBuf();
+        int bytesPerSample = frame.getBytesPerSample() != null ? frame.getBytesPerSample() : 2;
+        if (buf == null || bytesPerSample != 2) {
+            if (!unsupportedFormatReported) {
+                unsupportedFormatReported = true;
+                log.warn("VAD 只支持 16 bit PCM，bytesPerSample={} 的音频帧不做检测直接转发", bytesPerSample);
+            }
+            forward(frame.retain(), forward);
+            return Transition.NONE;
+        }
+        int channels = channelsOf(frame);
+        int length = buf.readableBytes() / (2 * channels);
+        long durationMicros = durationMicros(frame);
+
+        long start = System.nanoTime();
+        readFirstChannel(buf, length, channels);
+        Transition transition = detector.process(samples, length, durationMicros);
+        metrics.recordFrame(detector.isSpeaking() || transition == Transition.SPEECH_END, System.nanoTime() - start);
+        metrics.recordTransition(transition);
+
+        if (transition == Transition.SPEECH_START) {
+            while (!preRoll.isEmpty()) {
+                forward(preRoll.removeFirst(), forward);
+            }
+            preRollMicros = 0;
+        }
+        if (!config.isGateAudio() || detector.isSpeaking() || transition == Transition.SPEECH_END) {
+            forward(frame.retain(), forward);
+        } else {
+            keepPreRoll(frame.retain(), durationMicros);
+        }
+        return transition;
+    }
+
+    /**
+     * 释放 pre-roll 中的帧并重置检测状态。
+     */
+    public void clear() {
+        while (!preRoll.isEmpty()) {
+            AudioFrameMessage frame = preRoll.removeFirst();
+            metrics.recordGated(frame.getBuf().readableBytes());
+            frame.release();
+        }
+        preRollMicros = 0;
+        detector.reset();
+    }
+
+    private void readFirstChannel(ByteBuf buf, int length, int channels) {
+        if (samples.length < length) {
+            samples = new short[Math.max(length, samples.length * 2)];
+        }
+        int index = buf.readerIndex();
+        int stride = 2 * channels;
+        for (int i = 0; i < length; i++, index += stride) {
+            samples[i] = buf.getShortLE(index);
+        }
+    }
+
+    private void keepPreRoll(AudioFrameMessage frame, long durationMicros) {
+        preRoll.addLast(frame);
+        preRollMicros += durationMicros;
+        long limitMicros = config.getPreRollMs() * 1000L;
+        while (preRollMicros > limitMicros && !preRoll.isEmpty()) {
+            AudioFrameMessage evicted = preRoll.removeFirst();
+            preRollMicros -= durationMicros(evicted);
+            metrics.recordGated(evicted.getBuf().readableBytes());
+            evicted.release();
+        }
+    }
+
+    private int channelsOf(AudioFrameMessage frame) {
+        return frame.getNumberOfChannel() != null ? Math.max(1, frame.getNumberOfChannel()) : 1;
+    }
+
+    private long durationMicros(AudioFrameMessage frame) {
+        int sampleRate = frame.getSampleRate() != null && frame.getSampleRate() > 0
+            ? frame.getSampleRate() : config.getSampleRate();
+        long samplesPerChannel = frame.getBuf().readableBytes() / (2L * channelsOf(frame));
+        return samplesPerChannel * 1_000_000L / sampleRate;
+    }
+
+    private void forward(AudioFrameMessage frame, Consumer<AudioFrameMessage> forward) {
+        metrics.recordForwarded(frame.getBuf() != null ? frame.getBuf().readableBytes() : 0);
+        forward.accept(frame);
+    }
+}
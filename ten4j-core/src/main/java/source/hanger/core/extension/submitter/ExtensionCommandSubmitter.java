@@ -7,5 +7,7 @@ import source.hanger.core.message.CommandExecutionHandle;
 public interface ExtensionCommandSubmitter {
     CommandExecutionHandle<CommandResult> submitCommandFromExtension(Command command, String sourceExtensionName);
 
+    CommandExecutionHandle<CommandResult> submitFutureCommandFromExtension(Command command, String sourceExtensionName);
+
     void submitCommandResultFromExtension(CommandResult commandResult, String sourceExtensionName);
 }
\ No newline at end of file
@@ -21,7 +21,7 @@ public class AsrSelfDiscoveringExtension extends BaseExtension {
     @Override
     public void onStart(TenEnv env) {
         super.onStart(env);
-        env.submitCommandWithResultHandle(GenericCommand.create(CMD_ASR_DISCOVERY)).toCompletedFuture().thenAccept(
+        env.submitCommandWithFutureHandle(GenericCommand.create(CMD_ASR_DISCOVERY)).toCompletedFuture().thenAccept(
             commandResults -> {
                 commandResults.forEach(commandResult -> {
                     String availableExtensionName = commandResult
@@ -51,7 +51,8 @@ public class AsrSelfDiscoveringExtension extends BaseExtension {
         if (isBlank(destASRExtension)) {
             log.warn("[{}] 未发现ASR，忽略音频帧", env.getExtensionName());
         }
-        env.sendMessage(audioFrame.toBuilder()
+        // toBuilder 生成的新消息与原帧共享缓冲区，发送前为其 retain 一份引用
+        env.sendMessage(audioFrame.retain().toBuilder()
             .destLocs(singletonList(new Location(env.getAppUri(), env.getGraphId(), destASRExtension)))
             .build());
     }
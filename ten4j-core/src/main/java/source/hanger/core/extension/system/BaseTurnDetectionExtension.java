@@ -104,8 +104,8 @@ public abstract class BaseTurnDetectionExtension<MESSAGE> extends BaseExtension
             data.setName(TEXT_DATA_OUT_NAME);
         }
 
-        String inputText = data.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse("");
-        Boolean isFinal = data.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL).orElse(false);
+        String inputText = data.getPropertyString(DATA_OUT_PROPERTY_TEXT, "");
+        Boolean isFinal = data.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL, false);
 
         log.info("[{}] on_data text: {} is_final: {}", env.getExtensionName(), inputText, isFinal);
 
@@ -85,7 +85,8 @@ public class ClientConnectionExtension extends BaseExtension {
     public void onAudioFrame(TenEnv env, AudioFrameMessage audioFrame) {
         // 默认空实现
         routeLocation(env, audioFrame);
-        env.sendAudioFrame(audioFrame);
+        // 原样转发，发送会转移一份引用，而回调返回后框架会释放当前这份
+        env.sendAudioFrame(audioFrame.retain());
     }
 
     @Override
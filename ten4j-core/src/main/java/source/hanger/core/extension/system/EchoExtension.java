@@ -193,7 +193,7 @@ public class EchoExtension extends BaseExtension { // Extend BaseExtension
                         .property("original_data_name", data.getName())
                         .property("role", "assistant")
                         .property("text", "Echo: %s".formatted(
-                        data.getPropertyString(ExtensionConstants.DATA_OUT_PROPERTY_TEXT).orElse("")))
+                        data.getPropertyString(ExtensionConstants.DATA_OUT_PROPERTY_TEXT, "")))
                         .build();
 
                 // 设置目标位置（如果有的话）
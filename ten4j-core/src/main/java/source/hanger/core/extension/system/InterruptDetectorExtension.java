@@ -16,7 +16,10 @@ import source.hanger.core.util.IdGenerator;
 import static source.hanger.core.common.ExtensionConstants.ASR_DATA_OUT_NAME;
 import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_IS_FINAL;
 import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_TEXT;
+import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_VAD_EVENT;
 import static source.hanger.core.common.ExtensionConstants.TEXT_DATA_OUT_NAME;
+import static source.hanger.core.common.ExtensionConstants.VAD_DATA_OUT_NAME;
+import static source.hanger.core.common.ExtensionConstants.VAD_EVENT_SPEECH_START;
 
 @Slf4j
 public class InterruptDetectorExtension extends BaseExtension {
@@ -90,10 +93,18 @@ public class InterruptDetectorExtension extends BaseExtension {
     public void onDataMessage(TenEnv env, DataMessage data) {
         log.info("[{}] Received data message: {}", env.getExtensionName(), data.getName());
 
+        if (VAD_DATA_OUT_NAME.equals(data.getName())) {
+            // 本地 VAD 检测到用户开始说话，不等 ASR 文本直接打断；VAD 事件不再向下游转发
+            if (VAD_EVENT_SPEECH_START.equals(data.getPropertyString(DATA_OUT_PROPERTY_VAD_EVENT, ""))) {
+                sendFlushCmd(env, data.getId(), null);
+            }
+            return;
+        }
+
         if (TEXT_DATA_OUT_NAME.equals(data.getName())
             || ASR_DATA_OUT_NAME.equals(data.getName())) { // Check for text_data
-            String text = data.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse("");
-            Boolean isFinal = data.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL).orElse(false);
+            String text = data.getPropertyString(DATA_OUT_PROPERTY_TEXT, "");
+            Boolean isFinal = data.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL, false);
 
             log.debug("[{}] {}: {} {}: {}", env.getExtensionName(), DATA_OUT_PROPERTY_TEXT, text,
                 DATA_OUT_PROPERTY_IS_FINAL,
@@ -114,6 +125,6 @@ public class InterruptDetectorExtension extends BaseExtension {
         // Forward the original data message to downstream
         env.sendMessage(data);
         log.info("[{}] Forwarded data message: {} with text: {} and final: {}", env.getExtensionName(),
-            data.getName(), data.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""), data.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL).orElse(false));
+            data.getName(), data.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""), data.getPropertyBoolean(DATA_OUT_PROPERTY_IS_FINAL, false));
     }
 }
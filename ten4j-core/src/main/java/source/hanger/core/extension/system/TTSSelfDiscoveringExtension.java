@@ -44,7 +44,7 @@ public class TTSSelfDiscoveringExtension extends BaseExtension {
         Command command = GenericCommand.createBuilder(CMD_TTS_DISCOVERY)
             .property(GRAPH_PROPERTY_VOICE_MODEL, voiceModel)
             .build();
-        discoveryFuture = env.submitCommandWithResultHandle(command).toCompletedFuture().thenAccept(commandResults -> {
+        discoveryFuture = env.submitCommandWithFutureHandle(command).toCompletedFuture().thenAccept(commandResults -> {
             commandResults.forEach(commandResult -> {
                 String availableExtensionName = commandResult
                     .getPropertyString(CMD_RESULT_TTS_AVAILABLE).orElse( "");
@@ -97,7 +97,7 @@ public class TTSSelfDiscoveringExtension extends BaseExtension {
         waitForDiscovery();
         log.info("[{}] 适配器收到 DataMessage，将 DataMessage 转发给 destTTSExtension={} text={}",
             env.getExtensionName(), destTTSExtension,
-            dataMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""));
+            dataMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""));
         if (isBlank(destTTSExtension)) {
             log.error("[{}] onDataMessage 未配置TTS", env.getExtensionName());
         } else {
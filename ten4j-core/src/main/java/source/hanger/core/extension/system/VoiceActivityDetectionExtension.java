@@ -0,0 +1,80 @@
+package source.hanger.core.extension.system;
+
+import java.util.ArrayList;
+import java.util.Map;
+
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.core.extension.base.BaseExtension;
+import source.hanger.core.extension.component.vad.EnergyVoiceActivityDetector;
+import source.hanger.core.extension.component.vad.EnergyVoiceActivityDetector.Transition;
+import source.hanger.core.extension.component.vad.VadConfig;
+import source.hanger.core.extension.component.vad.VoiceActivityGate;
+import source.hanger.core.message.AudioFrameMessage;
+import source.hanger.core.message.DataMessage;
+import source.hanger.core.tenenv.TenEnv;
+
+import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_VAD_ENERGY_DB;
+import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_VAD_EVENT;
+import static source.hanger.core.common.ExtensionConstants.VAD_DATA_OUT_NAME;
+import static source.hanger.core.common.ExtensionConstants.VAD_EVENT_SPEECH_END;
+import static source.hanger.core.common.ExtensionConstants.VAD_EVENT_SPEECH_START;
+
+/**
+ * 本地语音活动检测（VAD）Extension，放在 PCM 音频进入 ASR 之前，不依赖外部服务。
+ *
+ * - 使用 {@link EnergyVoiceActivityDetector}（短时能量 + 过零率 + 拖尾平滑）逐帧检测
+ * - 开启 vad_gate_audio（默认）时只把语音段的音频转发给下游，静音不再上传 ASR
+ * - 语音开始 / 结束时输出 {@code vad_event} 数据（event=speech_start / speech_end），
+ *   InterruptDetectorExtension 收到 speech_start 后立即发送 flush 打断当前回复，不必等待 ASR 文本
+ *
+ * 图配置示例：client_connection 的 pcm_frame 连接到本 Extension，本 Extension 的 pcm_frame 连接到 ASR，
+ * vad_event 连接到 interrupt_detector。配置项见 {@link VadConfig}。
+ *
+ * 注意：能量检测无法区分用户语音与扬声器回放的 TTS 声音，需要客户端开启回声消除，否则 TTS 播放可能被判定为打断。
+ */
+@Slf4j
+public class VoiceActivityDetectionExtension extends BaseExtension {
+
+    private VoiceActivityGate gate;
+
+    @Override
+    protected void onExtensionConfigure(TenEnv env, Map<String, Object> properties) {
+        VadConfig config;
+        try {
+            config = env.bindProperties(VadConfig.class);
+        } catch (RuntimeException e) {
+            log.warn("[{}] VAD 配置无效，使用默认配置: {}", env.getExtensionName(), e.getMessage());
+            config = VadConfig.defaults();
+        }
+        this.gate = new VoiceActivityGate(config);
+        log.info("[{}] VAD Extension configuring config={}", env.getExtensionName(), config);
+    }
+
+    @Override
+    public void onStop(TenEnv env) {
+        super.onStop(env);
+        gate.clear();
+        log.info("[{}] VAD Extension stopping {}", env.getExtensionName(), gate.getMetrics());
+    }
+
+    @Override
+    public void onAudioFrame(TenEnv env, AudioFrameMessage audioFrame) {
+        if (!isRunning()) {
+            log.warn("[{}] VAD Extension未运行，忽略音频帧: frameId={}", env.getExtensionName(), audioFrame.getId());
+            return;
+        }
+        Transition transition = gate.onAudioFrame(audioFrame, frame -> env.sendMessage(frame.toBuilder()
+            .destLocs(new ArrayList<>()) // 清空目标，按图中本 Extension 的连接路由
+            .build()));
+        if (transition != Transition.NONE) {
+            String event = transition == Transition.SPEECH_START ? VAD_EVENT_SPEECH_START : VAD_EVENT_SPEECH_END;
+            EnergyVoiceActivityDetector detector = gate.getDetector();
+            log.info("[{}] VAD {} energy={}dB noiseFloor={}dB", env.getExtensionName(), event,
+                Math.round(detector.getLastEnergyDb()), Math.round(detector.getNoiseFloorDb()));
+            env.sendMessage(DataMessage.createBuilder(VAD_DATA_OUT_NAME)
+                .property(DATA_OUT_PROPERTY_VAD_EVENT, event)
+                .property(DATA_OUT_PROPERTY_VAD_ENERGY_DB, detector.getLastEnergyDb())
+                .build());
+        }
+    }
+}
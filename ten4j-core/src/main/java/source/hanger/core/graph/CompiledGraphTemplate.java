@@ -0,0 +1,81 @@
+package source.hanger.core.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+import source.hanger.core.util.PropertyTemplate;
+
+/**
+ * 预定义图的编译模板，在 {@link GraphLoader#loadPredefinedGraphsConfig()} 时构建一次。
+ *
+ * 图级别与各节点的 property 预先编译为 {@link PropertyTemplate}（{{...}} 表达式已完成 MVEL 编译），
+ * 每次启动会话时 {@link #instantiate(Map)} 只复制节点并对表达式求值，
+ * 取代此前 “序列化为 JSON -> 重新解析 -> 逐个编译表达式” 的流程。
+ *
+ * connections 与 runloop 配置在运行时只读，由所有实例共享，不再复制。
+ */
+@Getter
+public class CompiledGraphTemplate {
+
+    private final GraphDefinition definition;
+    private final PropertyTemplate graphProperty;
+    private final List<NodeTemplate> nodes;
+
+    private CompiledGraphTemplate(GraphDefinition definition, PropertyTemplate graphProperty,
+        List<NodeTemplate> nodes) {
+        this.definition = definition;
+        this.graphProperty = graphProperty;
+        this.nodes = nodes;
+    }
+
+    /**
+     * 编译图定义。definition 中的属性应为未解析的原始值（包含 {{...}} 占位符）。
+     */
+    public static CompiledGraphTemplate compile(GraphDefinition definition) {
+        PropertyTemplate graphProperty = definition.getProperty() != null
+            ? PropertyTemplate.compile(definition.getProperty()) : null;
+        List<NodeTemplate> nodes = null;
+        if (definition.getNodes() != null) {
+            nodes = new ArrayList<>(definition.getNodes().size());
+            for (NodeDefinition node : definition.getNodes()) {
+                nodes.add(new NodeTemplate(node,
+                    node.getProperty() != null ? PropertyTemplate.compile(node.getProperty()) : null));
+            }
+        }
+        return new CompiledGraphTemplate(definition, graphProperty, nodes);
+    }
+
+    /**
+     * 使用外部属性实例化一份新的 GraphDefinition，graphId 保持模板中的值，由调用方按需替换。
+     *
+     * @param externalProperties 表达式可以引用的外部属性，通常为 StartGraphCommand 的 properties
+     * @throws IllegalStateException 表达式求值失败
+     */
+    @SuppressWarnings("unchecked")
+    public GraphDefinition instantiate(Map<String, Object> externalProperties) {
+        List<NodeDefinition> instantiatedNodes = null;
+        if (nodes != null) {
+            instantiatedNodes = new ArrayList<>(nodes.size());
+            for (NodeTemplate nodeTemplate : nodes) {
+                NodeDefinition node = nodeTemplate.node();
+                instantiatedNodes.add(new NodeDefinition(node.getName(), node.getType(), node.getAddonName(),
+                    node.getExtensionGroupName(), nodeTemplate.property() != null
+                    ? (Map<String, Object>)nodeTemplate.property().instantiate(externalProperties) : null));
+            }
+        }
+        return new GraphDefinition()
+            .setGraphId(definition.getGraphId())
+            .setAppUri(definition.getAppUri())
+            .setGraphName(definition.getGraphName())
+            .setNodes(instantiatedNodes)
+            .setConnections(definition.getConnections())
+            .setRunloop(definition.getRunloop())
+            .setProperty(graphProperty != null
+                ? (Map<String, Object>)graphProperty.instantiate(externalProperties) : null);
+    }
+
+    public record NodeTemplate(NodeDefinition node, PropertyTemplate property) {
+    }
+}
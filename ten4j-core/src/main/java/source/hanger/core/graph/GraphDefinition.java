@@ -39,4 +39,8 @@ public class GraphDefinition {
     private List<ConnectionDefinition> connections;
 
     private Map<String, Object> property;
+
+    // 映射 property.json 中的 "runloop" 字段，为 Engine 与 ExtensionGroup 指定 Runloop 配置，可为空。
+    @JsonProperty("runloop")
+    private GraphRunloopConfig runloop;
 }
\ No newline at end of file
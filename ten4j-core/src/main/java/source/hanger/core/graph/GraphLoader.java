@@ -21,6 +21,11 @@ public class GraphLoader {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
             .configure(SerializationFeature.INDENT_OUTPUT, true);
 
+    /**
+     * 为 true 时，含有无法编译的 {{...}} 表达式的预定义图在加载时被跳过；默认只记录错误，保持原有的启动时报错行为。
+     */
+    private static final boolean STRICT_EXPRESSIONS = Boolean.getBoolean("ten4j.graph.strict-expressions");
+
     /**
      * 从JSON字符串加载图配置。
      *
@@ -97,6 +102,47 @@ public class GraphLoader {
         return ExpressionResolver.resolveProperties(value, externalProperties);
     }
 
+    /**
+     * 提前编译图定义中全部 {{...}} 表达式（图级别与各节点的 property），返回编译失败的表达式。
+     * 只检查语法，变量是否存在要到实例化时才能确定。
+     *
+     * @param graphDefinition 未解析的图定义
+     * @return 编译失败的表达式列表，全部通过时为空列表
+     */
+    public static List<ExpressionResolver.ExpressionError> validateGraphDefinition(GraphDefinition graphDefinition) {
+        List<ExpressionResolver.ExpressionError> errors = new ArrayList<>();
+        if (graphDefinition.getProperty() != null) {
+            errors.addAll(ExpressionResolver.validateProperties(graphDefinition.getProperty(), "property"));
+        }
+        if (graphDefinition.getNodes() != null) {
+            for (NodeDefinition node : graphDefinition.getNodes()) {
+                if (node.getProperty() != null) {
+                    errors.addAll(ExpressionResolver.validateProperties(node.getProperty(),
+                            "nodes[%s].property".formatted(node.getName())));
+                }
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * 使用预定义图的编译模板实例化一份新的图定义。
+     * 模板通常已在 {@link #loadPredefinedGraphsConfig()} 中构建，其他来源的条目在首次使用时编译并缓存。
+     *
+     * @param entry              预定义图条目
+     * @param externalProperties 表达式可以引用的外部属性
+     * @return 新的 GraphDefinition 实例
+     */
+    public static GraphDefinition instantiatePredefinedGraph(PredefinedGraphEntry entry,
+            Map<String, Object> externalProperties) {
+        CompiledGraphTemplate template = entry.getCompiledTemplate();
+        if (template == null) {
+            template = CompiledGraphTemplate.compile(entry.getGraph());
+            entry.setCompiledTemplate(template);
+        }
+        return template.instantiate(externalProperties);
+    }
+
     /**
      * 从 classpath 的 resources/graph 目录下加载所有预定义的图配置。
      *
@@ -119,6 +165,15 @@ public class GraphLoader {
                     if (entry.getGraph().getGraphId() == null) {
                         entry.getGraph().setGraphId(IdGenerator.generateShortId());
                     }
+                    List<ExpressionResolver.ExpressionError> errors = validateGraphDefinition(entry.getGraph());
+                    if (!errors.isEmpty()) {
+                        errors.forEach(error -> log.error("预定义图 {} 的表达式 {} ({}) 编译失败: {}", entry.getName(),
+                                error.expression(), error.path(), error.message()));
+                        if (STRICT_EXPRESSIONS) {
+                            continue;
+                        }
+                    }
+                    entry.setCompiledTemplate(CompiledGraphTemplate.compile(entry.getGraph()));
                 }
                 predefinedGraphs.add(entry);
             } catch (IOException e) {
@@ -0,0 +1,65 @@
+package source.hanger.core.graph;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import source.hanger.core.runloop.RunloopConfig;
+
+/**
+ * 图级别的 Runloop 配置，对应图定义中的 "runloop" 字段。
+ * 允许分别为 Engine 与各 ExtensionGroup 指定空闲策略、执行模式和 CPU 亲和性。
+ *
+ * <pre>
+ * "runloop": {
+ *   "engine": { "idle_strategy": "parking", "max_park_us": 1000 },
+ *   "extension_group_default": { "idle_strategy": "blocking" },
+ *   "extension_groups": {
+ *     "asr_group": { "idle_strategy": "backoff", "execution_mode": "inline" }
+ *   }
+ * }
+ * </pre>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class GraphRunloopConfig {
+
+    /**
+     * Engine Runloop 的配置。
+     */
+    @JsonProperty("engine")
+    private RunloopConfig engine;
+
+    /**
+     * 未单独配置的 ExtensionGroup 使用的默认配置。
+     */
+    @JsonProperty("extension_group_default")
+    private RunloopConfig extensionGroupDefault;
+
+    /**
+     * 按 ExtensionGroup 名称单独指定的配置。
+     */
+    @JsonProperty("extension_groups")
+    private Map<String, RunloopConfig> extensionGroups;
+
+    /**
+     * 获取指定 ExtensionGroup 的 Runloop 配置，未配置时回退到 extension_group_default。
+     *
+     * @param extensionGroupName ExtensionGroup 名称。
+     * @return 对应的配置，可能为 null（表示使用 Runloop 默认值）。
+     */
+    public RunloopConfig resolveExtensionGroup(String extensionGroupName) {
+        if (extensionGroups != null && extensionGroupName != null) {
+            RunloopConfig groupConfig = extensionGroups.get(extensionGroupName);
+            if (groupConfig != null) {
+                return groupConfig;
+            }
+        }
+        return extensionGroupDefault;
+    }
+}
@@ -3,10 +3,13 @@ package source.hanger.core.graph;
 import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.ToString;
 import lombok.experimental.Accessors;
 
 /**
@@ -42,4 +45,12 @@ public class PredefinedGraphEntry {
     private List<String> voices;
 
     private List<String> models;
+
+    /**
+     * 由 GraphLoader 构建的编译模板，不参与序列化。
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile CompiledGraphTemplate compiledTemplate;
 }
\ No newline at end of file
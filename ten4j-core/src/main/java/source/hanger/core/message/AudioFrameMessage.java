@@ -3,6 +3,7 @@ package source.hanger.core.message;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.netty.buffer.ByteBuf;
+import io.netty.util.ReferenceCounted;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.experimental.SuperBuilder;
@@ -32,12 +33,18 @@ import lombok.extern.slf4j.Slf4j;
  *
  * Java 实现中，我们将所有字段直接作为类的字段，并通过 `@JsonProperty` 进行映射。
  * 不再需要自定义的 Jackson `JsonSerializer` 和 `JsonDeserializer`。
+ *
+ * 引用计数：消息的 {@link ReferenceCounted} 语义委托给 {@link #buf}（buf 为 null 时为空操作）。
+ * 入站帧的 buf 是从 Netty 接收缓冲区上 retainedSlice 出来的池化切片，不做拷贝。
+ * 发送消息即转移一份引用：ExtensionThread 在 onAudioFrame 返回后释放一次，出站编码器编码后释放一次。
+ * Extension 需要在回调之外继续持有 buf，或将收到的帧原样转发时，应先调用 {@link #retain()}。
+ * 排查泄漏时可使用 -Dio.netty.leakDetection.level=paranoid 启动，泄漏报告中会包含各处理环节的 touch 记录。
  */
 @EqualsAndHashCode(callSuper = true)
 @Slf4j
 @SuperBuilder(toBuilder = true)
 @Getter
-public class AudioFrameMessage extends Message {
+public class AudioFrameMessage extends Message implements ReferenceCounted {
 
     /**
      * 音频帧时间戳 (内部时间戳)。
@@ -153,6 +160,53 @@ public class AudioFrameMessage extends Message {
         return MessageType.AUDIO_FRAME;
     }
 
+    @Override
+    public int refCnt() {
+        return buf != null ? buf.refCnt() : 1;
+    }
+
+    @Override
+    public AudioFrameMessage retain() {
+        if (buf != null) {
+            buf.retain();
+        }
+        return this;
+    }
+
+    @Override
+    public AudioFrameMessage retain(int increment) {
+        if (buf != null) {
+            buf.retain(increment);
+        }
+        return this;
+    }
+
+    @Override
+    public AudioFrameMessage touch() {
+        if (buf != null) {
+            buf.touch();
+        }
+        return this;
+    }
+
+    @Override
+    public AudioFrameMessage touch(Object hint) {
+        if (buf != null) {
+            buf.touch(hint);
+        }
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return buf != null && buf.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return buf != null && buf.release(decrement);
+    }
+
     @Override
     public AudioFrameMessageBuilder<?, ?> cloneBuilder() {
         return (AudioFrameMessageBuilder<?, ?>)super.cloneBuilder();
@@ -0,0 +1,108 @@
+package source.hanger.core.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import lombok.extern.slf4j.Slf4j;
+import source.hanger.core.runloop.Runloop;
+
+/**
+ * 只关心最终结果的轻量 {@code CommandExecutionHandle} 实现，不构建 RxJava 管道。
+ *
+ * 与 {@link DefaultCommandExecutionHandle} 的区别：
+ * - 结果直接收集在句柄内，{@link #close()} 时在调用线程（即 PathTable 所在的所属 Runloop）上直接完成 Future，
+ *   不再经过 PublishProcessor 和 observeOn 的额外投递
+ * - 常见的单结果命令只保存一个结果，不分配 ArrayList
+ * - {@link #onRunloop(Runloop)} 只在完成时向目标 Runloop 投递一次任务
+ * - {@link #toFlowable()} 在命令结束后一次性发出全部结果，不支持逐条流式接收
+ *
+ * 需要逐条处理中间结果（isFinal = false）的命令应继续使用 {@link DefaultCommandExecutionHandle}。
+ *
+ * submit / close 应在所属 Runloop 上调用；closeExceptionally 可以在任意线程调用。
+ *
+ * @param <T> 命令执行过程中产生的具体结果类型，通常是 {@link CommandResult}。
+ */
+@Slf4j
+public class FutureCommandExecutionHandle<T> implements CommandExecutionHandle<T> {
+
+    private final CompletableFuture<List<T>> future = new CompletableFuture<>();
+    private T firstResult; // 单结果命令只使用该字段
+    private List<T> moreResults; // 第二个结果到达时才分配
+
+    @Override
+    public Flowable<T> toFlowable() {
+        return Flowable.create(emitter -> future.whenComplete((results, error) -> {
+            if (error != null) {
+                emitter.tryOnError(error);
+                return;
+            }
+            for (T result : results) {
+                if (emitter.isCancelled()) {
+                    return;
+                }
+                emitter.onNext(result);
+            }
+            emitter.onComplete();
+        }), BackpressureStrategy.BUFFER);
+    }
+
+    @Override
+    public CompletableFuture<List<T>> toCompletedFuture() {
+        return future;
+    }
+
+    @Override
+    public void submit(T item) {
+        if (future.isDone()) {
+            log.debug("FutureCommandExecutionHandle: 句柄已完成，忽略迟到的结果。");
+            return;
+        }
+        if (firstResult == null) {
+            firstResult = item;
+        } else {
+            if (moreResults == null) {
+                moreResults = new ArrayList<>(4);
+            }
+            moreResults.add(item);
+        }
+    }
+
+    @Override
+    public void close() {
+        future.complete(collectResults());
+    }
+
+    @Override
+    public void closeExceptionally(Throwable error) {
+        future.completeExceptionally(error);
+    }
+
+    @Override
+    public CommandExecutionHandle<T> onRunloop(Runloop targetRunloop) {
+        FutureCommandExecutionHandle<T> shifted = new FutureCommandExecutionHandle<>();
+        future.whenComplete((results, error) -> targetRunloop.postTask(() -> {
+            if (error != null) {
+                shifted.future.completeExceptionally(error);
+            } else {
+                shifted.future.complete(results);
+            }
+        }));
+        return shifted;
+    }
+
+    private List<T> collectResults() {
+        if (firstResult == null) {
+            return List.of();
+        }
+        if (moreResults == null) {
+            return List.of(firstResult);
+        }
+        List<T> results = new ArrayList<>(moreResults.size() + 1);
+        results.add(firstResult);
+        results.addAll(moreResults);
+        return results;
+    }
+}
@@ -1,26 +1,31 @@
 package source.hanger.core.message;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.Data;
 import lombok.EqualsAndHashCode;
-import lombok.NoArgsConstructor;
-import lombok.experimental.Accessors;
+import lombok.Getter;
+import lombok.ToString;
 
-@Data
-@NoArgsConstructor
-@Accessors(chain = true)
-@EqualsAndHashCode(of = {"appUri", "graphId", "extensionName"})
-public class Location {
+/**
+ * 消息的源或目的地。Location 不可变，可以在多条消息与路由索引之间共享；
+ * 需要改写某个字段时创建新的 Location 替换消息上的引用。
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class Location {
     @JsonProperty("app_uri")
-    private String appUri;
+    private final String appUri;
     @JsonProperty("graph_id")
-    private String graphId;
+    private final String graphId;
     @JsonProperty("extension_name")
-    private String extensionName;
+    private final String extensionName;
 
-    public Location(String appUri, String graphId, String extensionName) {
+    @JsonCreator
+    public Location(@JsonProperty("app_uri") String appUri, @JsonProperty("graph_id") String graphId,
+        @JsonProperty("extension_name") String extensionName) {
         this.appUri = appUri;
         this.graphId = graphId;
         this.extensionName = extensionName;
     }
-}
\ No newline at end of file
+}
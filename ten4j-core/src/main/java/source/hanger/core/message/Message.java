@@ -166,6 +166,60 @@ public abstract class Message implements Cloneable {
     }
 
 
+    // 以下带默认值的访问方法直接返回基本类型，不分配 Optional，供消息处理的热路径使用。
+    // 属性不存在、为 nil 或类型不匹配时返回默认值（不输出日志）；数值类型之间按数值转换。
+
+    public String getPropertyString(String propertyName, String defaultValue) {
+        Object value = properties != null ? properties.get(propertyName) : null;
+        if (value instanceof String text) {
+            return text;
+        } else if (value instanceof ImmutableValue immutableValue && immutableValue.isStringValue()) {
+            return immutableValue.asStringValue().asString();
+        }
+        return defaultValue;
+    }
+
+    public int getPropertyInteger(String propertyName, int defaultValue) {
+        Object value = properties != null ? properties.get(propertyName) : null;
+        if (value instanceof Number number) {
+            return number.intValue();
+        } else if (value instanceof ImmutableValue immutableValue && immutableValue.isNumberValue()) {
+            return immutableValue.asNumberValue().toInt();
+        }
+        return defaultValue;
+    }
+
+    public long getPropertyLong(String propertyName, long defaultValue) {
+        Object value = properties != null ? properties.get(propertyName) : null;
+        if (value instanceof Number number) {
+            return number.longValue();
+        } else if (value instanceof ImmutableValue immutableValue && immutableValue.isNumberValue()) {
+            return immutableValue.asNumberValue().toLong();
+        }
+        return defaultValue;
+    }
+
+    public double getPropertyDouble(String propertyName, double defaultValue) {
+        Object value = properties != null ? properties.get(propertyName) : null;
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        } else if (value instanceof ImmutableValue immutableValue && immutableValue.isNumberValue()) {
+            return immutableValue.asNumberValue().toDouble();
+        }
+        return defaultValue;
+    }
+
+    public boolean getPropertyBoolean(String propertyName, boolean defaultValue) {
+        Object value = properties != null ? properties.get(propertyName) : null;
+        if (value instanceof Boolean bool) {
+            return bool;
+        } else if (value instanceof ImmutableValue immutableValue && immutableValue.isBooleanValue()) {
+            return immutableValue.asBooleanValue().getBoolean();
+        }
+        return defaultValue;
+    }
+
+
     public MessageBuilder<?, ?> cloneBuilder() {
         return innerToBuilder()
             .id(IdGenerator.generateShortId())
@@ -21,6 +21,14 @@ public class MessageConversionContext {
     @JsonProperty("src_msg_name")
     private String srcMsgName;
 
+    // 源消息的类型 (可选)，为空时匹配所有类型；从图 connections 加载时按所在的 cmd / data / ... 列表填充
+    @JsonProperty("src_msg_type")
+    private MessageType srcMsgType;
+
+    // 源 Extension 名称 (可选)，为空时匹配任意来源；从图 connections 加载时按所在连接的 extension 填充
+    @JsonProperty("src_extension")
+    private String srcExtensionName;
+
     // 目标消息的名称或类型
     @JsonProperty("dst_msg_name")
     private String dstMsgName;
@@ -5,6 +5,7 @@ import java.util.Objects;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import org.agrona.DeadlineTimerWheel;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.Location;
 
@@ -46,6 +47,9 @@ public class PathBase {
     // C: bool has_received_final_cmd_result;
     private Boolean hasReceivedFinalCommandResult;
 
+    // PathTable 过期定时器轮中的定时器 ID，未登记时为 DeadlineTimerWheel.NULL_DEADLINE
+    private long expiryTimerId = DeadlineTimerWheel.NULL_DEADLINE;
+
     // 构造函数，严格匹配 C 语言 `ten_path_init` 的参数，并添加了 PathGroup 和结果处理相关字段的初始化
     public PathBase(String commandId, String parentCommandId, String commandName, Location sourceLocation,
             long expiredTimeUs, PathTable attachedTable, PathType type) {
@@ -1,13 +1,19 @@
 package source.hanger.core.path;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.apache.commons.lang3.StringUtils;
 import source.hanger.core.connection.Connection;
 import source.hanger.core.engine.Engine;
@@ -16,11 +22,18 @@ import source.hanger.core.message.CommandExecutionHandle;
 import source.hanger.core.message.CommandResult;
 import source.hanger.core.message.Location;
 import source.hanger.core.message.command.Command;
+import source.hanger.core.runloop.Runloop;
 import source.hanger.core.server.GraphStoppedException;
 
 /**
  * 路径表，负责管理命令和数据在Engine内部的流转路径 (PathOut, PathIn)。
  * 对应C语言中的ten_path_table_t结构，并保持命名一致性。
+ *
+ * 每条路径创建时按 expiredTimeUs 登记到哈希定时器轮（Agrona DeadlineTimerWheel），登记与取消均为 O(1)。
+ * 定时器轮由所属 Runloop 在 doWork 中通过 {@link #pollExpiredPaths(long)} 驱动：
+ * - 过期的 PathOut 以超时失败的 CommandResult 走正常的结果返回策略，完成其 CommandExecutionHandle 并回溯
+ * - 过期的 PathIn 直接移除
+ * 每个 Graph 的存活/过期路径数见 {@link #getGraphMetrics(String)}。
  */
 @Slf4j
 @Getter
@@ -41,10 +54,60 @@ public class PathTable {
     private final PathTableAttachedTo attachedTo;
     private final Object attachedTarget;
 
-    public PathTable(PathTableAttachedTo attachedTo, Object attachedTarget, MessageSubmitter messageSubmitter) {
+    // --- 路径过期定时器轮 ---
+    // 刻度 256ms、每圈 2048 格（约 8.7 分钟），默认的 3/5 分钟超时在一圈内即可到期
+    private static final long EXPIRY_TICK_RESOLUTION_MS = 256;
+    private static final int EXPIRY_TICKS_PER_WHEEL = 2048;
+    // 仍有未到期路径时，请求 Runloop 唤醒检查的间隔（仅 SHARED / blocking 模式需要）
+    private static final long EXPIRY_CHECK_INTERVAL_MS = 1000;
+
+    // 登记/取消可能来自其他线程（如 Graph 停止清理），持有 expiryLock 时进行；到期回调只收集路径，超时处理在锁外执行
+    @Getter(AccessLevel.NONE)
+    private final Object expiryLock = new Object();
+    @Getter(AccessLevel.NONE)
+    private final DeadlineTimerWheel expiryWheel;
+    @Getter(AccessLevel.NONE)
+    private final Long2ObjectHashMap<PathBase> expiringPaths = new Long2ObjectHashMap<>();
+    // 以下两个字段仅由所属 Runloop 在 pollExpiredPaths 中访问
+    @Getter(AccessLevel.NONE)
+    private final List<PathBase> expiredBuffer = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private long nextExpiryPollMs;
+    @Getter(AccessLevel.NONE)
+    private long nextExpiryWakeupMs = Long.MAX_VALUE;
+    @Getter(AccessLevel.NONE)
+    private final DeadlineTimerWheel.TimerHandler expiryHandler = this::onPathTimerExpiry;
+    @Getter(AccessLevel.NONE)
+    private final Runloop runloop;
+    @Getter(AccessLevel.NONE)
+    private final LongSupplier clockMs;
+
+    // graphId -> 该 Graph 的路径统计
+    private final ConcurrentMap<String, PathTableMetrics> graphMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * @param runloop 驱动路径过期的 Runloop，其 doWork 中需调用 {@link #pollExpiredPaths(long)}；
+     *                为 null 时不会主动请求定时唤醒。
+     */
+    public PathTable(PathTableAttachedTo attachedTo, Object attachedTarget, MessageSubmitter messageSubmitter,
+            Runloop runloop) {
+        this(attachedTo, attachedTarget, messageSubmitter, runloop, System::currentTimeMillis);
+    }
+
+    /**
+     * @param clockMs 当前时间（epoch 毫秒）的来源，决定路径的过期时间，测试中用于注入时钟
+     */
+    PathTable(PathTableAttachedTo attachedTo, Object attachedTarget, MessageSubmitter messageSubmitter,
+            Runloop runloop, LongSupplier clockMs) {
         this.attachedTo = attachedTo;
         this.attachedTarget = attachedTarget;
         this.messageSubmitter = messageSubmitter;
+        this.runloop = runloop;
+        this.clockMs = clockMs;
+        long nowMs = clockMs.getAsLong();
+        this.expiryWheel = new DeadlineTimerWheel(TimeUnit.MILLISECONDS, nowMs, EXPIRY_TICK_RESOLUTION_MS,
+                EXPIRY_TICKS_PER_WHEEL);
+        this.nextExpiryPollMs = nowMs;
     }
 
     /**
@@ -63,7 +126,7 @@ public class PathTable {
         String originalCommandName = command.getName();
         Location sourceLocation = command.getSrcLoc();
 
-        long expiredTimeUs = System.currentTimeMillis() + getDefaultPathTimeoutDurationUs(PathType.OUT);
+        long expiredTimeUs = nowMicros() + getDefaultPathTimeoutDurationUs(PathType.OUT);
 
         // 创建 PathBase 实例，严格遵循 C ten_path_t 字段
         PathBase pathBase = new PathBase(
@@ -84,7 +147,8 @@ public class PathTable {
         PathOut pathOut = new PathOut(
                 pathBase,
                 handle);
-        pathOuts.put(commandId, pathOut);
+        PathOut previous = pathOuts.put(commandId, pathOut);
+        onPathAdded(previous != null ? previous.base() : null, pathBase);
 
         log.debug(
                 "PathTable: 创建PathOut: commandId={}, parentCommandId={}, name={}, srcLoc={}, expiredTime={}, group={}, lastInGroup={}",
@@ -111,6 +175,7 @@ public class PathTable {
     public void removeOutPath(String commandId) {
         PathOut removedPath = pathOuts.remove(commandId);
         if (removedPath != null) {
+            onPathRemoved(removedPath.base());
             log.debug("PathTable: 移除PathOut: commandId={}", commandId);
         }
     }
@@ -122,7 +187,7 @@ public class PathTable {
      * @param connection 消息来自的物理连接
      */
     public void createInPath(Command command, Connection connection) {
-        long expiredTimeUs = System.currentTimeMillis() + getDefaultPathTimeoutDurationUs(PathType.IN);
+        long expiredTimeUs = nowMicros() + getDefaultPathTimeoutDurationUs(PathType.IN);
 
         PathBase pathBase = new PathBase(
                 command.getId(),
@@ -134,7 +199,8 @@ public class PathTable {
                 PathType.IN);
 
         PathIn pathIn = new PathIn(pathBase, command, connection); // 调用 PathIn 的新构造函数
-        inPaths.put(command.getId(), pathIn);
+        PathIn previous = inPaths.put(command.getId(), pathIn);
+        onPathAdded(previous != null ? previous.base() : null, pathBase);
         log.debug("PathTable: 创建PathIn: commandId={}, commandName={}, parentCommandId={}, srcLoc={}, connection={}",
                 command.getId(), command.getName(), command.getParentCommandId(), command.getSrcLoc(),
                 connection != null ? connection.getConnectionId() : "N/A");
@@ -158,6 +224,7 @@ public class PathTable {
     public void removeInPath(String commandId) {
         PathIn removedPath = inPaths.remove(commandId);
         if (removedPath != null) {
+            onPathRemoved(removedPath.base());
             log.debug("PathTable: 移除PathIn: commandId={}", commandId);
         }
     }
@@ -427,6 +494,175 @@ public class PathTable {
         for (String groupId : groupIdsToCleanup) {
             removePathGroupAndAllItsPaths(groupId);
         }
+
+        // 清理 PathIns
+        List<String> inCommandIdsToCleanup = inPaths.entrySet().stream()
+                .filter(entry -> graphId.equals(entry.getValue().getSourceLocation().getGraphId()))
+                .map(Map.Entry::getKey)
+                .toList();
+        inCommandIdsToCleanup.forEach(this::removeInPath);
+
+        PathTableMetrics metrics = graphMetrics.remove(graphId);
+        if (metrics != null) {
+            log.info("PathTable: Graph {} 路径统计 {}", graphId, metrics);
+        }
+    }
+
+    /**
+     * 获取指定 Graph 的路径统计。
+     *
+     * @param graphId Graph ID
+     * @return 该 Graph 的存活/过期路径数；尚未创建过路径或已被清理时为空
+     */
+    public Optional<PathTableMetrics> getGraphMetrics(String graphId) {
+        return Optional.ofNullable(graphMetrics.get(StringUtils.defaultString(graphId)));
+    }
+
+    /**
+     * 推进过期定时器轮并处理到期的路径，由所属 Runloop 在 doWork 中调用。
+     * 定时器轮精度为一个刻度（256ms），未到下一个刻度时只做一次比较即返回。
+     *
+     * @param nowMs 当前时间（epoch 毫秒）
+     * @return 本次过期的路径数
+     */
+    public int pollExpiredPaths(long nowMs) {
+        if (nowMs < nextExpiryPollMs) {
+            if (nextExpiryWakeupMs != Long.MAX_VALUE) {
+                // Runloop 只保留最早的一次待触发唤醒，重新提交以免被其他请求覆盖后丢失
+                runloop.wakeupAt(nextExpiryWakeupMs);
+            }
+            return 0;
+        }
+        boolean hasPendingTimers;
+        synchronized (expiryLock) {
+            if (expiryWheel.timerCount() == 0) {
+                // 没有定时器时直接把当前刻度跳到 now，避免之后逐格追赶
+                expiryWheel.currentTickTime(nowMs);
+            } else {
+                do {
+                    expiryWheel.poll(nowMs, expiryHandler, Integer.MAX_VALUE);
+                } while (nowMs >= expiryWheel.currentTickTime());
+            }
+            nextExpiryPollMs = expiryWheel.currentTickTime();
+            hasPendingTimers = expiryWheel.timerCount() > 0;
+        }
+
+        int expired = expiredBuffer.size();
+        for (int i = 0; i < expired; i++) {
+            expirePath(expiredBuffer.get(i));
+        }
+        expiredBuffer.clear();
+
+        if (hasPendingTimers && runloop != null && runloop.requiresTimedWakeup()) {
+            nextExpiryWakeupMs = nowMs + EXPIRY_CHECK_INTERVAL_MS;
+            runloop.wakeupAt(nextExpiryWakeupMs);
+        } else {
+            nextExpiryWakeupMs = Long.MAX_VALUE;
+        }
+        return expired;
+    }
+
+    private boolean onPathTimerExpiry(TimeUnit timeUnit, long now, long timerId) {
+        PathBase pathBase = expiringPaths.remove(timerId);
+        if (pathBase != null) {
+            pathBase.setExpiryTimerId(DeadlineTimerWheel.NULL_DEADLINE);
+            expiredBuffer.add(pathBase);
+        }
+        return true;
+    }
+
+    /**
+     * 处理一条到期的路径。路径在到期后、处理前可能已因收到结果而被移除或被同 ID 的新路径替换，此时忽略。
+     */
+    private void expirePath(PathBase pathBase) {
+        String commandId = pathBase.getCommandId();
+        if (pathBase.getType() == PathType.IN) {
+            PathIn pathIn = inPaths.get(commandId);
+            if (pathIn == null || pathIn.base() != pathBase) {
+                return;
+            }
+            log.warn("PathTable: PathIn 已过期，移除: commandId={}, name={}", commandId, pathBase.getCommandName());
+            countExpired(pathBase);
+            removeInPath(commandId);
+            return;
+        }
+
+        PathOut pathOut = pathOuts.get(commandId);
+        if (pathOut == null || pathOut.base() != pathBase) {
+            return;
+        }
+        log.warn("PathTable: PathOut 已过期，以超时结果完成: commandId={}, name={}, group={}", commandId,
+                pathBase.getCommandName(), pathOut.getGroup() != null ? pathOut.getGroup().getGroupId() : "N/A");
+        countExpired(pathBase);
+
+        CommandResult timeoutResult = CommandResult.fail(commandId, null, pathBase.getCommandName(),
+                "Command %s timed out after %d ms without a final result.".formatted(pathBase.getCommandName(),
+                        TimeUnit.MICROSECONDS.toMillis(getDefaultPathTimeoutDurationUs(PathType.OUT))));
+        try {
+            handleResultReturnPolicy(pathOut, timeoutResult);
+        } catch (CloneNotSupportedException e) {
+            log.error("PathTable: 处理过期 PathOut {} 的超时结果失败: {}", commandId, e.getMessage(), e);
+            CommandExecutionHandle<CommandResult> handle = pathOut.commandExecutionHandle();
+            if (handle != null) {
+                handle.closeExceptionally(e);
+            }
+        }
+        // 没有 handle 的路径不会被结果返回策略移除；组内成员则在整个组结束时统一移除
+        if (pathOut.getGroup() == null) {
+            removeOutPath(commandId);
+        }
+    }
+
+    private void onPathAdded(PathBase replaced, PathBase added) {
+        if (replaced != null) {
+            cancelExpiry(replaced); // 同 ID 路径被替换，存活数不变
+        } else {
+            PathTableMetrics metrics = graphMetrics.computeIfAbsent(graphKeyOf(added), k -> new PathTableMetrics());
+            (added.getType() == PathType.OUT ? metrics.getLiveOutPaths() : metrics.getLiveInPaths()).incrementAndGet();
+        }
+        long deadlineMs = TimeUnit.MICROSECONDS.toMillis(added.getExpiredTimeUs());
+        synchronized (expiryLock) {
+            long timerId = expiryWheel.scheduleTimer(deadlineMs);
+            added.setExpiryTimerId(timerId);
+            expiringPaths.put(timerId, added);
+        }
+        if (runloop != null && runloop.requiresTimedWakeup()) {
+            runloop.wakeupAt(deadlineMs + EXPIRY_TICK_RESOLUTION_MS);
+        }
+    }
+
+    private void onPathRemoved(PathBase removed) {
+        cancelExpiry(removed);
+        PathTableMetrics metrics = graphMetrics.get(graphKeyOf(removed));
+        if (metrics != null) {
+            (removed.getType() == PathType.OUT ? metrics.getLiveOutPaths() : metrics.getLiveInPaths())
+                    .decrementAndGet();
+        }
+    }
+
+    private void cancelExpiry(PathBase pathBase) {
+        synchronized (expiryLock) {
+            long timerId = pathBase.getExpiryTimerId();
+            if (timerId != DeadlineTimerWheel.NULL_DEADLINE) {
+                expiryWheel.cancelTimer(timerId);
+                expiringPaths.remove(timerId);
+                pathBase.setExpiryTimerId(DeadlineTimerWheel.NULL_DEADLINE);
+            }
+        }
+    }
+
+    private void countExpired(PathBase pathBase) {
+        PathTableMetrics metrics = graphMetrics.computeIfAbsent(graphKeyOf(pathBase), k -> new PathTableMetrics());
+        (pathBase.getType() == PathType.OUT ? metrics.getExpiredOutPaths() : metrics.getExpiredInPaths())
+                .incrementAndGet();
+    }
+
+    private static String graphKeyOf(PathBase pathBase) {
+        return StringUtils.defaultString(pathBase.getSourceLocation().getGraphId());
+    }
+
+    private long nowMicros() {
+        return TimeUnit.MILLISECONDS.toMicros(clockMs.getAsLong());
     }
 
     /**
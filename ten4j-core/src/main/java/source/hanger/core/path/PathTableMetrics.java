@@ -0,0 +1,24 @@
+package source.hanger.core.path;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * PathTable 中单个 Graph 的路径统计，可在任意线程读取。
+ * live* 为当前仍在路径表中的路径数，expired* 为因超时被定时器轮回收的累计路径数。
+ */
+@Getter
+public class PathTableMetrics {
+
+    private final AtomicLong liveOutPaths = new AtomicLong();
+    private final AtomicLong liveInPaths = new AtomicLong();
+    private final AtomicLong expiredOutPaths = new AtomicLong();
+    private final AtomicLong expiredInPaths = new AtomicLong();
+
+    @Override
+    public String toString() {
+        return "liveOut=%d, liveIn=%d, expiredOut=%d, expiredIn=%d".formatted(
+            liveOutPaths.get(), liveInPaths.get(), expiredOutPaths.get(), expiredInPaths.get());
+    }
+}
@@ -60,7 +60,7 @@ public class Remote implements MessageReceiver {
         // 确保消息的源 App URI 被设置为此 Remote 的 URI
         if (message.getSrcLoc() != null && (message.getSrcLoc().getAppUri() == null || message.getSrcLoc().getAppUri()
             .isEmpty())) {
-            message.getSrcLoc().setAppUri(this.uri).setGraphId(engine.getGraphId());
+            message.setSrcLoc(new Location(this.uri, engine.getGraphId(), message.getSrcLoc().getExtensionName()));
             log.debug("Remote {}: 设置入站消息 {} 的源 App URI 为 {}", uri, message.getId(), this.uri);
         }
 
@@ -90,7 +90,7 @@ public class Remote implements MessageReceiver {
         // 只有当消息的源 URI 未被指定时才设置，防止覆盖上层已设置的源
         if (message.getSrcLoc() != null && (message.getSrcLoc().getAppUri() == null || message.getSrcLoc().getAppUri()
             .isEmpty())) {
-            message.getSrcLoc().setAppUri(this.uri).setGraphId(engine.getGraphId());
+            message.setSrcLoc(new Location(this.uri, engine.getGraphId(), message.getSrcLoc().getExtensionName()));
             log.debug("Remote {}: 设置出站消息 {} 的源 App URI 为 {}", uri, message.getId(), this.uri);
         }
 
@@ -128,8 +128,8 @@ public class Remote implements MessageReceiver {
             // 创建 StopGraphCommand 并发送给 App
             // 注意：StopGraphCommand 需要一个 Graph ID 来识别要停止的 Engine
             // 这里的 graphId 应该就是当前 Remote 所关联的 Engine 的 graphId
-            Location destLoc = new Location().setAppUri(engine.getApp().getAppUri()).setGraphId(engine.getGraphId());
-            Location srcLoc = new Location().setAppUri(engine.getApp().getAppUri()).setGraphId(engine.getGraphId());
+            Location destLoc = new Location(engine.getApp().getAppUri(), engine.getGraphId(), null);
+            Location srcLoc = new Location(engine.getApp().getAppUri(), engine.getGraphId(), null);
             StopGraphCommand stopGraphCommand = StopGraphCommand.create(srcLoc,
                 singletonList(destLoc), engine.getGraphId()); // 传递 graphId 给命令
             // 通过 App 的 submitCommand 方法发送命令
@@ -0,0 +1,73 @@
+package source.hanger.core.runloop;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+
+/**
+ * 将当前线程绑定到指定 CPU 集合。
+ * 通过 FFM 调用 Linux 的 sched_setaffinity(0, ...)，其他平台或调用失败时仅记录日志，不影响 Runloop 运行。
+ */
+@Slf4j
+final class CpuAffinity {
+
+    private static final int MAX_CPUS = 1024;
+    private static final int MASK_WORDS = MAX_CPUS / Long.SIZE;
+
+    private CpuAffinity() {
+    }
+
+    /**
+     * 将调用线程绑定到给定 CPU 集合。必须在目标线程内调用。
+     *
+     * @param cpus     CPU 编号列表，为空时不做任何处理。
+     * @param roleName 用于日志的 Runloop 名称。
+     */
+    static void pinCurrentThread(List<Integer> cpus, String roleName) {
+        if (CollectionUtils.isEmpty(cpus)) {
+            return;
+        }
+        if (!System.getProperty("os.name", "").toLowerCase().contains("linux")) {
+            log.warn("[{}] CPU 亲和性仅支持 Linux，忽略配置 {}", roleName, cpus);
+            return;
+        }
+        try {
+            Linker linker = Linker.nativeLinker();
+            MemorySegment symbol = linker.defaultLookup().find("sched_setaffinity").orElse(null);
+            if (symbol == null) {
+                log.warn("[{}] 未找到 sched_setaffinity，忽略 CPU 亲和性配置 {}", roleName, cpus);
+                return;
+            }
+            MethodHandle setAffinity = linker.downcallHandle(symbol,
+                FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.JAVA_INT, ValueLayout.JAVA_LONG,
+                    ValueLayout.ADDRESS));
+            try (Arena arena = Arena.ofConfined()) {
+                MemorySegment mask = arena.allocate((long)MASK_WORDS * Long.BYTES, Long.BYTES);
+                for (Integer cpu : cpus) {
+                    if (cpu == null || cpu < 0 || cpu >= MAX_CPUS) {
+                        log.warn("[{}] 非法的 CPU 编号 {}，已忽略", roleName, cpu);
+                        continue;
+                    }
+                    long offset = (long)(cpu / Long.SIZE) * Long.BYTES;
+                    long word = mask.get(ValueLayout.JAVA_LONG, offset);
+                    mask.set(ValueLayout.JAVA_LONG, offset, word | (1L << (cpu % Long.SIZE)));
+                }
+                int rc = (int)setAffinity.invokeExact(0, mask.byteSize(), mask);
+                if (rc != 0) {
+                    log.warn("[{}] sched_setaffinity 返回 {}，CPU 亲和性 {} 未生效", roleName, rc, cpus);
+                    return;
+                }
+            }
+            log.info("[{}] 核心线程已绑定到 CPU {}", roleName, cpus);
+        } catch (Throwable e) {
+            log.warn("[{}] 设置 CPU 亲和性 {} 失败: {}", roleName, cpus, e.getMessage());
+        }
+    }
+}
@@ -3,11 +3,17 @@ package source.hanger.core.runloop;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.concurrent.locks.LockSupport;
 
 import lombok.Getter;
@@ -16,9 +22,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentRunner;
 import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.BusySpinIdleStrategy;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
-import org.apache.commons.lang3.time.StopWatch;
+import org.agrona.concurrent.SleepingIdleStrategy;
+import org.agrona.concurrent.YieldingIdleStrategy;
+import org.apache.commons.collections4.CollectionUtils;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -27,25 +36,76 @@ import org.jetbrains.annotations.NotNull;
  *
  * 特性：
  * - 批量消费内部任务（可配置批量大小）
- * - 使用 BackoffIdleStrategy（折中自旋 -> yield -> sleep）
+ * - 空闲策略由 {@link RunloopConfig} 决定，默认 BackoffIdleStrategy（折中自旋 -> yield -> sleep）
+ * - 可选将核心线程绑定到指定 CPU 集合
+ * - 调度方式 {@link RunloopSchedulerType}：DEDICATED 独占核心线程，SHARED 多路复用在 {@link SharedRunloopScheduler} 上
  * - 提交任务后唤醒 runloop 线程以提高响应性
  * - 生命周期 onStart / onClose 会转发到注册的work Agent
+ * - 执行模式 {@link RunloopExecutionMode}：INLINE 直接在核心线程执行任务，VIRTUAL_THREAD 转交单线程虚拟线程执行器
+ * - 提交源堆栈仅在 debug 日志开启或按采样间隔命中时捕获，默认路径不产生额外分配
+ * - 在 doWork 中轮询的定时器轮可通过 {@link #wakeupAt(long)} 登记下一次检查时间
+ *
+ * 全局默认值可通过系统属性覆盖：
+ * - ten4j.runloop.execution-mode：inline / virtual_thread，默认 virtual_thread
+ * - ten4j.runloop.trace-sample-interval：每 N 个任务捕获一次提交源堆栈，0 表示关闭，默认 0
+ * - ten4j.runloop.scheduler：dedicated / shared，默认 dedicated
  */
 @Slf4j
 public class Runloop {
 
     public static final int DEFAULT_INTERNAL_QUEUE_CAPACITY = 1024;
+    public static final RunloopExecutionMode DEFAULT_EXECUTION_MODE = RunloopExecutionMode.parse(
+        System.getProperty("ten4j.runloop.execution-mode"), RunloopExecutionMode.VIRTUAL_THREAD);
+    public static final RunloopSchedulerType DEFAULT_SCHEDULER_TYPE = RunloopSchedulerType.parse(
+        System.getProperty("ten4j.runloop.scheduler"), RunloopSchedulerType.DEDICATED);
     private static final int DEFAULT_INTERNAL_TASK_BATCH = 64;
+    private static final int TRACE_SAMPLE_INTERVAL = Math.max(0,
+        Integer.getInteger("ten4j.runloop.trace-sample-interval", 0));
+    private static final long SLOW_TASK_WARN_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long SLOW_TASK_ERROR_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
     public final AtomicBoolean running = new AtomicBoolean(false);
     public final AtomicBoolean shuttingDown = new AtomicBoolean(false);
-    private final ManyToOneConcurrentArrayQueue<TaskWrapper> taskQueue; // 修改队列类型
+    /**
+     * 队列中直接存放提交的 Runnable，只有诊断模式下才会包装为 TaskWrapper
+     */
+    private final ManyToOneConcurrentArrayQueue<Runnable> taskQueue;
+    private final AtomicLong submittedTaskCounter = new AtomicLong();
+    @Getter
+    private final RunloopExecutionMode executionMode;
     private final Agent workAgent;
     private final LoopAgent coreAgent;
     private final int internalTaskBatchSize;
+    private final RunloopConfig config;
+    @Getter
+    private final RunloopSchedulerType schedulerType;
+    /**
+     * SHARED 模式下的载体线程池与预分配的执行片段，DEDICATED 模式下为 null
+     */
+    private final SharedRunloopScheduler sharedScheduler;
+    private final Runnable sharedSlice;
+    /**
+     * SHARED 模式下未处理的唤醒信号计数，从 0 变为非 0 时调度一个执行片段
+     */
+    private final AtomicInteger pendingSignals = new AtomicInteger();
+    /**
+     * SHARED 模式与 blocking 空闲策略在无信号时不会执行 doWork，需要按时唤醒；
+     * pendingTimedWakeupMs 为最早的待触发唤醒时间（epoch 毫秒），Long.MAX_VALUE 表示没有
+     */
+    private final boolean requiresTimedWakeup;
+    private final AtomicLong pendingTimedWakeupMs = new AtomicLong(Long.MAX_VALUE);
+    /**
+     * 定时唤醒使用的时钟（epoch 毫秒）
+     */
+    private final LongSupplier clockMs;
+    private volatile boolean agentStarted;
+    private volatile CountDownLatch sharedCloseLatch;
     private final ThreadLocal<Runloop> currentRunloopThreadLocal = new ThreadLocal<>();
-    private final List<Runnable> tasks;
     /**
-     * 单一虚拟线程 保证队列消费顺序
+     * 每轮 doWork 调用的轮询任务，返回值为本次实际完成的工作量
+     */
+    private final List<IntSupplier> tasks;
+    /**
+     * 单一虚拟线程 保证队列消费顺序，仅 VIRTUAL_THREAD 模式下创建
      */
     private final ExecutorService virtualThreadExecutor;
     private AgentRunner agentRunner;
@@ -54,30 +114,87 @@ public class Runloop {
     @Setter
     private volatile Runnable externalEventSourceNotifier;
 
-    private Runloop(String name, Agent workAgent, int queueCapacity, int batchSize) {
+    private Runloop(String name, Agent workAgent, int queueCapacity, int batchSize, RunloopConfig config,
+        SharedRunloopScheduler scheduler, LongSupplier clockMs) {
         Objects.requireNonNull(name, "name");
+        this.clockMs = Objects.requireNonNull(clockMs, "clockMs");
         int capacity = adjustCapacity(queueCapacity);
-        this.taskQueue = new ManyToOneConcurrentArrayQueue<>(capacity); // 使用 TaskWrapper
+        this.taskQueue = new ManyToOneConcurrentArrayQueue<>(capacity);
         this.internalTaskBatchSize = Math.max(1, batchSize);
         this.workAgent = workAgent;
+        this.config = config != null ? config : RunloopConfig.defaults();
+        this.executionMode = this.config.getExecutionMode() != null
+            ? this.config.getExecutionMode() : DEFAULT_EXECUTION_MODE;
+        this.schedulerType = this.config.getScheduler() != null
+            ? this.config.getScheduler() : DEFAULT_SCHEDULER_TYPE;
+        if (schedulerType == RunloopSchedulerType.SHARED) {
+            warnIgnoredSharedSettings(name);
+            this.sharedScheduler = scheduler != null ? scheduler : SharedRunloopScheduler.getDefault();
+            this.sharedSlice = this::runSharedSlice;
+        } else {
+            this.sharedScheduler = null;
+            this.sharedSlice = null;
+        }
+        this.requiresTimedWakeup = sharedScheduler != null
+            || this.config.getIdleStrategy() == RunloopIdleStrategyType.BLOCKING;
         this.coreAgent = new LoopAgent(name);
         tasks = new CopyOnWriteArrayList<>();
-        this.virtualThreadExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
-            private final ThreadFactory defaultFactory = Thread.ofVirtual().name("Runloop-%s-vt".formatted(name), 0).factory();
-            @Override
-            public Thread newThread(@NotNull Runnable r) {
-                // 在虚拟线程中设置 ThreadLocal
-                return defaultFactory.newThread(r);
-            }
-        });
+        if (executionMode == RunloopExecutionMode.VIRTUAL_THREAD && schedulerType == RunloopSchedulerType.DEDICATED
+            && CollectionUtils.isNotEmpty(this.config.getCpuAffinity())) {
+            log.warn("Runloop-{}: virtual_thread 模式下任务在虚拟线程上执行，CPU 亲和性 {} 只约束核心线程，"
+                + "需要绑核时请使用 inline 模式", name, this.config.getCpuAffinity());
+        }
+        if (executionMode == RunloopExecutionMode.VIRTUAL_THREAD) {
+            this.virtualThreadExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                private final ThreadFactory defaultFactory = Thread.ofVirtual().name("Runloop-%s-vt".formatted(name), 0).factory();
+                @Override
+                public Thread newThread(@NotNull Runnable r) {
+                    // 在虚拟线程中设置 ThreadLocal
+                    return defaultFactory.newThread(r);
+                }
+            });
+        } else {
+            this.virtualThreadExecutor = null;
+        }
+    }
+
+    /**
+     * SHARED 模式没有独占的核心线程，空闲策略与 CPU 亲和性都无从应用，配置了也只记录告警。
+     */
+    private void warnIgnoredSharedSettings(String name) {
+        if (CollectionUtils.isNotEmpty(config.getCpuAffinity())) {
+            log.warn("Runloop-{}: shared 调度模式不支持 CPU 亲和性，忽略配置 {}", name, config.getCpuAffinity());
+        }
+        if (config.getIdleStrategy() != null && config.getIdleStrategy() != RunloopIdleStrategyType.BACKOFF) {
+            log.warn("Runloop-{}: shared 调度模式由载体线程池负责空闲等待，忽略空闲策略 {}", name,
+                config.getIdleStrategy());
+        }
     }
 
     public static Runloop createRunloopWithWorker(String name, Agent workAgent) {
-        return new Runloop(name, workAgent, DEFAULT_INTERNAL_QUEUE_CAPACITY, DEFAULT_INTERNAL_TASK_BATCH);
+        return createRunloopWithWorker(name, workAgent, null);
+    }
+
+    public static Runloop createRunloopWithWorker(String name, Agent workAgent, RunloopConfig config) {
+        return createRunloopWithWorker(name, workAgent, config, null, System::currentTimeMillis);
+    }
+
+    /**
+     * @param scheduler SHARED 模式使用的载体线程池，为 null 时使用进程级默认实例
+     * @param clockMs   定时唤醒使用的时钟（epoch 毫秒），测试中用于注入时钟
+     */
+    static Runloop createRunloopWithWorker(String name, Agent workAgent, RunloopConfig config,
+        SharedRunloopScheduler scheduler, LongSupplier clockMs) {
+        return new Runloop(name, workAgent, DEFAULT_INTERNAL_QUEUE_CAPACITY, DEFAULT_INTERNAL_TASK_BATCH, config,
+            scheduler, clockMs);
     }
 
     public static Runloop createRunloop(String name) {
-        return new Runloop(name, null, DEFAULT_INTERNAL_QUEUE_CAPACITY, DEFAULT_INTERNAL_TASK_BATCH);
+        return createRunloop(name, null);
+    }
+
+    public static Runloop createRunloop(String name, RunloopConfig config) {
+        return createRunloopWithWorker(name, null, config);
     }
 
     public void start() {
@@ -87,10 +204,16 @@ public class Runloop {
         }
         shuttingDown.set(false);
 
-        IdleStrategy idleStrategy = new BackoffIdleStrategy(
-                1, 1,
-                TimeUnit.NANOSECONDS.toNanos(50),
-                TimeUnit.MICROSECONDS.toNanos(100));
+        if (sharedScheduler != null) {
+            agentStarted = false;
+            sharedCloseLatch = new CountDownLatch(1);
+            log.info("Runloop {} started on shared scheduler {} (mode: {})", coreAgent.roleName(),
+                sharedScheduler.getName(), executionMode);
+            wakeup(); // 调度首个执行片段，触发 onStart
+            return;
+        }
+
+        IdleStrategy idleStrategy = createIdleStrategy();
 
         agentRunner = new AgentRunner(
                 idleStrategy,
@@ -99,7 +222,42 @@ public class Runloop {
                 coreAgent);
 
         coreThread = createCoreThread(agentRunner);
-        log.info("Runloop started on thread: {}", coreThread.getName());
+        log.info("Runloop started on thread: {} (idle: {}, mode: {})", coreThread.getName(),
+            idleStrategy.alias(), executionMode);
+    }
+
+    private IdleStrategy createIdleStrategy() {
+        long minParkNanos = Math.max(1, config.getMinParkNs());
+        long maxParkNanos = Math.max(minParkNanos, TimeUnit.MICROSECONDS.toNanos(config.getMaxParkUs()));
+        RunloopIdleStrategyType type = config.getIdleStrategy() != null
+            ? config.getIdleStrategy() : RunloopIdleStrategyType.BACKOFF;
+        return switch (type) {
+            case BUSY_SPIN -> new BusySpinIdleStrategy();
+            case YIELDING -> new YieldingIdleStrategy();
+            case PARKING -> new SleepingIdleStrategy(maxParkNanos);
+            case BLOCKING -> new SignalIdleStrategy(shuttingDown::get, () -> blockingParkNanos(maxParkNanos));
+            case BACKOFF -> new BackoffIdleStrategy(1, 1, minParkNanos, maxParkNanos);
+        };
+    }
+
+    /**
+     * blocking 空闲策略本次最多 park 的时长：不晚于已登记的唤醒时间；注册了轮询任务时不超过 maxParkNanos。
+     *
+     * @return park 纳秒数，0 表示唤醒时间已到、不应 park，-1 表示可以无限期 park 直到 {@link #wakeup()}
+     */
+    private long blockingParkNanos(long maxParkNanos) {
+        long limit = tasks.isEmpty() ? -1 : maxParkNanos;
+        long deadlineMs = pendingTimedWakeupMs.get();
+        if (deadlineMs != Long.MAX_VALUE) {
+            long untilDeadline = TimeUnit.MILLISECONDS.toNanos(deadlineMs - clockMs.getAsLong());
+            if (untilDeadline <= 0) {
+                // 到期后由下一轮 doWork 中的定时器轮重新登记
+                pendingTimedWakeupMs.compareAndSet(deadlineMs, Long.MAX_VALUE);
+                return 0;
+            }
+            limit = limit < 0 ? untilDeadline : Math.min(limit, untilDeadline);
+        }
+        return limit;
     }
 
     public boolean postTask(Runnable task) {
@@ -107,8 +265,10 @@ public class Runloop {
         if (!canAcceptTask()) {
             return false;
         }
-        boolean success = taskQueue.offer(
-            new TaskWrapper(task, Thread.currentThread().getStackTrace(), task.toString(), coreAgent.roleName()));
+        Runnable queued = shouldCaptureSubmissionSite()
+            ? new TaskWrapper(task, Thread.currentThread().getStackTrace(), task.toString())
+            : task;
+        boolean success = taskQueue.offer(queued);
         if (!success) {
             log.warn("Runloop queue full, task dropped.");
             return false;
@@ -118,33 +278,95 @@ public class Runloop {
     }
 
     public void wakeup() {
+        if (sharedScheduler != null) {
+            if (pendingSignals.getAndIncrement() == 0) {
+                sharedScheduler.execute(sharedSlice);
+            }
+            return;
+        }
         Thread t = coreThread;
         if (t != null) {
             LockSupport.unpark(t);
         }
     }
 
+    /**
+     * @return 无信号时是否可能长时间不执行 doWork（SHARED 模式或 blocking 空闲策略），此时定时器轮需要登记定时唤醒。
+     */
+    public boolean requiresTimedWakeup() {
+        return requiresTimedWakeup;
+    }
+
+    /**
+     * 请求在指定时间之后唤醒一次 Runloop，供在 doWork 中轮询的定时器轮（如 PathTable 的路径过期）使用。
+     * DEDICATED 模式下除 blocking 外的空闲策略最多只 park maxParkUs，doWork 会被周期性调用，此方法直接返回；
+     * blocking 策略在 park 时以登记的时间为上限；SHARED 模式由进程级守护线程按时调用 {@link #wakeup()}。
+     * 同一时刻只保留最早的一次待触发唤醒，晚于它的请求被忽略，调用方应在每次轮询后重新登记下一次检查时间。
+     *
+     * @param deadlineMs 唤醒时间（epoch 毫秒）。
+     */
+    public void wakeupAt(long deadlineMs) {
+        if (!requiresTimedWakeup) {
+            return;
+        }
+        long pending = pendingTimedWakeupMs.get();
+        while (deadlineMs < pending) {
+            if (pendingTimedWakeupMs.compareAndSet(pending, deadlineMs)) {
+                if (sharedScheduler == null) {
+                    // 核心线程可能正以更晚的时间 park（例如任务在虚拟线程上执行时），唤醒它重新计算
+                    if (Thread.currentThread() != coreThread) {
+                        wakeup();
+                    }
+                    return;
+                }
+                long delayMs = Math.max(0, deadlineMs - clockMs.getAsLong());
+                TimedWakeupHolder.TIMER.schedule(() -> {
+                    pendingTimedWakeupMs.compareAndSet(deadlineMs, Long.MAX_VALUE);
+                    wakeup();
+                }, delayMs, TimeUnit.MILLISECONDS);
+                return;
+            }
+            pending = pendingTimedWakeupMs.get();
+        }
+    }
+
     public void shutdown() {
         if (!running.compareAndSet(true, false)) {
             log.warn("Runloop not running.");
             return;
         }
         shuttingDown.set(true);
-        tryCloseAgentRunner();
-        drainRemainingTasks();
-        wakeup();
-        joinCoreThread();
-        // Add shutdown for virtualThreadExecutor
-        virtualThreadExecutor.shutdown();
-        try {
-            if (!virtualThreadExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
-                log.warn("VirtualThreadExecutor did not terminate in time.");
+        if (!isNotCurrentThread()) {
+            // 在 Runloop 自身线程上关闭时无法 join 自己，交给独立的虚拟线程完成后续清理
+            Thread.ofVirtual().name("%s-shutdown".formatted(coreAgent.roleName())).start(this::completeShutdown);
+            return;
+        }
+        completeShutdown();
+    }
+
+    private void completeShutdown() {
+        wakeup(); // 让阻塞在空闲策略中的核心线程尽快观察到关闭标志
+        if (sharedScheduler != null) {
+            // 最后一个执行片段负责 onClose 与剩余任务，保证与之前的片段串行
+            awaitSharedClose();
+        } else {
+            tryCloseAgentRunner();
+            drainRemainingTasks();
+            wakeup();
+            joinCoreThread();
+        }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+            try {
+                if (!virtualThreadExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    log.warn("VirtualThreadExecutor did not terminate in time.");
+                    virtualThreadExecutor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for VirtualThreadExecutor to terminate.");
                 virtualThreadExecutor.shutdownNow();
             }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.warn("Interrupted while waiting for VirtualThreadExecutor to terminate.");
-            virtualThreadExecutor.shutdownNow();
         }
         log.info("Runloop shutdown complete.");
     }
@@ -153,6 +375,86 @@ public class Runloop {
         return currentRunloopThreadLocal.get() != this;
     }
 
+    /**
+     * SHARED 模式下的一个执行片段：在载体线程上以本 Runloop 身份执行一轮 doWork。
+     * 有工作或期间收到新的唤醒信号时重新调度自身，否则清零信号计数并让出载体线程。
+     */
+    private void runSharedSlice() {
+        int observedSignals = pendingSignals.get();
+        int workDone = 0;
+        currentRunloopThreadLocal.set(this);
+        try {
+            if (!agentStarted) {
+                agentStarted = true;
+                coreAgent.onStart();
+            }
+            if (!running.get()) {
+                closeSharedLoop();
+                return;
+            }
+            workDone = coreAgent.doWork();
+        } catch (Throwable e) {
+            log.error("Runloop uncaught error", e);
+        } finally {
+            currentRunloopThreadLocal.remove();
+        }
+        if (workDone > 0) {
+            pendingSignals.set(1);
+            sharedScheduler.execute(sharedSlice);
+        } else if (!pendingSignals.compareAndSet(observedSignals, 0)) {
+            // 执行期间有新的唤醒信号，继续处理
+            pendingSignals.set(1);
+            sharedScheduler.execute(sharedSlice);
+        }
+    }
+
+    /**
+     * 关闭后不再重新调度执行片段，因此在最后清零信号计数，否则重新 start() 时的首个唤醒无法调度新的片段。
+     */
+    private void closeSharedLoop() {
+        CountDownLatch closeLatch = sharedCloseLatch;
+        if (closeLatch == null || closeLatch.getCount() == 0) {
+            pendingSignals.set(0); // 关闭后迟到的唤醒，onClose 已执行过
+            return;
+        }
+        try {
+            coreAgent.onClose();
+            drainRemainingTasks();
+        } finally {
+            CountDownLatch latch = sharedCloseLatch;
+            if (latch != null) {
+                latch.countDown();
+            }
+            pendingSignals.set(0);
+        }
+    }
+
+    private void awaitSharedClose() {
+        CountDownLatch latch = sharedCloseLatch;
+        if (latch == null) {
+            return;
+        }
+        try {
+            if (!latch.await(3, TimeUnit.SECONDS)) {
+                log.warn("Runloop {} shared close did not finish in time.", coreAgent.roleName());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Runloop shutdown interrupted");
+        }
+    }
+
+    /**
+     * 判断本次提交是否需要捕获提交源堆栈：debug 日志开启时全部捕获，否则按采样间隔捕获。
+     */
+    private boolean shouldCaptureSubmissionSite() {
+        if (log.isDebugEnabled()) {
+            return true;
+        }
+        return TRACE_SAMPLE_INTERVAL > 0
+            && submittedTaskCounter.getAndIncrement() % TRACE_SAMPLE_INTERVAL == 0;
+    }
+
     private boolean canAcceptTask() {
         if (shuttingDown.get()) {
             log.warn("Runloop shutting down, rejecting task.");
@@ -176,16 +478,35 @@ public class Runloop {
     }
 
     private void drainRemainingTasks() {
-        TaskWrapper r;
+        Runnable r;
         while ((r = taskQueue.poll()) != null) {
             try {
-                virtualThreadExecutor.submit(r);
+                if (virtualThreadExecutor != null) {
+                    virtualThreadExecutor.submit(r);
+                } else {
+                    runDrainedTask(r);
+                }
             } catch (Throwable e) {
                 log.error("Error executing remaining task: {}", r, e);
             }
         }
     }
 
+    private void runDrainedTask(Runnable task) {
+        // 核心线程已退出，在当前线程上以 Runloop 身份执行剩余任务
+        boolean bound = isNotCurrentThread();
+        if (bound) {
+            currentRunloopThreadLocal.set(this);
+        }
+        try {
+            task.run();
+        } finally {
+            if (bound) {
+                currentRunloopThreadLocal.remove();
+            }
+        }
+    }
+
     private void joinCoreThread() {
         try {
             if (coreThread != null && coreThread.isAlive()) {
@@ -199,6 +520,7 @@ public class Runloop {
 
     private Thread createCoreThread(Runnable task) {
         Thread t = new Thread(() -> {
+            CpuAffinity.pinCurrentThread(config.getCpuAffinity(), coreAgent.roleName());
             currentRunloopThreadLocal.set(this);
             try {
                 task.run();
@@ -217,38 +539,76 @@ public class Runloop {
         return (cap < requestedCapacity) ? cap << 1 : cap;
     }
 
-    public void registerTask(Runnable task) {
+    /**
+     * 注册一个在每轮 doWork 中调用的轮询任务。
+     * 与 Agent#doWork 一样，任务需返回本次实际完成的工作量，没有工作时返回 0，
+     * 否则 SHARED 模式会一直重新调度执行片段，其他空闲策略也无法进入空闲。
+     *
+     * @param task 轮询任务，返回本次完成的工作量
+     */
+    public void registerTask(IntSupplier task) {
         tasks.add(task);
     }
 
-    // 新增：内部类，用于存储任务和其提交时的堆栈信息
-    private record TaskWrapper(Runnable actualTask, StackTraceElement[] submissionStackTrace, String taskDescription,
-                               String runloopRoleName)
+    /**
+     * 执行单个任务并在耗时过长时报告。计时使用 System.nanoTime，不产生额外分配；
+     * 只有诊断模式下包装的 TaskWrapper 才会附带提交源堆栈。
+     * {@link MeasuredTask} 自行统计耗时，由它接收本次计时结果，不再输出通用的慢任务日志。
+     */
+    private void runTimed(Runnable task) {
+        long startNanos = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            long durationNanos = System.nanoTime() - startNanos;
+            Runnable actual = task instanceof TaskWrapper wrapper ? wrapper.actualTask() : task;
+            if (actual instanceof MeasuredTask measured) {
+                measured.onMeasured(durationNanos);
+            } else if (durationNanos > SLOW_TASK_WARN_NANOS) {
+                reportSlowTask(task, TimeUnit.NANOSECONDS.toMillis(durationNanos), durationNanos);
+            }
+        }
+    }
+
+    private void reportSlowTask(Runnable task, long durationMillis, long durationNanos) {
+        String roleName = coreAgent.roleName();
+        if (durationNanos > SLOW_TASK_ERROR_NANOS) {
+            if (task instanceof TaskWrapper wrapper) {
+                RuntimeException submissionOriginException = new RuntimeException(
+                    "Runloop任务执行耗时过长 (超过 100ms): %d ms. Task: %s. 提交源堆栈：".formatted(
+                        durationMillis, wrapper.taskDescription()));
+                submissionOriginException.setStackTrace(wrapper.submissionStackTrace()); // 设置为提交时的堆栈
+                log.error("[{}] Runloop任务执行耗时过长 (超过 100ms): {} ms. Task: {}. 提交源堆栈：",
+                    roleName, durationMillis, wrapper.taskDescription(), submissionOriginException);
+            } else {
+                log.error("[{}] Runloop任务执行耗时过长 (超过 100ms): {} ms. Task: {}", roleName, durationMillis,
+                    task);
+            }
+        } else {
+            log.warn("[{}] Runloop任务执行耗时较长 (超过 50ms): {} ms. Task: {}", roleName, durationMillis, task);
+        }
+    }
+
+    /**
+     * 需要自行统计执行耗时的任务，例如 ExtensionThread 的消息分发。
+     * Runloop 在任务执行后（包括抛出异常时）回调 {@link #onMeasured(long)}，任务自身无需再次计时。
+     * 关闭阶段排空队列时执行的任务不会回调。
+     */
+    public interface MeasuredTask extends Runnable {
+
+        /**
+         * @param durationNanos 本次 run() 的耗时（纳秒）
+         */
+        void onMeasured(long durationNanos);
+    }
+
+    // 诊断模式下的任务包装，存储任务和其提交时的堆栈信息
+    private record TaskWrapper(Runnable actualTask, StackTraceElement[] submissionStackTrace, String taskDescription)
         implements Runnable {
 
         @Override
         public void run() {
-            StopWatch stopWatch = StopWatch.createStarted(); // 启动 StopWatch
-            try {
-                actualTask.run();
-            } finally {
-                stopWatch.stop(); // 停止计时
-                long taskDurationMillis = stopWatch.getTime(); // 获取耗时
-
-                if (taskDurationMillis > 100) {
-                    RuntimeException submissionOriginException = new RuntimeException(
-                        "Runloop任务执行耗时过长 (超过 100ms): %d ms. Task: %s. 提交源堆栈：".formatted(
-                            taskDurationMillis, taskDescription));
-                    if (submissionStackTrace != null) {
-                        submissionOriginException.setStackTrace(submissionStackTrace); // 设置为提交时的堆栈
-                    }
-                    log.error("[{}] Runloop任务执行耗时过长 (超过 100ms): {} ms. Task: {}. 提交源堆栈：",
-                        runloopRoleName, taskDurationMillis, taskDescription, submissionOriginException);
-                } else if (taskDurationMillis > 50) {
-                    log.warn("[{}] Runloop任务执行耗时较长 (超过 50ms): {} ms. Task: {}", runloopRoleName,
-                        taskDurationMillis, taskDescription);
-                }
-            }
+            actualTask.run();
         }
 
         @NotNull
@@ -258,6 +618,14 @@ public class Runloop {
         }
     }
 
+    private static final class TimedWakeupHolder {
+        private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Runloop-timed-wakeup");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
     private class LoopAgent implements Agent {
         private final String name;
 
@@ -275,16 +643,19 @@ public class Runloop {
             int workDone = 0;
             // 批量处理内部任务
             for (int i = 0; i < internalTaskBatchSize; i++) {
-                TaskWrapper r = taskQueue.poll();
+                Runnable r = taskQueue.poll();
                 if (r == null) {
                     break;
                 }
-                safeRun(r); // safeRun 期望 Runnable，TaskWrapper 实现了 Runnable
+                safeRun(r);
                 workDone++;
             }
-            for (Runnable task : tasks) {
-                task.run();
-                workDone++;
+            for (IntSupplier task : tasks) {
+                try {
+                    workDone += task.getAsInt();
+                } catch (Throwable e) {
+                    log.error("Runloop {} registered task error", name, e);
+                }
             }
             // 调用外部 workAgent
             if (workAgent != null) {
@@ -314,11 +685,20 @@ public class Runloop {
         }
 
         private void safeRun(Runnable task) {
+            if (virtualThreadExecutor == null) {
+                // INLINE 模式：核心线程已绑定 ThreadLocal，直接执行
+                try {
+                    runTimed(task);
+                } catch (Throwable e) {
+                    log.error("Error executing task", e);
+                }
+                return;
+            }
             try {
                 virtualThreadExecutor.submit(() -> {
                     currentRunloopThreadLocal.set(Runloop.this); // 在虚拟线程中设置 ThreadLocal
                     try {
-                        task.run(); // 直接运行 TaskWrapper，耗时和日志已在其 run() 方法中处理
+                        runTimed(task);
                     } finally {
                         currentRunloopThreadLocal.remove();
                     }
@@ -0,0 +1,68 @@
+package source.hanger.core.runloop;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * 单个 Runloop 的运行配置，可以在图定义的 "runloop" 字段中按 Engine / ExtensionGroup 分别指定。
+ *
+ * <pre>
+ * {
+ *   "idle_strategy": "parking",
+ *   "max_park_us": 1000,
+ *   "execution_mode": "inline",
+ *   "scheduler": "dedicated",
+ *   "cpu_affinity": [2, 3]
+ * }
+ * </pre>
+ */
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class RunloopConfig {
+
+    /**
+     * 空闲策略，默认 backoff。
+     */
+    @JsonProperty("idle_strategy")
+    private RunloopIdleStrategyType idleStrategy = RunloopIdleStrategyType.BACKOFF;
+
+    /**
+     * 任务执行模式，为 null 时使用 {@link Runloop#DEFAULT_EXECUTION_MODE}。
+     */
+    @JsonProperty("execution_mode")
+    private RunloopExecutionMode executionMode;
+
+    /**
+     * 调度方式，为 null 时使用 {@link Runloop#DEFAULT_SCHEDULER_TYPE}。
+     * shared 模式下空闲策略与 CPU 亲和性不生效。
+     */
+    @JsonProperty("scheduler")
+    private RunloopSchedulerType scheduler;
+
+    /**
+     * backoff 策略的最小 park 时长（纳秒）。
+     */
+    @JsonProperty("min_park_ns")
+    private long minParkNs = 50;
+
+    /**
+     * backoff 策略的最大 park 时长，以及 parking 策略的固定 park 时长（微秒）。
+     */
+    @JsonProperty("max_park_us")
+    private long maxParkUs = 100;
+
+    /**
+     * Runloop 核心线程绑定的 CPU 编号列表，为空表示不绑定。目前仅在 Linux 上生效。
+     */
+    @JsonProperty("cpu_affinity")
+    private List<Integer> cpuAffinity;
+
+    public static RunloopConfig defaults() {
+        return new RunloopConfig();
+    }
+}
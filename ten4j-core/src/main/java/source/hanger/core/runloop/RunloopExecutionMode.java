@@ -0,0 +1,37 @@
+package source.hanger.core.runloop;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Runloop 内部任务的执行方式。
+ *
+ * - INLINE：任务直接在 Runloop 核心线程上执行，除队列槽位外不产生额外分配，适用于生产环境的音视频热路径。
+ * - VIRTUAL_THREAD：任务被转交给单线程虚拟线程执行器执行（历史行为），适合任务中存在阻塞 I/O 的场景。
+ */
+public enum RunloopExecutionMode {
+    @JsonProperty("inline")
+    INLINE,
+    @JsonProperty("virtual_thread")
+    VIRTUAL_THREAD;
+
+    /**
+     * 解析配置中的执行模式，大小写不敏感，支持 "-" 与 "_" 两种分隔写法。
+     *
+     * @param value        配置值，可以为 null。
+     * @param defaultValue 无法解析时使用的默认值。
+     * @return 解析得到的执行模式。
+     */
+    public static RunloopExecutionMode parse(String value, RunloopExecutionMode defaultValue) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        String normalized = value.trim().replace('-', '_').toUpperCase();
+        for (RunloopExecutionMode mode : values()) {
+            if (mode.name().equals(normalized)) {
+                return mode;
+            }
+        }
+        return defaultValue;
+    }
+}
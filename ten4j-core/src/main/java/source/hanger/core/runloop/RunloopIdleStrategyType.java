@@ -0,0 +1,25 @@
+package source.hanger.core.runloop;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Runloop 空闲时采用的等待策略。
+ *
+ * - BACKOFF：自旋 -> yield -> park 逐级退避（历史默认行为），兼顾唤醒延迟与 CPU 占用。
+ * - BUSY_SPIN：持续自旋，唤醒延迟最低，但会独占一个核心，只适合少量低延迟音频组。
+ * - YIELDING：空闲时 Thread.yield()，延迟较低，CPU 占用依然较高。
+ * - PARKING：固定周期 park（max_park_us），CPU 占用低，唤醒由 wakeup() 提前触发。
+ * - BLOCKING：无限期 park，直到 postTask / wakeup 发出信号，适合以控制消息为主的空闲组。
+ */
+public enum RunloopIdleStrategyType {
+    @JsonProperty("backoff")
+    BACKOFF,
+    @JsonProperty("busy_spin")
+    BUSY_SPIN,
+    @JsonProperty("yielding")
+    YIELDING,
+    @JsonProperty("parking")
+    PARKING,
+    @JsonProperty("blocking")
+    BLOCKING
+}
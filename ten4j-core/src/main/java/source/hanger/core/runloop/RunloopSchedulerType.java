@@ -0,0 +1,37 @@
+package source.hanger.core.runloop;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Runloop 的调度方式。
+ *
+ * - DEDICATED：每个 Runloop 独占一个平台核心线程（历史行为），配合空闲策略与 CPU 亲和性使用。
+ * - SHARED：Runloop 退化为轻量的串行执行器，多路复用在 {@link SharedRunloopScheduler} 的固定载体线程池上，
+ *   同一 Runloop 的任务仍严格按提交顺序串行执行。
+ */
+public enum RunloopSchedulerType {
+    @JsonProperty("dedicated")
+    DEDICATED,
+    @JsonProperty("shared")
+    SHARED;
+
+    /**
+     * 解析配置中的调度方式，大小写不敏感。
+     *
+     * @param value        配置值，可以为 null。
+     * @param defaultValue 无法解析时使用的默认值。
+     * @return 解析得到的调度方式。
+     */
+    public static RunloopSchedulerType parse(String value, RunloopSchedulerType defaultValue) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        for (RunloopSchedulerType type : values()) {
+            if (type.name().equalsIgnoreCase(value.trim())) {
+                return type;
+            }
+        }
+        return defaultValue;
+    }
+}
@@ -0,0 +1,87 @@
+package source.hanger.core.runloop;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * SHARED 调度模式下的载体线程池。
+ * 所有 SHARED Runloop 的执行片段（slice）都在这里的固定数量平台线程上运行，
+ * Runloop 自身保证同一时刻最多只有一个片段在执行，从而维持每个会话内的顺序性。
+ *
+ * 默认实例的线程数可通过系统属性 ten4j.runloop.shared-carrier-threads 指定，默认等于 CPU 核数。
+ */
+@Slf4j
+public final class SharedRunloopScheduler {
+
+    private static final int DEFAULT_CARRIER_THREADS = Math.max(1,
+        Integer.getInteger("ten4j.runloop.shared-carrier-threads", Runtime.getRuntime().availableProcessors()));
+
+    @Getter
+    private final String name;
+    @Getter
+    private final int carrierThreads;
+    private final ExecutorService carriers;
+
+    public SharedRunloopScheduler(String name, int carrierThreads) {
+        this(name, Math.max(1, carrierThreads), newCarrierPool(name, Math.max(1, carrierThreads)));
+        log.info("SharedRunloopScheduler {} created with {} carrier threads.", name, this.carrierThreads);
+    }
+
+    /**
+     * @param carriers 执行片段的线程池，测试中可传入手动驱动的执行器
+     */
+    SharedRunloopScheduler(String name, int carrierThreads, ExecutorService carriers) {
+        this.name = name;
+        this.carrierThreads = carrierThreads;
+        this.carriers = carriers;
+    }
+
+    private static ExecutorService newCarrierPool(String name, int carrierThreads) {
+        AtomicInteger index = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "%s-carrier-%d".formatted(name, index.getAndIncrement()));
+            t.setDaemon(true);
+            t.setUncaughtExceptionHandler((_, ex) -> log.error("Runloop carrier thread error", ex));
+            return t;
+        };
+        return Executors.newFixedThreadPool(carrierThreads, factory);
+    }
+
+    /**
+     * 获取进程级默认共享调度器，首次使用时创建。
+     */
+    public static SharedRunloopScheduler getDefault() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * 提交一个 Runloop 执行片段。
+     *
+     * @param slice Runloop 预分配的片段任务。
+     * @return 是否提交成功。
+     */
+    boolean execute(Runnable slice) {
+        try {
+            carriers.execute(slice);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("SharedRunloopScheduler {} rejected runloop slice: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    public void shutdown() {
+        carriers.shutdown();
+    }
+
+    private static final class Holder {
+        private static final SharedRunloopScheduler INSTANCE = new SharedRunloopScheduler("Runloop-shared",
+            DEFAULT_CARRIER_THREADS);
+    }
+}
@@ -0,0 +1,61 @@
+package source.hanger.core.runloop;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import org.agrona.concurrent.IdleStrategy;
+
+/**
+ * 无工作时 park，直到 {@link Runloop#wakeup()} 发出信号或到达 Runloop 登记的下一次唤醒时间的空闲策略。
+ * 没有登记唤醒时间、也没有需要周期轮询的任务时无限期 park。
+ * 进入关闭流程后改为短周期 park，确保 AgentRunner 能及时观察到停止标志。
+ */
+class SignalIdleStrategy implements IdleStrategy {
+
+    private static final long SHUTDOWN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final BooleanSupplier shutdownRequested;
+    private final LongSupplier parkNanos;
+
+    /**
+     * @param shutdownRequested 是否已进入关闭流程
+     * @param parkNanos         本次最多 park 的纳秒数，0 表示不 park，负数表示无限期
+     */
+    SignalIdleStrategy(BooleanSupplier shutdownRequested, LongSupplier parkNanos) {
+        this.shutdownRequested = shutdownRequested;
+        this.parkNanos = parkNanos;
+    }
+
+    @Override
+    public void idle(int workCount) {
+        if (workCount > 0) {
+            return;
+        }
+        idle();
+    }
+
+    @Override
+    public void idle() {
+        if (shutdownRequested.getAsBoolean()) {
+            LockSupport.parkNanos(SHUTDOWN_PARK_NANOS);
+            return;
+        }
+        long nanos = parkNanos.getAsLong();
+        if (nanos < 0) {
+            LockSupport.park(this);
+        } else if (nanos > 0) {
+            LockSupport.parkNanos(this, nanos);
+        }
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public String alias() {
+        return "blocking";
+    }
+}
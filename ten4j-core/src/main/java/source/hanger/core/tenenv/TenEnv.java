@@ -29,6 +29,15 @@ public interface TenEnv extends Env {
      */
     CommandExecutionHandle<CommandResult> submitCommandWithResultHandle(Command command);
 
+    /**
+     * 发送一个只关心最终结果的命令。与 {@link #submitCommandWithResultHandle(Command)} 相比不构建响应式管道，
+     * 结果在命令结束后一次性交付，适合工具发现、flush 等单结果命令。
+     *
+     * @param command 要发送的命令。
+     * @return 一个轻量的 CommandExecutionHandle，回调在当前组件的 Runloop 上执行。
+     */
+    CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command);
+
     void sendCmd(Command command);
 
     void sendResult(CommandResult result);
@@ -79,6 +88,16 @@ public interface TenEnv extends Env {
 
     void initPropertyFromJson(String jsonStr);
 
+    /**
+     * 将当前组件的全部属性绑定为类型化的配置对象，见 {@link source.hanger.core.util.PropertyBinder}。
+     * 应在 onConfigure 中调用一次并保存结果，热路径直接读取配置对象的字段。
+     *
+     * @param configType 配置类型，通常是使用 {@code @JsonProperty} 声明属性名的 record
+     * @return 绑定后的配置对象
+     * @throws IllegalArgumentException 属性类型不匹配或缺少必填属性
+     */
+    <T> T bindProperties(Class<T> configType);
+
     // endregion
 
     // region 上下文信息方法
@@ -50,6 +50,11 @@ public record TenEnvProxy<T extends TenEnv>(
         return targetEnv.submitCommandWithResultHandle(command);
     }
 
+    @Override
+    public CommandExecutionHandle<CommandResult> submitCommandWithFutureHandle(Command command) {
+        return targetEnv.submitCommandWithFutureHandle(command);
+    }
+
     @Override
     public void sendCmd(Command command) {
         targetRunloop.postTask(() -> {
@@ -172,6 +177,11 @@ public record TenEnvProxy<T extends TenEnv>(
         targetRunloop.postTask(() -> targetEnv.initPropertyFromJson(jsonStr));
     }
 
+    @Override
+    public <T> T bindProperties(Class<T> configType) {
+        return targetEnv.bindProperties(configType);
+    }
+
     // Send methods, delegating to targetEnv
     @Override
     public void sendData(DataMessage data) {
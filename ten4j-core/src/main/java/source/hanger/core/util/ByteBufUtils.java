@@ -88,4 +88,21 @@ public class ByteBufUtils {
         // 返回的 ByteBuffer 是 ByteBuf 可读区域的一个视图，对其 position/limit 的修改不会影响 ByteBuf。
         return byteBuf.nioBuffer();
     }
+
+    /**
+     * 将 Netty ByteBuf 的可读部分复制到新的堆 ByteBuffer 中，不改变 ByteBuf 的读写索引。
+     * 与 {@link #toByteBuffer(ByteBuf)} 不同，返回值不依赖原 ByteBuf 的生命周期，
+     * 适用于原 ByteBuf 会被释放回池、而数据需要异步消费的场景。
+     *
+     * @param byteBuf 待复制的 Netty ByteBuf
+     * @return 新的 ByteBuffer，如果 ByteBuf 为 null 或无数据则返回 ByteBuffer.allocate(0)。
+     */
+    public static ByteBuffer copyToByteBuffer(ByteBuf byteBuf) {
+        if (byteBuf == null || !byteBuf.isReadable()) {
+            return ByteBuffer.allocate(0);
+        }
+        ByteBuffer copy = ByteBuffer.allocate(byteBuf.readableBytes());
+        byteBuf.getBytes(byteBuf.readerIndex(), copy);
+        return copy.flip();
+    }
 }
@@ -1,76 +1,213 @@
 package source.hanger.core.util;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.mvel2.MVEL;
 import lombok.extern.slf4j.Slf4j;
-import org.mvel2.ParserContext;
-import org.mvel2.integration.PropertyHandler;
-import org.mvel2.integration.PropertyHandlerFactory;
+import org.mvel2.MVEL;
 import org.mvel2.integration.VariableResolver;
-import org.mvel2.integration.VariableResolverFactory;
 import org.mvel2.integration.impl.CachingMapVariableResolverFactory;
 import org.mvel2.integration.impl.SimpleValueResolver;
 import org.mvel2.util.MethodStub;
 
+/**
+ * 解析属性中的 {{expression}} 占位符（MVEL 表达式，支持默认值与 env('...') 读取系统属性）。
+ *
+ * - 编译结果按表达式文本缓存在有界的并发缓存中（容量由 ten4j.expression.cache-size 指定，默认 1024），
+ *   同一表达式在所有会话之间只编译一次
+ * - {@link #resolveProperties} 中不含占位符的 Map / List 子树原样返回，不再逐层复制
+ * - {@link #validateProperties} 可在加载配置时提前编译全部表达式，尽早发现语法错误
+ */
 @Slf4j
 public class ExpressionResolver {
 
     // 匹配 {{expression}}，其中 expression 可以包含 MVEL 表达式，包括默认值和环境变量
     private static final Pattern EXPRESSION_PATTERN = Pattern.compile("\\{\\{(.+?)}}");
 
+    private static final int MAX_CACHED_EXPRESSIONS = Math.max(16,
+        Integer.getInteger("ten4j.expression.cache-size", 1024));
+    private static final ConcurrentMap<String, PropertyTemplate.Expression> COMPILED_EXPRESSIONS =
+        new ConcurrentHashMap<>();
+
     public static Object resolve(String expressionString, Map<String, Object> context) {
-        if (expressionString == null || expressionString.isEmpty()) {
+        String mvelExpression = extractExpression(expressionString);
+        if (mvelExpression == null) {
             return expressionString;
         }
+        return compiledExpression(mvelExpression).instantiate(context);
+    }
 
-        Map<String, Object> combinedContext = new HashMap<>();
-        if (context != null) {
-            combinedContext.putAll(context);
+    /**
+     * 递归解析属性中的占位符。不含占位符的 Map / List 原样返回（与入参是同一个对象），
+     * 只有包含占位符的容器才会复制。
+     */
+    public static Object resolveProperties(Object value, Map<String, Object> context) {
+        if (value instanceof String) {
+            return resolve((String)value, context);
+        } else if (value instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>)value;
+            Map<String, Object> resolvedMap = null;
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                Object resolved = resolveProperties(entry.getValue(), context);
+                if (resolvedMap == null && resolved != entry.getValue()) {
+                    resolvedMap = new HashMap<>(map); // 第一次出现变化时才复制
+                }
+                if (resolvedMap != null) {
+                    resolvedMap.put(entry.getKey(), resolved);
+                }
+            }
+            return resolvedMap != null ? resolvedMap : map;
+        } else if (value instanceof List) {
+            List<Object> list = (List<Object>)value;
+            List<Object> resolvedList = null;
+            for (int i = 0; i < list.size(); i++) {
+                Object item = list.get(i);
+                Object resolved = resolveProperties(item, context);
+                if (resolvedList == null && resolved != item) {
+                    resolvedList = new ArrayList<>(list);
+                }
+                if (resolvedList != null) {
+                    resolvedList.set(i, resolved);
+                }
+            }
+            return resolvedList != null ? resolvedList : list;
         }
+        return value;
+    }
+
+    /**
+     * 提前编译属性中的全部占位符表达式，用于在加载配置时发现错误。编译结果会进入缓存。
+     *
+     * @param value    待检查的属性值（Map、List、String 或标量）
+     * @param basePath 错误信息中使用的路径前缀，例如 "nodes[llm].property"
+     * @return 编译失败的表达式列表，全部通过时为空列表
+     */
+    public static List<ExpressionError> validateProperties(Object value, String basePath) {
+        List<ExpressionError> errors = new ArrayList<>();
+        collectErrors(value, basePath, errors);
+        return errors;
+    }
 
-        Matcher matcher = EXPRESSION_PATTERN.matcher(expressionString);
-
-        if (matcher.matches()) {
-            String mvelExpression = matcher.group(1).trim();
-            try {
-                Serializable compiledExpression = MVEL.compileExpression(mvelExpression);
-                ParserContext parserContext = new ParserContext();
-                return MVEL.executeExpression(compiledExpression, parserContext, new InnerVariableResolverFactory(combinedContext));
-            } catch (Exception e) {
-                throw new IllegalStateException(
-                    "Error resolving MVEL expression {}. Returning original placeholder. Error: {}%s"
-                        .formatted(mvelExpression), e);
+    /**
+     * 判断属性值中是否含有 {{...}} 占位符。
+     */
+    public static boolean containsExpression(Object value) {
+        if (value instanceof String text) {
+            return extractExpression(text) != null;
+        } else if (value instanceof Map<?, ?> map) {
+            for (Object item : map.values()) {
+                if (containsExpression(item)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof List<?> list) {
+            for (Object item : list) {
+                if (containsExpression(item)) {
+                    return true;
+                }
             }
         }
-        return expressionString;
+        return false;
     }
 
-    public static Object resolveProperties(Object value, Map<String, Object> context) {
-        if (value instanceof String) {
-            return resolve((String) value, context);
-        } else if (value instanceof Map) {
-            Map<String, Object> map = (Map<String, Object>) value;
-            Map<String, Object> resolvedMap = new HashMap<>();
-            map.forEach((k, v) -> resolvedMap.put(k, resolveProperties(v, context)));
-            return resolvedMap;
-        } else if (value instanceof java.util.List) {
-            java.util.List<Object> list = (java.util.List<Object>) value;
-            java.util.List<Object> resolvedList = new java.util.ArrayList<>();
-            list.forEach(item -> resolvedList.add(resolveProperties(item, context)));
-            return resolvedList;
+    public static int getCachedExpressionCount() {
+        return COMPILED_EXPRESSIONS.size();
+    }
+
+    /**
+     * 提取 {{expression}} 形式字符串中的 MVEL 表达式。
+     *
+     * @return 表达式内容；字符串不是完整的 {{...}} 占位符时返回 null，与 {@link #resolve} 一样按普通字符串处理。
+     */
+    static String extractExpression(String value) {
+        // 绝大多数属性值不是占位符，先用前缀判断，避免创建 Matcher
+        if (value == null || value.length() < 5 || !value.startsWith("{{")) {
+            return null;
         }
-        return value;
+        Matcher matcher = EXPRESSION_PATTERN.matcher(value);
+        return matcher.matches() ? matcher.group(1).trim() : null;
     }
 
-    static class InnerVariableResolverFactory extends CachingMapVariableResolverFactory {
-        static {
-            PropertyHandlerFactory.registerPropertyHandler(ParserContext.class, new NullablePropertyHandler());
+    /**
+     * 从缓存中获取已编译的表达式，不存在时编译并放入缓存。编译失败的结果同样缓存，求值时抛出异常。
+     */
+    static PropertyTemplate.Expression compiledExpression(String mvelExpression) {
+        PropertyTemplate.Expression expression = COMPILED_EXPRESSIONS.get(mvelExpression);
+        if (expression != null) {
+            return expression;
+        }
+        expression = PropertyTemplate.Expression.compile(mvelExpression);
+        if (COMPILED_EXPRESSIONS.size() >= MAX_CACHED_EXPRESSIONS) {
+            // 超出容量时随机淘汰一项，配置中的表达式数量有限，正常情况下不会触发
+            Iterator<String> iterator = COMPILED_EXPRESSIONS.keySet().iterator();
+            if (iterator.hasNext()) {
+                COMPILED_EXPRESSIONS.remove(iterator.next());
+            }
         }
+        PropertyTemplate.Expression existing = COMPILED_EXPRESSIONS.putIfAbsent(mvelExpression, expression);
+        return existing != null ? existing : expression;
+    }
+
+    /**
+     * 执行预编译的 MVEL 表达式。context 以只读视图传入，不再为每个表达式复制一份。
+     */
+    static Object executeCompiled(Serializable compiledExpression, String mvelExpression,
+        Map<String, Object> context) {
+        Map<String, Object> variables = context != null ? Collections.unmodifiableMap(context) : Map.of();
+        try {
+            return MVEL.executeExpression(compiledExpression, new InnerVariableResolverFactory(variables));
+        } catch (Exception e) {
+            throw new IllegalStateException("Error resolving MVEL expression %s".formatted(mvelExpression), e);
+        }
+    }
+
+    static Serializable compile(String mvelExpression) {
+        return MVEL.compileExpression(mvelExpression);
+    }
+
+    private static void collectErrors(Object value, String path, List<ExpressionError> errors) {
+        if (value instanceof String text) {
+            String mvelExpression = extractExpression(text);
+            if (mvelExpression != null) {
+                RuntimeException compileError = compiledExpression(mvelExpression).getCompileError();
+                if (compileError != null) {
+                    errors.add(new ExpressionError(path, mvelExpression, compileError.getMessage()));
+                }
+            }
+        } else if (value instanceof Map<?, ?> map) {
+            map.forEach((k, v) -> collectErrors(v, "%s.%s".formatted(path, k), errors));
+        } else if (value instanceof List<?> list) {
+            for (int i = 0; i < list.size(); i++) {
+                collectErrors(list.get(i), "%s[%d]".formatted(path, i), errors);
+            }
+        }
+    }
+
+    /**
+     * 编译失败的表达式。
+     *
+     * @param path       表达式在属性树中的位置
+     * @param expression MVEL 表达式文本
+     * @param message    编译错误信息
+     */
+    public record ExpressionError(String path, String expression, String message) {
+    }
+
+    /**
+     * 未定义的变量解析为 null，由变量解析器处理而不是根对象的自定义属性处理器：
+     * 预编译的表达式被反复执行后，MVEL 的动态优化器会改用 ASM 生成访问器，
+     * 变量访问可以生成字节码，自定义属性处理器则不行（第 51 次执行时抛出异常）。
+     */
+    static class InnerVariableResolverFactory extends CachingMapVariableResolverFactory {
 
         public InnerVariableResolverFactory(Map variables) {
             super(variables);
@@ -81,24 +218,12 @@ public class ExpressionResolver {
                 return new SimpleValueResolver(new MethodStub(System.class, "getProperty")) {
                 };
             }
-            return super.getVariableResolver(name);
+            return super.isResolveable(name) ? super.getVariableResolver(name) : new SimpleValueResolver(null);
         }
 
         @Override
         public boolean isResolveable(String name) {
-            return name.equals("env") || super.isResolveable(name);
-        }
-    }
-
-    static class NullablePropertyHandler implements PropertyHandler {
-        @Override
-        public Object getProperty(String s, Object o, VariableResolverFactory variableResolverFactory) {
-            return null;
-        }
-
-        @Override
-        public Object setProperty(String s, Object o, VariableResolverFactory variableResolverFactory, Object o1) {
-            return null;
+            return true;
         }
     }
 }
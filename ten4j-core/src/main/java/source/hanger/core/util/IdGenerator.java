@@ -1,14 +1,35 @@
 package source.hanger.core.util;
 
-import java.nio.ByteBuffer;
-import java.util.UUID;
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.fasterxml.uuid.Generators;
 
+/**
+ * ID 生成工具。
+ *
+ * 短 ID（{@link #generateShortId()}）每条消息都会生成一次，因此不再基于加锁的时间戳 UUID：
+ * - 每个线程从全局计数器批量领取一段序号（每段 {@link #SEQUENCE_BLOCK_SIZE} 个），段内自增无竞争
+ * - 序号经进程级随机种子和 64 位双射混淆（SplittableRandom 同款 mix64）得到 long ID：
+ *   同一进程内 2^64 个序号之内绝不重复，不同进程之间相当于 64 位随机数
+ * - 定长 11 位 Base62 编码（只含字母数字），除结果 String 外不额外分配对象
+ */
 public class IdGenerator {
 
-    private static final int SHORT_ID_LENGTH = 8;
+    /**
+     * 短 ID 的固定长度，11 位 Base62 可以覆盖 64 位。
+     */
+    public static final int SHORT_ID_LENGTH = 11;
+
+    private static final int SEQUENCE_BLOCK_SIZE = 1024;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final byte[] BASE62_ALPHABET =
+        "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+
+    private static final long PROCESS_SEED = new SecureRandom().nextLong();
+    private static final AtomicLong NEXT_SEQUENCE_BLOCK = new AtomicLong();
+    private static final ThreadLocal<SequenceState> SEQUENCE_STATE = ThreadLocal.withInitial(SequenceState::new);
 
     /**
      * 生成一个随机的UUID字符串。
@@ -20,16 +41,64 @@ public class IdGenerator {
     }
 
     /**
-     * 生成一个指定长度的短随机ID。
+     * 生成一个短ID（11 位 Base62），进程内唯一，跨进程冲突概率等同 64 位随机数。
      *
-     * @return 短随机ID字符串
+     * @return 短ID字符串
      */
     public static String generateShortId() {
-        UUID uuid = Generators.timeBasedGenerator().generate(); // 使用时间戳UUID
-        ByteBuffer bb = ByteBuffer.wrap(new byte[16]);
-        bb.putLong(uuid.getMostSignificantBits());
-        bb.putLong(uuid.getLeastSignificantBits());
-        String base64Uuid = Base64.getEncoder().withoutPadding().encodeToString(bb.array()); // 使用标准Base64编码，避免连字符'-'
-        return base64Uuid.substring(0, Math.min(SHORT_ID_LENGTH, base64Uuid.length()));
+        SequenceState state = SEQUENCE_STATE.get();
+        return encodeShortId(nextLongId(state), state.encodeBuffer);
+    }
+
+    /**
+     * 生成一个 long 形式的 ID，与 {@link #generateShortId()} 共用同一序列，适合需要原始类型 ID 的场景。
+     *
+     * @return long ID
+     */
+    public static long generateLongId() {
+        return nextLongId(SEQUENCE_STATE.get());
+    }
+
+    /**
+     * 将 {@link #generateLongId()} 生成的 long ID 编码为对应的短ID字符串。
+     */
+    public static String toShortId(long id) {
+        return encodeShortId(id, SEQUENCE_STATE.get().encodeBuffer);
+    }
+
+    private static long nextLongId(SequenceState state) {
+        if (state.nextSequence == state.sequenceLimit) {
+            long blockStart = NEXT_SEQUENCE_BLOCK.getAndAdd(SEQUENCE_BLOCK_SIZE);
+            state.nextSequence = blockStart;
+            state.sequenceLimit = blockStart + SEQUENCE_BLOCK_SIZE;
+        }
+        return mix64(PROCESS_SEED + state.nextSequence++ * GOLDEN_GAMMA);
+    }
+
+    /**
+     * 64 位双射混淆函数（David Stafford 的 Mix13，与 SplittableRandom 一致），不同输入必然得到不同输出。
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String encodeShortId(long id, byte[] buffer) {
+        // 先按无符号数取一次余，之后的值为非负数，可以直接用有符号除法
+        long quotient = Long.divideUnsigned(id, 62);
+        buffer[SHORT_ID_LENGTH - 1] = BASE62_ALPHABET[(int)(id - quotient * 62)];
+        for (int i = SHORT_ID_LENGTH - 2; i >= 0; i--) {
+            long next = quotient / 62;
+            buffer[i] = BASE62_ALPHABET[(int)(quotient - next * 62)];
+            quotient = next;
+        }
+        return new String(buffer, 0, SHORT_ID_LENGTH, StandardCharsets.ISO_8859_1);
+    }
+
+    private static final class SequenceState {
+        private final byte[] encodeBuffer = new byte[SHORT_ID_LENGTH];
+        private long nextSequence;
+        private long sequenceLimit;
     }
 }
@@ -0,0 +1,434 @@
+package source.hanger.core.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.msgpack.value.ImmutableValue;
+import source.hanger.core.message.Message;
+import source.hanger.core.message.MessageConversionContext;
+import source.hanger.core.message.MessageType;
+
+/**
+ * 预编译的消息转换计划，在 Extension 加载（路由索引重建）时由 {@link MessageConversionContext} 列表编译一次。
+ *
+ * - 规则按源 Extension 与源消息名称预先展开，分发时只做两次 HashMap 查找；没有匹配规则的消息原样返回，不做任何复制
+ * - 声明了源 Extension 的规则只作用于该 Extension 发出的消息（按 srcLoc 的 extensionName 匹配），
+ *   未声明的规则作用于任意来源
+ * - 每条规则的 rules 编译为属性操作数组（源键、目标键、类型转换、默认值），不再在运行时解析 rules Map
+ * - 条件编译为键值数组，空的 condition 表示无条件
+ * - 命中规则时消息只克隆一次，dst_msg_name 不为空时同时修改消息名称
+ *
+ * 支持的 conversion_type：
+ * - json_property_remap：{"old": "new"} 或 {"old": {"to": "new", "type": "int", "default": 0}}
+ * - type_conversion：{"key": "int"}，可选类型见 {@link ValueCaster}
+ * - default_value：{"key": value}，属性不存在或为 null 时写入默认值
+ *
+ * 计划本身不可变，可以被多个线程同时使用。
+ */
+@Slf4j
+public final class MessageConversionPlan {
+
+    public static final MessageConversionPlan EMPTY = new MessageConversionPlan(RuleIndex.EMPTY, Map.of());
+
+    /**
+     * 来源不在 bySource 中（或消息没有源 Extension）时使用的索引，只包含未声明源 Extension 的规则
+     */
+    private final RuleIndex anySource;
+    /**
+     * 每个声明过的源 Extension 的索引，包含该来源的规则与未声明来源的规则
+     */
+    private final Map<String, RuleIndex> bySource;
+
+    private MessageConversionPlan(RuleIndex anySource, Map<String, RuleIndex> bySource) {
+        this.anySource = anySource;
+        this.bySource = bySource;
+    }
+
+    /**
+     * 编译消息转换上下文列表。无效或不产生任何效果的规则会被忽略（并输出警告）。
+     *
+     * @param contexts 消息转换上下文，可以为 null
+     * @return 转换计划，没有有效规则时返回 {@link #EMPTY}
+     */
+    public static MessageConversionPlan compile(List<MessageConversionContext> contexts) {
+        if (contexts == null || contexts.isEmpty()) {
+            return EMPTY;
+        }
+        List<CompiledRule> rules = new ArrayList<>(contexts.size());
+        for (MessageConversionContext context : contexts) {
+            CompiledRule rule = CompiledRule.compile(context);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        if (rules.isEmpty()) {
+            return EMPTY;
+        }
+        // 每个源 Extension 按声明顺序展开其自身的规则与不限来源的规则
+        Map<String, List<CompiledRule>> sourceRules = new LinkedHashMap<>();
+        for (CompiledRule rule : rules) {
+            if (rule.srcExtensionName != null) {
+                sourceRules.putIfAbsent(rule.srcExtensionName, new ArrayList<>());
+            }
+        }
+        List<CompiledRule> anySourceRules = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            if (rule.srcExtensionName == null) {
+                anySourceRules.add(rule);
+                sourceRules.values().forEach(list -> list.add(rule));
+            } else {
+                sourceRules.get(rule.srcExtensionName).add(rule);
+            }
+        }
+        Map<String, RuleIndex> bySource = new HashMap<>(sourceRules.size() * 2);
+        sourceRules.forEach((source, list) -> bySource.put(source, RuleIndex.build(list)));
+        return new MessageConversionPlan(RuleIndex.build(anySourceRules), bySource);
+    }
+
+    public boolean isEmpty() {
+        return anySource.isEmpty() && bySource.isEmpty();
+    }
+
+    /**
+     * 对消息执行转换。
+     *
+     * @param message 原始消息，不会被修改
+     * @return 转换后的新消息；没有规则命中时返回原始消息本身
+     */
+    public Message apply(Message message) {
+        if (message == null) {
+            return null;
+        }
+        String srcExtensionName = message.getSrcLoc() != null ? message.getSrcLoc().getExtensionName() : null;
+        RuleIndex index = srcExtensionName != null ? bySource.getOrDefault(srcExtensionName, anySource) : anySource;
+        CompiledRule[] rules = index.rulesFor(message.getName());
+        if (rules.length == 0) {
+            return message;
+        }
+        Message converted = null;
+        Map<String, Object> properties = message.getProperties();
+        for (CompiledRule rule : rules) {
+            if (!rule.matches(message.getType(), properties) || !rule.affects(properties)) {
+                continue;
+            }
+            if (converted == null) {
+                try {
+                    converted = message.clone(); // 克隆消息以避免修改原始消息，多条规则命中时也只克隆一次
+                } catch (CloneNotSupportedException e) {
+                    log.error("MessageConversionPlan: 消息克隆失败: {}", e.getMessage());
+                    return message;
+                }
+            }
+            properties = rule.applyProperties(properties);
+            if (rule.dstMsgName != null) {
+                converted.setName(rule.dstMsgName);
+            }
+        }
+        if (converted == null) {
+            return message;
+        }
+        converted.setProperties(properties);
+        return converted;
+    }
+
+    /**
+     * 类型转换方式，对应规则中的 "int" / "long" / "float" / "double" / "boolean" / "string"。
+     */
+    public enum ValueCaster {
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE,
+        BOOLEAN,
+        STRING;
+
+        public static ValueCaster parse(String value, ValueCaster defaultCaster) {
+            if (value == null || value.isBlank()) {
+                return defaultCaster;
+            }
+            return switch (value.trim().toLowerCase()) {
+                case "int", "integer" -> INT;
+                case "long" -> LONG;
+                case "float" -> FLOAT;
+                case "double", "number" -> DOUBLE;
+                case "bool", "boolean" -> BOOLEAN;
+                case "string", "str" -> STRING;
+                default -> defaultCaster;
+            };
+        }
+
+        /**
+         * @return 转换结果；无法转换时返回 null
+         */
+        Object cast(Object value) {
+            value = unwrap(value);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return switch (this) {
+                    case INT -> value instanceof Number number ? (Object)number.intValue()
+                        : (Object)Integer.parseInt(value.toString().trim());
+                    case LONG -> value instanceof Number number ? (Object)number.longValue()
+                        : (Object)Long.parseLong(value.toString().trim());
+                    case FLOAT -> value instanceof Number number ? (Object)number.floatValue()
+                        : (Object)Float.parseFloat(value.toString().trim());
+                    case DOUBLE -> value instanceof Number number ? (Object)number.doubleValue()
+                        : (Object)Double.parseDouble(value.toString().trim());
+                    case BOOLEAN -> value instanceof Boolean ? value
+                        : value instanceof Number number ? (Object)(number.doubleValue() != 0)
+                        : castBoolean(value.toString().trim());
+                    case STRING -> value.toString();
+                };
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static Boolean castBoolean(String text) {
+            if ("true".equalsIgnoreCase(text) || "1".equals(text)) {
+                return Boolean.TRUE;
+            } else if ("false".equalsIgnoreCase(text) || "0".equals(text)) {
+                return Boolean.FALSE;
+            }
+            return null;
+        }
+
+        private static Object unwrap(Object value) {
+            if (!(value instanceof ImmutableValue immutableValue)) {
+                return value;
+            }
+            if (immutableValue.isNilValue()) {
+                return null;
+            } else if (immutableValue.isIntegerValue()) {
+                return immutableValue.asIntegerValue().toLong();
+            } else if (immutableValue.isFloatValue()) {
+                return immutableValue.asFloatValue().toDouble();
+            } else if (immutableValue.isBooleanValue()) {
+                return immutableValue.asBooleanValue().getBoolean();
+            } else if (immutableValue.isStringValue()) {
+                return immutableValue.asStringValue().asString();
+            }
+            return immutableValue.toString();
+        }
+    }
+
+    /**
+     * 单个属性操作：读取 srcKey，按需转换类型、填充默认值后写入 dstKey。
+     * srcKey 与 dstKey 不同时为重命名，原属性会被移除。
+     */
+    private record PropertyOp(String srcKey, String dstKey, ValueCaster caster, Object defaultValue) {
+
+        boolean renames() {
+            return !srcKey.equals(dstKey);
+        }
+    }
+
+    /**
+     * 同一来源的规则按源消息名称展开的索引。
+     */
+    private record RuleIndex(CompiledRule[] unnamed, Map<String, CompiledRule[]> named) {
+
+        static final RuleIndex EMPTY = new RuleIndex(new CompiledRule[0], Map.of());
+
+        /**
+         * 先收集规则中出现过的名称，再按声明顺序展开每个名称匹配的规则（含无名称规则）。
+         */
+        static RuleIndex build(List<CompiledRule> rules) {
+            if (rules.isEmpty()) {
+                return EMPTY;
+            }
+            Map<String, List<CompiledRule>> named = new LinkedHashMap<>();
+            for (CompiledRule rule : rules) {
+                if (rule.srcMsgName != null) {
+                    named.putIfAbsent(rule.srcMsgName, new ArrayList<>());
+                }
+            }
+            List<CompiledRule> unnamed = new ArrayList<>();
+            for (CompiledRule rule : rules) {
+                if (rule.srcMsgName == null) {
+                    unnamed.add(rule);
+                    named.values().forEach(list -> list.add(rule));
+                } else {
+                    named.get(rule.srcMsgName).add(rule);
+                }
+            }
+            Map<String, CompiledRule[]> frozen = new HashMap<>(named.size() * 2);
+            named.forEach((name, list) -> frozen.put(name, list.toArray(CompiledRule[]::new)));
+            return new RuleIndex(unnamed.toArray(CompiledRule[]::new), frozen);
+        }
+
+        CompiledRule[] rulesFor(String msgName) {
+            return msgName != null ? named.getOrDefault(msgName, unnamed) : unnamed;
+        }
+
+        boolean isEmpty() {
+            return unnamed.length == 0 && named.isEmpty();
+        }
+    }
+
+    private static final class CompiledRule {
+        private final String srcExtensionName;
+        private final String srcMsgName;
+        private final MessageType srcMsgType;
+        private final String dstMsgName;
+        private final String[] conditionKeys;
+        private final Object[] conditionValues;
+        private final PropertyOp[] ops;
+        private final boolean hasRenames;
+
+        private CompiledRule(MessageConversionContext context, String[] conditionKeys, Object[] conditionValues,
+            PropertyOp[] ops) {
+            this.srcExtensionName = StringUtils.isNotEmpty(context.getSrcExtensionName())
+                ? context.getSrcExtensionName() : null;
+            this.srcMsgName = StringUtils.isNotEmpty(context.getSrcMsgName()) ? context.getSrcMsgName() : null;
+            this.srcMsgType = context.getSrcMsgType();
+            this.dstMsgName = StringUtils.isNotEmpty(context.getDstMsgName()) ? context.getDstMsgName() : null;
+            this.conditionKeys = conditionKeys;
+            this.conditionValues = conditionValues;
+            this.ops = ops;
+            boolean renames = false;
+            for (PropertyOp op : ops) {
+                renames |= op.renames();
+            }
+            this.hasRenames = renames;
+        }
+
+        static CompiledRule compile(MessageConversionContext context) {
+            if (context == null) {
+                return null;
+            }
+            List<PropertyOp> ops = new ArrayList<>();
+            String conversionType = context.getConversionType() != null ? context.getConversionType() : "";
+            Map<String, Object> rules = context.getRules() != null ? context.getRules() : Map.of();
+            switch (conversionType) {
+                case "json_property_remap" -> rules.forEach((srcKey, rule) -> {
+                    if (rule instanceof String dstKey) {
+                        ops.add(new PropertyOp(srcKey, dstKey, null, null));
+                    } else if (rule instanceof Map<?, ?> spec) {
+                        Object dstKey = spec.get("to");
+                        ops.add(new PropertyOp(srcKey, dstKey instanceof String key ? key : srcKey,
+                            parseCaster(spec.get("type"), context), spec.get("default")));
+                    } else {
+                        log.warn("MessageConversionPlan: 无法识别的重映射规则 {}: {}", srcKey, rule);
+                    }
+                });
+                case "type_conversion" -> rules.forEach((key, type) -> {
+                    ValueCaster caster = parseCaster(type, context);
+                    if (caster != null) {
+                        ops.add(new PropertyOp(key, key, caster, null));
+                    }
+                });
+                case "default_value" -> rules.forEach((key, value) -> ops.add(new PropertyOp(key, key, null, value)));
+                default -> {
+                    log.warn("MessageConversionPlan: 未知或不支持的消息转换类型: {}", context.getConversionType());
+                    return null;
+                }
+            }
+            if (ops.isEmpty() && StringUtils.isEmpty(context.getDstMsgName())) {
+                return null; // 不产生任何效果的规则
+            }
+            Map<String, Object> condition = context.getCondition() != null ? context.getCondition() : Map.of();
+            String[] conditionKeys = condition.keySet().toArray(String[]::new);
+            Object[] conditionValues = new Object[conditionKeys.length];
+            for (int i = 0; i < conditionKeys.length; i++) {
+                conditionValues[i] = condition.get(conditionKeys[i]);
+            }
+            return new CompiledRule(context, conditionKeys, conditionValues, ops.toArray(PropertyOp[]::new));
+        }
+
+        private static ValueCaster parseCaster(Object type, MessageConversionContext context) {
+            if (type == null) {
+                return null;
+            }
+            ValueCaster caster = ValueCaster.parse(type.toString(), null);
+            if (caster == null) {
+                log.warn("MessageConversionPlan: 未知的类型转换 {}，规则: {}", type, context);
+            }
+            return caster;
+        }
+
+        boolean matches(MessageType type, Map<String, Object> properties) {
+            if (srcMsgType != null && srcMsgType != type) {
+                return false;
+            }
+            for (int i = 0; i < conditionKeys.length; i++) {
+                Object actual = properties != null ? properties.get(conditionKeys[i]) : null;
+                if (!valueEquals(actual, conditionValues[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * 判断规则是否会改变消息：不改名、且所有操作涉及的属性都不存在又没有默认值时，无需克隆消息。
+         */
+        boolean affects(Map<String, Object> properties) {
+            if (dstMsgName != null) {
+                return true;
+            }
+            for (PropertyOp op : ops) {
+                if (op.defaultValue() != null || (properties != null && properties.containsKey(op.srcKey()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 在属性副本上执行全部操作，入参不会被修改。
+         */
+        Map<String, Object> applyProperties(Map<String, Object> properties) {
+            Map<String, Object> source = properties != null ? properties : Map.of();
+            Map<String, Object> result = new HashMap<>((source.size() + ops.length) * 4 / 3 + 1);
+            result.putAll(source);
+            if (hasRenames) {
+                // 先移除所有被重命名的源属性，再写入目标属性，使 a -> b、b -> a 这类交换得到正确结果
+                for (PropertyOp op : ops) {
+                    if (op.renames()) {
+                        result.remove(op.srcKey());
+                    }
+                }
+            }
+            for (PropertyOp op : ops) {
+                boolean present = source.containsKey(op.srcKey());
+                Object value = source.get(op.srcKey());
+                if (value != null && op.caster() != null) {
+                    Object casted = op.caster().cast(value);
+                    if (casted == null) {
+                        log.debug("MessageConversionPlan: 属性 {} 的值 {} 无法转换为 {}，保持原值。", op.srcKey(), value,
+                            op.caster());
+                    } else {
+                        value = casted;
+                    }
+                }
+                if (value == null && op.defaultValue() != null) {
+                    value = op.defaultValue();
+                    present = true;
+                }
+                if (present) {
+                    result.put(op.dstKey(), value);
+                }
+            }
+            return result;
+        }
+
+        private static boolean valueEquals(Object actual, Object expected) {
+            if (actual instanceof ImmutableValue) {
+                actual = ValueCaster.unwrap(actual);
+            }
+            if (actual instanceof Number a && expected instanceof Number e) {
+                // JSON 配置中的整数与消息中的 long / double 按数值比较
+                return a.doubleValue() == e.doubleValue();
+            }
+            return Objects.equals(actual, expected);
+        }
+    }
+}
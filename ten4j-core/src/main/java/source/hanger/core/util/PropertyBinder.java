@@ -0,0 +1,81 @@
+package source.hanger.core.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 将组件的属性 Map 一次性绑定为类型化的配置对象（record 或普通 Bean），供 Extension 在 onConfigure 时使用，
+ * 之后在热路径上直接读取字段，不再逐次按 key 查找 Map、判断类型和分配 Optional。
+ *
+ * - 属性名按 {@code @JsonProperty} 映射（与图配置中的 snake_case 一致），未声明的属性忽略
+ * - 标注 {@code @JsonProperty(required = true)} 的属性不存在、为 null 或为空白字符串时绑定失败
+ * - 默认值由配置类型自身提供，例如 record 的紧凑构造器或字段初始值
+ *
+ * 绑定失败时抛出 {@link IllegalArgumentException}，消息中包含全部缺失的属性名。
+ */
+public class PropertyBinder {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private PropertyBinder() {
+        // Utility class
+    }
+
+    /**
+     * @param properties 组件属性，可以为 null
+     * @param type       配置类型
+     * @return 绑定并校验后的配置对象
+     * @throws IllegalArgumentException 属性类型不匹配或缺少必填属性
+     */
+    public static <T> T bind(Map<String, Object> properties, Class<T> type) {
+        List<String> missing = missingRequired(properties, type);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException(
+                "%s 缺少必填属性: %s".formatted(type.getSimpleName(), String.join(", ", missing)));
+        }
+        try {
+            return OBJECT_MAPPER.convertValue(properties != null ? properties : Map.of(), type);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "%s 属性绑定失败: %s".formatted(type.getSimpleName(), e.getMessage()), e);
+        }
+    }
+
+    private static List<String> missingRequired(Map<String, Object> properties, Class<?> type) {
+        List<String> missing = new ArrayList<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                checkRequired(properties, component.getAccessor().getAnnotation(JsonProperty.class),
+                    component.getName(), missing);
+            }
+        } else {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    checkRequired(properties, field.getAnnotation(JsonProperty.class), field.getName(), missing);
+                }
+            }
+        }
+        return missing;
+    }
+
+    private static void checkRequired(Map<String, Object> properties, JsonProperty annotation, String defaultName,
+        List<String> missing) {
+        if (annotation == null || !annotation.required()) {
+            return;
+        }
+        String name = annotation.value().isEmpty() ? defaultName : annotation.value();
+        Object value = properties != null ? properties.get(name) : null;
+        if (value == null || (value instanceof String text && text.isBlank())) {
+            missing.add(name);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package source.hanger.core.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 预编译的属性模板，与 {@link ExpressionResolver#resolveProperties(Object, Map)} 语义一致：
+ * 完整的 {{expression}} 字符串在编译时就转换为 MVEL 编译结果（经 ExpressionResolver 的缓存），
+ * 含占位符的 Map / List 预先拆解为子模板，每次 {@link #instantiate(Map)} 只需复制这些容器并对表达式求值。
+ *
+ * 模板本身不可变，可以被多个线程同时用于实例化。每次实例化得到的 Map / List（包括不含占位符的嵌套子树）
+ * 都是新的可修改对象：不含占位符的子树在编译时保存为快照，实例化时只做结构复制，不求值。
+ */
+public sealed interface PropertyTemplate {
+
+    /**
+     * 编译一个属性值（通常来自 JSON 解析结果：Map、List、String 或标量）。
+     */
+    static PropertyTemplate compile(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, PropertyTemplate> entries = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            map.forEach((k, v) -> entries.put((String)k, compileNested(v)));
+            return new MapTemplate(entries);
+        } else if (value instanceof List<?> list) {
+            List<PropertyTemplate> items = new ArrayList<>(list.size());
+            list.forEach(item -> items.add(compileNested(item)));
+            return new ListTemplate(items);
+        }
+        return compileNested(value);
+    }
+
+    private static PropertyTemplate compileNested(Object value) {
+        if (value instanceof String text) {
+            String mvelExpression = ExpressionResolver.extractExpression(text);
+            return mvelExpression != null ? ExpressionResolver.compiledExpression(mvelExpression) : new Constant(text);
+        } else if (value instanceof Map || value instanceof List) {
+            return ExpressionResolver.containsExpression(value) ? compile(value) : new Subtree(copyOf(value));
+        }
+        return new Constant(value);
+    }
+
+    /**
+     * 深复制 Map / List 结构，叶子节点（字符串与标量）原样保留。
+     */
+    private static Object copyOf(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 4 / 3 + 1);
+            map.forEach((k, v) -> copy.put(k, copyOf(v)));
+            return copy;
+        } else if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            list.forEach(item -> copy.add(copyOf(item)));
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * 使用外部属性求值，生成新的属性值。
+     *
+     * @param context 表达式可以引用的变量，例如 StartGraphCommand 的 properties
+     * @throws IllegalStateException 表达式编译或求值失败
+     */
+    Object instantiate(Map<String, Object> context);
+
+    record Constant(Object value) implements PropertyTemplate {
+        @Override
+        public Object instantiate(Map<String, Object> context) {
+            return value;
+        }
+    }
+
+    /**
+     * 不含占位符的嵌套 Map / List。快照仅由模板持有，每次实例化返回新的可修改副本，
+     * Extension 修改自己的属性不会影响模板或其他实例。
+     */
+    record Subtree(Object snapshot) implements PropertyTemplate {
+        @Override
+        public Object instantiate(Map<String, Object> context) {
+            return copyOf(snapshot);
+        }
+    }
+
+    /**
+     * 已编译的 MVEL 表达式。编译失败时保留异常，在实例化时抛出，与运行时编译失败的行为一致。
+     */
+    final class Expression implements PropertyTemplate {
+        private final String mvelExpression;
+        private final Serializable compiledExpression;
+        private final RuntimeException compileError;
+
+        private Expression(String mvelExpression, Serializable compiledExpression, RuntimeException compileError) {
+            this.mvelExpression = mvelExpression;
+            this.compiledExpression = compiledExpression;
+            this.compileError = compileError;
+        }
+
+        static Expression compile(String mvelExpression) {
+            try {
+                return new Expression(mvelExpression, ExpressionResolver.compile(mvelExpression), null);
+            } catch (RuntimeException e) {
+                return new Expression(mvelExpression, null, e);
+            }
+        }
+
+        public String getMvelExpression() {
+            return mvelExpression;
+        }
+
+        /**
+         * @return 编译失败的原因，编译成功时为 null
+         */
+        public RuntimeException getCompileError() {
+            return compileError;
+        }
+
+        @Override
+        public Object instantiate(Map<String, Object> context) {
+            if (compileError != null) {
+                throw new IllegalStateException("Error resolving MVEL expression %s".formatted(mvelExpression),
+                    compileError);
+            }
+            return ExpressionResolver.executeCompiled(compiledExpression, mvelExpression, context);
+        }
+    }
+
+    record MapTemplate(Map<String, PropertyTemplate> entries) implements PropertyTemplate {
+        @Override
+        public Map<String, Object> instantiate(Map<String, Object> context) {
+            Map<String, Object> resolved = new HashMap<>(entries.size() * 4 / 3 + 1);
+            entries.forEach((k, v) -> resolved.put(k, v.instantiate(context)));
+            return resolved;
+        }
+    }
+
+    record ListTemplate(List<PropertyTemplate> items) implements PropertyTemplate {
+        @Override
+        public List<Object> instantiate(Map<String, Object> context) {
+            List<Object> resolved = new ArrayList<>(items.size());
+            for (PropertyTemplate item : items) {
+                resolved.add(item.instantiate(context));
+            }
+            return resolved;
+        }
+    }
+}
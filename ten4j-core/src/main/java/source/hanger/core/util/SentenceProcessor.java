@@ -56,6 +56,7 @@ public class SentenceProcessor {
      * @param sentenceFragment 之前未完成的句子片段
      * @param content 当前接收到的文本内容
      * @return 包含完整句子列表和剩余片段的结果对象
+     * @see SentenceSegmenter 流式场景下保留扫描位置、支持切分策略的分句器
      */
     public static SentenceParsingResult parseSentences(String sentenceFragment, String content) {
         List<String> sentences = new ArrayList<>();
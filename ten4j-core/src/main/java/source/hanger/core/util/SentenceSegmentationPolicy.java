@@ -0,0 +1,61 @@
+package source.hanger.core.util;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * {@link SentenceSegmenter} 的切分策略，可通过 LLM Extension 的属性配置：
+ *
+ * <pre>
+ * "property": {
+ *   "sentence_min_chars": 8,
+ *   "sentence_hard_punctuation_only": false,
+ *   "sentence_first_chunk_fast": true,
+ *   "sentence_first_chunk_min_chars": 3,
+ *   "sentence_protect_numbers_and_urls": true
+ * }
+ * </pre>
+ *
+ * 句末标点（。！？!?.；;…）总是切分；句中标点（，,、：:～~）只有在当前片段达到最小长度时才切分，
+ * 避免产生大量过短的 TTS 请求。
+ */
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class SentenceSegmentationPolicy {
+
+    /**
+     * 按句中标点切分前，当前片段至少需要的字符数（不含首尾空白）。
+     */
+    @JsonProperty("sentence_min_chars")
+    private int minSoftChars = 8;
+
+    /**
+     * 为 true 时只按句末标点切分，忽略句中标点。
+     */
+    @JsonProperty("sentence_hard_punctuation_only")
+    private boolean hardPunctuationOnly;
+
+    /**
+     * 为 true 时第一个片段使用 {@link #firstChunkMinChars} 作为句中标点的切分阈值（即使开启了 hardPunctuationOnly），
+     * 让 TTS 尽早开始合成，缩短首包音频延迟。
+     */
+    @JsonProperty("sentence_first_chunk_fast")
+    private boolean firstChunkFast = true;
+
+    @JsonProperty("sentence_first_chunk_min_chars")
+    private int firstChunkMinChars = 3;
+
+    /**
+     * 为 true 时不在数字（3.14、1,000、10:30）、域名与缩写（example.com）和 URL（https://...、www....）内部切分。
+     * 半角 . 以及跟在数字、字母后的半角 , : 需要等到下一个字符到达才能判断，因此会延后一个增量。
+     */
+    @JsonProperty("sentence_protect_numbers_and_urls")
+    private boolean protectNumbersAndUrls = true;
+
+    public static SentenceSegmentationPolicy defaults() {
+        return new SentenceSegmentationPolicy();
+    }
+}
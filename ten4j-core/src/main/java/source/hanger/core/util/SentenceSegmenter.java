@@ -0,0 +1,241 @@
+package source.hanger.core.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式分句器：按 LLM 的增量文本逐步切分出可以送往 TTS 的句子片段。
+ *
+ * 与 {@link SentenceProcessor#parseSentences(String, String)} 不同，分句器在增量之间保留扫描位置，
+ * 每次只检查新到达的字符，未完成的片段留在内部缓冲区中，不再反复复制；每个切出的句子只分配一次字符串。
+ * 切分规则由 {@link SentenceSegmentationPolicy} 决定。
+ *
+ * 非线程安全，一个实例对应一次 LLM 流式响应。
+ */
+public class SentenceSegmenter {
+
+    private final SentenceSegmentationPolicy policy;
+    private final StringBuilder pending = new StringBuilder(64);
+    private final List<String> completed = new ArrayList<>(2); // append(CharSequence) 复用的结果列表
+
+    private int scanned; // pending 中已检查过的字符数
+    private int wordStart; // 当前单词（不含空白与中日韩字符）在 pending 中的起始位置
+    private boolean inUrl;
+    private int emittedSegments;
+
+    public SentenceSegmenter(SentenceSegmentationPolicy policy) {
+        this.policy = policy != null ? policy : SentenceSegmentationPolicy.defaults();
+    }
+
+    /**
+     * 追加一段增量文本，返回其中完整的句子。
+     * 返回的列表由分句器复用，只在下一次调用 append 之前有效；没有完整句子时返回空列表。
+     *
+     * @param delta LLM 新输出的文本
+     * @return 本次切出的句子（已去除首尾空白，不含空串）
+     */
+    public List<String> append(CharSequence delta) {
+        completed.clear();
+        return append(delta, completed) > 0 ? completed : List.of();
+    }
+
+    /**
+     * 追加一段增量文本，并将其中完整的句子按顺序加入 sentences。
+     *
+     * @param delta     LLM 新输出的文本
+     * @param sentences 接收切分结果的列表（已去除首尾空白，不含空串）
+     * @return 本次切出的句子数
+     */
+    public int append(CharSequence delta, List<String> sentences) {
+        if (delta == null || delta.isEmpty()) {
+            return 0;
+        }
+        pending.append(delta);
+        int segmentStart = 0;
+        int added = 0;
+        int length = pending.length();
+        int i = scanned;
+        for (; i < length; i++) {
+            char c = pending.charAt(i);
+            if (policy.isProtectNumbersAndUrls() && updateUrlState(c, i)) {
+                continue;
+            }
+            int kind = boundaryKind(c);
+            if (kind == NOT_BOUNDARY) {
+                continue;
+            }
+            if (policy.isProtectNumbersAndUrls() && isAmbiguous(c, i)) {
+                if (i + 1 == length) {
+                    break; // 需要下一个字符才能判断，等待后续增量
+                }
+                if (isInsideToken(c, i)) {
+                    continue;
+                }
+            }
+            int end = i + 1;
+            while (end < length && isTrailing(pending.charAt(end))) {
+                end++; // 连续的标点和右引号归入当前句
+            }
+            if (end == length && end - 1 > i && policy.isProtectNumbersAndUrls() && pending.charAt(end - 1) == '.') {
+                break; // 省略号可能还没有输出完整，等待后续增量
+            }
+            if (kind == SOFT_BOUNDARY && !allowSoftSplit(segmentStart, end)) {
+                continue;
+            }
+            if (!hasSemanticChar(segmentStart, end)) {
+                continue; // 只有标点时不单独成句，并入下一句
+            }
+            String sentence = trimmedSubstring(segmentStart, end);
+            sentences.add(sentence);
+            emittedSegments++;
+            added++;
+            segmentStart = end;
+            i = end - 1;
+        }
+        scanned = i;
+        if (segmentStart > 0) {
+            pending.delete(0, segmentStart);
+            scanned -= segmentStart;
+            wordStart = Math.max(0, wordStart - segmentStart);
+        }
+        return added;
+    }
+
+    /**
+     * 取出缓冲区中剩余的未完成片段（不去除空白），并重置分句器以便复用。
+     */
+    public String flush() {
+        String remaining = pending.toString();
+        reset();
+        return remaining;
+    }
+
+    public void reset() {
+        pending.setLength(0);
+        scanned = 0;
+        wordStart = 0;
+        inUrl = false;
+        emittedSegments = 0;
+    }
+
+    /**
+     * @return 尚未切出的字符数
+     */
+    public int pendingLength() {
+        return pending.length();
+    }
+
+    private static final int NOT_BOUNDARY = 0;
+    private static final int SOFT_BOUNDARY = 1;
+    private static final int HARD_BOUNDARY = 2;
+
+    private static int boundaryKind(char c) {
+        return switch (c) {
+            case '。', '．', '！', '？', '!', '?', '.', '；', ';', '…' -> HARD_BOUNDARY;
+            case '，', ',', '、', '：', ':', '～', '~' -> SOFT_BOUNDARY;
+            default -> NOT_BOUNDARY;
+        };
+    }
+
+    private static boolean isTrailing(char c) {
+        return boundaryKind(c) != NOT_BOUNDARY
+            || c == '"' || c == '\'' || c == ')' || c == '”' || c == '’' || c == '）' || c == '」' || c == '』'
+            || c == '》' || c == '】';
+    }
+
+    /**
+     * 维护 URL 状态。
+     *
+     * @return 当前字符位于 URL 内部，不能作为切分点
+     */
+    private boolean updateUrlState(char c, int index) {
+        if (Character.isWhitespace(c) || c >= '\u2E80') {
+            // 空白或中日韩字符（含全角标点）结束当前单词
+            inUrl = false;
+            wordStart = index + 1;
+            return false;
+        }
+        if (!inUrl) {
+            if (c == '/' && index - wordStart >= 2 && pending.charAt(index - 1) == '/'
+                && pending.charAt(index - 2) == ':') {
+                inUrl = true;
+            } else if (c == '.' && index - wordStart == 3 && startsWithWww(wordStart)) {
+                inUrl = true;
+            }
+        }
+        return inUrl;
+    }
+
+    private boolean startsWithWww(int start) {
+        return (pending.charAt(start) | 0x20) == 'w' && (pending.charAt(start + 1) | 0x20) == 'w'
+            && (pending.charAt(start + 2) | 0x20) == 'w';
+    }
+
+    /**
+     * 半角 . 、数字后的半角 , 以及字母或数字后的半角 : 是否可能位于数字、域名、缩写或 URL 协议头内部，
+     * 需要根据下一个字符判断。
+     */
+    private boolean isAmbiguous(char c, int index) {
+        if (c == '.') {
+            return true;
+        }
+        if (index == 0) {
+            return false;
+        }
+        char previous = pending.charAt(index - 1);
+        return (c == ',' && isAsciiDigit(previous))
+            || (c == ':' && (isAsciiDigit(previous) || isAsciiLetter(previous)));
+    }
+
+    private boolean isInsideToken(char c, int index) {
+        char next = pending.charAt(index + 1);
+        return switch (c) {
+            case '.' -> isAsciiDigit(next) || isAsciiLetter(next);
+            case ':' -> isAsciiDigit(next) || next == '/';
+            default -> isAsciiDigit(next);
+        };
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c | 0x20) >= 'a' && (c | 0x20) <= 'z';
+    }
+
+    private boolean allowSoftSplit(int start, int end) {
+        boolean firstChunk = emittedSegments == 0 && policy.isFirstChunkFast();
+        if (policy.isHardPunctuationOnly() && !firstChunk) {
+            return false;
+        }
+        int minChars = firstChunk ? policy.getFirstChunkMinChars() : policy.getMinSoftChars();
+        return trimmedLength(start, end) >= minChars;
+    }
+
+    private boolean hasSemanticChar(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (Character.isLetterOrDigit(pending.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int trimmedLength(int start, int end) {
+        while (start < end && Character.isWhitespace(pending.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(pending.charAt(end - 1))) {
+            end--;
+        }
+        return end - start;
+    }
+
+    private String trimmedSubstring(int start, int end) {
+        while (start < end && Character.isWhitespace(pending.charAt(start))) {
+            start++;
+        }
+        return pending.substring(start, end);
+    }
+}
@@ -0,0 +1,224 @@
+package source.hanger.core.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import source.hanger.core.message.Location;
+import source.hanger.core.message.Message;
+import source.hanger.core.message.command.TimeoutCommand;
+import source.hanger.core.message.command.TimerCommand;
+import source.hanger.core.runloop.Runloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link EngineTimerService} 的登记、重复、取消、替换与防漂移测试，时间全部由测试注入。
+ *
+ * 到期判断只保证不早于到期时间，因此断言在到期前 1ms 未触发、到期后 1ms 已触发。
+ */
+class EngineTimerServiceTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final Location ENGINE = new Location("app", "graph-1", null);
+    private static final Location ASR = new Location("app", "graph-1", "asr");
+    private static final Location TTS = new Location("app", "graph-1", "tts");
+
+    private Runloop runloop;
+    private final List<TimeoutCommand> fired = new ArrayList<>();
+    private EngineTimerService service;
+
+    @BeforeEach
+    void setUp() {
+        runloop = mock(Runloop.class);
+        service = new EngineTimerService(ENGINE, runloop, fired::add, T0);
+    }
+
+    @Test
+    void firesOnceAfterInterval() {
+        service.schedule(timer(ASR, 7, 10_000, 1), T0);
+
+        assertEquals(0, service.poll(T0 + 9));
+        assertEquals(1, service.poll(T0 + 11));
+        assertEquals(0, service.poll(T0 + 100));
+
+        assertEquals(1, fired.size());
+        TimeoutCommand timeout = fired.get(0);
+        assertEquals(7L, timeout.getTimerId());
+        assertEquals(ENGINE, timeout.getSrcLoc());
+        assertEquals(List.of(ASR), timeout.getDestLocs());
+        assertEquals(0, service.getActiveTimerCount());
+    }
+
+    @Test
+    void roundsTimeoutUpToMilliseconds() {
+        service.schedule(timer(ASR, 1, 1_500, 1), T0);
+
+        assertEquals(0, service.poll(T0 + 1));
+        assertEquals(1, service.poll(T0 + 3));
+    }
+
+    @Test
+    void repeatsGivenNumberOfTimes() {
+        service.schedule(timer(ASR, 1, 10_000, 3), T0);
+
+        int total = 0;
+        for (long t = T0; t <= T0 + 100; t++) {
+            total += service.poll(t);
+        }
+
+        assertEquals(3, total);
+        assertEquals(0, service.getActiveTimerCount());
+    }
+
+    @Test
+    void repeatsUntilCancelled() {
+        service.schedule(timer(ASR, 1, 10_000, EngineTimerService.INFINITE_TIMES), T0);
+
+        int total = 0;
+        for (long t = T0; t <= T0 + 1_000; t++) {
+            total += service.poll(t);
+        }
+        assertTrue(total >= 99 && total <= 100, "fired " + total);
+        assertEquals(1, service.getActiveTimerCount());
+
+        assertTrue(service.cancel("asr", 1));
+        for (long t = T0 + 1_001; t <= T0 + 1_100; t++) {
+            total += service.poll(t);
+        }
+        assertEquals(fired.size(), total);
+        assertTrue(total <= 100);
+        assertEquals(0, service.getActiveTimerCount());
+    }
+
+    @Test
+    void latePollDoesNotShiftSchedule() {
+        service.schedule(timer(ASR, 1, 10_000, EngineTimerService.INFINITE_TIMES), T0);
+
+        assertEquals(1, service.poll(T0 + 13));
+        // 下一次仍按 T0 + 20 计算；若以触发时间为基准则要到 T0 + 23
+        assertEquals(0, service.poll(T0 + 19));
+        assertEquals(1, service.poll(T0 + 21));
+    }
+
+    @Test
+    void fallingBehindRestartsFromNow() {
+        service.schedule(timer(ASR, 1, 10_000, EngineTimerService.INFINITE_TIMES), T0);
+
+        // 落后三个周期只补发一次，下一次从当前时间起算（T0 + 45），而不是 T0 + 40
+        assertEquals(1, service.poll(T0 + 35));
+        assertEquals(0, service.poll(T0 + 44));
+        assertEquals(1, service.poll(T0 + 46));
+        assertEquals(2, fired.size());
+    }
+
+    @Test
+    void zeroTimesCancels() {
+        service.schedule(timer(ASR, 1, 10_000, 1), T0);
+        service.schedule(timer(ASR, 1, 10_000, 0), T0 + 5);
+
+        assertEquals(0, service.poll(T0 + 50));
+        assertTrue(fired.isEmpty());
+        assertEquals(0, service.getActiveTimerCount());
+        assertFalse(service.cancel("asr", 1));
+    }
+
+    @Test
+    void reschedulingSameTimerIdReplacesPrevious() {
+        service.schedule(timer(ASR, 1, 10_000, 1), T0);
+        service.schedule(timer(ASR, 1, 30_000, 1), T0 + 5);
+
+        assertEquals(0, service.poll(T0 + 34));
+        assertEquals(1, service.poll(T0 + 36));
+        assertEquals(1, fired.size());
+        assertEquals(0, service.getActiveTimerCount());
+    }
+
+    @Test
+    void timerIdsAreScopedPerExtension() {
+        service.schedule(timer(ASR, 1, 10_000, 1), T0);
+        service.schedule(timer(TTS, 1, 20_000, 1), T0);
+        assertEquals(2, service.getActiveTimerCount());
+
+        assertTrue(service.cancel("tts", 1));
+        assertEquals(1, service.poll(T0 + 50));
+        assertEquals(List.of(ASR), fired.get(0).getDestLocs());
+    }
+
+    @Test
+    void clearCancelsEverything() {
+        service.schedule(timer(ASR, 1, 10_000, EngineTimerService.INFINITE_TIMES), T0);
+        service.schedule(timer(TTS, 2, 10_000, 1), T0);
+
+        service.clear();
+
+        assertEquals(0, service.getActiveTimerCount());
+        assertEquals(0, service.poll(T0 + 100));
+        assertTrue(fired.isEmpty());
+    }
+
+    @Test
+    void timerCancelledByEarlierTimeoutInSamePollIsNotFired() {
+        // 第一个定时器的投递（同步派发给 Extension）中取消第二个，同一轮到期的第二个不应再投递
+        service = new EngineTimerService(ENGINE, runloop, timeout -> {
+            fired.add(timeout);
+            service.cancel("tts", 2);
+        }, T0);
+        service.schedule(timer(ASR, 1, 10_000, 1), T0);
+        service.schedule(timer(TTS, 2, 10_000, 1), T0);
+
+        service.poll(T0 + 20);
+
+        assertEquals(1, fired.size());
+        assertEquals(0, service.getActiveTimerCount());
+    }
+
+    @Test
+    void rejectsInvalidCommands() {
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(timer(ASR, 1, 0, 1), T0));
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(timer(ASR, 1, 10_000, -2), T0));
+        assertThrows(IllegalArgumentException.class, () -> service.schedule(timer(ENGINE, 1, 10_000, 1), T0));
+        assertEquals(0, service.getActiveTimerCount());
+    }
+
+    @Test
+    void registersTimedWakeupsWhenRunloopRequiresThem() {
+        when(runloop.requiresTimedWakeup()).thenReturn(true);
+        service.schedule(timer(ASR, 1, 10_000, 1), T0);
+        verify(runloop).wakeupAt(T0 + 10);
+        service.schedule(timer(TTS, 2, 5_000, 1), T0);
+        verify(runloop).wakeupAt(T0 + 5);
+
+        // 较早的定时器到期后，按剩余定时器中最早的到期时间重新登记
+        assertEquals(1, service.poll(T0 + 6));
+        verify(runloop, times(2)).wakeupAt(T0 + 10);
+    }
+
+    @Test
+    void skipsTimedWakeupsOtherwise() {
+        service.schedule(timer(ASR, 1, 10_000, 1), T0);
+        service.poll(T0 + 20);
+
+        verify(runloop, never()).wakeupAt(anyLong());
+    }
+
+    private static TimerCommand timer(Location owner, long timerId, long timeoutUs, int times) {
+        return Message.defaultMessage(TimerCommand.builder())
+            .name("timer")
+            .srcLoc(owner)
+            .timerId(timerId)
+            .timeoutUs(timeoutUs)
+            .times(times)
+            .build();
+    }
+}
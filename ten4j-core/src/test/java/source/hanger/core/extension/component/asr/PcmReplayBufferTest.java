@@ -0,0 +1,98 @@
+package source.hanger.core.extension.component.asr;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import source.hanger.core.extension.component.asr.PcmReplayBuffer.BufferedFrame;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link PcmReplayBuffer} 的容量淘汰与序号、偏移记录测试。
+ */
+class PcmReplayBufferTest {
+
+    @Test
+    void assignsSequencesAndOffsets() {
+        PcmReplayBuffer buffer = new PcmReplayBuffer(1024);
+
+        BufferedFrame first = buffer.add(frame(100));
+        BufferedFrame second = buffer.add(frame(60));
+
+        assertEquals(1, first.sequence());
+        assertEquals(0, first.offset());
+        assertEquals(100, first.endOffset());
+        assertEquals(2, second.sequence());
+        assertEquals(100, second.offset());
+        assertEquals(160, second.endOffset());
+        assertEquals(3, buffer.nextSequence());
+        assertEquals(160, buffer.nextOffset());
+        assertEquals(160, buffer.bufferedBytes());
+        assertEquals(2, buffer.frameCount());
+    }
+
+    @Test
+    void evictsOldestFramesBeyondCapacity() {
+        PcmReplayBuffer buffer = new PcmReplayBuffer(250);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(frame(100));
+        }
+
+        // 只保留最近的两帧（200 字节），被淘汰帧的序号和偏移仍然连续
+        assertEquals(2, buffer.frameCount());
+        assertEquals(200, buffer.bufferedBytes());
+        assertEquals(4, buffer.firstRetainedSequence());
+        assertEquals(300, buffer.firstRetainedOffset());
+        assertEquals(6, buffer.nextSequence());
+        assertEquals(500, buffer.nextOffset());
+    }
+
+    @Test
+    void keepsLatestFrameEvenIfLargerThanCapacity() {
+        PcmReplayBuffer buffer = new PcmReplayBuffer(50);
+        buffer.add(frame(10));
+        BufferedFrame large = buffer.add(frame(80));
+
+        assertEquals(1, buffer.frameCount());
+        assertEquals(80, buffer.bufferedBytes());
+        assertSame(large, buffer.framesFrom(0).get(0));
+    }
+
+    @Test
+    void framesFromReturnsRetainedFramesInOrder() {
+        PcmReplayBuffer buffer = new PcmReplayBuffer(300);
+        for (int i = 0; i < 5; i++) {
+            buffer.add(frame(100));
+        }
+
+        List<BufferedFrame> frames = buffer.framesFrom(4);
+        assertEquals(2, frames.size());
+        assertEquals(4, frames.get(0).sequence());
+        assertEquals(5, frames.get(1).sequence());
+        // 请求的起点已被淘汰时，从最早保留的帧开始
+        assertEquals(3, buffer.framesFrom(1).get(0).sequence());
+        assertTrue(buffer.framesFrom(6).isEmpty());
+    }
+
+    @Test
+    void clearKeepsSequenceAndOffsetCounters() {
+        PcmReplayBuffer buffer = new PcmReplayBuffer(1024);
+        buffer.add(frame(100));
+        buffer.add(frame(100));
+
+        buffer.clear();
+
+        assertEquals(0, buffer.frameCount());
+        assertEquals(0, buffer.bufferedBytes());
+        assertEquals(3, buffer.firstRetainedSequence());
+        assertEquals(200, buffer.firstRetainedOffset());
+        assertEquals(3, buffer.add(frame(10)).sequence());
+    }
+
+    private static ByteBuffer frame(int size) {
+        return ByteBuffer.allocate(size);
+    }
+}
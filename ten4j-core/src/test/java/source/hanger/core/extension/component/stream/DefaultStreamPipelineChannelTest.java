@@ -0,0 +1,121 @@
+package source.hanger.core.extension.component.stream;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import source.hanger.core.extension.component.common.OutputBlock;
+import source.hanger.core.extension.component.common.PipelinePacket;
+import source.hanger.core.extension.component.flush.InterruptionStateProvider;
+import source.hanger.core.runloop.Runloop;
+import source.hanger.core.runloop.RunloopConfig;
+import source.hanger.core.runloop.RunloopExecutionMode;
+import source.hanger.core.tenenv.TenEnv;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link DefaultStreamPipelineChannel} 在 Runloop 任务队列已满时的投递测试。
+ */
+class DefaultStreamPipelineChannelTest {
+
+    private Runloop runloop;
+    private TenEnv env;
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // inline 模式下任务直接在核心线程上执行，阻塞的任务会让队列积压
+        runloop = Runloop.createRunloop("stream-pipeline-test",
+            RunloopConfig.defaults().setExecutionMode(RunloopExecutionMode.INLINE));
+        runloop.start();
+        env = mock(TenEnv.class);
+        when(env.getRunloop()).thenReturn(runloop);
+        when(env.getExtensionName()).thenReturn("test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        runloop.shutdown();
+    }
+
+    @Test
+    void deliversAllBlocks() throws Exception {
+        DefaultStreamPipelineChannel channel = newChannel(StreamPipelineConfig.defaults());
+
+        channel.submitStreamPayload(Flowable.range(0, 100).map(i -> packet("b" + i)), env);
+
+        awaitTrue(() -> delivered.size() == 100, "blocks were not delivered: " + channel.getMetrics());
+        assertEquals("b0", delivered.get(0));
+        assertEquals("b99", delivered.get(99));
+    }
+
+    @Test
+    void retriesDrainRejectedByFullRunloopQueue() throws Exception {
+        DefaultStreamPipelineChannel channel = newChannel(StreamPipelineConfig.defaults());
+        // 阻塞 Runloop 线程并填满任务队列
+        CountDownLatch blocking = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertTrue(runloop.postTask(() -> {
+            blocking.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(blocking.await(5, TimeUnit.SECONDS));
+        int filler = 0;
+        while (runloop.postTask(() -> {
+        })) {
+            filler++;
+        }
+        assertEquals(Runloop.DEFAULT_INTERNAL_QUEUE_CAPACITY, filler);
+
+        channel.submitStreamPayload(Flowable.just(packet("a"), packet("b"), packet("c")), env);
+
+        // 投递任务被拒绝后，上游不会再有 onNext 触发调度，只能靠重试恢复
+        awaitTrue(() -> channel.getMetrics().getDrainRejections().get() > 0,
+            "drain was not rejected: " + channel.getMetrics());
+        assertTrue(delivered.isEmpty());
+        release.countDown();
+
+        awaitTrue(() -> delivered.size() == 3, "drain was not retried: " + channel.getMetrics());
+        assertEquals(List.of("a", "b", "c"), delivered);
+        assertEquals(0, channel.getMetrics().queueDepth());
+    }
+
+    private DefaultStreamPipelineChannel newChannel(StreamPipelineConfig config) {
+        InterruptionStateProvider interruption = mock(InterruptionStateProvider.class);
+        DefaultStreamPipelineChannel channel = new DefaultStreamPipelineChannel(interruption,
+            (block, originalMessage, env) -> delivered.add(block.getOriginalMessageId()), config);
+        channel.initPipeline(env);
+        return channel;
+    }
+
+    private static PipelinePacket<OutputBlock> packet(String id) {
+        return new PipelinePacket<>(new OutputBlock(id) {
+        }, null);
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, message);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package source.hanger.core.extension.component.stream;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.BackpressureOverflowStrategy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link StreamPipelineConfig} 溢出策略默认值与解析测试。
+ */
+class StreamPipelineConfigTest {
+
+    @Test
+    void defaultsToLosslessBuffer() {
+        StreamPipelineConfig config = StreamPipelineConfig.defaults();
+
+        assertNull(config.getOverflowStrategy());
+        assertEquals(StreamOverflowStrategy.BUFFER, config.effectiveOverflowStrategy());
+        assertNull(StreamOverflowStrategy.BUFFER.toBackpressureOverflowStrategy());
+    }
+
+    @Test
+    void channelDefaultAppliesOnlyWhenNotConfigured() {
+        assertEquals(StreamOverflowStrategy.DROP_OLDEST, StreamPipelineConfig.defaults()
+            .withDefaultOverflowStrategy(StreamOverflowStrategy.DROP_OLDEST)
+            .effectiveOverflowStrategy());
+        assertEquals(StreamOverflowStrategy.BUFFER, StreamPipelineConfig.defaults()
+            .setOverflowStrategy(StreamOverflowStrategy.BUFFER)
+            .withDefaultOverflowStrategy(StreamOverflowStrategy.DROP_OLDEST)
+            .effectiveOverflowStrategy());
+    }
+
+    @Test
+    void bindsFromExtensionProperties() {
+        StreamPipelineConfig config = new ObjectMapper().convertValue(Map.of(
+            "stream_buffer_size", 64,
+            "stream_overflow_strategy", "drop_oldest",
+            "stream_delivery_batch_size", 8), StreamPipelineConfig.class);
+
+        assertEquals(64, config.getBufferSize());
+        assertEquals(8, config.getDeliveryBatchSize());
+        assertEquals(StreamOverflowStrategy.DROP_OLDEST, config.effectiveOverflowStrategy());
+        assertEquals(BackpressureOverflowStrategy.DROP_OLDEST,
+            config.effectiveOverflowStrategy().toBackpressureOverflowStrategy());
+    }
+
+    @Test
+    void parsesStrategyNames() {
+        assertEquals(StreamOverflowStrategy.DROP_LATEST, StreamOverflowStrategy.parse("drop-latest", null));
+        assertEquals(StreamOverflowStrategy.ERROR, StreamOverflowStrategy.parse(" Error ", null));
+        assertEquals(StreamOverflowStrategy.BUFFER, StreamOverflowStrategy.parse("unknown", StreamOverflowStrategy.BUFFER));
+        assertEquals(StreamOverflowStrategy.BUFFER, StreamOverflowStrategy.parse(null, StreamOverflowStrategy.BUFFER));
+    }
+}
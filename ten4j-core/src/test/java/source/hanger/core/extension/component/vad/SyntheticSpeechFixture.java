@@ -0,0 +1,163 @@
+package source.hanger.core.extension.component.vad;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * VAD 测试用的合成 16 kHz 单声道 PCM，由种子确定性生成，不依赖录音文件。
+ *
+ * - 语音：若干句话，每句由 120 ~ 280 ms 的音节组成，音节为基频 100 ~ 250 Hz 的谐波浊音（带起止包络与慢速幅度调制），
+ *   约三成音节前带 40 ~ 80 ms 的擦音（高通噪声），音节间有 30 ~ 100 ms 的停顿；句间静音 0.8 ~ 2.5 s
+ * - 噪声：按给定信噪比（语音有效值 / 噪声有效值）叠加白噪声，可选叠加 50 Hz 工频嗡声及谐波与随机咔嗒声
+ *
+ * 标注以句为单位：从第一个音节开始到最后一个音节结束都算语音。
+ */
+final class SyntheticSpeechFixture {
+
+    static final int SAMPLE_RATE = 16000;
+
+    /**
+     * 语音段的有效值，约 -20 dBFS。
+     */
+    private static final double SPEECH_RMS = 0.1;
+
+    private final short[] pcm;
+    private final List<Utterance> utterances;
+
+    private SyntheticSpeechFixture(short[] pcm, List<Utterance> utterances) {
+        this.pcm = pcm;
+        this.utterances = utterances;
+    }
+
+    /**
+     * @param seed         随机种子，相同参数总是生成相同的音频
+     * @param seconds      音频时长
+     * @param snrDb        语音与白噪声的信噪比
+     * @param humAndClicks 是否叠加工频嗡声与咔嗒声
+     */
+    static SyntheticSpeechFixture generate(long seed, int seconds, double snrDb, boolean humAndClicks) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int length = seconds * SAMPLE_RATE;
+        double[] speech = new double[length];
+        List<Utterance> utterances = new ArrayList<>();
+
+        int position = samples(random, 1.0, 2.0);
+        while (position < length - SAMPLE_RATE * 3) {
+            int start = position;
+            int targetEnd = start + samples(random, 0.6, 3.0);
+            while (true) {
+                if (random.nextDouble() < 0.3) {
+                    position = addFricative(speech, position, samples(random, 0.04, 0.08), random);
+                }
+                position = addVoicedSyllable(speech, position, samples(random, 0.12, 0.28), random);
+                if (position >= targetEnd) {
+                    break;
+                }
+                position += samples(random, 0.03, 0.1);
+            }
+            utterances.add(new Utterance(start, position));
+            position += samples(random, 0.8, 2.5);
+        }
+        normalize(speech, utterances);
+
+        double noiseRms = SPEECH_RMS / Math.pow(10, snrDb / 20);
+        short[] pcm = new short[length];
+        int nextClick = samples(random, 1.0, 3.0);
+        double click = 0;
+        for (int i = 0; i < length; i++) {
+            double sample = speech[i] + noiseRms * random.nextGaussian();
+            if (humAndClicks) {
+                double t = (double)i / SAMPLE_RATE;
+                sample += noiseRms * (Math.sin(2 * Math.PI * 50 * t) + 0.5 * Math.sin(2 * Math.PI * 100 * t)
+                    + 0.25 * Math.sin(2 * Math.PI * 150 * t));
+                if (i == nextClick) {
+                    click = 0.3;
+                    nextClick += samples(random, 1.0, 3.0);
+                }
+                sample += click * (random.nextBoolean() ? 1 : -1);
+                click *= 0.995; // 约 3 ms 衰减到 1/5
+            }
+            pcm[i] = (short)Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample * 32767)));
+        }
+        return new SyntheticSpeechFixture(pcm, List.copyOf(utterances));
+    }
+
+    short[] pcm() {
+        return pcm;
+    }
+
+    List<Utterance> utterances() {
+        return utterances;
+    }
+
+    /**
+     * @return 给定采样区间的中点是否位于某句话内
+     */
+    boolean isSpeech(int start, int end) {
+        int middle = (start + end) / 2;
+        for (Utterance utterance : utterances) {
+            if (middle >= utterance.start() && middle < utterance.end()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int addVoicedSyllable(double[] out, int start, int length, SplittableRandom random) {
+        double f0 = 100 + random.nextDouble() * 150;
+        double glide = (random.nextDouble() - 0.5) * 0.3; // 音节内基频变化 ±15%
+        double modulationPhase = random.nextDouble() * 2 * Math.PI;
+        int ramp = SAMPLE_RATE / 40; // 25 ms 起止包络
+        double phase = 0;
+        int end = Math.min(out.length, start + length);
+        for (int i = start; i < end; i++) {
+            double progress = (double)(i - start) / length;
+            phase += 2 * Math.PI * f0 * (1 + glide * progress) / SAMPLE_RATE;
+            double value = 0;
+            for (int harmonic = 1; harmonic <= 12 && harmonic * f0 < 4000; harmonic++) {
+                value += Math.sin(harmonic * phase) / harmonic;
+            }
+            double envelope = Math.min(1, Math.min(i - start, end - i) / (double)ramp);
+            envelope *= 0.8 + 0.2 * Math.sin(2 * Math.PI * 4 * (i - start) / SAMPLE_RATE + modulationPhase);
+            out[i] += value * envelope;
+        }
+        return end;
+    }
+
+    private static int addFricative(double[] out, int start, int length, SplittableRandom random) {
+        double previous = 0;
+        int end = Math.min(out.length, start + length);
+        for (int i = start; i < end; i++) {
+            double noise = random.nextGaussian();
+            out[i] += 0.3 * (noise - previous); // 一阶差分作为简单高通
+            previous = noise;
+        }
+        return end;
+    }
+
+    private static void normalize(double[] speech, List<Utterance> utterances) {
+        double sumSquares = 0;
+        long count = 0;
+        for (Utterance utterance : utterances) {
+            for (int i = utterance.start(); i < utterance.end(); i++) {
+                sumSquares += speech[i] * speech[i];
+            }
+            count += utterance.end() - utterance.start();
+        }
+        double scale = count == 0 ? 0 : SPEECH_RMS / Math.sqrt(sumSquares / count);
+        for (int i = 0; i < speech.length; i++) {
+            speech[i] *= scale;
+        }
+    }
+
+    private static int samples(SplittableRandom random, double minSeconds, double maxSeconds) {
+        return (int)((minSeconds + random.nextDouble() * (maxSeconds - minSeconds)) * SAMPLE_RATE);
+    }
+
+    /**
+     * 一句话的采样区间 [start, end)。
+     */
+    record Utterance(int start, int end) {
+    }
+}
@@ -0,0 +1,190 @@
+package source.hanger.core.extension.component.vad;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.Unpooled;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import source.hanger.core.extension.component.vad.EnergyVoiceActivityDetector.Transition;
+import source.hanger.core.extension.component.vad.SyntheticSpeechFixture.Utterance;
+import source.hanger.core.message.AudioFrameMessage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 使用默认配置在合成音频上评估 {@link VoiceActivityGate} 的准确率与延迟。
+ *
+ * 每个场景 30 秒、20 ms 一帧，按帧统计：
+ * - recall：标注为语音的帧中被判为语音（语音开始到语音结束，含拖尾）的比例
+ * - coverage：标注为语音的帧中被转发给下游（含 pre-roll）的比例，即 ASR 实际收到的语音
+ * - onset：每句话从开始到判定语音开始的延迟
+ * - false starts：在静音中判定语音开始的次数
+ *
+ * 每个场景的结果记录到日志，便于与调整参数后的结果对比。
+ */
+@Slf4j
+class VoiceActivityDetectionHarnessTest {
+
+    private static final int SECONDS = 30;
+    private static final int FRAME_MS = 20;
+    private static final int FRAME_SAMPLES = SyntheticSpeechFixture.SAMPLE_RATE * FRAME_MS / 1000;
+
+    @Test
+    void quiet() {
+        assertAccuracy(evaluate("quiet, 35 dB SNR", 1, 35, false), 0.95, 80, 100);
+    }
+
+    @Test
+    void office() {
+        assertAccuracy(evaluate("office, 17 dB SNR", 2, 17, false), 0.95, 100, 200);
+    }
+
+    @Test
+    void humAndClicks() {
+        assertAccuracy(evaluate("hum+clicks, 13 dB", 3, 13, true), 0.93, 130, 200);
+    }
+
+    @Test
+    void noisy() {
+        assertAccuracy(evaluate("noisy, 10 dB SNR", 4, 10, false), 0.93, 120, 200);
+    }
+
+    @Test
+    void veryNoisy() {
+        // 语音只比噪声基底高出约 vad_snr_db，个别句子要到较响的音节才判定语音开始
+        assertAccuracy(evaluate("very noisy, 7 dB SNR", 5, 7, false), 0.85, 250, 500);
+    }
+
+    @Test
+    void fixturesAreDeterministic() {
+        SyntheticSpeechFixture first = SyntheticSpeechFixture.generate(42, 5, 10, true);
+        SyntheticSpeechFixture second = SyntheticSpeechFixture.generate(42, 5, 10, true);
+        assertEquals(first.utterances(), second.utterances());
+        assertArrayEquals(first.pcm(), second.pcm());
+    }
+
+    /**
+     * 所有场景都要求每句话都被检测到、静音中没有误触发、ASR 收到至少 98% 的语音帧；
+     * recall 与起始延迟的要求随信噪比放宽。
+     */
+    private static void assertAccuracy(Result result, double minRecall, double maxMeanOnsetMs, double maxOnsetMs) {
+        log.info("{}", result);
+        assertEquals(0, result.missedUtterances(), result.toString());
+        assertEquals(0, result.falseStarts(), result.toString());
+        assertTrue(result.coverage() >= 0.98, result.toString());
+        assertTrue(result.recall() >= minRecall, result.toString());
+        assertTrue(result.meanOnsetMs() <= maxMeanOnsetMs, result.toString());
+        assertTrue(result.maxOnsetMs() <= maxOnsetMs, result.toString());
+        // 静音不转发，至少节省两成上行音频
+        assertTrue(result.gatedRatio() >= 0.2, result.toString());
+    }
+
+    private static Result evaluate(String name, long seed, double snrDb, boolean humAndClicks) {
+        SyntheticSpeechFixture fixture = SyntheticSpeechFixture.generate(seed, SECONDS, snrDb, humAndClicks);
+        short[] pcm = fixture.pcm();
+        int frameCount = pcm.length / FRAME_SAMPLES;
+        boolean[] forwarded = new boolean[frameCount];
+        boolean[] detected = new boolean[frameCount];
+        List<Integer> speechStarts = new ArrayList<>();
+
+        VoiceActivityGate gate = new VoiceActivityGate(VadConfig.defaults());
+        for (int f = 0; f < frameCount; f++) {
+            AudioFrameMessage frame = AudioFrameMessage.createBuilder("pcm_frame")
+                .frameTimestamp((long)f) // 记录帧序号，用于统计哪些帧被转发
+                .sampleRate(SyntheticSpeechFixture.SAMPLE_RATE)
+                .bytesPerSample(2)
+                .numberOfChannel(1)
+                .buf(Unpooled.wrappedBuffer(toLittleEndian(pcm, f * FRAME_SAMPLES, FRAME_SAMPLES)))
+                .build();
+            Transition transition = gate.onAudioFrame(frame, out -> {
+                forwarded[out.getFrameTimestamp().intValue()] = true;
+                out.release();
+            });
+            frame.release();
+            detected[f] = gate.getDetector().isSpeaking() || transition == Transition.SPEECH_END;
+            if (transition == Transition.SPEECH_START) {
+                speechStarts.add(f);
+            }
+        }
+        gate.clear();
+
+        int speechFrames = 0;
+        int detectedFrames = 0;
+        int truePositives = 0;
+        int covered = 0;
+        for (int f = 0; f < frameCount; f++) {
+            boolean speech = fixture.isSpeech(f * FRAME_SAMPLES, (f + 1) * FRAME_SAMPLES);
+            speechFrames += speech ? 1 : 0;
+            detectedFrames += detected[f] ? 1 : 0;
+            truePositives += speech && detected[f] ? 1 : 0;
+            covered += speech && forwarded[f] ? 1 : 0;
+        }
+
+        int falseStarts = 0;
+        for (int f : speechStarts) {
+            if (!fixture.isSpeech(f * FRAME_SAMPLES, (f + 1) * FRAME_SAMPLES)) {
+                falseStarts++;
+            }
+        }
+
+        int missed = 0;
+        double onsetSumMs = 0;
+        double maxOnsetMs = 0;
+        for (Utterance utterance : fixture.utterances()) {
+            int firstFrame = utterance.start() / FRAME_SAMPLES;
+            int lastFrame = Math.min(frameCount - 1, (utterance.end() - 1) / FRAME_SAMPLES);
+            double onsetMs = -1;
+            if (firstFrame > 0 && detected[firstFrame - 1]) {
+                onsetMs = 0; // 上一句的拖尾尚未结束
+            } else {
+                for (int f : speechStarts) {
+                    if (f >= firstFrame && f <= lastFrame) {
+                        onsetMs = ((f + 1) * FRAME_SAMPLES - utterance.start()) * 1000.0
+                            / SyntheticSpeechFixture.SAMPLE_RATE;
+                        break;
+                    }
+                }
+            }
+            if (onsetMs < 0) {
+                missed++;
+            } else {
+                onsetSumMs += onsetMs;
+                maxOnsetMs = Math.max(maxOnsetMs, onsetMs);
+            }
+        }
+        int detectedUtterances = fixture.utterances().size() - missed;
+
+        return new Result(name, fixture.utterances().size(), speechFrames,
+            detectedFrames == 0 ? 0 : (double)truePositives / detectedFrames,
+            speechFrames == 0 ? 0 : (double)truePositives / speechFrames,
+            speechFrames == 0 ? 0 : (double)covered / speechFrames,
+            detectedUtterances == 0 ? 0 : onsetSumMs / detectedUtterances, maxOnsetMs,
+            missed, falseStarts, gate.getMetrics().gatedRatio());
+    }
+
+    private static byte[] toLittleEndian(short[] pcm, int offset, int length) {
+        byte[] bytes = new byte[length * 2];
+        for (int i = 0; i < length; i++) {
+            short sample = pcm[offset + i];
+            bytes[2 * i] = (byte)sample;
+            bytes[2 * i + 1] = (byte)(sample >> 8);
+        }
+        return bytes;
+    }
+
+    private record Result(String fixture, int utterances, int speechFrames, double precision, double recall,
+                          double coverage, double meanOnsetMs, double maxOnsetMs, int missedUtterances,
+                          int falseStarts, double gatedRatio) {
+
+        @Override
+        public String toString() {
+            return ("%-22s utterances=%d speechFrames=%d precision=%.3f recall=%.3f coverage=%.3f "
+                + "onset=%.0fms (max %.0fms) missed=%d falseStarts=%d gated=%.1f%%").formatted(fixture,
+                utterances, speechFrames, precision, recall, coverage, meanOnsetMs, maxOnsetMs, missedUtterances,
+                falseStarts, gatedRatio * 100);
+        }
+    }
+}
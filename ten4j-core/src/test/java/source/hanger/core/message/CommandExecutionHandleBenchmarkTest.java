@@ -0,0 +1,86 @@
+package source.hanger.core.message;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import source.hanger.core.runloop.Runloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 命令往返延迟基准：句柄在所属 Runloop 上创建、提交单个结果并完成，由另一个 Runloop 通过
+ * {@link CommandExecutionHandle#onRunloop(Runloop)} 等待结果，逐条串行执行。
+ *
+ * 默认跳过，使用 -Dten4j.benchmark=true 运行。
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+class CommandExecutionHandleBenchmarkTest {
+
+    private static final int WARMUP_COMMANDS = 20_000;
+    private static final int COMMANDS = 100_000;
+
+    private Runloop owner;
+    private Runloop caller;
+
+    @BeforeEach
+    void setUp() {
+        owner = Runloop.createRunloop("bench-owner");
+        caller = Runloop.createRunloop("bench-caller");
+        owner.start();
+        caller.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        owner.shutdown();
+        caller.shutdown();
+    }
+
+    @Test
+    void defaultHandleRoundTrip() throws Exception {
+        measure("DefaultCommandExecutionHandle", DefaultCommandExecutionHandle::new);
+    }
+
+    @Test
+    void futureHandleRoundTrip() throws Exception {
+        measure("FutureCommandExecutionHandle", runloop -> new FutureCommandExecutionHandle<>());
+    }
+
+    private void measure(String name, Function<Runloop, CommandExecutionHandle<String>> handleFactory)
+        throws Exception {
+        roundTrips(handleFactory, WARMUP_COMMANDS);
+        long startNanos = System.nanoTime();
+        roundTrips(handleFactory, COMMANDS);
+        double microsPerCommand = (System.nanoTime() - startNanos) / 1e3 / COMMANDS;
+        log.info("{}: {} commands, {} us/command", name, COMMANDS, String.format("%.1f", microsPerCommand));
+    }
+
+    private void roundTrips(Function<Runloop, CommandExecutionHandle<String>> handleFactory, int commands)
+        throws Exception {
+        for (int i = 0; i < commands; i++) {
+            CompletableFuture<List<String>> received = new CompletableFuture<>();
+            owner.postTask(() -> {
+                CommandExecutionHandle<String> handle = handleFactory.apply(owner);
+                handle.onRunloop(caller).toCompletedFuture().whenComplete((results, error) -> {
+                    if (error != null) {
+                        received.completeExceptionally(error);
+                    } else {
+                        received.complete(results);
+                    }
+                });
+                // 与 PathTable 收到最终结果时一样，在所属 Runloop 上提交结果并关闭句柄
+                handle.submit("ok");
+                handle.close();
+            });
+            assertEquals(List.of("ok"), received.get(5, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package source.hanger.core.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+import source.hanger.core.runloop.Runloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * {@link FutureCommandExecutionHandle} 的结果收集与完成语义测试。
+ */
+class FutureCommandExecutionHandleTest {
+
+    @Test
+    void completesWithSingleResultOnClose() throws Exception {
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        handle.submit("ok");
+        assertFalse(handle.toCompletedFuture().isDone());
+
+        handle.close();
+
+        assertEquals(List.of("ok"), handle.toCompletedFuture().get());
+    }
+
+    @Test
+    void keepsResultsInSubmissionOrder() throws Exception {
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        handle.submit("a");
+        handle.submit("b");
+        handle.submit("c");
+        handle.close();
+
+        assertEquals(List.of("a", "b", "c"), handle.toCompletedFuture().get());
+    }
+
+    @Test
+    void completesWithEmptyListWithoutResults() throws Exception {
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        handle.close();
+
+        assertEquals(List.of(), handle.toCompletedFuture().get());
+    }
+
+    @Test
+    void ignoresResultsAfterCompletion() throws Exception {
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        handle.submit("a");
+        handle.close();
+        handle.submit("late");
+        handle.close();
+
+        assertEquals(List.of("a"), handle.toCompletedFuture().get());
+    }
+
+    @Test
+    void closeExceptionallyFailsFutureAndFlowable() {
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        IllegalStateException error = new IllegalStateException("boom");
+        handle.submit("a");
+        handle.closeExceptionally(error);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> handle.toCompletedFuture().get());
+        assertSame(error, thrown.getCause());
+        handle.toFlowable().test().assertError(error).assertNoValues();
+    }
+
+    @Test
+    void flowableEmitsAllResultsAfterClose() {
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        var subscriber = handle.toFlowable().test();
+        handle.submit("a");
+        handle.submit("b");
+        subscriber.assertNoValues().assertNotComplete();
+
+        handle.close();
+
+        subscriber.assertValues("a", "b").assertComplete();
+    }
+
+    @Test
+    void onRunloopCompletesShiftedHandleOnTargetRunloop() throws Exception {
+        Runloop runloop = mock(Runloop.class);
+        List<Runnable> posted = new ArrayList<>();
+        doAnswer(invocation -> posted.add(invocation.getArgument(0))).when(runloop).postTask(any());
+
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        CompletableFuture<List<String>> shifted = handle.onRunloop(runloop).toCompletedFuture();
+        handle.submit("a");
+        handle.close();
+
+        // 结果只在目标 Runloop 执行投递的任务后才可见，且只投递一次
+        assertFalse(shifted.isDone());
+        verify(runloop).postTask(any());
+        assertEquals(1, posted.size());
+        posted.get(0).run();
+        assertEquals(List.of("a"), shifted.get());
+    }
+
+    @Test
+    void onRunloopPropagatesFailure() {
+        Runloop runloop = mock(Runloop.class);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        }).when(runloop).postTask(any());
+
+        FutureCommandExecutionHandle<String> handle = new FutureCommandExecutionHandle<>();
+        CompletableFuture<List<String>> shifted = handle.onRunloop(runloop).toCompletedFuture();
+        handle.closeExceptionally(new IllegalStateException("boom"));
+
+        assertTrue(shifted.isCompletedExceptionally());
+        ExecutionException thrown = assertThrows(ExecutionException.class, shifted::get);
+        assertInstanceOf(IllegalStateException.class, thrown.getCause());
+    }
+}
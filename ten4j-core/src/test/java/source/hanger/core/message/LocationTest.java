@@ -0,0 +1,40 @@
+package source.hanger.core.message;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link Location} 的 JSON 绑定与相等性测试。
+ */
+class LocationTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void bindsFromGraphJson() throws Exception {
+        Location location = mapper.readValue(
+            "{\"app_uri\":\"msgpack://server\",\"graph_id\":\"graph-1\",\"extension_name\":\"asr\"}", Location.class);
+
+        assertEquals(new Location("msgpack://server", "graph-1", "asr"), location);
+    }
+
+    @Test
+    void missingFieldsBindAsNull() throws Exception {
+        Location location = mapper.readValue("{\"app_uri\":\"msgpack://client\"}", Location.class);
+
+        assertEquals("msgpack://client", location.getAppUri());
+        assertNull(location.getGraphId());
+        assertNull(location.getExtensionName());
+    }
+
+    @Test
+    void jsonRoundTrip() throws Exception {
+        Location location = new Location("msgpack://server", "graph-1", "llm");
+
+        assertEquals(location, mapper.readValue(mapper.writeValueAsString(location), Location.class));
+        assertEquals(location.hashCode(), new Location("msgpack://server", "graph-1", "llm").hashCode());
+    }
+}
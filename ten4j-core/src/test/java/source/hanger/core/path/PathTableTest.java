@@ -0,0 +1,262 @@
+package source.hanger.core.path;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import source.hanger.core.engine.Engine;
+import source.hanger.core.engine.MessageSubmitter;
+import source.hanger.core.message.CommandExecutionHandle;
+import source.hanger.core.message.CommandResult;
+import source.hanger.core.message.FutureCommandExecutionHandle;
+import source.hanger.core.message.Location;
+import source.hanger.core.message.Message;
+import source.hanger.core.message.command.Command;
+import source.hanger.core.message.command.GenericCommand;
+import source.hanger.core.runloop.Runloop;
+import source.hanger.core.server.GraphStoppedException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link PathTable} 的路径过期与 Graph 清理测试，路径创建与过期检查的时间全部由测试注入。
+ *
+ * 定时器轮刻度为 256ms，断言在到期前未过期、到期后两个刻度内已过期。
+ */
+class PathTableTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long OUT_TIMEOUT_MS = 180_000;
+    private static final long IN_TIMEOUT_MS = 300_000;
+    private static final long SLACK_MS = 512;
+    private static final Location ASR = new Location("app", "graph-1", "asr");
+    private static final Location OTHER_GRAPH = new Location("app", "graph-2", "asr");
+
+    private MessageSubmitter messageSubmitter;
+    private PathTable pathTable;
+    private long nowMs = T0;
+
+    @BeforeEach
+    void setUp() {
+        messageSubmitter = mock(MessageSubmitter.class);
+        pathTable = newPathTable(null);
+    }
+
+    @Test
+    void expiredPathOutCompletesHandleWithTimeoutResult() {
+        @SuppressWarnings("unchecked")
+        CommandExecutionHandle<CommandResult> handle = mock(CommandExecutionHandle.class);
+        Command command = command("asr_start", ASR, null);
+        pathTable.createOutPath(command, handle, null, false);
+
+        assertEquals(0, pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS - 1));
+        verify(handle, never()).submit(any());
+
+        assertEquals(1, pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS));
+
+        ArgumentCaptor<CommandResult> result = ArgumentCaptor.forClass(CommandResult.class);
+        verify(handle).submit(result.capture());
+        assertTrue(result.getValue().isFailed());
+        assertEquals(command.getId(), result.getValue().getOriginalCommandId());
+        assertEquals("asr_start", result.getValue().getOriginalCmdName());
+        assertTrue(result.getValue().getErrorMessage().contains("timed out after 180000 ms"));
+        verify(handle).closeExceptionally(any(RuntimeException.class));
+        verify(handle, never()).close();
+
+        assertTrue(pathTable.getOutPath(command.getId()).isEmpty());
+        PathTableMetrics metrics = pathTable.getGraphMetrics("graph-1").orElseThrow();
+        assertEquals(0, metrics.getLiveOutPaths().get());
+        assertEquals(1, metrics.getExpiredOutPaths().get());
+    }
+
+    @Test
+    void expiredPathOutFailsFuture() {
+        FutureCommandExecutionHandle<CommandResult> handle = new FutureCommandExecutionHandle<>();
+        pathTable.createOutPath(command("asr_start", ASR, null), handle, null, false);
+
+        pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS);
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> handle.toCompletedFuture().get());
+        assertTrue(thrown.getCause().getMessage().contains("timed out"), thrown.getCause().getMessage());
+    }
+
+    @Test
+    void expiryFollowsCreationTime() {
+        FutureCommandExecutionHandle<CommandResult> handle = new FutureCommandExecutionHandle<>();
+        nowMs = T0 + 60_000;
+        pathTable.createOutPath(command("asr_start", ASR, null), handle, null, false);
+
+        assertEquals(0, pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS));
+        assertFalse(handle.toCompletedFuture().isDone());
+        assertEquals(1, pathTable.pollExpiredPaths(nowMs + OUT_TIMEOUT_MS + SLACK_MS));
+        assertTrue(handle.toCompletedFuture().isCompletedExceptionally());
+    }
+
+    @Test
+    void removedPathDoesNotExpire() {
+        @SuppressWarnings("unchecked")
+        CommandExecutionHandle<CommandResult> handle = mock(CommandExecutionHandle.class);
+        Command command = command("asr_start", ASR, null);
+        pathTable.createOutPath(command, handle, null, false);
+
+        pathTable.removeOutPath(command.getId());
+
+        assertEquals(0, pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS));
+        verify(handle, never()).submit(any());
+        assertEquals(0, pathTable.getGraphMetrics("graph-1").orElseThrow().getExpiredOutPaths().get());
+    }
+
+    @Test
+    void replacedPathExpiresOnlyOnce() {
+        FutureCommandExecutionHandle<CommandResult> first = new FutureCommandExecutionHandle<>();
+        FutureCommandExecutionHandle<CommandResult> second = new FutureCommandExecutionHandle<>();
+        Command command = command("asr_start", ASR, null);
+        pathTable.createOutPath(command, first, null, false);
+        nowMs = T0 + 60_000;
+        pathTable.createOutPath(command, second, null, false);
+
+        assertEquals(0, pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS));
+        assertEquals(1, pathTable.pollExpiredPaths(nowMs + OUT_TIMEOUT_MS + SLACK_MS));
+        assertFalse(first.toCompletedFuture().isDone());
+        assertTrue(second.toCompletedFuture().isCompletedExceptionally());
+        assertEquals(1, pathTable.getGraphMetrics("graph-1").orElseThrow().getExpiredOutPaths().get());
+    }
+
+    @Test
+    void expiredChildPathBacktracksTimeoutToParent() {
+        Command command = command("llm_call", ASR, "parent-1");
+        pathTable.createOutPath(command, new FutureCommandExecutionHandle<>(), null, false);
+
+        pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS);
+
+        ArgumentCaptor<Message> backtrack = ArgumentCaptor.forClass(Message.class);
+        verify(messageSubmitter).submitInboundMessage(backtrack.capture(), eq(null));
+        CommandResult result = assertInstanceOf(CommandResult.class, backtrack.getValue());
+        assertTrue(result.isFailed());
+        assertEquals(command.getId(), result.getOriginalCommandId());
+        assertEquals(List.of(ASR), result.getDestLocs());
+    }
+
+    @Test
+    void expiredGroupMemberFailsWholeGroup() {
+        FutureCommandExecutionHandle<CommandResult> groupHandle = new FutureCommandExecutionHandle<>();
+        Command original = command("tool_call", ASR, null);
+        PathOut first = pathTable.createOutPath(command("tool_call", ASR, null), groupHandle, null, false);
+        PathOut second = pathTable.createOutPath(command("tool_call", ASR, null), groupHandle, null, false);
+        pathTable.createPathGroup(original.getId(), List.of(first, second),
+            ResultReturnPolicy.FIRST_ERROR_OR_LAST_OK, groupHandle);
+
+        assertEquals(2, pathTable.pollExpiredPaths(T0 + OUT_TIMEOUT_MS + SLACK_MS));
+
+        assertTrue(groupHandle.toCompletedFuture().isCompletedExceptionally());
+        assertTrue(pathTable.getPathOuts().isEmpty());
+        assertTrue(pathTable.getPathGroups().isEmpty());
+        assertEquals(0, pathTable.getGraphMetrics("graph-1").orElseThrow().getLiveOutPaths().get());
+    }
+
+    @Test
+    void expiredPathInIsRemoved() {
+        Command command = command("asr_start", ASR, null);
+        pathTable.createInPath(command, null);
+
+        assertEquals(0, pathTable.pollExpiredPaths(T0 + IN_TIMEOUT_MS - 1));
+        assertTrue(pathTable.getInPath(command.getId()).isPresent());
+        assertEquals(1, pathTable.pollExpiredPaths(T0 + IN_TIMEOUT_MS + SLACK_MS));
+
+        assertTrue(pathTable.getInPath(command.getId()).isEmpty());
+        PathTableMetrics metrics = pathTable.getGraphMetrics("graph-1").orElseThrow();
+        assertEquals(0, metrics.getLiveInPaths().get());
+        assertEquals(1, metrics.getExpiredInPaths().get());
+    }
+
+    @Test
+    void cleanupFailsPendingHandlesOfStoppedGraphOnly() throws Exception {
+        Engine engine = mock(Engine.class);
+        when(engine.getGraphId()).thenReturn("graph-1");
+        pathTable = new PathTable(PathTableAttachedTo.ENGINE, engine, messageSubmitter, null, () -> nowMs);
+
+        FutureCommandExecutionHandle<CommandResult> stopped = new FutureCommandExecutionHandle<>();
+        FutureCommandExecutionHandle<CommandResult> groupHandle = new FutureCommandExecutionHandle<>();
+        FutureCommandExecutionHandle<CommandResult> running = new FutureCommandExecutionHandle<>();
+        pathTable.createOutPath(command("asr_start", ASR, null), stopped, null, false);
+        PathOut member = pathTable.createOutPath(command("tool_call", ASR, null), groupHandle, null, false);
+        pathTable.createPathGroup("group-1", List.of(member), ResultReturnPolicy.FIRST_ERROR_OR_LAST_OK, groupHandle);
+        Command otherCommand = command("asr_start", OTHER_GRAPH, null);
+        pathTable.createOutPath(otherCommand, running, null, false);
+        pathTable.createInPath(command("tts_start", ASR, null), null);
+
+        pathTable.cleanupPathsForGraph("graph-1");
+
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> stopped.toCompletedFuture().get());
+        assertInstanceOf(GraphStoppedException.class, thrown.getCause());
+        assertTrue(groupHandle.toCompletedFuture().isCompletedExceptionally());
+        assertFalse(running.toCompletedFuture().isDone());
+        assertEquals(List.of(otherCommand.getId()), List.copyOf(pathTable.getPathOuts().keySet()));
+        assertTrue(pathTable.getPathGroups().isEmpty());
+        assertTrue(pathTable.getInPaths().isEmpty());
+        assertTrue(pathTable.getGraphMetrics("graph-1").isEmpty());
+
+        // 已清理的路径不再过期，只剩另一个 Graph 的路径
+        assertEquals(1, pathTable.pollExpiredPaths(T0 + IN_TIMEOUT_MS + SLACK_MS));
+        assertTrue(running.toCompletedFuture().isCompletedExceptionally());
+        assertTrue(pathTable.getGraphMetrics("graph-1").isEmpty());
+    }
+
+    @Test
+    void requestsTimedWakeupsWhileAnyPathIsPending() {
+        Runloop runloop = mock(Runloop.class);
+        when(runloop.requiresTimedWakeup()).thenReturn(true);
+        pathTable = newPathTable(runloop);
+        Command command = command("asr_start", ASR, null);
+
+        pathTable.createOutPath(command, new FutureCommandExecutionHandle<>(), null, false);
+        verify(runloop).wakeupAt(T0 + OUT_TIMEOUT_MS + 256);
+
+        pathTable.pollExpiredPaths(T0 + 1_000);
+        verify(runloop).wakeupAt(T0 + 2_000);
+        // 未到下一个刻度时只重新提交已登记的唤醒
+        pathTable.pollExpiredPaths(T0 + 1_010);
+        verify(runloop, times(2)).wakeupAt(T0 + 2_000);
+
+        pathTable.removeOutPath(command.getId());
+        pathTable.pollExpiredPaths(T0 + 2_000);
+        pathTable.pollExpiredPaths(T0 + 2_010);
+        verify(runloop, never()).wakeupAt(T0 + 3_000);
+        verify(runloop, times(2)).wakeupAt(T0 + 2_000);
+    }
+
+    @Test
+    void skipsTimedWakeupsWhenRunloopPollsContinuously() {
+        Runloop runloop = mock(Runloop.class);
+        pathTable = newPathTable(runloop);
+
+        pathTable.createOutPath(command("asr_start", ASR, null), new FutureCommandExecutionHandle<>(), null, false);
+        pathTable.pollExpiredPaths(T0 + 1_000);
+
+        verify(runloop, never()).wakeupAt(anyLong());
+    }
+
+    private PathTable newPathTable(Runloop runloop) {
+        return new PathTable(PathTableAttachedTo.ENGINE, null, messageSubmitter, runloop, () -> nowMs);
+    }
+
+    private static Command command(String name, Location srcLoc, String parentCommandId) {
+        return GenericCommand.createBuilder(name, parentCommandId)
+            .srcLoc(srcLoc)
+            .build();
+    }
+}
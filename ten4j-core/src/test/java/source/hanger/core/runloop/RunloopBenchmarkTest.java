@@ -0,0 +1,137 @@
+package source.hanger.core.runloop;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.sun.management.OperatingSystemMXBean;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runloop 任务投递基准，默认跳过，使用 -Dten4j.benchmark=true 运行。
+ *
+ * - 吞吐量：测试线程连续投递空任务，未执行的任务保持在队列容量的一半以内，直到全部执行完毕，按任务平均耗时
+ * - 往返延迟：逐个投递任务并等待其执行，统计从 postTask 到任务开始执行的延迟分布
+ * - 空闲策略：每种策略下空闲一段时间的进程 CPU 占用，以及空闲后投递任务的唤醒延迟分布
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+class RunloopBenchmarkTest {
+
+    private static final int THROUGHPUT_TASKS = 1_000_000;
+    private static final int LATENCY_SAMPLES = 20_000;
+    private static final int MAX_OUTSTANDING_TASKS = Runloop.DEFAULT_INTERNAL_QUEUE_CAPACITY / 2;
+    private static final int WAKEUP_SAMPLES = 2_000;
+    private static final long WAKEUP_IDLE_MICROS = 1_000;
+    private static final long IDLE_WINDOW_MILLIS = 2_000;
+
+    @Test
+    void executionModes() throws Exception {
+        for (RunloopExecutionMode mode : RunloopExecutionMode.values()) {
+            RunloopConfig config = RunloopConfig.defaults()
+                .setScheduler(RunloopSchedulerType.DEDICATED)
+                .setExecutionMode(mode);
+            Runloop runloop = Runloop.createRunloop("bench-" + mode, config);
+            runloop.start();
+            try {
+                // 第一轮用于预热
+                measureThroughput(runloop);
+                double nanosPerTask = measureThroughput(runloop);
+                long[] latencies = measureLatency(runloop, LATENCY_SAMPLES, 0);
+                log.info("execution mode {}: {} ns/task, post-to-run latency p50 {} us, p99 {} us", mode,
+                    String.format("%.0f", nanosPerTask), micros(percentile(latencies, 0.50)),
+                    micros(percentile(latencies, 0.99)));
+            } finally {
+                runloop.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void idleStrategies() throws Exception {
+        OperatingSystemMXBean os = (OperatingSystemMXBean)ManagementFactory.getOperatingSystemMXBean();
+        for (RunloopIdleStrategyType idleStrategy : RunloopIdleStrategyType.values()) {
+            RunloopConfig config = RunloopConfig.defaults()
+                .setScheduler(RunloopSchedulerType.DEDICATED)
+                .setExecutionMode(RunloopExecutionMode.INLINE)
+                .setIdleStrategy(idleStrategy);
+            Runloop runloop = Runloop.createRunloop("bench-" + idleStrategy, config);
+            runloop.start();
+            try {
+                // 预热后先让 Runloop 退避到空闲状态
+                measureLatency(runloop, WAKEUP_SAMPLES / 10, WAKEUP_IDLE_MICROS);
+                Thread.sleep(100);
+                long cpuStartNanos = os.getProcessCpuTime();
+                Thread.sleep(IDLE_WINDOW_MILLIS);
+                double idleCpuPercent = (os.getProcessCpuTime() - cpuStartNanos) * 100.0
+                    / TimeUnit.MILLISECONDS.toNanos(IDLE_WINDOW_MILLIS);
+
+                long[] latencies = measureLatency(runloop, WAKEUP_SAMPLES, WAKEUP_IDLE_MICROS);
+                log.info("idle strategy {}: idle process CPU {}%, wakeup latency p50 {} us, p99 {} us", idleStrategy,
+                    String.format("%.1f", idleCpuPercent), micros(percentile(latencies, 0.50)),
+                    micros(percentile(latencies, 0.99)));
+            } finally {
+                runloop.shutdown();
+            }
+        }
+    }
+
+    private static double measureThroughput(Runloop runloop) throws InterruptedException {
+        AtomicLong executed = new AtomicLong();
+        Runnable task = executed::incrementAndGet;
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < THROUGHPUT_TASKS; i++) {
+            awaitCount(executed, i - MAX_OUTSTANDING_TASKS);
+            assertTrue(runloop.postTask(task));
+        }
+        awaitCount(executed, THROUGHPUT_TASKS);
+        return (double)(System.nanoTime() - startNanos) / THROUGHPUT_TASKS;
+    }
+
+    /**
+     * @param idleMicros 每次投递前的空闲时长，0 表示任务执行后立即投递下一个
+     * @return 每次投递到任务开始执行的纳秒数，已排序
+     */
+    private static long[] measureLatency(Runloop runloop, int samples, long idleMicros)
+        throws InterruptedException {
+        long[] latencies = new long[samples];
+        AtomicLong executed = new AtomicLong();
+        for (int i = 0; i < samples; i++) {
+            if (idleMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(idleMicros));
+            }
+            int sample = i;
+            long postedAt = System.nanoTime();
+            assertTrue(runloop.postTask(() -> {
+                latencies[sample] = System.nanoTime() - postedAt;
+                executed.incrementAndGet();
+            }));
+            awaitCount(executed, i + 1);
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int)(sorted.length * fraction))];
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1e3);
+    }
+
+    private static void awaitCount(AtomicLong counter, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (counter.get() < expected) {
+            assertTrue(System.nanoTime() < deadline, "tasks did not complete");
+            Thread.yield();
+        }
+    }
+}
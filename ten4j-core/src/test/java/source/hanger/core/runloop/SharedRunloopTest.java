@@ -0,0 +1,279 @@
+package source.hanger.core.runloop;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.agrona.concurrent.Agent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SHARED 调度模式的执行片段测试：载体线程池由测试手动驱动，定时唤醒使用注入的时钟。
+ */
+class SharedRunloopTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    private ManualCarriers carriers;
+    private RecordingAgent agent;
+    private Runloop runloop;
+
+    @BeforeEach
+    void setUp() {
+        carriers = new ManualCarriers();
+        agent = new RecordingAgent();
+        runloop = Runloop.createRunloopWithWorker("shared-test", agent,
+            RunloopConfig.defaults()
+                .setScheduler(RunloopSchedulerType.SHARED)
+                .setExecutionMode(RunloopExecutionMode.INLINE),
+            new SharedRunloopScheduler("shared-test", 1, carriers), () -> T0);
+    }
+
+    @Test
+    void firstSliceRunsOnStart() {
+        runloop.start();
+        assertEquals(1, carriers.queued());
+
+        assertEquals(1, carriers.runAll());
+        assertEquals(1, agent.starts.get());
+        assertEquals(1, agent.doWorkCalls.get());
+    }
+
+    @Test
+    void wakeupsCoalesceIntoOneSlice() {
+        start();
+        AtomicInteger executed = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(runloop.postTask(executed::incrementAndGet));
+        }
+        runloop.wakeup();
+
+        // 未处理的信号只对应一个待执行片段
+        assertEquals(1, carriers.queued());
+        // 第一个片段执行全部任务后因有工作重新调度，第二个片段空闲后停止
+        assertEquals(2, carriers.runAll());
+        assertEquals(10, executed.get());
+        assertEquals(0, carriers.queued());
+    }
+
+    @Test
+    void sliceReschedulesWhileThereIsWork() {
+        start();
+        agent.remainingWork.set(3);
+
+        runloop.wakeup();
+
+        assertEquals(4, carriers.runAll());
+        assertEquals(0, agent.remainingWork.get());
+    }
+
+    @Test
+    void signalDuringIdleSliceReschedules() {
+        start();
+        AtomicInteger polls = new AtomicInteger();
+        runloop.registerTask(() -> {
+            if (polls.getAndIncrement() == 0) {
+                runloop.wakeup(); // 执行期间收到新的信号，但本轮没有工作
+            }
+            return 0;
+        });
+
+        runloop.wakeup();
+
+        assertEquals(1, carriers.queued());
+        assertEquals(2, carriers.runAll());
+        assertEquals(2, polls.get());
+        // 信号计数已清零，新的唤醒会再次调度片段
+        runloop.wakeup();
+        assertEquals(1, carriers.queued());
+    }
+
+    @Test
+    void shutdownClosesInFinalSliceAndDrainsTasks() throws Exception {
+        start();
+        AtomicInteger executed = new AtomicInteger();
+        assertTrue(runloop.postTask(executed::incrementAndGet));
+        int doWorkCalls = agent.doWorkCalls.get();
+
+        // 关闭线程的唤醒可能在最终片段之前或之后到达，之后的片段直接返回
+        Thread stopper = shutdownInBackground();
+        carriers.runAll();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+        carriers.runAll();
+
+        assertFalse(stopper.isAlive());
+        assertEquals(1, agent.closes.get());
+        assertEquals(1, executed.get());
+        assertEquals(doWorkCalls, agent.doWorkCalls.get());
+        assertFalse(runloop.postTask(executed::incrementAndGet));
+
+        // 关闭后迟到的唤醒不会再次执行 onClose
+        runloop.wakeup();
+        assertEquals(1, carriers.runAll());
+        assertEquals(1, agent.closes.get());
+    }
+
+    @Test
+    void restartSchedulesNewSlice() throws Exception {
+        start();
+        Thread stopper = shutdownInBackground();
+        carriers.runAll();
+        stopper.join(TimeUnit.SECONDS.toMillis(5));
+        carriers.runAll();
+
+        runloop.start();
+
+        assertEquals(1, carriers.queued());
+        carriers.runAll();
+        assertEquals(2, agent.starts.get());
+        AtomicInteger executed = new AtomicInteger();
+        assertTrue(runloop.postTask(executed::incrementAndGet));
+        carriers.runAll();
+        assertEquals(1, executed.get());
+    }
+
+    @Test
+    void wakeupAtSchedulesSliceAtEarliestDeadline() throws Exception {
+        start();
+
+        runloop.wakeupAt(T0 + 60_000);
+        assertEquals(0, carriers.queued());
+        // 晚于已登记时间的请求被忽略，更早的请求替换它
+        runloop.wakeupAt(T0 + 120_000);
+        runloop.wakeupAt(T0 + 5);
+
+        awaitQueued();
+        assertEquals(1, carriers.runAll());
+
+        // 已登记的唤醒触发后可以再次登记，过去的时间立即唤醒
+        runloop.wakeupAt(T0 - 1);
+        awaitQueued();
+        assertEquals(1, carriers.runAll());
+    }
+
+    @Test
+    void onlySharedOrBlockingRunloopsNeedTimedWakeups() {
+        assertTrue(runloop.requiresTimedWakeup());
+        assertTrue(Runloop.createRunloop("blocking",
+            RunloopConfig.defaults().setScheduler(RunloopSchedulerType.DEDICATED)
+                .setExecutionMode(RunloopExecutionMode.INLINE)
+                .setIdleStrategy(RunloopIdleStrategyType.BLOCKING)).requiresTimedWakeup());
+        assertFalse(Runloop.createRunloop("backoff",
+            RunloopConfig.defaults().setScheduler(RunloopSchedulerType.DEDICATED)
+                .setExecutionMode(RunloopExecutionMode.INLINE)).requiresTimedWakeup());
+    }
+
+    private void start() {
+        runloop.start();
+        carriers.runAll();
+    }
+
+    private Thread shutdownInBackground() throws InterruptedException {
+        Thread stopper = new Thread(runloop::shutdown, "shared-test-stopper");
+        stopper.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runloop.running.get()) {
+            assertTrue(System.nanoTime() < deadline, "shutdown did not start");
+            Thread.sleep(1);
+        }
+        return stopper;
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (carriers.queued() == 0) {
+            assertTrue(System.nanoTime() < deadline, "timed wakeup did not fire");
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * 只记录提交的执行片段，由测试线程调用 {@link #runAll()} 逐个执行。
+     */
+    private static final class ManualCarriers extends AbstractExecutorService {
+        private final Queue<Runnable> slices = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(Runnable command) {
+            slices.add(command);
+        }
+
+        int queued() {
+            return slices.size();
+        }
+
+        /**
+         * @return 执行的片段数，包括执行期间重新调度的片段
+         */
+        int runAll() {
+            int executed = 0;
+            Runnable slice;
+            while ((slice = slices.poll()) != null) {
+                slice.run();
+                executed++;
+            }
+            return executed;
+        }
+
+        @Override
+        public void shutdown() {
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return List.of();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return false;
+        }
+    }
+
+    private static final class RecordingAgent implements Agent {
+        private final AtomicInteger starts = new AtomicInteger();
+        private final AtomicInteger closes = new AtomicInteger();
+        private final AtomicInteger doWorkCalls = new AtomicInteger();
+        private final AtomicInteger remainingWork = new AtomicInteger();
+
+        @Override
+        public void onStart() {
+            starts.incrementAndGet();
+        }
+
+        @Override
+        public int doWork() {
+            doWorkCalls.incrementAndGet();
+            return remainingWork.get() > 0 ? Math.min(1, remainingWork.getAndDecrement()) : 0;
+        }
+
+        @Override
+        public void onClose() {
+            closes.incrementAndGet();
+        }
+
+        @Override
+        public String roleName() {
+            return "recording-agent";
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package source.hanger.core.runloop;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link SignalIdleStrategy} 的 park 时长选择测试。
+ */
+class SignalIdleStrategyTest {
+
+    @Test
+    void doesNotParkWhenThereWasWork() {
+        AtomicInteger queries = new AtomicInteger();
+        SignalIdleStrategy strategy = new SignalIdleStrategy(() -> false, () -> {
+            queries.incrementAndGet();
+            return -1;
+        });
+
+        strategy.idle(1);
+
+        assertEquals(0, queries.get());
+    }
+
+    @Test
+    void zeroParkNanosReturnsImmediately() {
+        SignalIdleStrategy strategy = new SignalIdleStrategy(() -> false, () -> 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            strategy.idle(0);
+        }
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    }
+
+    @Test
+    void parksAtMostUntilDeadline() {
+        SignalIdleStrategy strategy = new SignalIdleStrategy(() -> false, () -> TimeUnit.MILLISECONDS.toNanos(20));
+
+        long start = System.nanoTime();
+        strategy.idle(0);
+
+        // parkNanos 可能提前返回，但不会无限期等待
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void parksIndefinitelyUntilUnparked() throws Exception {
+        SignalIdleStrategy strategy = new SignalIdleStrategy(() -> false, () -> -1);
+        CountDownLatch returned = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            strategy.idle(0);
+            returned.countDown();
+        });
+        thread.start();
+
+        awaitState(thread, Thread.State.WAITING);
+        assertFalse(returned.await(50, TimeUnit.MILLISECONDS));
+        LockSupport.unpark(thread); // Runloop.wakeup() 的唤醒方式
+        assertTrue(returned.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void usesShortParkDuringShutdown() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        SignalIdleStrategy strategy = new SignalIdleStrategy(() -> true, () -> {
+            queries.incrementAndGet();
+            return -1;
+        });
+        CountDownLatch returned = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            strategy.idle(0);
+            returned.countDown();
+        });
+        thread.start();
+
+        assertTrue(returned.await(5, TimeUnit.SECONDS));
+        assertEquals(0, queries.get());
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != state) {
+            assertTrue(System.nanoTime() < deadline, "thread did not reach " + state);
+            Thread.sleep(1);
+        }
+    }
+}
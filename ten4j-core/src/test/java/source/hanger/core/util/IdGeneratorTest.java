@@ -0,0 +1,190 @@
+package source.hanger.core.util;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link IdGenerator} 的唯一性与编码格式测试。
+ *
+ * 吞吐量基准默认跳过，使用 -Dten4j.benchmark=true 运行。
+ */
+@Slf4j
+class IdGeneratorTest {
+
+    private static final Pattern SHORT_ID_PATTERN = Pattern.compile("[0-9A-Za-z]{11}");
+
+    /**
+     * 每个线程按 1024 个序号一段领取，生成量远大于段长，保证跨越多次领段。
+     */
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 20 * 1024 + 17;
+
+    /**
+     * 限速生成：4 个线程合计每秒 100 万个短 ID，持续 1 秒。
+     */
+    private static final int PACED_THREADS = 4;
+    private static final int PACED_IDS_PER_SECOND = 1_000_000;
+    private static final int PACED_BATCH = 1000;
+
+    @Test
+    void shortIdIsFixedLengthBase62() {
+        for (int i = 0; i < 5000; i++) {
+            String id = IdGenerator.generateShortId();
+            assertEquals(IdGenerator.SHORT_ID_LENGTH, id.length(), id);
+            assertTrue(SHORT_ID_PATTERN.matcher(id).matches(), id);
+        }
+    }
+
+    @Test
+    void toShortIdEncodesUnsignedBase62() {
+        assertEquals("00000000000", IdGenerator.toShortId(0L));
+        assertEquals("0000000000z", IdGenerator.toShortId(61L));
+        assertEquals("00000000010", IdGenerator.toShortId(62L));
+        // 负数按无符号 64 位编码
+        assertEquals("AzL8n0Y58m8", IdGenerator.toShortId(Long.MIN_VALUE));
+        assertEquals("LygHa16AHYF", IdGenerator.toShortId(-1L));
+    }
+
+    @Test
+    void toShortIdIsConsistentWithLongId() {
+        long id = IdGenerator.generateLongId();
+        String shortId = IdGenerator.toShortId(id);
+        assertTrue(SHORT_ID_PATTERN.matcher(shortId).matches(), shortId);
+        assertEquals(shortId, IdGenerator.toShortId(id));
+        assertNotEquals(shortId, IdGenerator.toShortId(IdGenerator.generateLongId()));
+    }
+
+    @Test
+    void idsAreUniqueAcrossBlockBoundariesInOneThread() {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 3 * 1024 + 1; i++) {
+            // 短 ID 与 long ID 共用序列，交替生成也不能重复
+            String id = (i & 1) == 0 ? IdGenerator.generateShortId()
+                : IdGenerator.toShortId(IdGenerator.generateLongId());
+            assertTrue(seen.add(id), "duplicate id " + id + " at " + i);
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        long[] all = runOnThreads(THREADS, IDS_PER_THREAD, ids -> {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = IdGenerator.generateLongId();
+            }
+        });
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate id at sorted index " + i);
+        }
+    }
+
+    @Test
+    void shortIdsAreUniqueAtOneMillionPerSecond() throws Exception {
+        int idsPerThread = PACED_IDS_PER_SECOND / PACED_THREADS;
+        long batchIntervalNanos = TimeUnit.SECONDS.toNanos(1) * PACED_BATCH / idsPerThread;
+        long[] all = runOnThreads(PACED_THREADS, idsPerThread, ids -> {
+            long next = System.nanoTime();
+            for (int i = 0; i < ids.length; i++) {
+                if (i % PACED_BATCH == 0) {
+                    LockSupport.parkNanos(next - System.nanoTime());
+                    next += batchIntervalNanos;
+                }
+                // 按短 ID 字符串比较，覆盖编码环节
+                ids[i] = decodeShortId(IdGenerator.generateShortId());
+            }
+        });
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate short id " + IdGenerator.toShortId(all[i]));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+    void benchmarkThroughput() throws Exception {
+        int idsPerThread = 5_000_000;
+        for (int threads : new int[] {1, 2, THREADS}) {
+            // 第一轮用于预热
+            for (int round = 0; round < 3; round++) {
+                long startNanos = System.nanoTime();
+                // 只保留每个线程的校验和，避免 ID 数组的分配计入结果
+                runOnThreads(threads, 1, ids -> {
+                    long sink = 0;
+                    for (int i = 0; i < idsPerThread; i++) {
+                        sink += IdGenerator.generateShortId().charAt(0);
+                    }
+                    ids[0] = sink;
+                });
+                double seconds = (System.nanoTime() - startNanos) / 1e9;
+                if (round > 0) {
+                    log.info("IdGenerator.generateShortId: threads={} {} M ids/s", threads,
+                        String.format("%.1f", threads * (double)idsPerThread / seconds / 1e6));
+                }
+            }
+        }
+    }
+
+    /**
+     * 在 threads 个线程上同时执行 generator，每个线程写满自己的 idsPerThread 长数组，返回拼接后的结果。
+     */
+    private static long[] runOnThreads(int threads, int idsPerThread, IdBatch generator) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            @SuppressWarnings("unchecked")
+            Future<long[]>[] futures = new Future[threads];
+            for (int t = 0; t < threads; t++) {
+                futures[t] = executor.submit(() -> {
+                    long[] ids = new long[idsPerThread];
+                    start.await();
+                    generator.fill(ids);
+                    return ids;
+                });
+            }
+            start.countDown();
+
+            long[] all = new long[threads * idsPerThread];
+            for (int t = 0; t < threads; t++) {
+                System.arraycopy(futures[t].get(60, TimeUnit.SECONDS), 0, all, t * idsPerThread, idsPerThread);
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * {@link IdGenerator#toShortId(long)} 的逆运算。
+     */
+    private static long decodeShortId(String shortId) {
+        long value = 0;
+        for (int i = 0; i < shortId.length(); i++) {
+            char c = shortId.charAt(i);
+            int digit = c <= '9' ? c - '0' : c <= 'Z' ? c - 'A' + 10 : c - 'a' + 36;
+            value = value * 62 + digit;
+        }
+        return value;
+    }
+
+    private interface IdBatch {
+        void fill(long[] ids) throws Exception;
+    }
+}
@@ -0,0 +1,153 @@
+package source.hanger.core.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * {@link PropertyTemplate} 的编译与实例化测试。
+ */
+class PropertyTemplateTest {
+
+    @Test
+    void resolvesExpressionsAgainstContext() {
+        PropertyTemplate template = PropertyTemplate.compile(Map.of(
+            "voice", "{{voice_name}}",
+            "model", "{{text_model or 'qwen-max'}}",
+            "greeting", "hello {{voice_name}}",
+            "sample_rate", 16000));
+
+        Map<String, Object> resolved = instantiateMap(template, Map.of("voice_name", "longxiaochun"));
+
+        assertEquals("longxiaochun", resolved.get("voice"));
+        // 未定义的变量按 null 处理，走默认值
+        assertEquals("qwen-max", resolved.get("model"));
+        // 不是完整占位符的字符串原样保留
+        assertEquals("hello {{voice_name}}", resolved.get("greeting"));
+        assertEquals(16000, resolved.get("sample_rate"));
+
+        assertEquals("qwen-plus", instantiateMap(template, Map.of("text_model", "qwen-plus")).get("model"));
+    }
+
+    @Test
+    void undefinedVariablesStayNullAfterOptimizerTenuring() {
+        // MVEL 在同一编译结果执行约 50 次后改用 ASM 访问器，之后未定义的变量仍应解析为 null
+        PropertyTemplate template = PropertyTemplate.compile(Map.of(
+            "greeting", "{{undefined_greeting}}",
+            "model", "{{undefined_model or 'qwen-max'}}",
+            "voice", "{{voice_name}}"));
+
+        for (int i = 0; i < 200; i++) {
+            Map<String, Object> resolved = instantiateMap(template, Map.of("voice_name", "v" + i));
+            assertNull(resolved.get("greeting"));
+            assertEquals("qwen-max", resolved.get("model"));
+            assertEquals("v" + i, resolved.get("voice"));
+        }
+    }
+
+    @Test
+    void resolvesEnvFunction() {
+        String key = "ten4j.test.property-template.api-key";
+        System.setProperty(key, "secret");
+        try {
+            PropertyTemplate template = PropertyTemplate.compile("{{env('%s')}}".formatted(key));
+            assertEquals("secret", template.instantiate(Map.of()));
+        } finally {
+            System.clearProperty(key);
+        }
+    }
+
+    @Test
+    void matchesResolveProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("prompt", "{{prompt}}");
+        properties.put("tools", List.of("search", "{{tool}}"));
+        properties.put("options", Map.of("temperature", 0.5, "model", "{{text_model or 'qwen-max'}}"));
+        properties.put("enabled", true);
+        Map<String, Object> context = Map.of("prompt", "be brief", "tool", "weather");
+
+        Object expected = ExpressionResolver.resolveProperties(properties, context);
+        Object actual = PropertyTemplate.compile(properties).instantiate(context);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void instancesAreIndependentAndMutable() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("format", "pcm");
+        nested.put("channels", new ArrayList<>(List.of(1)));
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("voice", "{{voice_name}}");
+        properties.put("audio", nested);
+        properties.put("stop_words", List.of("bye"));
+
+        PropertyTemplate template = PropertyTemplate.compile(properties);
+        Map<String, Object> first = instantiateMap(template, Map.of("voice_name", "a"));
+        Map<String, Object> second = instantiateMap(template, Map.of("voice_name", "b"));
+
+        // 不含占位符的子树每次实例化都是新的可修改副本
+        Map<String, Object> firstAudio = (Map<String, Object>)first.get("audio");
+        assertNotSame(firstAudio, second.get("audio"));
+        assertNotSame(nested, firstAudio);
+        firstAudio.put("format", "opus");
+        ((List<Object>)firstAudio.get("channels")).add(2);
+        ((List<Object>)first.get("stop_words")).add("goodbye");
+        first.put("extra", 1);
+
+        assertEquals(Map.of("format", "pcm", "channels", List.of(1)), second.get("audio"));
+        assertEquals(List.of("bye"), second.get("stop_words"));
+        assertEquals("b", second.get("voice"));
+        assertFalse(second.containsKey("extra"));
+        assertEquals(Map.of("format", "pcm", "channels", List.of(1)),
+            instantiateMap(template, Map.of()).get("audio"));
+    }
+
+    @Test
+    void templateDoesNotTrackSourceMutations() {
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("format", "pcm");
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("audio", nested);
+
+        PropertyTemplate template = PropertyTemplate.compile(properties);
+        nested.put("format", "opus");
+
+        assertEquals(Map.of("format", "pcm"), instantiateMap(template, Map.of()).get("audio"));
+    }
+
+    @Test
+    void compileErrorIsRaisedOnInstantiate() {
+        PropertyTemplate template = PropertyTemplate.compile("{{(voice_name}}");
+
+        PropertyTemplate.Expression expression = assertInstanceOf(PropertyTemplate.Expression.class, template);
+        assertEquals("(voice_name", expression.getMvelExpression());
+        assertNotNull(expression.getCompileError());
+        assertThrows(IllegalStateException.class, () -> template.instantiate(Map.of()));
+        assertEquals(1, ExpressionResolver.validateProperties(Map.of("voice", "{{(voice_name}}"), "property").size());
+    }
+
+    @Test
+    void scalarsAndNullArePassedThrough() {
+        assertEquals(42, PropertyTemplate.compile(42).instantiate(Map.of()));
+        assertEquals("plain", PropertyTemplate.compile("plain").instantiate(null));
+        assertNull(PropertyTemplate.compile(null).instantiate(Map.of()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> instantiateMap(PropertyTemplate template, Map<String, Object> context) {
+        return (Map<String, Object>)template.instantiate(context);
+    }
+}
@@ -0,0 +1,239 @@
+package source.hanger.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link SentenceSegmenter} 的增量分句测试。
+ *
+ * 与 {@link SentenceProcessor#parseSentences} 的回放对比基准默认跳过，使用 -Dten4j.benchmark=true 运行。
+ */
+@Slf4j
+class SentenceSegmenterTest {
+
+    private static final String ZH_RESPONSE = "好的，我来帮你查一下。今天北京的天气是晴转多云，气温在12到23度之间，"
+        + "空气质量良，适合户外活动。下午三点以后风力会增大到4级左右，出门记得带一件外套！另外，明天可能有小雨，"
+        + "降水概率大约是60%，如果你计划10:30出发去机场，建议提前半小时。还有什么需要我帮忙的吗？";
+    private static final String EN_RESPONSE = "Sure, here is a quick summary. The total comes to 1,299 dollars, "
+        + "which is about 3.5 percent lower than last month. You can check the details at https://example.com/orders, "
+        + "or call us between 9:00 and 18:00 on weekdays. If anything looks wrong, just reply to this message, "
+        + "and we will fix it within two business days. Thanks for your patience!";
+
+    /**
+     * 回放的流数，每条流按 1 到 3 个字符一段切分，与 LLM 流式输出的增量粒度相近。
+     */
+    private static final int REPLAYED_STREAMS = 100;
+    private static final int WARMUP_ROUNDS = 100;
+    private static final int BENCHMARK_ROUNDS = 200;
+
+    @Test
+    void splitsOnHardPunctuationAcrossDeltas() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+
+        assertTrue(segmenter.append("你好").isEmpty());
+        assertEquals(List.of("你好世界。"), segmenter.append("世界。今天"));
+        assertEquals(List.of("今天天气不错！", "出去走走吧？"), segmenter.append("天气不错！ 出去走走吧？"));
+        assertEquals(0, segmenter.pendingLength());
+    }
+
+    @Test
+    void keepsTrailingPunctuationAndQuotesWithSentence() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(SentenceSegmentationPolicy.defaults()
+            .setHardPunctuationOnly(true)
+            .setFirstChunkFast(false));
+
+        assertEquals(List.of("他说：“真的吗？！”"), segmenter.append("他说：“真的吗？！”然后"));
+        assertEquals("然后", segmenter.flush());
+    }
+
+    @Test
+    void softPunctuationRespectsMinimumLength() {
+        SentenceSegmentationPolicy policy = SentenceSegmentationPolicy.defaults()
+            .setFirstChunkFast(false)
+            .setMinSoftChars(6);
+        SentenceSegmenter segmenter = new SentenceSegmenter(policy);
+
+        // 片段过短时句中标点不切分
+        assertTrue(segmenter.append("好的，").isEmpty());
+        assertEquals(List.of("好的，我们现在开始，"), segmenter.append("我们现在开始，第"));
+        assertEquals("第", segmenter.flush());
+    }
+
+    @Test
+    void firstChunkUsesLowerThreshold() {
+        SentenceSegmentationPolicy policy = SentenceSegmentationPolicy.defaults()
+            .setHardPunctuationOnly(true)
+            .setFirstChunkMinChars(3);
+        SentenceSegmenter segmenter = new SentenceSegmenter(policy);
+
+        assertEquals(List.of("好的，"), segmenter.append("好的，"));
+        // 首句之后只按句末标点切分
+        assertTrue(segmenter.append("我们现在开始，然后").isEmpty());
+        assertEquals(List.of("我们现在开始，然后继续。"), segmenter.append("继续。"));
+    }
+
+    @Test
+    void doesNotSplitInsideNumbersAndUrls() {
+        // 句中标点不设长度下限，确保数字内的 , : 只因保护规则而不切分
+        SentenceSegmenter segmenter = new SentenceSegmenter(SentenceSegmentationPolicy.defaults()
+            .setFirstChunkFast(false)
+            .setMinSoftChars(1));
+
+        // 半角 . 需要等下一个字符才能判断
+        assertTrue(segmenter.append("圆周率约为3.").isEmpty());
+        assertEquals(List.of("圆周率约为3.14。"), segmenter.append("14。"));
+        assertEquals(List.of("一共1,000元，", "10:30开始。"), segmenter.append("一共1,000元，10:30开始。"));
+        assertEquals(List.of("访问 https://example.com/a.b?x=1 了解。"),
+            segmenter.append("访问 https://example.com/a.b?x=1 了解。"));
+        assertEquals(List.of("或者 www.example.com 也行。"), segmenter.append("或者 www.example.com 也行。"));
+    }
+
+    @Test
+    void waitsForCompleteEllipsis() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+
+        assertTrue(segmenter.append("等一下..").isEmpty());
+        assertTrue(segmenter.append(".").isEmpty());
+        assertEquals(List.of("等一下..."), segmenter.append("好"));
+        assertEquals("好", segmenter.flush());
+    }
+
+    @Test
+    void punctuationOnlySegmentMergesIntoNextSentence() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+
+        assertEquals(List.of("。 你好。"), segmenter.append("。 你好。"));
+    }
+
+    @Test
+    void reusesResultListBetweenCalls() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+
+        List<String> first = segmenter.append("第一句。");
+        assertEquals(List.of("第一句。"), first);
+        List<String> second = segmenter.append("第二句。");
+        assertSame(first, second);
+        assertEquals(List.of("第二句。"), second);
+        assertTrue(segmenter.append("没有结束").isEmpty());
+        assertTrue(segmenter.append("").isEmpty());
+    }
+
+    @Test
+    void appendToCallerListReturnsCount() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+        List<String> sentences = new ArrayList<>();
+
+        assertEquals(2, segmenter.append("一。二！三", sentences));
+        assertEquals(List.of("一。", "二！"), sentences);
+        assertEquals(0, segmenter.append(null, sentences));
+    }
+
+    @Test
+    void flushResetsState() {
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+
+        segmenter.append("未完成");
+        assertEquals("未完成", segmenter.flush());
+        assertEquals(0, segmenter.pendingLength());
+        assertEquals("", segmenter.flush());
+        assertEquals(List.of("新的一句。"), segmenter.append("新的一句。"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+    void benchmarkTokenStreamReplay() {
+        for (String sample : new String[] {ZH_RESPONSE, EN_RESPONSE}) {
+            List<List<String>> streams = new ArrayList<>(REPLAYED_STREAMS);
+            Random random = new Random(sample.length());
+            for (int i = 0; i < REPLAYED_STREAMS; i++) {
+                streams.add(splitIntoDeltas(sample, random));
+            }
+            long chars = (long)sample.length() * REPLAYED_STREAMS;
+            int oldSegments = 0;
+            int newSegments = 0;
+            double[] oldNanosPerChar = new double[BENCHMARK_ROUNDS];
+            double[] newNanosPerChar = new double[BENCHMARK_ROUNDS];
+            for (int round = -WARMUP_ROUNDS; round < BENCHMARK_ROUNDS; round++) {
+                long startNanos = System.nanoTime();
+                oldSegments = replayWithParseSentences(streams);
+                long oldNanos = System.nanoTime() - startNanos;
+
+                startNanos = System.nanoTime();
+                newSegments = replayWithSegmenter(streams);
+                long newNanos = System.nanoTime() - startNanos;
+                if (round >= 0) {
+                    oldNanosPerChar[round] = (double)oldNanos / chars;
+                    newNanosPerChar[round] = (double)newNanos / chars;
+                }
+            }
+            log.info("token stream replay ({} chars x {}): parseSentences {} ns/char, {} segments; "
+                    + "SentenceSegmenter {} ns/char, {} segments", sample.length(), REPLAYED_STREAMS,
+                String.format("%.1f", median(oldNanosPerChar)), oldSegments / REPLAYED_STREAMS,
+                String.format("%.1f", median(newNanosPerChar)), newSegments / REPLAYED_STREAMS);
+        }
+    }
+
+    /**
+     * 各轮耗时的中位数，避免 GC 与 JIT 编译造成的个别慢轮次影响结果。
+     */
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static List<String> splitIntoDeltas(String text, Random random) {
+        List<String> deltas = new ArrayList<>();
+        for (int start = 0; start < text.length(); ) {
+            int end = Math.min(text.length(), start + 1 + random.nextInt(3));
+            deltas.add(text.substring(start, end));
+            start = end;
+        }
+        return deltas;
+    }
+
+    /**
+     * 此前 BaseLLMStreamAdapter 的做法：每个增量都用剩余片段重新构造并解析。
+     *
+     * @return 发给 TTS 的片段总数
+     */
+    private static int replayWithParseSentences(List<List<String>> streams) {
+        int segments = 0;
+        for (List<String> deltas : streams) {
+            String fragment = "";
+            for (String delta : deltas) {
+                SentenceProcessor.SentenceParsingResult result = SentenceProcessor.parseSentences(fragment, delta);
+                segments += result.getSentences().size();
+                fragment = result.getRemainingFragment();
+            }
+            if (!fragment.isBlank()) {
+                segments++;
+            }
+        }
+        return segments;
+    }
+
+    private static int replayWithSegmenter(List<List<String>> streams) {
+        int segments = 0;
+        SentenceSegmenter segmenter = new SentenceSegmenter(null);
+        for (List<String> deltas : streams) {
+            for (String delta : deltas) {
+                segments += segmenter.append(delta).size();
+            }
+            if (!segmenter.flush().isBlank()) {
+                segments++;
+            }
+        }
+        return segments;
+    }
+}
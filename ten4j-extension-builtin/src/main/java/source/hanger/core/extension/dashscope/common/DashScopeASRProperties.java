@@ -0,0 +1,22 @@
+package source.hanger.core.extension.dashscope.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DashScope ASR 类 Extension（Paraformer、Gummy）的类型化配置，在 onConfigure 时绑定一次。
+ *
+ * @param apiKey DashScope API Key
+ * @param model  模型名称，未配置时为空字符串，由适配器选择默认模型
+ */
+public record DashScopeASRProperties(
+    @JsonProperty(value = "api_key", required = true) String apiKey,
+    @JsonProperty("model") String model) {
+
+    public DashScopeASRProperties {
+        model = model != null ? model : "";
+    }
+
+    public String modelOrDefault(String defaultModel) {
+        return model.isEmpty() ? defaultModel : model;
+    }
+}
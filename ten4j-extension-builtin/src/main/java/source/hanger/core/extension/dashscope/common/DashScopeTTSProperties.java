@@ -0,0 +1,27 @@
+package source.hanger.core.extension.dashscope.common;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * DashScope TTS 类 Extension（CosyVoice、Qwen TTS、Sambert）的类型化配置，在 onConfigure 时绑定一次。
+ *
+ * @param apiKey    DashScope API Key
+ * @param voiceName 音色名称，Sambert 直接作为模型名使用
+ * @param model     模型名称，Sambert 不需要
+ */
+public record DashScopeTTSProperties(
+    @JsonProperty(value = "api_key", required = true) String apiKey,
+    @JsonProperty(value = "voice_name", required = true) String voiceName,
+    @JsonProperty("model") String model) {
+
+    /**
+     * @return 模型名称
+     * @throws IllegalStateException 未配置 model
+     */
+    public String requireModel() {
+        if (model == null || model.isBlank()) {
+            throw new IllegalStateException("No model found");
+        }
+        return model;
+    }
+}
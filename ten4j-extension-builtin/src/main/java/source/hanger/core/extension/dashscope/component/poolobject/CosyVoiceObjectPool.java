@@ -4,96 +4,41 @@ import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesisAudioFormat;
 import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesisParam;
 import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesizer;
 
-import lombok.AllArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.pool2.PooledObject;
-import org.apache.commons.pool2.PooledObjectFactory;
-import org.apache.commons.pool2.impl.DefaultPooledObject;
-import org.apache.commons.pool2.impl.GenericObjectPool;
-import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
-import source.hanger.core.tenenv.TenEnv;
-
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * CosyVoice SpeechSynthesizer 对象的对象池。
+ * CosyVoice SpeechSynthesizer 对象的对象池，按 (api_key, model, voice, format) 分键，在进程内共享。
  */
-@Slf4j
 public class CosyVoiceObjectPool {
-    public static GenericObjectPool<SpeechSynthesizer> synthesizerPool;
-    private static final Lock lock = new ReentrantLock();
 
-    public static GenericObjectPool<SpeechSynthesizer> getInstance(TenEnv env) {
-        lock.lock();
-        try {
-            if (synthesizerPool == null) {
-                //int objectPoolSize = getObjectivePoolSize(env);
-                int objectPoolSize = 5;
+    public static final SpeechSynthesisAudioFormat FORMAT = SpeechSynthesisAudioFormat.PCM_24000HZ_MONO_16BIT; // 固定格式
 
-                String apiKey = env.getPropertyString("api_key").orElseThrow(() -> new IllegalStateException("No api key found"));
-                String voiceName = env.getPropertyString("voice_name").orElseThrow(() -> new IllegalStateException("No voiceName found"));
-                String model = env.getPropertyString("model").orElseThrow(() -> new IllegalStateException("No model found"));
-                SpeechSynthesisAudioFormat format = SpeechSynthesisAudioFormat.PCM_24000HZ_MONO_16BIT; // 固定格式
+    private static final KeyedSynthesizerPool<SpeechSynthesizer> INSTANCE = new KeyedSynthesizerPool<>(
+        "CosyVoiceObjectPool", new SpeechSynthesizerFactory(), SynthesizerPoolConfig.fromSystemProperties());
 
-                SpeechSynthesizerObjectFactory speechSynthesizerObjectFactory =
-                        new SpeechSynthesizerObjectFactory(apiKey, model, voiceName, format);
-                GenericObjectPoolConfig<SpeechSynthesizer> config =
-                        new GenericObjectPoolConfig<>();
-                config.setMaxTotal(objectPoolSize);
-                config.setMaxIdle(objectPoolSize);
-                config.setMinIdle(objectPoolSize);
-                synthesizerPool = new GenericObjectPool<>(speechSynthesizerObjectFactory, config);
-            }
-        } finally {
-            lock.unlock();
-        }
-        return synthesizerPool;
+    public static KeyedSynthesizerPool<SpeechSynthesizer> getInstance() {
+        return INSTANCE;
     }
 
-    @Slf4j
-    @AllArgsConstructor
-    public static class SpeechSynthesizerObjectFactory implements PooledObjectFactory<SpeechSynthesizer> {
+    public static SynthesizerPoolKey key(String apiKey, String model, String voiceName) {
+        return new SynthesizerPoolKey(apiKey, model, voiceName, FORMAT.name());
+    }
 
-        private final String apiKey;
-        private final String model;
-        private final String voiceName;
-        private final SpeechSynthesisAudioFormat format;
+    static class SpeechSynthesizerFactory implements KeyedSynthesizerPool.SynthesizerFactory<SpeechSynthesizer> {
 
         @Override
-        public PooledObject<SpeechSynthesizer> makeObject() throws Exception {
-            log.info("创建一个新的 SpeechSynthesizer 实例. Model: {}, Voice: {}", model, voiceName);
+        public SpeechSynthesizer create(SynthesizerPoolKey key) {
             SpeechSynthesisParam param = SpeechSynthesisParam.builder()
-                .apiKey(apiKey)
-                .model(model)
-                .voice(voiceName)
-                .format(format)
+                .apiKey(key.apiKey())
+                .model(key.model())
+                .voice(key.voice())
+                .format(FORMAT)
                 .build();
-            return new DefaultPooledObject<>(new SpeechSynthesizer(param, null));
+            return new SpeechSynthesizer(param, null);
         }
 
         @Override
-        public void destroyObject(PooledObject<SpeechSynthesizer> p) throws Exception {
-            SpeechSynthesizer synthesizer = p.getObject();
+        public void destroy(SpeechSynthesizer synthesizer) {
             synthesizer.getDuplexApi().close(1000, "bye");
-            // 如果 SpeechSynthesizer 有 close 方法，可以在这里调用
-            log.info("销毁 SpeechSynthesizer 实例.");
-        }
-
-        @Override
-        public boolean validateObject(PooledObject<SpeechSynthesizer> p) {
-            // 可以实现更复杂的验证逻辑，例如检查连接状态
-            return p.getObject() != null;
-        }
-
-        @Override
-        public void activateObject(PooledObject<SpeechSynthesizer> p) throws Exception {
-            // 对象被借用时调用，如果需要重置状态可以在这里实现
-        }
-
-        @Override
-        public void passivateObject(PooledObject<SpeechSynthesizer> p) throws Exception {
-            // 对象归还到池中时调用，如果需要清理状态可以在这里实现
         }
     }
 }
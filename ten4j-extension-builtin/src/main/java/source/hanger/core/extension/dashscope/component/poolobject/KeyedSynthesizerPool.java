@@ -0,0 +1,188 @@
+package source.hanger.core.extension.dashscope.component.poolobject;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+
+/**
+ * 按 (api_key, model, voice, format) 分键的 DashScope 合成器对象池，在进程内共享。
+ *
+ * - 每个键单独计数：不同音色、模型的会话不会拿到参数不匹配的实例
+ * - Extension 启动时调用 {@link #prewarm(SynthesizerPoolKey)} 预先创建 min-idle 个实例，借用时通常无需新建
+ * - 空闲检查线程按空闲时间回收实例，并销毁超过最长存活时间的实例；借用时同样校验
+ * - 同一 api_key（租户）同时借出的实例数有上限，避免单个租户占满全局的 max-total
+ *
+ * 借出的实例必须通过 {@link #release(SynthesizerPoolKey, Object, boolean)} 归还。
+ *
+ * @param <S> 合成器类型
+ */
+@Slf4j
+public class KeyedSynthesizerPool<S> {
+
+    /**
+     * 合成器的创建与销毁。
+     */
+    public interface SynthesizerFactory<S> {
+
+        S create(SynthesizerPoolKey key) throws Exception;
+
+        void destroy(S synthesizer) throws Exception;
+    }
+
+    // 标记本线程的这次借用是否新建了实例，GenericKeyedObjectPool 在借用线程上调用 create
+    private static final ThreadLocal<boolean[]> CREATED_ON_BORROW = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private final String name;
+    private final SynthesizerPoolConfig config;
+    private final GenericKeyedObjectPool<SynthesizerPoolKey, S> pool;
+    private final ConcurrentMap<String, Semaphore> tenantPermits = new ConcurrentHashMap<>();
+    @Getter
+    private final SynthesizerPoolMetrics metrics = new SynthesizerPoolMetrics();
+
+    public KeyedSynthesizerPool(String name, SynthesizerFactory<S> factory, SynthesizerPoolConfig config) {
+        this.name = name;
+        this.config = config;
+        GenericKeyedObjectPoolConfig<S> poolConfig = new GenericKeyedObjectPoolConfig<>();
+        poolConfig.setMaxTotalPerKey(config.getMaxPerKey());
+        poolConfig.setMaxIdlePerKey(config.getMaxPerKey());
+        poolConfig.setMinIdlePerKey(Math.min(config.getMinIdlePerKey(), config.getMaxPerKey()));
+        poolConfig.setMaxTotal(config.getMaxTotal());
+        poolConfig.setBlockWhenExhausted(true);
+        poolConfig.setMaxWait(config.getMaxWait());
+        poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestWhileIdle(true);
+        poolConfig.setMinEvictableIdleDuration(config.getIdleEvictTime());
+        poolConfig.setTimeBetweenEvictionRuns(config.getEvictionInterval());
+        poolConfig.setNumTestsPerEvictionRun(-1); // 每次检查全部空闲实例
+        poolConfig.setJmxEnabled(false);
+        this.pool = new GenericKeyedObjectPool<>(new PoolFactory<>(name, factory, config.getMaxLifetime()),
+            poolConfig);
+        log.info("[{}] 创建合成器对象池: {}", name, config);
+    }
+
+    /**
+     * 为指定键预先创建 min-idle 个实例。重复调用不会超出 min-idle。
+     */
+    public void prewarm(SynthesizerPoolKey key) {
+        try {
+            pool.preparePool(key);
+            log.info("[{}] 预热完成 key={} idle={}", name, key, pool.getNumIdle(key));
+        } catch (Exception e) {
+            log.warn("[{}] 预热失败 key={} error={}", name, key, e.getMessage());
+        }
+    }
+
+    /**
+     * 借用实例，可能阻塞（最长为租户等待与池等待时间之和），应在 IO 线程上调用。
+     *
+     * @throws NoSuchElementException 等待超时
+     */
+    public S borrow(SynthesizerPoolKey key) throws Exception {
+        long startNanos = System.nanoTime();
+        Semaphore permits = tenantPermits.computeIfAbsent(key.apiKey() != null ? key.apiKey() : "",
+            _ -> new Semaphore(config.getMaxPerTenant(), true));
+        if (!permits.tryAcquire()) {
+            metrics.getTenantThrottled().incrementAndGet();
+            if (!permits.tryAcquire(config.getMaxWait().toMillis(), TimeUnit.MILLISECONDS)) {
+                metrics.getFailures().incrementAndGet();
+                throw new NoSuchElementException(
+                    "[%s] 租户 %s 借出的合成器已达上限 %d".formatted(name, key.tenant(), config.getMaxPerTenant()));
+            }
+        }
+        boolean[] created = CREATED_ON_BORROW.get();
+        created[0] = false;
+        try {
+            S synthesizer = pool.borrowObject(key);
+            metrics.recordBorrow(System.nanoTime() - startNanos, !created[0]);
+            return synthesizer;
+        } catch (Exception e) {
+            permits.release();
+            metrics.getFailures().incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还实例。
+     *
+     * @param reusable 为 false 时（连接已关闭或调用出错）销毁该实例，池按需重新创建
+     */
+    public void release(SynthesizerPoolKey key, S synthesizer, boolean reusable) {
+        try {
+            if (reusable) {
+                pool.returnObject(key, synthesizer);
+            } else {
+                metrics.getInvalidated().incrementAndGet();
+                pool.invalidateObject(key, synthesizer);
+            }
+        } catch (Exception e) {
+            log.warn("[{}] 归还合成器失败 key={} error={}", name, key, e.getMessage());
+        } finally {
+            Semaphore permits = tenantPermits.get(key.apiKey() != null ? key.apiKey() : "");
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    public int getNumIdle(SynthesizerPoolKey key) {
+        return pool.getNumIdle(key);
+    }
+
+    public int getNumActive(SynthesizerPoolKey key) {
+        return pool.getNumActive(key);
+    }
+
+    @Override
+    public String toString() {
+        return "%s[active=%d, idle=%d, %s]".formatted(name, pool.getNumActive(), pool.getNumIdle(), metrics);
+    }
+
+    private static final class PoolFactory<S> extends BaseKeyedPooledObjectFactory<SynthesizerPoolKey, S> {
+
+        private final String name;
+        private final SynthesizerFactory<S> factory;
+        private final Duration maxLifetime;
+
+        private PoolFactory(String name, SynthesizerFactory<S> factory, Duration maxLifetime) {
+            this.name = name;
+            this.factory = factory;
+            this.maxLifetime = maxLifetime;
+        }
+
+        @Override
+        public S create(SynthesizerPoolKey key) throws Exception {
+            CREATED_ON_BORROW.get()[0] = true;
+            log.info("[{}] 创建合成器实例 key={}", name, key);
+            return factory.create(key);
+        }
+
+        @Override
+        public PooledObject<S> wrap(S synthesizer) {
+            return new DefaultPooledObject<>(synthesizer);
+        }
+
+        @Override
+        public void destroyObject(SynthesizerPoolKey key, PooledObject<S> p) throws Exception {
+            log.info("[{}] 销毁合成器实例 key={}", name, key);
+            factory.destroy(p.getObject());
+        }
+
+        @Override
+        public boolean validateObject(SynthesizerPoolKey key, PooledObject<S> p) {
+            return p.getObject() != null && p.getCreateInstant().plus(maxLifetime).isAfter(Instant.now());
+        }
+    }
+}
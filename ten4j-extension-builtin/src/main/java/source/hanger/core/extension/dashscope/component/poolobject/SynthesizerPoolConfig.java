@@ -0,0 +1,53 @@
+package source.hanger.core.extension.dashscope.component.poolobject;
+
+import java.time.Duration;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+/**
+ * DashScope TTS 合成器对象池的配置。对象池在进程内共享，因此配置来自系统属性而不是单个 Extension 的属性：
+ *
+ * - ten4j.dashscope.tts-pool.max-per-key：每个 (api_key, model, voice, format) 的实例上限，默认 5
+ * - ten4j.dashscope.tts-pool.min-idle-per-key：每个键预热并保持的空闲实例数，默认 2
+ * - ten4j.dashscope.tts-pool.max-total：所有键的实例总数上限，默认 64
+ * - ten4j.dashscope.tts-pool.max-per-tenant：同一 api_key 同时借出的实例上限，默认 16
+ * - ten4j.dashscope.tts-pool.max-wait-ms：借用的最长等待时间，默认 5000
+ * - ten4j.dashscope.tts-pool.idle-evict-ms：空闲超过该时间的实例被回收（保留 min-idle 个），默认 300000
+ * - ten4j.dashscope.tts-pool.max-lifetime-ms：实例的最长存活时间，超过后在空闲检查时销毁重建，默认 1800000
+ * - ten4j.dashscope.tts-pool.eviction-interval-ms：空闲检查间隔，默认 30000
+ */
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class SynthesizerPoolConfig {
+
+    private static final String PREFIX = "ten4j.dashscope.tts-pool.";
+
+    private int maxPerKey = 5;
+    private int minIdlePerKey = 2;
+    private int maxTotal = 64;
+    private int maxPerTenant = 16;
+    private Duration maxWait = Duration.ofSeconds(5);
+    private Duration idleEvictTime = Duration.ofMinutes(5);
+    private Duration maxLifetime = Duration.ofMinutes(30);
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    public static SynthesizerPoolConfig fromSystemProperties() {
+        SynthesizerPoolConfig defaults = new SynthesizerPoolConfig();
+        return new SynthesizerPoolConfig()
+            .setMaxPerKey(Math.max(1, Integer.getInteger(PREFIX + "max-per-key", defaults.maxPerKey)))
+            .setMinIdlePerKey(Math.max(0, Integer.getInteger(PREFIX + "min-idle-per-key", defaults.minIdlePerKey)))
+            .setMaxTotal(Math.max(1, Integer.getInteger(PREFIX + "max-total", defaults.maxTotal)))
+            .setMaxPerTenant(Math.max(1, Integer.getInteger(PREFIX + "max-per-tenant", defaults.maxPerTenant)))
+            .setMaxWait(millis("max-wait-ms", defaults.maxWait))
+            .setIdleEvictTime(millis("idle-evict-ms", defaults.idleEvictTime))
+            .setMaxLifetime(millis("max-lifetime-ms", defaults.maxLifetime))
+            .setEvictionInterval(millis("eviction-interval-ms", defaults.evictionInterval));
+    }
+
+    private static Duration millis(String name, Duration defaultValue) {
+        return Duration.ofMillis(Math.max(1, Long.getLong(PREFIX + name, defaultValue.toMillis())));
+    }
+}
@@ -0,0 +1,28 @@
+package source.hanger.core.extension.dashscope.component.poolobject;
+
+/**
+ * 合成器对象池的键。参数完全相同的请求才能复用同一个合成器实例（及其连接）。
+ *
+ * @param apiKey DashScope API Key，同时作为租户标识
+ * @param model  模型名称
+ * @param voice  音色名称
+ * @param format 音频格式
+ */
+public record SynthesizerPoolKey(String apiKey, String model, String voice, String format) {
+
+    /**
+     * @return 用于日志的租户标识，只保留 API Key 的末 4 位
+     */
+    public String tenant() {
+        if (apiKey == null || apiKey.length() <= 4) {
+            return "****";
+        }
+        return "****" + apiKey.substring(apiKey.length() - 4);
+    }
+
+    @Override
+    public String toString() {
+        return "SynthesizerPoolKey[tenant=%s, model=%s, voice=%s, format=%s]".formatted(tenant(), model, voice,
+            format);
+    }
+}
@@ -0,0 +1,62 @@
+package source.hanger.core.extension.dashscope.component.poolobject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * 合成器对象池的借用统计。
+ */
+@Getter
+public class SynthesizerPoolMetrics {
+
+    /**
+     * 成功借出的次数。
+     */
+    private final AtomicLong borrows = new AtomicLong();
+    /**
+     * 借出的是已有空闲实例（无需新建连接）的次数。
+     */
+    private final AtomicLong hits = new AtomicLong();
+    /**
+     * 等待超时或创建失败的次数。
+     */
+    private final AtomicLong failures = new AtomicLong();
+    /**
+     * 因达到租户上限而需要等待的次数。
+     */
+    private final AtomicLong tenantThrottled = new AtomicLong();
+    /**
+     * 归还时判定为不可复用而销毁的次数。
+     */
+    private final AtomicLong invalidated = new AtomicLong();
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong();
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong();
+
+    void recordBorrow(long waitNanos, boolean hit) {
+        borrows.incrementAndGet();
+        if (hit) {
+            hits.incrementAndGet();
+        }
+        totalBorrowWaitNanos.addAndGet(waitNanos);
+        maxBorrowWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    public double hitRate() {
+        long count = borrows.get();
+        return count == 0 ? 0 : (double)hits.get() / count;
+    }
+
+    public long averageBorrowWaitMicros() {
+        long count = borrows.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalBorrowWaitNanos.get() / count);
+    }
+
+    @Override
+    public String toString() {
+        return ("borrows=%d, hitRate=%.2f, failures=%d, tenantThrottled=%d, invalidated=%d, avgWait=%dus, "
+            + "maxWait=%dus").formatted(borrows.get(), hitRate(), failures.get(), tenantThrottled.get(), invalidated.get(),
+                averageBorrowWaitMicros(), TimeUnit.NANOSECONDS.toMicros(maxBorrowWaitNanos.get()));
+    }
+}
@@ -5,18 +5,22 @@ import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesisAudioFormat;
 import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesisParam;
 import com.alibaba.dashscope.audio.ttsv2.SpeechSynthesizer;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import io.reactivex.Flowable;
 import io.reactivex.schedulers.Schedulers;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.time.StopWatch;
-import org.apache.commons.pool2.impl.GenericObjectPool;
 import source.hanger.core.extension.component.common.OutputBlock;
 import source.hanger.core.extension.component.common.PipelinePacket;
 import source.hanger.core.extension.component.flush.InterruptionStateProvider;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
 import source.hanger.core.extension.component.tts.BaseTTSStreamAdapter;
 import source.hanger.core.extension.component.tts.TTSAudioOutputBlock;
+import source.hanger.core.extension.dashscope.common.DashScopeTTSProperties;
 import source.hanger.core.extension.dashscope.component.poolobject.CosyVoiceObjectPool;
+import source.hanger.core.extension.dashscope.component.poolobject.KeyedSynthesizerPool;
+import source.hanger.core.extension.dashscope.component.poolobject.SynthesizerPoolKey;
 import source.hanger.core.message.Message;
 import source.hanger.core.tenenv.TenEnv;
 
@@ -28,39 +32,44 @@ import static source.hanger.core.common.ExtensionConstants.*;
 @Slf4j
 public class CosyVoiceTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthesisResult> {
 
-    private GenericObjectPool<SpeechSynthesizer> pool;
+    private final DashScopeTTSProperties ttsProperties;
+    private KeyedSynthesizerPool<SpeechSynthesizer> pool;
+    private SynthesizerPoolKey poolKey;
 
     public CosyVoiceTTSStreamAdapter(
         InterruptionStateProvider interruptionStateProvider,
-        StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
+        StreamPipelineChannel<OutputBlock> streamPipelineChannel,
+        DashScopeTTSProperties ttsProperties) {
         super(interruptionStateProvider, streamPipelineChannel);
+        this.ttsProperties = ttsProperties;
     }
 
     @Override
     public void onStart(TenEnv env) {
-        pool = CosyVoiceObjectPool.getInstance(env);
+        pool = CosyVoiceObjectPool.getInstance();
+        poolKey = CosyVoiceObjectPool.key(ttsProperties.apiKey(), ttsProperties.model(), ttsProperties.voiceName());
+        // 在 IO 线程预热，首句合成时直接复用空闲实例
+        Schedulers.io().scheduleDirect(() -> pool.prewarm(poolKey));
     }
 
     @Override
     public void onStop(TenEnv env) {
-        pool.clear();
+        // 对象池由所有会话共享，空闲实例由池按空闲时间回收，这里不再清空
+        log.info("[{}] 停止 TTS 适配器. 对象池状态: {}", env.getExtensionName(), pool);
     }
 
     @Override
     protected Flowable<SpeechSynthesisResult> getRawTtsFlowable(TenEnv env, String text) {
-
-        String apiKey = env.getPropertyString("api_key").orElseThrow(
-            () -> new IllegalStateException("No api key found"));
-        String voiceName = env.getPropertyString("voice_name").orElseThrow(
-            () -> new IllegalStateException("No voiceName found"));
-        String model = env.getPropertyString("model").orElseThrow(
-            () -> new IllegalStateException("No model found"));
-        SpeechSynthesisAudioFormat format = SpeechSynthesisAudioFormat.PCM_24000HZ_MONO_16BIT; // 固定格式
+        String apiKey = ttsProperties.apiKey();
+        String voiceName = ttsProperties.voiceName();
+        String model = ttsProperties.model();
+        SpeechSynthesisAudioFormat format = CosyVoiceObjectPool.FORMAT;
 
         StopWatch stopWatch = StopWatch.createStarted();
+        AtomicBoolean reusable = new AtomicBoolean(true);
         return Flowable.using(
             () -> { // resourceSupplier: 借用实例 (这里是关键)
-                SpeechSynthesizer s = pool.borrowObject();
+                SpeechSynthesizer s = pool.borrow(poolKey);
                 // 在借用后更新参数
                 s.updateParamAndCallback(SpeechSynthesisParam.builder()
                     .apiKey(apiKey)
@@ -88,6 +97,7 @@ public class CosyVoiceTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthe
                         }
                     })
                     .doOnError(throwable -> {
+                        reusable.set(false);
                         s.getDuplexApi().close(1000, "bye");
                         log.error("[{}] 调用 DashScope Cosy Voice TTS API 错误  channelId={} text={}",
                             streamPipelineChannel.uuid(), env.getExtensionName(), text, throwable);
@@ -95,13 +105,14 @@ public class CosyVoiceTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthe
             },
             s -> { // disposeResource: 释放资源 (归还到池中)
                 if (interruptionStateProvider.isInterrupted()) {
+                    reusable.set(false);
                     s.getDuplexApi().close(1000, "bye");
                     // https://help.aliyun.com/zh/model-studio/sambert-in-high-concurrency-scenarios#6d104fd2e1jrm
                     // 异常 4、服务端报错 Invalid action('run-task')! Please follow the protocol!
                     log.info("[{}] 检测到中断，关闭连接. channelId={} text={})",
                         streamPipelineChannel.uuid(), env.getExtensionName(), text);
                 }
-                pool.returnObject(s);
+                pool.release(poolKey, s, reusable.get()); // 连接已关闭的实例直接销毁
                 log.info("[{}] 归还 SpeechSynthesizer 实例到对象池.  channelId={} text={})",
                     env.getExtensionName(), streamPipelineChannel.uuid(), text);
             }
@@ -113,7 +124,7 @@ public class CosyVoiceTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthe
         if (result.getAudioFrame() != null && result.getAudioFrame().remaining() > 0) {
             TTSAudioOutputBlock block = new TTSAudioOutputBlock(result.getAudioFrame(), originalMessage.getId(), 24000, 2, 1); // 假设采样率等信息
             log.info("[{}] TTS原始流处理开始. text={} originalId: {}", env.getExtensionName(),
-                originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""),
+                originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""),
                 originalMessage.getId()); // 修改这里
             return Flowable.just(new PipelinePacket<>(block, originalMessage));
         } else {
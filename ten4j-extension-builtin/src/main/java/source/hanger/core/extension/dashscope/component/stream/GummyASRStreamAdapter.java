@@ -17,46 +17,44 @@ import source.hanger.core.extension.component.common.OutputBlock;
 import source.hanger.core.extension.component.common.PipelinePacket;
 import source.hanger.core.extension.component.state.ExtensionStateProvider;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
+import source.hanger.core.extension.dashscope.common.DashScopeASRProperties;
 import source.hanger.core.tenenv.TenEnv;
 
 @Slf4j
 public class GummyASRStreamAdapter extends BaseASRStreamAdapter<TranslationRecognizerResult> {
 
-    private TranslationRecognizerRealtime translator;
+    private final DashScopeASRProperties asrProperties;
+    private volatile TranslationRecognizerParam translationParam;
 
     public GummyASRStreamAdapter(
         ExtensionStateProvider extensionStateProvider,
-        StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
+        StreamPipelineChannel<OutputBlock> streamPipelineChannel,
+        DashScopeASRProperties asrProperties) {
         super(extensionStateProvider, streamPipelineChannel);
+        this.asrProperties = asrProperties;
     }
 
     @Override
     public void onStart(TenEnv env) {
-        translator = new TranslationRecognizerRealtime();
+        // 识别参数在多次会话之间不变，启动时构建一次
+        translationParam = TranslationRecognizerParam.builder()
+            .apiKey(asrProperties.apiKey())
+            .model(asrProperties.modelOrDefault("gummy-realtime-v1"))
+            .format("pcm")
+            .sampleRate(16000)
+            .transcriptionEnabled(true)
+            .translationEnabled(false)
+            .build();
     }
 
     @Override
     protected Flowable<TranslationRecognizerResult> getRawAsrFlowable(TenEnv env, Flowable<ByteBuffer> audioInput) {
-        String apiKey = env.getPropertyString("api_key")
-            .orElseThrow(() -> new IllegalArgumentException("API Key is required for Paraformer ASR."));
-        String model = env.getPropertyString("model")
-            .orElse("gummy-realtime-v1");
-
-        // 创建TranslationRecognizerParam，audioFrames参数中传入上面创建的Flowable<ByteBuffer>
-        TranslationRecognizerParam param =
-            TranslationRecognizerParam.builder()
-                .apiKey(apiKey)
-                .model(model)
-                .format("pcm")
-                .sampleRate(16000)
-                .transcriptionEnabled(true)
-                .translationEnabled(false)
-                .build();
         try {
-            // Use streamCall directly
-            Flowable<TranslationRecognizerResult> resultFlowable = translator.streamCall(param, audioInput);
+            // TranslationRecognizerRealtime 保存了单次识别的状态，每个会话使用独立的实例；连接在订阅时才建立
+            Flowable<TranslationRecognizerResult> resultFlowable =
+                new TranslationRecognizerRealtime().streamCall(translationParam, audioInput);
 
-            log.info("[{}] Gummy ASR recognition started successfully. channelId={}",
+            log.info("[{}] Gummy ASR recognition prepared. channelId={}",
                 env.getExtensionName(), streamPipelineChannel.uuid());
             return resultFlowable
                 .subscribeOn(Schedulers.io());
@@ -16,49 +16,48 @@ import source.hanger.core.extension.component.common.OutputBlock;
 import source.hanger.core.extension.component.common.PipelinePacket;
 import source.hanger.core.extension.component.state.ExtensionStateProvider;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
+import source.hanger.core.extension.dashscope.common.DashScopeASRProperties;
 import source.hanger.core.tenenv.TenEnv;
 
 @Slf4j
 public class ParaformerASRStreamAdapter extends BaseASRStreamAdapter<RecognitionResult> {
 
-    private Recognition recognition;
+    private final DashScopeASRProperties asrProperties;
+    private volatile RecognitionParam recognitionParam;
 
     public ParaformerASRStreamAdapter(
         ExtensionStateProvider extensionStateProvider,
-        StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
+        StreamPipelineChannel<OutputBlock> streamPipelineChannel,
+        DashScopeASRProperties asrProperties) {
         super(extensionStateProvider, streamPipelineChannel);
+        this.asrProperties = asrProperties;
     }
 
     @Override
     public void onStart(TenEnv env) {
-        recognition  = new Recognition();
+        // 识别参数在多次会话之间不变，启动时构建一次
+        recognitionParam = RecognitionParam.builder()
+            .apiKey(asrProperties.apiKey())
+            .model(asrProperties.modelOrDefault("paraformer-realtime-v2"))
+            .format("pcm")
+            .sampleRate(16000)
+            //设置VAD（Voice Activity Detection，语音活动检测）断句的静音时长阈值（单位为ms）。
+            //当一段语音后的静音时长超过该阈值时，系统会判定该句子已结束。
+            //参数范围为200ms至6000ms，默认值为800ms。
+            .parameter("max_sentence_silence", 300)
+            // 开关打开时（true）可以防止VAD断句切割过长。默认关闭。
+            .parameter("multi_threshold_mode_enabled", true)
+            .parameter("language_hints", new String[] {"zh", "en"})
+            .build();
     }
 
     @Override
     protected Flowable<RecognitionResult> getRawAsrFlowable(TenEnv env, Flowable<ByteBuffer> audioInput) {
-        String apiKey = env.getPropertyString("api_key")
-            .orElseThrow(() -> new IllegalArgumentException("API Key is required for Paraformer ASR."));
-        String model = env.getPropertyString("model")
-            .orElse("paraformer-realtime-v2");
         try {
-            RecognitionParam param = RecognitionParam.builder()
-                .apiKey(apiKey)
-                .model(model)
-                .format("pcm")
-                .sampleRate(16000)
-                //设置VAD（Voice Activity Detection，语音活动检测）断句的静音时长阈值（单位为ms）。
-                //当一段语音后的静音时长超过该阈值时，系统会判定该句子已结束。
-                //参数范围为200ms至6000ms，默认值为800ms。
-                .parameter("max_sentence_silence", 300)
-                // 开关打开时（true）可以防止VAD断句切割过长。默认关闭。
-                .parameter("multi_threshold_mode_enabled", true)
-                .parameter("language_hints", new String[] {"zh", "en"})
-                .build();
+            // Recognition 保存了单次识别的状态，每个会话使用独立的实例；连接在订阅时才建立
+            Flowable<RecognitionResult> resultFlowable = new Recognition().streamCall(recognitionParam, audioInput);
 
-            // Use streamCall directly
-            Flowable<RecognitionResult> resultFlowable = recognition.streamCall(param, audioInput);
-
-            log.info("[{}] ParaformerASR recognition started successfully. channelId={}",
+            log.info("[{}] ParaformerASR recognition prepared. channelId={}",
                 env.getExtensionName(), streamPipelineChannel.uuid());
             return resultFlowable
                 .subscribeOn(Schedulers.io());
@@ -20,6 +20,7 @@ import source.hanger.core.extension.component.flush.InterruptionStateProvider;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
 import source.hanger.core.extension.component.tts.BaseTTSStreamAdapter;
 import source.hanger.core.extension.component.tts.TTSAudioOutputBlock;
+import source.hanger.core.extension.dashscope.common.DashScopeTTSProperties;
 import source.hanger.core.message.Message;
 import source.hanger.core.tenenv.TenEnv;
 
@@ -29,12 +30,15 @@ import source.hanger.core.tenenv.TenEnv;
 @Slf4j
 public class QwenTTSStreamAdapter extends BaseTTSStreamAdapter<MultiModalConversationResult> {
 
+    private final DashScopeTTSProperties ttsProperties;
     private MultiModalConversation multiModalConversation;
 
     public QwenTTSStreamAdapter(
         InterruptionStateProvider interruptionStateProvider,
-        StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
+        StreamPipelineChannel<OutputBlock> streamPipelineChannel,
+        DashScopeTTSProperties ttsProperties) {
         super(interruptionStateProvider, streamPipelineChannel);
+        this.ttsProperties = ttsProperties;
     }
 
     @Override
@@ -44,14 +48,12 @@ public class QwenTTSStreamAdapter extends BaseTTSStreamAdapter<MultiModalConvers
 
     @Override
     protected Flowable<MultiModalConversationResult> getRawTtsFlowable(TenEnv env, String text) {
-        String apiKey = env.getPropertyString("api_key").orElseThrow(() -> new IllegalStateException("No api key found"));
-        String voiceName = env.getPropertyString("voice_name").orElseThrow(() -> new IllegalStateException("No voiceName found"));
-        String model = env.getPropertyString("model").orElseThrow(() -> new IllegalStateException("No model found"));
-        AudioParameters.Voice voice = AudioParameters.Voice.valueOf(voiceName.toUpperCase());
+        // 同一份图配置中的 voice_name 供多个 TTS 共用，不一定是 Qwen TTS 的音色，因此在调用时才解析
+        AudioParameters.Voice voice = AudioParameters.Voice.valueOf(ttsProperties.voiceName().toUpperCase());
 
         MultiModalConversationParam param = MultiModalConversationParam.builder()
-            .model(model)
-            .apiKey(apiKey)
+            .model(ttsProperties.model())
+            .apiKey(ttsProperties.apiKey())
             .text(text)
             .voice(voice)
             .build();
@@ -1,6 +1,7 @@
 package source.hanger.core.extension.dashscope.component.stream;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.reactivex.Flowable;
 import io.reactivex.schedulers.Schedulers;
@@ -15,10 +16,12 @@ import com.alibaba.dashscope.audio.tts.SpeechSynthesisAudioFormat;
 import com.alibaba.dashscope.audio.tts.SpeechSynthesisParam;
 import com.alibaba.dashscope.audio.tts.SpeechSynthesisResult;
 import com.alibaba.dashscope.audio.tts.SpeechSynthesizer;
-import org.apache.commons.pool2.impl.GenericObjectPool;
 import source.hanger.core.extension.component.tts.BaseTTSStreamAdapter;
 import source.hanger.core.extension.component.tts.TTSAudioOutputBlock;
+import source.hanger.core.extension.dashscope.common.DashScopeTTSProperties;
+import source.hanger.core.extension.dashscope.component.poolobject.KeyedSynthesizerPool;
 import source.hanger.core.extension.dashscope.component.poolobject.SambertTTSObjectPool;
+import source.hanger.core.extension.dashscope.component.poolobject.SynthesizerPoolKey;
 import source.hanger.core.message.Message;
 import source.hanger.core.tenenv.TenEnv;
 
@@ -30,31 +33,36 @@ import static source.hanger.core.common.ExtensionConstants.DATA_OUT_PROPERTY_TEX
 @Slf4j
 public class SambertTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthesisResult> {
 
-    private GenericObjectPool<SpeechSynthesizer> pool;
+    private final DashScopeTTSProperties ttsProperties;
+    private KeyedSynthesizerPool<SpeechSynthesizer> pool;
+    private SynthesizerPoolKey poolKey;
 
     public SambertTTSStreamAdapter(
         InterruptionStateProvider interruptionStateProvider,
-        StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
+        StreamPipelineChannel<OutputBlock> streamPipelineChannel,
+        DashScopeTTSProperties ttsProperties) {
         super(interruptionStateProvider, streamPipelineChannel);
+        this.ttsProperties = ttsProperties;
     }
 
     @Override
     public void onStart(TenEnv env) {
-        pool = SambertTTSObjectPool.getInstance(env);
+        pool = SambertTTSObjectPool.getInstance();
+        poolKey = SambertTTSObjectPool.key(ttsProperties.apiKey(), ttsProperties.voiceName());
+        // 在 IO 线程预热，首句合成时直接复用空闲实例
+        Schedulers.io().scheduleDirect(() -> pool.prewarm(poolKey));
     }
 
     @Override
     public void onStop(TenEnv env) {
-        pool.clear();
+        // 对象池由所有会话共享，空闲实例由池按空闲时间回收，这里不再清空
+        log.info("[{}] 停止 TTS 适配器. 对象池状态: {}", env.getExtensionName(), pool);
     }
 
     @Override
     protected Flowable<SpeechSynthesisResult> getRawTtsFlowable(TenEnv env, String text) {
-
-        String apiKey = env.getPropertyString("api_key").orElseThrow(
-            () -> new IllegalStateException("No api key found"));
-        String voiceName = env.getPropertyString("voice_name").orElseThrow(
-            () -> new IllegalStateException("No voiceName found"));
+        String apiKey = ttsProperties.apiKey();
+        String voiceName = ttsProperties.voiceName();
         // Sambert uses voiceName as model, no separate model property
 
         SpeechSynthesisParam param = SpeechSynthesisParam.builder()
@@ -66,9 +74,10 @@ public class SambertTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthesi
             .build();
 
         StopWatch stopWatch = StopWatch.createStarted();
+        AtomicBoolean reusable = new AtomicBoolean(true);
         return Flowable.using(
             () -> { // resourceSupplier: 借用实例
-                SpeechSynthesizer s = pool.borrowObject();
+                SpeechSynthesizer s = pool.borrow(poolKey);
                 log.debug("[{}] SpeechSynthesizer 实例参数更新完毕. channelId={} text={}",
                     env.getExtensionName(), streamPipelineChannel.uuid(), text);
                 return s;
@@ -88,6 +97,7 @@ public class SambertTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthesi
                         }
                     })
                     .doOnError(throwable -> {
+                        reusable.set(false);
                         s.getSyncApi().close(1000, "bye");
                         log.error("[{}] 调用 DashScope Sambert TTS API 错误. channelId={} text={}",
                             env.getExtensionName(), streamPipelineChannel.uuid(), text, throwable);
@@ -95,11 +105,12 @@ public class SambertTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthesi
             },
             s -> { // disposeResource: 释放资源 (归还到池中)
                 if (interruptionStateProvider.isInterrupted()) {
+                    reusable.set(false);
                     s.getSyncApi().close(1000, "bye");
                     log.info("[{}] 检测到中断，关闭连接. channelId={} text={}",
                         env.getExtensionName(), streamPipelineChannel.uuid(), text);
                 }
-                pool.returnObject(s);
+                pool.release(poolKey, s, reusable.get()); // 连接已关闭的实例直接销毁
                 log.info("[{}] 归还 SpeechSynthesizer 实例到对象池. channelId={} text={}",
                     env.getExtensionName(), streamPipelineChannel.uuid(), text);
             }
@@ -118,7 +129,7 @@ public class SambertTTSStreamAdapter extends BaseTTSStreamAdapter<SpeechSynthesi
         if (audioFrame != null && audioFrame.remaining() > 0) {
             TTSAudioOutputBlock block = new TTSAudioOutputBlock(audioFrame, originalMessage.getId(), 16000, 2, 1);
             log.info("[{}] TTS原始流处理开始. text={} originalId: {}", env.getExtensionName(),
-                originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT).orElse(""),
+                originalMessage.getPropertyString(DATA_OUT_PROPERTY_TEXT, ""),
                 originalMessage.getId());
             return Flowable.just(new PipelinePacket<>(block, originalMessage));
         } else {
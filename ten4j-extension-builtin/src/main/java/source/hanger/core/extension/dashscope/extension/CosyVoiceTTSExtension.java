@@ -7,6 +7,7 @@ import source.hanger.core.extension.base.BaseTTSExtension;
 import source.hanger.core.extension.component.common.OutputBlock;
 import source.hanger.core.extension.component.stream.StreamPipelineChannel;
 import source.hanger.core.extension.component.tts.TTSStreamAdapter;
+import source.hanger.core.extension.dashscope.common.DashScopeTTSProperties;
 import source.hanger.core.extension.dashscope.component.stream.CosyVoiceTTSStreamAdapter;
 import source.hanger.core.message.command.Command;
 import source.hanger.core.tenenv.TenEnv;
@@ -19,16 +20,20 @@ import static source.hanger.core.common.ExtensionConstants.GRAPH_PROPERTY_VOICE_
 @Slf4j
 public class CosyVoiceTTSExtension extends BaseTTSExtension {
 
+    private DashScopeTTSProperties ttsProperties;
 
     @Override
     protected void onExtensionConfigure(TenEnv env, Map<String, Object> properties) {
+        // 先绑定并校验配置，TTSStreamAdapter 在 super.onExtensionConfigure 中创建
+        ttsProperties = env.bindProperties(DashScopeTTSProperties.class);
+        ttsProperties.requireModel();
         super.onExtensionConfigure(env, properties);
         log.info("[{}] CosyVoiceTTSExtension 配置完成。", env.getExtensionName());
     }
 
     @Override
     protected TTSStreamAdapter createTTSStreamAdapter(StreamPipelineChannel<OutputBlock> streamPipelineChannel) {
-        return new CosyVoiceTTSStreamAdapter(extensionStateProvider, streamPipelineChannel);
+        return new CosyVoiceTTSStreamAdapter(extensionStateProvider, streamPipelineChannel, ttsProperties);
     }
 
     @Override
@@ -1,8 +1,11 @@
 package source.hanger.core.extension.dashscope.extension;
 
+import java.util.Map;
+
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.extension.base.BaseAsrExtension;
 import source.hanger.core.extension.component.asr.ASRStreamAdapter;
+import source.hanger.core.extension.dashscope.common.DashScopeASRProperties;
 import source.hanger.core.extension.dashscope.component.stream.GummyASRStreamAdapter;
 import source.hanger.core.tenenv.TenEnv;
 
@@ -11,14 +14,22 @@ import static org.apache.commons.lang3.StringUtils.*;
 @Slf4j
 public class GummyASRExtension extends BaseAsrExtension {
 
+    private DashScopeASRProperties asrProperties;
+
+    @Override
+    protected void onExtensionConfigure(TenEnv env, Map<String, Object> properties) {
+        // 先绑定并校验配置，ASRStreamAdapter 在 super.onExtensionConfigure 中创建
+        asrProperties = env.bindProperties(DashScopeASRProperties.class);
+        super.onExtensionConfigure(env, properties);
+    }
+
     @Override
     protected ASRStreamAdapter createASRStreamAdapter() {
-        return new GummyASRStreamAdapter(extensionStateProvider, streamPipelineChannel);
+        return new GummyASRStreamAdapter(extensionStateProvider, streamPipelineChannel, asrProperties);
     }
 
     @Override
     protected boolean canDiscovery(TenEnv env) {
-        String model = env.getPropertyString("model").orElse("");
-        return containsIgnoreCase(model, "gummy");
+        return asrProperties != null && containsIgnoreCase(asrProperties.model(), "gummy");
     }
 }
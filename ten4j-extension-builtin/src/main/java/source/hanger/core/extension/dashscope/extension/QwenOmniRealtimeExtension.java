@@ -292,7 +292,7 @@ public class QwenOmniRealtimeExtension extends BaseRealtimeExtension<RealtimeEve
     protected void onSendAudioToRealtime(TenEnv env, ByteBuf audioData, Message originalMessage) {
         if (realtimeClient != null && realtimeClient.isConnected()) {
             try {
-                log.debug("[{}] Sending audio frame size: {}", env.getExtensionName(), audioData.arrayOffset());
+                log.debug("[{}] Sending audio frame size: {}", env.getExtensionName(), audioData.readableBytes());
                 String audioBase64 = java.util.Base64.getEncoder().encodeToString(ByteBufUtil.getBytes(audioData));
 
                 realtimeClient.getConversation().appendAudio(audioBase64);
@@ -6,20 +6,23 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.cors.CorsConfig;
 import io.netty.handler.codec.http.cors.CorsConfigBuilder;
 import io.netty.handler.codec.http.cors.CorsHandler;
-import io.netty.handler.codec.http.websocketx.WebSocketFrameAggregator;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
@@ -31,7 +34,9 @@ import source.hanger.server.handler.WebSocketMessageDispatcher;
 import source.hanger.server.handler.decoder.MessagePackDecoder;
 import source.hanger.server.handler.decoder.WebSocketFrameToByteBufDecoder;
 import source.hanger.server.handler.encoder.ByteBufToWebSocketFrameEncoder;
+import source.hanger.server.handler.encoder.MediaFrameCompressionFilterProvider;
 import source.hanger.server.handler.encoder.MessagePackEncoder;
+import source.hanger.server.transport.NettyTransport;
 
 /**
  * TenServer 类封装了 Netty 服务器的启动、停止和配置。
@@ -44,6 +49,7 @@ public class TenServer {
     private static final long RETRY_DELAY_MILLIS = 500;
 
     private final App app; // 将 Engine 替换为 App
+    private final TenServerConfig config;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private ChannelFuture channelFuture;
@@ -51,7 +57,12 @@ public class TenServer {
     private int currentPort;
 
     public TenServer(int port, App app) { // 构造函数接收 App 实例
+        this(port, app, TenServerConfig.fromSystemProperties());
+    }
+
+    public TenServer(int port, App app, TenServerConfig config) {
         this.app = app;
+        this.config = config;
         currentPort = port;
     }
 
@@ -84,16 +95,41 @@ public class TenServer {
                 .build();
     }
 
+    /**
+     * NIO 绑定失败抛出 BindException，原生传输抛出带 "Address already in use" 的 NativeIoException。
+     */
+    private static boolean isAddressInUse(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof BindException
+                || (t.getMessage() != null && t.getMessage().contains("Address already in use"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private WebSocketServerExtensionHandler createCompressionHandler() {
+        return new WebSocketServerExtensionHandler(new PerMessageDeflateServerExtensionHandshaker(6,
+            false, PerMessageDeflateServerExtensionHandshaker.MAX_WINDOW_SIZE, false, false,
+            new MediaFrameCompressionFilterProvider(config.getUncompressedMessageTypes())));
+    }
+
     public CompletableFuture<Void> start() {
         CompletableFuture<Void> serverStartFuture = new CompletableFuture<>();
+        NettyTransport transport = NettyTransport.select(config.getTransport());
+        ByteBufAllocator allocator = "unpooled".equalsIgnoreCase(config.getAllocator())
+            ? UnpooledByteBufAllocator.DEFAULT : PooledByteBufAllocator.DEFAULT;
+        log.info("TenServer: 使用 {} 传输，allocator={}, workerThreads={}", transport.getType(),
+            config.getAllocator(), config.getWorkerThreads());
         for (int attempt = 0; attempt < MAX_RETRY_ATTEMPTS; attempt++) {
             try {
-                bossGroup = new NioEventLoopGroup(1); // 一个用于接受传入连接的线程
-                workerGroup = new NioEventLoopGroup(); // 用于处理已接受连接的事件
+                // boss 接受传入连接，worker 处理已接受连接的事件
+                bossGroup = transport.newEventLoopGroup(config.getBossThreads(), "ten-server-boss");
+                workerGroup = transport.newEventLoopGroup(config.getWorkerThreads(), "ten-server-worker");
 
                 ServerBootstrap b = new ServerBootstrap();
                 b.group(bossGroup, workerGroup)
-                        .channel(NioServerSocketChannel.class)
+                        .channel(transport.getServerChannelClass())
                         .handler(new LoggingHandler(LogLevel.INFO)) // 添加日志处理器
                         .childHandler(new ChannelInitializer<SocketChannel>() {
                             @Override
@@ -104,16 +140,22 @@ public class TenServer {
                                         new CorsHandler(createCorsConfig()), // CORS 处理
                                         new ChunkedWriteHandler(), // 处理大文件传输
                                         // 新增：HTTP 请求处理器，在 WebSocket 升级之前处理
-                                        new HttpHandler(ServerConstants.HTTP_CONTROLLER_PACKAGE), // 处理 HTTP 请求的自定义
+                                        new HttpHandler(ServerConstants.HTTP_CONTROLLER_PACKAGE) // 处理 HTTP 请求的自定义
                                         // Handler
+                                );
+                                if (config.isWebsocketCompression()) {
+                                    // permessage-deflate 协商，音频等不可压缩的消息出站时跳过压缩
+                                    ch.pipeline().addLast(createCompressionHandler());
+                                }
+                                ch.pipeline().addLast(
                                         // WebSocket 协议处理器，路径为 "/websocket"
-                                        // 在握手完成后，HTTP 请求会被替换为 WebSocket 帧
-                                        new WebSocketServerProtocolHandler("/websocket", null, true, 1048576), // 增加到1MB
-                                        new WebSocketFrameAggregator(1048576), // 聚合 WebSocket 帧，增加到1MB
-                                        // MsgPack 编解码器
-                                        new WebSocketFrameToByteBufDecoder(),
-                                        new MessagePackDecoder(), // MsgPack 解码器
-                                        new NettyConnectionHandler(app), // This will be the only NettyConnectionHandler
+                                        // 在握手完成后，HTTP 请求会被替换为 WebSocket 帧，HttpObjectAggregator 随之移除
+                                        new WebSocketServerProtocolHandler("/websocket", null, true,
+                                            config.getMaxMessageSize()),
+                                        // 分片逐帧进入 MsgPack 解码器，不再用 WebSocketFrameAggregator 聚合整条消息
+                                        new WebSocketFrameToByteBufDecoder(config.getMaxMessageSize()),
+                                        new MessagePackDecoder(config.getMaxMessageSize()), // MsgPack 解码器
+                                        new NettyConnectionHandler(app, config.getOutbound()), // This will be the only NettyConnectionHandler
                                         new WebSocketMessageDispatcher(), // WebSocket 消息调度器 (will be updated to take
                                                                           // NettyConnectionHandler)
                                         new ByteBufToWebSocketFrameEncoder(), // ByteBuf 到 WebSocketFrame 编码器
@@ -121,8 +163,21 @@ public class TenServer {
                                 );
                             }
                         })
-                        .option(ChannelOption.SO_BACKLOG, 128) // TCP/IP 连接队列的最大长度
-                        .childOption(ChannelOption.SO_KEEPALIVE, true); // 启用 TCP Keep-Alive
+                        .option(ChannelOption.SO_BACKLOG, config.getSoBacklog()) // TCP/IP 连接队列的最大长度
+                        .option(ChannelOption.ALLOCATOR, allocator)
+                        .childOption(ChannelOption.ALLOCATOR, allocator)
+                        .childOption(ChannelOption.SO_KEEPALIVE, config.isSoKeepAlive()) // TCP Keep-Alive
+                        .childOption(ChannelOption.TCP_NODELAY, config.isTcpNoDelay()) // 实时音频小包不等待合并
+                        // 写缓冲区水位：超过高水位时 NettyConnection 暂停写入，出站消息按溢出策略在连接队列中积压
+                        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                            config.getOutbound().getWriteBufferLowWaterMark(),
+                            config.getOutbound().getWriteBufferHighWaterMark()));
+                if (config.getSoSndBuf() > 0) {
+                    b.childOption(ChannelOption.SO_SNDBUF, config.getSoSndBuf());
+                }
+                if (config.getSoRcvBuf() > 0) {
+                    b.childOption(ChannelOption.SO_RCVBUF, config.getSoRcvBuf());
+                }
 
                 channelFuture = b.bind(currentPort).sync(); // 同步绑定端口
                 currentPort = ((InetSocketAddress) channelFuture.channel().localAddress()).getPort();
@@ -131,7 +186,14 @@ public class TenServer {
                 return serverStartFuture;
 
             } catch (Exception e) {
-                if (e.getCause() instanceof BindException) {
+                // 本次尝试创建的 EventLoopGroup 不再使用
+                if (bossGroup != null) {
+                    bossGroup.shutdownGracefully();
+                }
+                if (workerGroup != null) {
+                    workerGroup.shutdownGracefully();
+                }
+                if (isAddressInUse(e)) {
                     log.warn("Port {} already in use on attempt {}/{}. Retrying with new port...",
                             currentPort, attempt + 1, MAX_RETRY_ATTEMPTS);
                     currentPort = findAvailablePort(); // 重新查找可用端口
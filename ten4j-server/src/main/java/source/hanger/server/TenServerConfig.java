@@ -0,0 +1,107 @@
+package source.hanger.server;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import org.apache.commons.lang3.StringUtils;
+import source.hanger.core.message.MessageType;
+import source.hanger.server.connection.NettyOutboundConfig;
+import source.hanger.server.transport.TransportType;
+
+/**
+ * TenServer 的传输与 Socket 配置。
+ * 默认值可通过 ten4j.server.* 系统属性覆盖，见 {@link #fromSystemProperties()}；出站写入相关配置见 {@link NettyOutboundConfig}。
+ */
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class TenServerConfig {
+
+    private static final String PROPERTY_PREFIX = "ten4j.server.";
+
+    /**
+     * 传输实现，默认在 Linux 上使用原生 epoll。
+     */
+    private TransportType transport = TransportType.AUTO;
+
+    /**
+     * 接受连接的 boss 线程数。
+     */
+    private int bossThreads = 1;
+
+    /**
+     * 处理连接 IO 的 worker 线程数，0 表示使用 Netty 默认值（CPU 核数 * 2）。
+     */
+    private int workerThreads = 0;
+
+    /**
+     * TCP 全连接队列长度（SO_BACKLOG）。
+     */
+    private int soBacklog = 1024;
+
+    /**
+     * 关闭 Nagle 算法，实时音频的小包不再等待合并。
+     */
+    private boolean tcpNoDelay = true;
+
+    private boolean soKeepAlive = true;
+
+    /**
+     * Socket 发送/接收缓冲区大小（字节），0 表示使用操作系统默认值。
+     */
+    private int soSndBuf = 0;
+
+    private int soRcvBuf = 0;
+
+    /**
+     * ByteBuf 分配器：pooled 或 unpooled。
+     */
+    private String allocator = "pooled";
+
+    /**
+     * 单条 WebSocket 消息（含所有分片）及单个 MessagePack 帧的最大字节数。
+     */
+    private int maxMessageSize = 1048576;
+
+    /**
+     * 是否允许客户端协商 permessage-deflate。
+     */
+    private boolean websocketCompression = true;
+
+    /**
+     * 协商了 permessage-deflate 时仍不压缩的出站消息类型，默认音频。
+     */
+    private Set<MessageType> uncompressedMessageTypes = EnumSet.of(MessageType.AUDIO_FRAME);
+
+    /**
+     * 连接的出站合并与背压配置。
+     */
+    private NettyOutboundConfig outbound = new NettyOutboundConfig();
+
+    /**
+     * 以默认值为基础，应用 ten4j.server.* 与 ten4j.connection.outbound.* 系统属性。
+     */
+    public static TenServerConfig fromSystemProperties() {
+        TenServerConfig config = new TenServerConfig();
+        String tcpNoDelay = System.getProperty(PROPERTY_PREFIX + "tcp-nodelay");
+        String soKeepAlive = System.getProperty(PROPERTY_PREFIX + "so-keepalive");
+        String websocketCompression = System.getProperty(PROPERTY_PREFIX + "websocket-compression");
+        return config
+            .setTransport(TransportType.parse(System.getProperty(PROPERTY_PREFIX + "transport"), config.transport))
+            .setBossThreads(Integer.getInteger(PROPERTY_PREFIX + "boss-threads", config.bossThreads))
+            .setWorkerThreads(Integer.getInteger(PROPERTY_PREFIX + "worker-threads", config.workerThreads))
+            .setSoBacklog(Integer.getInteger(PROPERTY_PREFIX + "so-backlog", config.soBacklog))
+            .setTcpNoDelay(StringUtils.isBlank(tcpNoDelay) ? config.tcpNoDelay : Boolean.parseBoolean(tcpNoDelay))
+            .setSoKeepAlive(StringUtils.isBlank(soKeepAlive) ? config.soKeepAlive : Boolean.parseBoolean(soKeepAlive))
+            .setSoSndBuf(Integer.getInteger(PROPERTY_PREFIX + "so-sndbuf", config.soSndBuf))
+            .setSoRcvBuf(Integer.getInteger(PROPERTY_PREFIX + "so-rcvbuf", config.soRcvBuf))
+            .setAllocator(System.getProperty(PROPERTY_PREFIX + "allocator", config.allocator))
+            .setMaxMessageSize(Integer.getInteger(PROPERTY_PREFIX + "max-message-size", config.maxMessageSize))
+            .setWebsocketCompression(StringUtils.isBlank(websocketCompression) ? config.websocketCompression
+                : Boolean.parseBoolean(websocketCompression))
+            .setOutbound(NettyOutboundConfig.fromSystemProperties());
+    }
+}
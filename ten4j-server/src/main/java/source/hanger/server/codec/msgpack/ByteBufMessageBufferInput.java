@@ -0,0 +1,53 @@
+package source.hanger.server.codec.msgpack;
+
+import io.netty.buffer.ByteBuf;
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferInput;
+
+/**
+ * 以 Netty ByteBuf 为数据源的 MessageBufferInput，可通过 {@link #reset(ByteBuf)} 反复复用。
+ * 配合 MessageUnpacker.reset 使用时，每条消息只会包装一次 ByteBuf 的可读区域，不复制数据：
+ * - 堆缓冲区直接包装底层数组
+ * - 单段直接缓冲区使用 internalNioBuffer 视图
+ * - 多段复合缓冲区退化为 nioBuffer（由 Netty 合并）
+ *
+ * 非线程安全，应按 Channel（即解码器实例）各持有一个。
+ */
+public final class ByteBufMessageBufferInput implements MessageBufferInput {
+
+    private ByteBuf source;
+
+    /**
+     * 切换到新的数据源。调用方需保证在解析完成前 source 不被释放或修改。
+     *
+     * @param source 待解析的 ByteBuf，从 readerIndex 开始读取 readableBytes 个字节。
+     * @return this
+     */
+    public ByteBufMessageBufferInput reset(ByteBuf source) {
+        this.source = source;
+        return this;
+    }
+
+    @Override
+    public MessageBuffer next() {
+        ByteBuf buf = source;
+        if (buf == null) {
+            return null;
+        }
+        source = null; // 整个可读区域一次性交给 unpacker
+        int index = buf.readerIndex();
+        int length = buf.readableBytes();
+        if (buf.hasArray()) {
+            return MessageBuffer.wrap(buf.array(), buf.arrayOffset() + index, length);
+        }
+        if (buf.nioBufferCount() == 1) {
+            return MessageBuffer.wrap(buf.internalNioBuffer(index, length));
+        }
+        return MessageBuffer.wrap(buf.nioBuffer(index, length));
+    }
+
+    @Override
+    public void close() {
+        source = null;
+    }
+}
@@ -0,0 +1,203 @@
+package source.hanger.server.codec.msgpack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.util.ReferenceCountUtil;
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferOutput;
+
+/**
+ * 以 Netty ByteBuf 为写入目标的 MessageBufferOutput，与 {@link ByteBufMessageBufferInput} 对应。
+ * 每条消息的编码流程为 {@link #begin} -> 由 {@link ByteBufMessagePacker} 写入 -> {@link #finishExtension}：
+ * - MessagePacker 直接写入当前分段 ByteBuf 的可写区域，不经过中间数组
+ * - 较大的二进制字段通过 {@link #writePayload(ByteBuf)} 以 retainedSlice 拼接为 CompositeByteBuf 的组件，不复制
+ * - 首个分段预留 EXT 头部空间，负载写完后按实际长度把头部右对齐写入预留区并前移 readerIndex，无需回填或移动负载
+ *
+ * 非线程安全，应按 Channel（即编码器实例）各持有一个。
+ */
+public final class ByteBufMessageBufferOutput implements MessageBufferOutput {
+
+    /**
+     * EXT 头部最大长度：1 字节格式码 + 4 字节长度 + 1 字节类型码（ext 32）。
+     */
+    static final int MAX_EXT_HEADER_LENGTH = 6;
+
+    /**
+     * 小于该长度的二进制字段直接复制到当前分段，拼接组件的开销反而更大。
+     */
+    static final int SPLICE_THRESHOLD = 1024;
+
+    private static final int INITIAL_SEGMENT_CAPACITY = 256;
+    private static final int MIN_WRITABLE_BYTES = 64;
+
+    private final List<ByteBuf> components = new ArrayList<>();
+    private ByteBufAllocator allocator;
+    private ByteBuf head;
+    private ByteBuf current;
+
+    /**
+     * 开始编码一条新消息。
+     *
+     * @param allocator 分配分段缓冲区使用的分配器，通常为 ChannelHandlerContext.alloc()。
+     * @return this
+     */
+    public ByteBufMessageBufferOutput begin(ByteBufAllocator allocator) {
+        discard();
+        this.allocator = allocator;
+        head = allocator.buffer(INITIAL_SEGMENT_CAPACITY);
+        head.writerIndex(MAX_EXT_HEADER_LENGTH).readerIndex(MAX_EXT_HEADER_LENGTH);
+        current = head;
+        return this;
+    }
+
+    @Override
+    public MessageBuffer next(int minimumSize) {
+        ByteBuf buf = current;
+        buf.ensureWritable(Math.max(minimumSize, MIN_WRITABLE_BYTES));
+        int index = buf.writerIndex();
+        int length = buf.writableBytes();
+        if (buf.hasArray()) {
+            return MessageBuffer.wrap(buf.array(), buf.arrayOffset() + index, length);
+        }
+        return MessageBuffer.wrap(buf.internalNioBuffer(index, length));
+    }
+
+    @Override
+    public void writeBuffer(int length) {
+        current.writerIndex(current.writerIndex() + length);
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        current.writeBytes(buffer, offset, length);
+    }
+
+    @Override
+    public void add(byte[] buffer, int offset, int length) {
+        current.writeBytes(buffer, offset, length);
+    }
+
+    /**
+     * 写入二进制字段的负载，不推进 payload 的 readerIndex。调用前 MessagePacker 必须已 flush。
+     *
+     * @param payload 二进制数据，从 readerIndex 开始的 readableBytes 个字节。
+     */
+    void writePayload(ByteBuf payload) {
+        int length = payload.readableBytes();
+        if (length < SPLICE_THRESHOLD) {
+            current.writeBytes(payload, payload.readerIndex(), length);
+            return;
+        }
+        commitCurrentSegment();
+        components.add(payload.retainedSlice());
+        current = allocator.buffer(INITIAL_SEGMENT_CAPACITY);
+    }
+
+    /**
+     * 结束当前消息：在负载之前写入 EXT 头部，并交出编码结果的所有权。
+     *
+     * @param extType EXT 类型码。
+     * @return 完整的 EXT 帧；包含拼接的二进制字段时为 CompositeByteBuf。
+     */
+    public ByteBuf finishExtension(byte extType) {
+        commitCurrentSegment();
+        int payloadLength = head.readableBytes();
+        for (ByteBuf component : components) {
+            payloadLength += component.readableBytes();
+        }
+        writeExtensionHeader(head, extType, payloadLength);
+
+        ByteBuf result;
+        if (components.isEmpty()) {
+            result = head;
+        } else {
+            CompositeByteBuf composite = allocator.compositeBuffer(components.size() + 1);
+            composite.addComponent(true, head);
+            composite.addComponents(true, components);
+            result = composite;
+        }
+        components.clear();
+        head = null;
+        current = null;
+        return result;
+    }
+
+    /**
+     * 放弃当前消息，释放已分配的分段和已拼接的组件。
+     */
+    public void discard() {
+        if (current != null && current != head) {
+            current.release();
+        }
+        if (head != null) {
+            head.release();
+        }
+        components.forEach(ReferenceCountUtil::safeRelease);
+        components.clear();
+        head = null;
+        current = null;
+    }
+
+    /**
+     * 把 head 之后的当前分段加入组件列表，空分段直接释放。head 始终作为第一个组件单独处理。
+     */
+    private void commitCurrentSegment() {
+        if (current == head) {
+            return;
+        }
+        if (current.isReadable()) {
+            components.add(current);
+        } else {
+            current.release();
+        }
+    }
+
+    /**
+     * 将 EXT 头部右对齐写入 head 的预留区，选择与 MessagePacker.packExtensionTypeHeader 一致的格式。
+     */
+    private static void writeExtensionHeader(ByteBuf head, byte extType, int payloadLength) {
+        int end = head.readerIndex();
+        int start;
+        if (payloadLength < (1 << 8)) {
+            int fixextFormat = switch (payloadLength) {
+                case 1 -> 0xd4;
+                case 2 -> 0xd5;
+                case 4 -> 0xd6;
+                case 8 -> 0xd7;
+                case 16 -> 0xd8;
+                default -> -1;
+            };
+            if (fixextFormat != -1) {
+                start = end - 2;
+                head.setByte(start, fixextFormat);
+            } else {
+                start = end - 3;
+                head.setByte(start, 0xc7);
+                head.setByte(start + 1, payloadLength);
+            }
+        } else if (payloadLength < (1 << 16)) {
+            start = end - 4;
+            head.setByte(start, 0xc8);
+            head.setShort(start + 1, payloadLength);
+        } else {
+            start = end - MAX_EXT_HEADER_LENGTH;
+            head.setByte(start, 0xc9);
+            head.setInt(start + 1, payloadLength);
+        }
+        head.setByte(end - 1, extType);
+        head.readerIndex(start);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+        discard();
+    }
+}
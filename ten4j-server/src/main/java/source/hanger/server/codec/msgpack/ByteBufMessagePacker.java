@@ -0,0 +1,32 @@
+package source.hanger.server.codec.msgpack;
+
+import java.io.IOException;
+
+import io.netty.buffer.ByteBuf;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+
+/**
+ * 写入 {@link ByteBufMessageBufferOutput} 的 MessagePacker，额外支持以 ByteBuf 形式写入二进制负载。
+ * 序列化器应通过 BaseMessagePackSerializer.packBinary 写入 ByteBuf 字段，以便在此 packer 下走零拷贝拼接。
+ */
+public final class ByteBufMessagePacker extends MessagePacker {
+
+    private final ByteBufMessageBufferOutput output;
+
+    public ByteBufMessagePacker(ByteBufMessageBufferOutput output) {
+        super(output, MessagePack.DEFAULT_PACKER_CONFIG);
+        this.output = output;
+    }
+
+    /**
+     * 写入二进制负载（调用方需已写入对应长度的 binary header），不推进 payload 的 readerIndex。
+     *
+     * @param payload 二进制数据。
+     * @throws IOException 如果写入失败
+     */
+    public void writePayload(ByteBuf payload) throws IOException {
+        flush(); // 先把已打包的字节提交到当前分段，保证字节顺序
+        output.writePayload(payload);
+    }
+}
@@ -1,9 +1,21 @@
 package source.hanger.server.codec.msgpack;
 
+import io.netty.buffer.ByteBuf;
 import org.msgpack.core.MessageUnpacker;
 
 import java.io.IOException;
 
 public interface MessagePackDeserializer<R> {
     R deserialize(MessageUnpacker unpacker) throws IOException;
+
+    /**
+     * 携带原始负载的反序列化，payload 的 readerIndex 与 unpacker 的起始位置对齐，
+     * 实现可以据此对二进制字段做零拷贝切片。默认忽略 payload。
+     *
+     * @param unpacker 基于 payload 创建的 MessageUnpacker
+     * @param payload  EXT 负载对应的 ByteBuf，可以为 null
+     */
+    default R deserialize(MessageUnpacker unpacker, ByteBuf payload) throws IOException {
+        return deserialize(unpacker);
+    }
 }
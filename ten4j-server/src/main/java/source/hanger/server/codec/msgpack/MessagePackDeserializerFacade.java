@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+import io.netty.buffer.ByteBuf;
 import org.msgpack.core.MessageUnpacker;
 import source.hanger.core.message.Message;
 import source.hanger.core.message.Message.MessageBuilder;
@@ -42,12 +43,17 @@ public class MessagePackDeserializerFacade implements MessagePackDeserializer<Me
 
     @Override
     public Message deserialize(MessageUnpacker unpacker) throws IOException {
+        return deserialize(unpacker, null);
+    }
+
+    @Override
+    public Message deserialize(MessageUnpacker unpacker, ByteBuf payload) throws IOException {
         unpacker.unpackArrayHeader();
         String type = unpacker.unpackString();
         MessageType messageType = MessageType.fromString(type);
         MessagePackDeserializer<? extends MessageBuilder<?, ?>> deserializer = deserializers.get(messageType);
         if (deserializer != null) {
-            return deserializer.deserialize(unpacker).build();
+            return deserializer.deserialize(unpacker, payload).build();
         }
         return null;
     }
@@ -0,0 +1,86 @@
+package source.hanger.server.codec.msgpack;
+
+import java.nio.charset.StandardCharsets;
+
+import io.netty.buffer.ByteBuf;
+import source.hanger.core.message.MessageType;
+
+/**
+ * 不经完整反序列化、直接在已编码的 EXT 帧上读取少量元信息的工具方法。
+ * 帧格式与 BaseMessagePackSerializer 一致：EXT 头部 -> 数组头部 -> type 字符串 -> 其余字段。
+ */
+public final class MessagePackFrames {
+
+    private static final byte[][] TYPE_NAMES = new byte[MessageType.values().length][];
+
+    static {
+        for (MessageType type : MessageType.values()) {
+            TYPE_NAMES[type.ordinal()] = type.toString().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private MessagePackFrames() {
+    }
+
+    /**
+     * 判断帧中消息的 type 字段是否为给定类型，不推进 readerIndex、不分配对象。
+     *
+     * @param frame 以 EXT 头部开头的完整帧。
+     * @param type  期望的消息类型。
+     * @return 帧格式无法识别或类型不同时返回 false。
+     */
+    public static boolean isMessageType(ByteBuf frame, MessageType type) {
+        int end = frame.writerIndex();
+        int index = frame.readerIndex();
+        if (index >= end) {
+            return false;
+        }
+        // EXT 头部
+        index += switch (frame.getUnsignedByte(index)) {
+            case 0xd4, 0xd5, 0xd6, 0xd7, 0xd8 -> 2; // fixext
+            case 0xc7 -> 3; // ext 8
+            case 0xc8 -> 4; // ext 16
+            case 0xc9 -> 6; // ext 32
+            default -> end;
+        };
+        if (index >= end) {
+            return false;
+        }
+        // 数组头部
+        int arrayFormat = frame.getUnsignedByte(index);
+        if ((arrayFormat & 0xf0) == 0x90) {
+            index += 1; // fixarray
+        } else if (arrayFormat == 0xdc) {
+            index += 3; // array 16
+        } else if (arrayFormat == 0xdd) {
+            index += 5; // array 32
+        } else {
+            return false;
+        }
+        if (index >= end) {
+            return false;
+        }
+        // type 字符串头部
+        int stringFormat = frame.getUnsignedByte(index);
+        int length;
+        if ((stringFormat & 0xe0) == 0xa0) {
+            length = stringFormat & 0x1f; // fixstr
+            index += 1;
+        } else if (stringFormat == 0xd9 && index + 1 < end) {
+            length = frame.getUnsignedByte(index + 1); // str 8
+            index += 2;
+        } else {
+            return false;
+        }
+        byte[] expected = TYPE_NAMES[type.ordinal()];
+        if (length != expected.length || index + length > end) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (frame.getByte(index + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
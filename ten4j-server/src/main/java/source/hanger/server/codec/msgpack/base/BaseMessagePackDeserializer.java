@@ -1,7 +1,9 @@
 package source.hanger.server.codec.msgpack.base;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.msgpack.core.MessageFormat;
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.Message;
 import source.hanger.core.message.Location;
 import source.hanger.server.codec.msgpack.MessagePackDeserializer;
@@ -30,6 +32,11 @@ public abstract class BaseMessagePackDeserializer<T extends Message,  B extends
      */
     @Override
     public B deserialize(MessageUnpacker unpacker) throws IOException {
+        return deserialize(unpacker, (ByteBuf)null);
+    }
+
+    @Override
+    public B deserialize(MessageUnpacker unpacker, ByteBuf payload) throws IOException {
         // 解包 Array 头部
         B builder = builder();
         // 按照严格的、预定义的顺序解包字段
@@ -39,47 +46,105 @@ public abstract class BaseMessagePackDeserializer<T extends Message,  B extends
         builder.name(unpacker.unpackString());
         builder.timestamp(unpacker.unpackLong());
         builder.properties(deserializeProperties(unpacker));
-        return deserialize(unpacker, builder);
+        return deserialize(unpacker, builder, payload);
     }
 
     protected B deserialize(MessageUnpacker unpacker, B builder) throws IOException {
         return builder;
     }
 
+    /**
+     * 子类特有字段的反序列化，可以借助 payload 对二进制字段做零拷贝切片。默认忽略 payload。
+     */
+    protected B deserialize(MessageUnpacker unpacker, B builder, ByteBuf payload) throws IOException {
+        return deserialize(unpacker, builder);
+    }
+
     private Map<String, Object> deserializeProperties(MessageUnpacker unpacker) throws IOException {
         int size = unpacker.unpackMapHeader();
         Map<String, Object> properties = new HashMap<>(size);
         for (int i = 0; i < size; i++) {
             String key = unpacker.unpackString();
-            Value value = unpacker.unpackValue();
-            properties.put(key, convertMsgPackValue(value)); // 调用新的辅助方法
+            properties.put(key, unpackPropertyValue(unpacker)); // 直接解析为 Java 对象
         }
         return properties;
     }
 
     /**
-     * 将 MessagePack Value 对象转换为对应的 Java 对象。
-     * @param value MessagePack Value 对象
+     * 根据下一个值的格式直接解析为对应的 Java 对象，不经过 MessagePack Value 树。
+     * @param unpacker MessageUnpacker 实例
      * @return 转换后的 Java 对象
      */
-    private Object convertMsgPackValue(Value value) {
-        return switch (value.getValueType()) {
-            case NIL -> null;
-            case BOOLEAN -> value.asBooleanValue().getBoolean();
-            case INTEGER ->
-                // 这里选择 asLong() 以涵盖更大的整数范围
-                value.asIntegerValue().asLong();
-            case FLOAT ->
-                // 这里选择 asDouble() 以保留浮点数的精度
-                value.asFloatValue().asNumberValue().toDouble();
-            case STRING -> value.asStringValue().asString();
-            case BINARY ->
-                // 对于二进制数据，转换为 byte[]
-                value.asBinaryValue().asByteArray();
-            default -> value.toJson(); // Fallback to JSON string for unknown types
+    private Object unpackPropertyValue(MessageUnpacker unpacker) throws IOException {
+        MessageFormat format = unpacker.getNextFormat();
+        return switch (format.getValueType()) {
+            case NIL -> {
+                unpacker.unpackNil();
+                yield null;
+            }
+            case BOOLEAN -> unpacker.unpackBoolean();
+            // 这里选择 long 以涵盖更大的整数范围
+            case INTEGER -> unpacker.unpackLong();
+            // 这里选择 double 以保留浮点数的精度
+            case FLOAT -> unpacker.unpackDouble();
+            case STRING -> unpacker.unpackString();
+            // 对于二进制数据，转换为 byte[]
+            case BINARY -> unpacker.readPayload(unpacker.unpackBinaryHeader());
+            // 数组、Map、扩展类型等嵌套结构较少出现，仍回退为 JSON 字符串
+            default -> unpacker.unpackValue().toJson();
         };
     }
 
+    /**
+     * 读取可为 nil 的字符串字段。
+     */
+    protected static String unpackNullableString(MessageUnpacker unpacker) throws IOException {
+        if (unpacker.tryUnpackNil()) {
+            return null;
+        }
+        return unpacker.unpackString();
+    }
+
+    /**
+     * 读取可为 nil 的整数字段。
+     */
+    protected static Long unpackNullableLong(MessageUnpacker unpacker) throws IOException {
+        if (unpacker.tryUnpackNil()) {
+            return null;
+        }
+        return unpacker.unpackLong();
+    }
+
+    /**
+     * 读取可为 nil 的整数字段。
+     */
+    protected static Integer unpackNullableInt(MessageUnpacker unpacker) throws IOException {
+        if (unpacker.tryUnpackNil()) {
+            return null;
+        }
+        return unpacker.unpackInt();
+    }
+
+    /**
+     * 读取可为 nil 的布尔字段。
+     */
+    protected static Boolean unpackNullableBoolean(MessageUnpacker unpacker) throws IOException {
+        if (unpacker.tryUnpackNil()) {
+            return null;
+        }
+        return unpacker.unpackBoolean();
+    }
+
+    /**
+     * 读取可为 nil 的二进制字段，复制为独立的堆 ByteBuf（不依赖接收缓冲区的生命周期）。
+     */
+    protected static ByteBuf unpackNullableBinaryCopy(MessageUnpacker unpacker) throws IOException {
+        if (unpacker.tryUnpackNil()) {
+            return null;
+        }
+        return Unpooled.wrappedBuffer(unpacker.readPayload(unpacker.unpackBinaryHeader()));
+    }
+
     private List<Location> deserializeLocationList(MessageUnpacker unpacker) throws IOException {
         int size = unpacker.unpackArrayHeader();
         List<Location> locations = new ArrayList<>(size);
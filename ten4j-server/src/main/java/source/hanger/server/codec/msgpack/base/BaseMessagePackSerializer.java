@@ -1,8 +1,11 @@
 package source.hanger.server.codec.msgpack.base;
 
+import io.netty.buffer.ByteBuf;
 import org.msgpack.core.MessagePacker;
 import source.hanger.core.message.Message;
 import source.hanger.core.message.Location;
+import source.hanger.core.util.ByteBufUtils;
+import source.hanger.server.codec.msgpack.ByteBufMessagePacker;
 import source.hanger.server.codec.msgpack.MessagePackSerializer;
 
 import java.io.IOException;
@@ -116,6 +119,24 @@ public abstract class BaseMessagePackSerializer<T extends Message> implements Me
         packer.packString(Objects.requireNonNullElse(location.getExtensionName(), ""));
     }
 
+    /**
+     * 序列化 ByteBuf 类型的二进制字段，为 null 时写入 nil。
+     * 使用 {@link ByteBufMessagePacker} 时较大的负载以 retainedSlice 拼接到输出中，不复制也不推进 readerIndex；
+     * 其他 MessagePacker 退化为复制写入。
+     */
+    protected static void packBinary(MessagePacker packer, ByteBuf buf) throws IOException {
+        if (buf == null) {
+            packer.packNil();
+            return;
+        }
+        packer.packBinaryHeader(buf.readableBytes());
+        if (packer instanceof ByteBufMessagePacker byteBufPacker) {
+            byteBufPacker.writePayload(buf);
+        } else {
+            ByteBufUtils.writeByteBufPayloadToPacker(packer, buf);
+        }
+    }
+
     /**
      * 辅助方法，用于根据对象类型进行 MessagePack 序列化。
      * 支持基本类型、字符串、字节数组、List 和 Map。
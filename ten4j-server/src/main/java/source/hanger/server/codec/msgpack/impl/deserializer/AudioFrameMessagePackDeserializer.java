@@ -1,8 +1,9 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled; // 引入 Unpooled 用于创建 ByteBuf
+import org.msgpack.core.MessageFormat;
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.AudioFrameMessage;
 import source.hanger.core.message.AudioFrameMessage.AudioFrameMessageBuilder;
 import source.hanger.server.codec.msgpack.base.BaseMessagePackDeserializer;
@@ -22,6 +23,12 @@ public class AudioFrameMessagePackDeserializer extends
 
     @Override
     protected AudioFrameMessageBuilder<?, ?> deserialize(MessageUnpacker unpacker, AudioFrameMessageBuilder<?, ?> builder) throws IOException {
+        return deserialize(unpacker, builder, null);
+    }
+
+    @Override
+    protected AudioFrameMessageBuilder<?, ?> deserialize(MessageUnpacker unpacker,
+        AudioFrameMessageBuilder<?, ?> builder, ByteBuf payload) throws IOException {
         // 首先调用基类的 deserialize 方法来反序列化 Message 的核心字段
         // 注意：BaseMessagePackDeserializer 已经处理了 Message 的 id, srcLoc, destLocs, name, timestamp, properties
         // 这里只需要处理 AudioFrameMessage 特有的字段
@@ -48,26 +55,42 @@ public class AudioFrameMessagePackDeserializer extends
         builder.dataFormat(unpacker.unpackInt());
 
         // buf (ByteBuf)
-        Value bufValue = unpacker.unpackValue();
-        if (!bufValue.isNilValue()) {
-            // 将 MessagePack 的 Binary Value 转换为 byte[]，然后用 Unpooled.wrappedBuffer 包装成 ByteBuf
-            byte[] rawBytes = bufValue.asBinaryValue().asByteArray();
-            builder.buf(Unpooled.wrappedBuffer(rawBytes));
-        } else {
-            builder.buf(null);
+        ByteBuf buf = unpackBuf(unpacker, payload);
+        builder.buf(buf);
+
+        try {
+            // lineSize (Integer)
+            builder.lineSize(unpacker.unpackInt());
+
+            // isEof (Boolean)
+            Boolean isEof = unpackNullableBoolean(unpacker);
+            builder.isEof(isEof != null ? isEof : false); // 默认为 false
+        } catch (IOException | RuntimeException e) {
+            if (buf != null) {
+                buf.release(); // 后续字段解析失败，归还已切出的缓冲区
+            }
+            throw e;
         }
 
-        // lineSize (Integer)
-        builder.lineSize(unpacker.unpackInt());
+        return builder;
+    }
 
-        // isEof (Boolean)
-        Value isEofValue = unpacker.unpackValue();
-        if (!isEofValue.isNilValue()) {
-            builder.isEof(isEofValue.asBooleanValue().getBoolean());
-        } else {
-            builder.isEof(false); // 默认为 false
+    /**
+     * 解析音频数据。有 payload 时直接从接收缓冲区 retainedSlice，不拷贝；
+     * 否则退化为读取 byte[] 后包装（例如独立使用 MessageUnpacker 的场景）。
+     */
+    private ByteBuf unpackBuf(MessageUnpacker unpacker, ByteBuf payload) throws IOException {
+        if (unpacker.getNextFormat() == MessageFormat.NIL) {
+            unpacker.unpackNil();
+            return null;
         }
-
-        return builder;
+        int length = unpacker.unpackBinaryHeader();
+        if (payload == null) {
+            return Unpooled.wrappedBuffer(unpacker.readPayload(length));
+        }
+        int offset = payload.readerIndex() + (int)unpacker.getTotalReadBytes();
+        // 只推进 unpacker 的读位置，返回的是负载视图，不会复制数据
+        unpacker.readPayloadAsReference(length);
+        return payload.retainedSlice(offset, length).touch("AudioFrameMessagePackDeserializer");
     }
 }
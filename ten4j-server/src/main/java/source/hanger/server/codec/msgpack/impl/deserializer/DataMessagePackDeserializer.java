@@ -1,8 +1,7 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
-import io.netty.buffer.Unpooled; // 引入 Unpooled 用于创建 ByteBuf
+import io.netty.buffer.ByteBuf;
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.DataMessage;
 import source.hanger.core.message.DataMessage.DataMessageBuilder;
 import source.hanger.server.codec.msgpack.base.BaseMessagePackDeserializer;
@@ -27,11 +26,9 @@ public class DataMessagePackDeserializer extends
         // 这里只需要处理 DataMessage 特有的字段
 
         // data (ByteBuf)
-        Value dataValue = unpacker.unpackValue();
-        if (!dataValue.isNilValue()) {
-            // 将 MessagePack 的 Binary Value 转换为 byte[]，然后用 Unpooled.wrappedBuffer 包装成 ByteBuf
-            byte[] rawBytes = dataValue.asBinaryValue().asByteArray();
-            builder.data(Unpooled.wrappedBuffer(rawBytes));
+        ByteBuf data = unpackNullableBinaryCopy(unpacker);
+        if (data != null) {
+            builder.data(data);
         }
 
         return builder;
@@ -1,7 +1,6 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.command.StartGraphCommand;
 import source.hanger.core.message.command.StartGraphCommand.StartGraphCommandBuilder;
 import source.hanger.server.codec.msgpack.base.BaseCommandPackDeserializer;
@@ -27,15 +26,15 @@ public class StartGraphCommandPackDeserializer extends
         // 以及 Command 的 parentCommandId
         // 这里只需要处理 StartGraphCommand 特有的字段
         // predefinedGraphName (String)
-        Value predefinedGraphNameValue = unpacker.unpackValue();
-        if (!predefinedGraphNameValue.isNilValue()) {
-            builder.predefinedGraphName(predefinedGraphNameValue.asStringValue().asString());
+        String predefinedGraphName = unpackNullableString(unpacker);
+        if (predefinedGraphName != null) {
+            builder.predefinedGraphName(predefinedGraphName);
         }
 
         // graphJson (String)
-        Value graphJsonValue = unpacker.unpackValue();
-        if (!graphJsonValue.isNilValue()) {
-            builder.graphJson(graphJsonValue.asStringValue().asString());
+        String graphJson = unpackNullableString(unpacker);
+        if (graphJson != null) {
+            builder.graphJson(graphJson);
         }
 
         return builder;
@@ -1,7 +1,6 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.command.StopGraphCommand;
 import source.hanger.core.message.command.StopGraphCommand.StopGraphCommandBuilder;
 import source.hanger.server.codec.msgpack.base.BaseCommandPackDeserializer;
@@ -27,9 +26,9 @@ public class StopGraphCommandPackDeserializer extends
         // 这里只需要处理 StopGraphCommand 特有的字段
 
         // graphId (String)
-        Value graphIdValue = unpacker.unpackValue();
-        if (!graphIdValue.isNilValue()) {
-            builder.graphId(graphIdValue.asStringValue().asString());
+        String graphId = unpackNullableString(unpacker);
+        if (graphId != null) {
+            builder.graphId(graphId);
         }
 
         return builder;
@@ -1,7 +1,6 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.command.TimeoutCommand;
 import source.hanger.core.message.command.TimeoutCommand.TimeoutCommandBuilder;
 import source.hanger.server.codec.msgpack.base.BaseCommandPackDeserializer;
@@ -27,9 +26,9 @@ public class TimeoutCommandPackDeserializer extends
         // 这里只需要处理 TimeoutCommand 特有的字段
 
         // timerId (Long)
-        Value timerIdValue = unpacker.unpackValue();
-        if (!timerIdValue.isNilValue()) {
-            builder.timerId(timerIdValue.asIntegerValue().asLong());
+        Long timerId = unpackNullableLong(unpacker);
+        if (timerId != null) {
+            builder.timerId(timerId);
         }
 
         return builder;
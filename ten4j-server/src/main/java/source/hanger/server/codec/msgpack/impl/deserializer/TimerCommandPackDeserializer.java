@@ -1,7 +1,6 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.command.TimerCommand;
 import source.hanger.core.message.command.TimerCommand.TimerCommandBuilder;
 import source.hanger.server.codec.msgpack.base.BaseCommandPackDeserializer;
@@ -27,21 +26,21 @@ public class TimerCommandPackDeserializer extends
         // 这里只需要处理 TimerCommand 特有的字段
 
         // timerId (Long)
-        Value timerIdValue = unpacker.unpackValue();
-        if (!timerIdValue.isNilValue()) {
-            builder.timerId(timerIdValue.asIntegerValue().asLong());
+        Long timerId = unpackNullableLong(unpacker);
+        if (timerId != null) {
+            builder.timerId(timerId);
         }
 
         // timeoutUs (Long)
-        Value timeoutUsValue = unpacker.unpackValue();
-        if (!timeoutUsValue.isNilValue()) {
-            builder.timeoutUs(timeoutUsValue.asIntegerValue().asLong());
+        Long timeoutUs = unpackNullableLong(unpacker);
+        if (timeoutUs != null) {
+            builder.timeoutUs(timeoutUs);
         }
 
         // times (Integer)
-        Value timesValue = unpacker.unpackValue();
-        if (!timesValue.isNilValue()) {
-            builder.times(timesValue.asIntegerValue().asInt());
+        Integer times = unpackNullableInt(unpacker);
+        if (times != null) {
+            builder.times(times);
         }
 
         return builder;
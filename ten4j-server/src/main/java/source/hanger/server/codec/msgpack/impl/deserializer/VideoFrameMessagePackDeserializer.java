@@ -1,8 +1,6 @@
 package source.hanger.server.codec.msgpack.impl.deserializer;
 
-import io.netty.buffer.Unpooled; // 引入 Unpooled 用于创建 ByteBuf
 import org.msgpack.core.MessageUnpacker;
-import org.msgpack.value.Value;
 import source.hanger.core.message.VideoFrameMessage;
 import source.hanger.core.message.VideoFrameMessage.VideoFrameMessageBuilder;
 import source.hanger.server.codec.msgpack.base.BaseMessagePackDeserializer;
@@ -42,14 +40,7 @@ public class VideoFrameMessagePackDeserializer extends
         builder.isEof(unpacker.unpackBoolean());
 
         // data (ByteBuf)
-        Value dataValue = unpacker.unpackValue();
-        if (!dataValue.isNilValue()) {
-            // 将 MessagePack 的 Binary Value 转换为 byte[]，然后用 Unpooled.wrappedBuffer 包装成 ByteBuf
-            byte[] rawBytes = dataValue.asBinaryValue().asByteArray();
-            builder.data(Unpooled.wrappedBuffer(rawBytes));
-        } else {
-            builder.data(null);
-        }
+        builder.data(unpackNullableBinaryCopy(unpacker));
 
         return builder;
     }
@@ -3,7 +3,6 @@ package source.hanger.server.codec.msgpack.impl.serializer;
 import org.msgpack.core.MessagePacker;
 import source.hanger.core.message.AudioFrameMessage;
 import source.hanger.server.codec.msgpack.base.BaseMessagePackSerializer;
-import source.hanger.core.util.ByteBufUtils; // 导入新的工具类
 
 import java.io.IOException;
 // import java.util.Objects; // 不再需要 Objects.requireNonNull
@@ -37,13 +36,7 @@ public class AudioFrameMessagePackSerializer extends BaseMessagePackSerializer<A
             packer.packInt(target.getDataFormat());
         }
         // 序列化 buf (ByteBuf)
-        if (target.getBuf() == null) {
-            packer.packNil();
-        } else {
-            int readableBytes = target.getBuf().readableBytes();
-            packer.packBinaryHeader(readableBytes);
-            ByteBufUtils.writeByteBufPayloadToPacker(packer, target.getBuf());
-        }
+        packBinary(packer, target.getBuf());
 
         if (target.getLineSize() == null) {
             packer.packNil();
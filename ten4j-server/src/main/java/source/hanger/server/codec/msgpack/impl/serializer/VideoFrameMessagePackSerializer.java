@@ -3,7 +3,6 @@ package source.hanger.server.codec.msgpack.impl.serializer;
 import io.netty.buffer.ByteBufUtil;
 import org.msgpack.core.MessagePacker;
 import source.hanger.core.message.VideoFrameMessage;
-import source.hanger.core.util.ByteBufUtils;
 import source.hanger.server.codec.msgpack.base.BaseMessagePackSerializer;
 
 import java.io.IOException;
@@ -25,13 +24,7 @@ public class VideoFrameMessagePackSerializer extends BaseMessagePackSerializer<V
 
         // 序列化 data (ByteBuf)
         // 序列化 buf (ByteBuf)
-        if (target.getData() == null) {
-            packer.packNil();
-        } else {
-            int readableBytes = target.getData().readableBytes();
-            packer.packBinaryHeader(readableBytes);
-            ByteBufUtils.writeByteBufPayloadToPacker(packer, target.getData());
-        }
+        packBinary(packer, target.getData());
     }
 
     @Override
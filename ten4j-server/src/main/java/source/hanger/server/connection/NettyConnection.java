@@ -1,19 +1,33 @@
 package source.hanger.server.connection;
 
 import java.net.SocketAddress;
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.util.AttributeKey;
+import io.netty.util.ReferenceCountUtil;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.connection.AbstractConnection;
 import source.hanger.core.message.Message;
+import source.hanger.core.message.MessageType;
 import source.hanger.core.runloop.Runloop;
 
 /**
  * NettyConnection 是 Connection 接口的实现，用于封装 Netty Channel。
  * 它处理消息的编解码和通过 Netty Channel 的发送。
+ *
+ * 出站消息先进入连接自己的队列，再由 Channel 的 EventLoop 批量排空：
+ * - 同一批入队的消息只调度一次 EventLoop 任务，每 maxMessagesPerFlush 条及排空结束时 flush，合并系统调用
+ * - Channel 超过写缓冲区高水位变为不可写时暂停排空，消息留在队列中，回落到低水位后由
+ *   {@link #onWritabilityChanged()} 恢复
+ * - 队列积压超过 queueCapacity 时按消息类型的 {@link OutboundOverflowPolicy} 处理，统计见 {@link NettyOutboundMetrics}
+ * - 发送方（Engine / App 的 Runloop）从不在此等待；积压达到 hardCapacity 说明客户端已无法跟上，直接关闭连接
  */
 @Slf4j
 public class NettyConnection extends AbstractConnection {
@@ -23,10 +37,28 @@ public class NettyConnection extends AbstractConnection {
         .newInstance("NettyConnection");
 
     private final Channel channel;
+    private final NettyOutboundConfig outboundConfig;
+    @Getter
+    private final NettyOutboundMetrics outboundMetrics = new NettyOutboundMetrics();
+
+    private final ReentrantLock outboundLock = new ReentrantLock();
+    private final ArrayDeque<Message> outboundQueue = new ArrayDeque<>();
+    private final Runnable drainTask = this::drainOutbound;
+    private final ChannelFutureListener writeFailureListener = this::onWriteComplete;
+    // 以下字段由 outboundLock 保护
+    private boolean drainScheduled; // 已有排空任务待执行，或因不可写而暂停（stalled）
+    private boolean stalled;
+    private boolean outboundClosed;
 
     public NettyConnection(String connectionId, SocketAddress remoteAddress, Channel channel, Runloop initialRunloop) {
+        this(connectionId, remoteAddress, channel, initialRunloop, NettyOutboundConfig.fromSystemProperties());
+    }
+
+    public NettyConnection(String connectionId, SocketAddress remoteAddress, Channel channel, Runloop initialRunloop,
+        NettyOutboundConfig outboundConfig) {
         super(connectionId, remoteAddress, initialRunloop); // 调用父类构造函数
         this.channel = channel;
+        this.outboundConfig = outboundConfig;
         log.info("NettyConnection: {} 实例创建，绑定到 Channel {}", connectionId, channel.id().asShortText());
     }
 
@@ -35,35 +67,227 @@ public class NettyConnection extends AbstractConnection {
         return channel;
     }
 
+    /**
+     * @return 出站队列中尚未写入 Channel 的消息数。
+     */
+    public int getPendingOutboundCount() {
+        outboundLock.lock();
+        try {
+            return outboundQueue.size();
+        } finally {
+            outboundLock.unlock();
+        }
+    }
+
     @Override
     protected void sendOutboundMessageInternal(Message message) {
-        if (channel.isActive()) {
-            ChannelFuture writeFuture = channel.writeAndFlush(message);
-            writeFuture.addListener(f -> {
-                if (f.isSuccess()) {
-                    log.debug("NettyConnection {}: 消息 {} (类型: {} name: {}) 发送成功。", getConnectionId(),
-                        message.getId(),
-                        message.getType(), message.getName());
-                } else {
-                    log.error("NettyConnection {}: 消息 {} (类型: {} name: {}) 发送失败: {}", getConnectionId(),
-                        message.getId(),
-                        message.getType(), message.getName(), f.cause().getMessage());
-                }
-            });
-        } else {
+        if (!channel.isActive()) {
             log.warn("NettyConnection {}: Channel 不活跃，消息 {} (类型: {} name: {}) 无法发送。", getConnectionId(),
                 message.getId(),
                 message.getType(),
                 message.getName());
+            ReferenceCountUtil.release(message);
+            return;
+        }
+
+        boolean scheduleDrain = false;
+        boolean drainNow = false;
+        boolean closeChannel = false;
+        outboundLock.lock();
+        try {
+            if (outboundClosed) {
+                outboundMetrics.getDiscardedOnClose().incrementAndGet();
+                ReferenceCountUtil.release(message);
+                return;
+            }
+            if (outboundQueue.size() >= outboundConfig.getHardCapacity()) {
+                outboundMetrics.getHardCapacityCloses().incrementAndGet();
+                outboundMetrics.getDiscardedOnClose().incrementAndGet();
+                log.error("NettyConnection {}: 出站队列积压达到硬上限 {} 条，客户端消费过慢，关闭连接。丢弃消息 {} (类型: {})",
+                    getConnectionId(), outboundQueue.size(), message.getId(), message.getType());
+                ReferenceCountUtil.release(message);
+                discardOutboundLocked();
+                closeChannel = true;
+            } else {
+                if (outboundQueue.size() >= outboundConfig.getQueueCapacity() && !admitOnOverflow(message)) {
+                    return;
+                }
+                outboundQueue.addLast(message);
+                outboundMetrics.getEnqueued().incrementAndGet();
+                scheduleDrain = !drainScheduled;
+                drainScheduled = true;
+                // 延迟排空时积压达到一批的大小就不再等待
+                drainNow = !scheduleDrain && !stalled && outboundConfig.getFlushDelayMicros() > 0
+                    && outboundQueue.size() == outboundConfig.getMaxMessagesPerFlush();
+            }
+        } finally {
+            outboundLock.unlock();
+        }
+
+        if (closeChannel) {
+            // 达到硬上限：关闭 Channel，由 channelInactive 完成连接清理
+            channel.close();
+            return;
+        }
+
+        if (drainNow) {
+            channel.eventLoop().execute(drainTask);
+        } else if (scheduleDrain) {
+            if (outboundConfig.getFlushDelayMicros() > 0) {
+                channel.eventLoop().schedule(drainTask, outboundConfig.getFlushDelayMicros(), TimeUnit.MICROSECONDS);
+            } else {
+                channel.eventLoop().execute(drainTask);
+            }
+        }
+    }
+
+    /**
+     * 队列已满时按溢出策略决定新消息是否入队（持有 outboundLock 时调用）。
+     *
+     * @return true 表示新消息应当入队；false 表示新消息已被丢弃并释放。
+     */
+    private boolean admitOnOverflow(Message message) {
+        MessageType type = message.getType();
+        switch (outboundConfig.overflowPolicyOf(type)) {
+            case DROP_OLDEST -> {
+                Iterator<Message> iterator = outboundQueue.iterator();
+                while (iterator.hasNext()) {
+                    Message queued = iterator.next();
+                    if (queued.getType() == type) {
+                        iterator.remove();
+                        countDropped(type);
+                        ReferenceCountUtil.release(queued);
+                        return true;
+                    }
+                }
+                // 队列中没有同类型消息可丢弃，退化为丢弃新消息
+                countDropped(type);
+                ReferenceCountUtil.release(message);
+                return false;
+            }
+            case DROP_NEWEST -> {
+                countDropped(type);
+                ReferenceCountUtil.release(message);
+                return false;
+            }
+            default -> {
+                // BUFFER：不阻塞发送方，超出 queueCapacity 继续入队，直到 hardCapacity
+                if (outboundQueue.size() == outboundConfig.getQueueCapacity()) {
+                    log.warn("NettyConnection {}: 出站队列积压超过 {} 条，命令与数据消息继续缓冲，上限 {} 条",
+                        getConnectionId(), outboundQueue.size(), outboundConfig.getHardCapacity());
+                }
+                outboundMetrics.getBufferedOverCapacity().incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    private void countDropped(MessageType type) {
+        switch (type) {
+            case AUDIO_FRAME -> outboundMetrics.getDroppedAudioFrames().incrementAndGet();
+            case VIDEO_FRAME -> outboundMetrics.getDroppedVideoFrames().incrementAndGet();
+            case null, default -> outboundMetrics.getDroppedOthers().incrementAndGet();
         }
     }
 
+    /**
+     * 在 EventLoop 上排空出站队列，Channel 不可写时暂停。
+     */
+    private void drainOutbound() {
+        int maxMessagesPerFlush = Math.max(1, outboundConfig.getMaxMessagesPerFlush());
+        int unflushed = 0;
+        while (true) {
+            Message message;
+            outboundLock.lock();
+            try {
+                if (!channel.isWritable() && !outboundQueue.isEmpty()) {
+                    // 保持 drainScheduled，后续入队不再调度，等待可写性恢复
+                    stalled = true;
+                    outboundMetrics.getUnwritableStalls().incrementAndGet();
+                    break;
+                }
+                message = outboundQueue.pollFirst();
+                if (message == null) {
+                    drainScheduled = false;
+                    break;
+                }
+            } finally {
+                outboundLock.unlock();
+            }
+
+            channel.write(message).addListener(writeFailureListener);
+            outboundMetrics.getWritten().incrementAndGet();
+            if (++unflushed >= maxMessagesPerFlush) {
+                flushOutbound();
+                unflushed = 0;
+            }
+        }
+        if (unflushed > 0) {
+            flushOutbound();
+        }
+    }
+
+    private void flushOutbound() {
+        channel.flush();
+        outboundMetrics.getFlushes().incrementAndGet();
+    }
+
+    private void onWriteComplete(ChannelFuture future) {
+        if (!future.isSuccess()) {
+            outboundMetrics.getWriteFailures().incrementAndGet();
+            log.error("NettyConnection {}: 出站消息发送失败: {}", getConnectionId(),
+                future.cause() != null ? future.cause().getMessage() : "unknown");
+        }
+    }
+
+    /**
+     * Channel 可写性变化时由 NettyConnectionHandler 在 EventLoop 上调用，恢复可写后继续排空积压的消息。
+     */
+    public void onWritabilityChanged() {
+        if (!channel.isWritable()) {
+            return;
+        }
+        outboundLock.lock();
+        try {
+            if (!stalled) {
+                return;
+            }
+            stalled = false;
+        } finally {
+            outboundLock.unlock();
+        }
+        drainOutbound();
+    }
+
     @Override
     public void close() {
         if (channel.isOpen()) {
             log.info("NettyConnection {}: 关闭底层 Netty Channel {}", getConnectionId(), channel.id().asShortText());
             channel.close();
         }
+        discardOutbound();
         super.close();
     }
-}
\ No newline at end of file
+
+    /**
+     * 丢弃并释放仍在出站队列中的消息，之后的出站消息直接丢弃。
+     */
+    private void discardOutbound() {
+        outboundLock.lock();
+        try {
+            discardOutboundLocked();
+        } finally {
+            outboundLock.unlock();
+        }
+        log.info("NettyConnection {}: 出站统计 {}", getConnectionId(), outboundMetrics);
+    }
+
+    private void discardOutboundLocked() {
+        outboundClosed = true;
+        Message message;
+        while ((message = outboundQueue.pollFirst()) != null) {
+            outboundMetrics.getDiscardedOnClose().incrementAndGet();
+            ReferenceCountUtil.release(message);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package source.hanger.server.connection;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+import source.hanger.core.message.MessageType;
+
+/**
+ * NettyConnection 出站写入的合并与背压配置。
+ * 默认值可通过 ten4j.connection.outbound.* 系统属性覆盖，见 {@link #fromSystemProperties()}。
+ */
+@Data
+@NoArgsConstructor
+@Accessors(chain = true)
+public class NettyOutboundConfig {
+
+    private static final String PROPERTY_PREFIX = "ten4j.connection.outbound.";
+
+    /**
+     * Channel 不可写时最多积压的消息数，超过后按溢出策略处理。
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * 单次排空中每写入多少条消息 flush 一次；排空结束时总会 flush。
+     */
+    private int maxMessagesPerFlush = 64;
+
+    /**
+     * 首条消息入队后延迟多少微秒再排空，用于合并更多消息；0 表示在下一次 EventLoop 调度时立即排空。
+     * 积压达到 maxMessagesPerFlush 时不再等待。
+     */
+    private long flushDelayMicros = 0;
+
+    /**
+     * 出站队列的硬上限，任何类型的消息在积压达到该值时都不再入队，连接被关闭。
+     * 应不小于 queueCapacity，两者之差即 BUFFER 策略可额外缓冲的命令与数据消息数。
+     */
+    private int hardCapacity = 8192;
+
+    /**
+     * Channel 写缓冲区低水位（字节），回落到该值以下时恢复排空。
+     */
+    private int writeBufferLowWaterMark = 256 * 1024;
+
+    /**
+     * Channel 写缓冲区高水位（字节），超过后 Channel 变为不可写，消息留在出站队列中。
+     */
+    private int writeBufferHighWaterMark = 512 * 1024;
+
+    private OutboundOverflowPolicy audioOverflowPolicy = OutboundOverflowPolicy.DROP_OLDEST;
+
+    private OutboundOverflowPolicy videoOverflowPolicy = OutboundOverflowPolicy.DROP_NEWEST;
+
+    /**
+     * 命令、命令结果与数据消息的溢出策略。
+     */
+    private OutboundOverflowPolicy defaultOverflowPolicy = OutboundOverflowPolicy.BUFFER;
+
+    /**
+     * @param type 消息类型。
+     * @return 该类型消息使用的溢出策略。
+     */
+    public OutboundOverflowPolicy overflowPolicyOf(MessageType type) {
+        return switch (type) {
+            case AUDIO_FRAME -> audioOverflowPolicy;
+            case VIDEO_FRAME -> videoOverflowPolicy;
+            case null, default -> defaultOverflowPolicy;
+        };
+    }
+
+    /**
+     * 以默认值为基础，应用 ten4j.connection.outbound.* 系统属性。
+     */
+    public static NettyOutboundConfig fromSystemProperties() {
+        NettyOutboundConfig config = new NettyOutboundConfig();
+        return config
+            .setQueueCapacity(Integer.getInteger(PROPERTY_PREFIX + "queue-capacity", config.queueCapacity))
+            .setMaxMessagesPerFlush(
+                Integer.getInteger(PROPERTY_PREFIX + "max-messages-per-flush", config.maxMessagesPerFlush))
+            .setFlushDelayMicros(Long.getLong(PROPERTY_PREFIX + "flush-delay-us", config.flushDelayMicros))
+            .setHardCapacity(Integer.getInteger(PROPERTY_PREFIX + "hard-capacity", config.hardCapacity))
+            .setWriteBufferLowWaterMark(
+                Integer.getInteger(PROPERTY_PREFIX + "low-water-mark", config.writeBufferLowWaterMark))
+            .setWriteBufferHighWaterMark(
+                Integer.getInteger(PROPERTY_PREFIX + "high-water-mark", config.writeBufferHighWaterMark))
+            .setAudioOverflowPolicy(OutboundOverflowPolicy.parse(
+                System.getProperty(PROPERTY_PREFIX + "audio-overflow"), config.audioOverflowPolicy))
+            .setVideoOverflowPolicy(OutboundOverflowPolicy.parse(
+                System.getProperty(PROPERTY_PREFIX + "video-overflow"), config.videoOverflowPolicy))
+            .setDefaultOverflowPolicy(OutboundOverflowPolicy.parse(
+                System.getProperty(PROPERTY_PREFIX + "default-overflow"), config.defaultOverflowPolicy));
+    }
+}
@@ -0,0 +1,66 @@
+package source.hanger.server.connection;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * 单个 NettyConnection 的出站统计，计数器只增不减，可在任意线程读取。
+ */
+@Getter
+public class NettyOutboundMetrics {
+
+    /**
+     * 进入出站队列的消息数。
+     */
+    private final AtomicLong enqueued = new AtomicLong();
+    /**
+     * 写入 Channel 的消息数。
+     */
+    private final AtomicLong written = new AtomicLong();
+    /**
+     * flush 次数，written / flushes 即平均每次系统调用合并的消息数。
+     */
+    private final AtomicLong flushes = new AtomicLong();
+    /**
+     * 写入失败的消息数。
+     */
+    private final AtomicLong writeFailures = new AtomicLong();
+    /**
+     * 因 Channel 不可写而暂停排空的次数。
+     */
+    private final AtomicLong unwritableStalls = new AtomicLong();
+    /**
+     * 队列满时按 DROP_OLDEST / DROP_NEWEST 丢弃的音频帧数。
+     */
+    private final AtomicLong droppedAudioFrames = new AtomicLong();
+    /**
+     * 队列满时丢弃的视频帧数。
+     */
+    private final AtomicLong droppedVideoFrames = new AtomicLong();
+    /**
+     * 队列满时丢弃的其他消息数（仅在为命令/数据配置了丢弃策略时出现）。
+     */
+    private final AtomicLong droppedOthers = new AtomicLong();
+    /**
+     * 队列满后按 BUFFER 策略继续入队的消息数。
+     */
+    private final AtomicLong bufferedOverCapacity = new AtomicLong();
+    /**
+     * 积压达到 hardCapacity 而关闭连接的次数。
+     */
+    private final AtomicLong hardCapacityCloses = new AtomicLong();
+    /**
+     * 连接关闭时仍在队列中、被丢弃的消息数。
+     */
+    private final AtomicLong discardedOnClose = new AtomicLong();
+
+    @Override
+    public String toString() {
+        return ("enqueued=%d, written=%d, flushes=%d, writeFailures=%d, unwritableStalls=%d, droppedAudio=%d, "
+            + "droppedVideo=%d, droppedOthers=%d, bufferedOverCapacity=%d, hardCapacityCloses=%d, discardedOnClose=%d").formatted(
+            enqueued.get(), written.get(), flushes.get(), writeFailures.get(), unwritableStalls.get(),
+            droppedAudioFrames.get(), droppedVideoFrames.get(), droppedOthers.get(), bufferedOverCapacity.get(),
+            hardCapacityCloses.get(), discardedOnClose.get());
+    }
+}
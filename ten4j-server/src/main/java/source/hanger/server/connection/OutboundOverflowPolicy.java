@@ -0,0 +1,35 @@
+package source.hanger.server.connection;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 出站队列已满（Channel 持续不可写）时，对新消息的处理策略。
+ *
+ * - DROP_OLDEST：丢弃队列中最早的同类型消息后入队，适合实时音频，保证客户端听到的是最新的音频。
+ * - DROP_NEWEST：直接丢弃新消息，适合视频帧等可跳帧的数据。
+ * - BUFFER：继续入队且不阻塞发送方，保证命令与结果不丢失；积压达到 hardCapacity 时连接被关闭。
+ */
+public enum OutboundOverflowPolicy {
+    DROP_OLDEST,
+    DROP_NEWEST,
+    BUFFER;
+
+    /**
+     * 解析配置中的溢出策略，大小写不敏感。
+     *
+     * @param value        配置值，可以为 null。
+     * @param defaultValue 无法解析时使用的默认值。
+     * @return 解析得到的溢出策略。
+     */
+    public static OutboundOverflowPolicy parse(String value, OutboundOverflowPolicy defaultValue) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        for (OutboundOverflowPolicy policy : values()) {
+            if (policy.name().equalsIgnoreCase(value.trim())) {
+                return policy;
+            }
+        }
+        return defaultValue;
+    }
+}
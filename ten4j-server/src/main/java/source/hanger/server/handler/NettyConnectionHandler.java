@@ -7,6 +7,7 @@ import source.hanger.core.app.App;
 import source.hanger.core.message.Location;
 import source.hanger.core.util.IdGenerator;
 import source.hanger.server.connection.NettyConnection;
+import source.hanger.server.connection.NettyOutboundConfig;
 
 /**
  * NettyConnectionHandler 负责处理 Netty Channel 的生命周期事件。
@@ -16,9 +17,15 @@ import source.hanger.server.connection.NettyConnection;
 public class NettyConnectionHandler extends ChannelInboundHandlerAdapter {
 
     private final App app;
+    private final NettyOutboundConfig outboundConfig;
 
     public NettyConnectionHandler(App app) {
+        this(app, NettyOutboundConfig.fromSystemProperties());
+    }
+
+    public NettyConnectionHandler(App app, NettyOutboundConfig outboundConfig) {
         this.app = app;
+        this.outboundConfig = outboundConfig;
     }
 
     @Override
@@ -29,7 +36,8 @@ public class NettyConnectionHandler extends ChannelInboundHandlerAdapter {
             connectionId,
             ctx.channel().remoteAddress(),
             ctx.channel(),
-            app.getAppRunloop() // 将 App 的 Runloop 传递给 Connection
+            app.getAppRunloop(), // 将 App 的 Runloop 传递给 Connection
+            outboundConfig
         );
         log.info("NettyConnectionHandler: Channel {} 活跃，创建新的 NettyConnection: {}",
             ctx.channel().id().asShortText(),
@@ -39,7 +47,7 @@ public class NettyConnectionHandler extends ChannelInboundHandlerAdapter {
         // 它将在接收到 StartGraphCommand 等命令后，根据命令中的 srcLoc 更新。
         // 此时，remoteLocation 仅作为 Location 对象的载体，其 appUri 和 graphId 暂时为空。
         // 物理地址已通过 connection.getRemoteAddress() 获取。
-        connection.setRemoteLocation(new Location()); // 初始为空 Location
+        connection.setRemoteLocation(new Location(null, null, null)); // 初始为空 Location
 
         // 将 NettyConnection 存储到 Channel 的属性中，以便后续可以在管道中获取
         ctx.channel().attr(NettyConnection.CONNECTION_ATTRIBUTE_KEY).set(connection);
@@ -62,6 +70,16 @@ public class NettyConnectionHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        // 写缓冲区回落到低水位以下后，继续排空 NettyConnection 中积压的出站消息
+        NettyConnection connection = ctx.channel().attr(NettyConnection.CONNECTION_ATTRIBUTE_KEY).get();
+        if (connection != null) {
+            connection.onWritabilityChanged();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
     @Override
     public void channelInactive(ChannelHandlerContext ctx) throws Exception {
         // 当 Netty Channel 不活跃时，通知 App 对应的连接已断开，并进行清理
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.util.ReferenceCountUtil;
 import lombok.extern.slf4j.Slf4j;
 import source.hanger.core.message.Message;
 import source.hanger.server.connection.NettyConnection;
@@ -16,6 +17,11 @@ import source.hanger.server.connection.NettyConnection;
 @Slf4j
 public class WebSocketMessageDispatcher extends SimpleChannelInboundHandler<Message> {
 
+    public WebSocketMessageDispatcher() {
+        // 消息（如音频帧持有的池化缓冲区）的所有权随 onMessageReceived 转移，不在此处自动释放
+        super(false);
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, Message msg) {
         String channelId = ctx.channel().id().asShortText();
@@ -26,6 +32,7 @@ public class WebSocketMessageDispatcher extends SimpleChannelInboundHandler<Mess
         NettyConnection connection = ctx.channel().attr(NettyConnection.CONNECTION_ATTRIBUTE_KEY).get();
         if (connection == null) {
             log.error("WebSocketMessageDispatcher: Channel {} 没有关联的 NettyConnection。", channelId);
+            ReferenceCountUtil.release(msg);
             return;
         }
 
@@ -3,31 +3,46 @@ package source.hanger.server.handler.decoder;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
-import org.msgpack.core.ExtensionTypeHeader;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.TooLongFrameException;
 import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessageUnpacker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import source.hanger.core.message.Message;
+import source.hanger.server.codec.msgpack.ByteBufMessageBufferInput;
 import source.hanger.server.codec.msgpack.MessageExtensionConstants;
 import source.hanger.server.codec.msgpack.MessagePackDeserializerFacade;
 
-import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.util.List;
 
 /**
  * Netty 解码器，用于将接收到的 ByteBuf 解码为 Message 对象。
  * 它负责处理 MessagePack EXT 类型的解封装，并将 EXT 负载传递给 MessagePackDeserializerFacade 进行实际的反序列化。
- * 不包含任何日志。
+ *
+ * EXT 头部直接从 ByteBuf 读取；负载通过每个 Channel 复用的 {@link ByteBufMessageBufferInput} 和 MessageUnpacker
+ * 原地解析，不再复制到中间数组。
+ *
+ * 输入可以是任意切分的字节流（例如 WebSocket 消息的各个分片），读到 EXT 头部即可按 maxPayloadLength 拒绝超长帧，
+ * 不必等到整帧到达。
  */
 public class MessagePackDecoder extends ByteToMessageDecoder {
 
     private static final Logger log = LoggerFactory.getLogger(MessagePackDecoder.class);
+    public static final int DEFAULT_MAX_PAYLOAD_LENGTH = 1048576;
+
     private final MessagePackDeserializerFacade deserializerFacade;
+    private final int maxPayloadLength;
+    private final ByteBufMessageBufferInput payloadInput = new ByteBufMessageBufferInput();
+    private final MessageUnpacker payloadUnpacker = MessagePack.newDefaultUnpacker(payloadInput);
 
     public MessagePackDecoder() {
+        this(DEFAULT_MAX_PAYLOAD_LENGTH);
+    }
+
+    public MessagePackDecoder(int maxPayloadLength) {
         this.deserializerFacade = new MessagePackDeserializerFacade();
+        this.maxPayloadLength = maxPayloadLength;
     }
 
     @Override
@@ -37,68 +52,68 @@ public class MessagePackDecoder extends ByteToMessageDecoder {
             return;
         }
 
-        // 标记当前的读取位置，以便回滚
-        in.markReaderIndex();
-
-        // 尝试从 ByteBuf 中读取 EXT 头部。
-        // MessageUnpacker 需要 ByteBuffer。这里我们使用 ByteBuf.nioBuffer() 创建一个共享的 NIO ByteBuffer 视图。
-        // 注意：nioBuffer() 不会改变 ByteBuf 的 readerIndex，我们需要手动前进。
-        ByteBuffer nioBuffer = in.nioBuffer(in.readerIndex(), in.readableBytes());
-        MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(nioBuffer);
-
-        try {
-            ExtensionTypeHeader extHeader = unpacker.unpackExtensionTypeHeader();
-            byte extType = extHeader.getType();
-            int extLength = extHeader.getLength();
-
-            // 如果当前可读字节不足以包含整个 EXT 负载，回滚并等待更多数据
-            if (in.readableBytes() < (unpacker.getTotalReadBytes() + extLength)) {
-                in.resetReaderIndex();
-                return;
-            }
-
-            // 验证 EXT 类型
-            if (extType != MessageExtensionConstants.TEN_MSGPACK_EXT_TYPE_MSG) {
-                // 如果 EXT 类型不匹配，跳过此消息或抛出异常，这里选择跳过并推进 readerIndex
-                // 不抛出异常，不打印日志，只是简单跳过不认识的 EXT 类型
-                // 推进 readerIndex 跳过整个 EXT 帧
-                in.readerIndex((int)(in.readerIndex() + unpacker.getTotalReadBytes() + extLength));
-                return;
-            }
+        int headerStart = in.readerIndex();
+        int format = in.getUnsignedByte(headerStart);
+        // EXT 长度字段的字节数（fixext 为 0），以及 fixext 的固定长度
+        int lengthBytes;
+        long extLength;
+        switch (format) {
+            case 0xd4 -> { lengthBytes = 0; extLength = 1; }   // fixext 1
+            case 0xd5 -> { lengthBytes = 0; extLength = 2; }   // fixext 2
+            case 0xd6 -> { lengthBytes = 0; extLength = 4; }   // fixext 4
+            case 0xd7 -> { lengthBytes = 0; extLength = 8; }   // fixext 8
+            case 0xd8 -> { lengthBytes = 0; extLength = 16; }  // fixext 16
+            case 0xc7 -> { lengthBytes = 1; extLength = -1; }  // ext 8
+            case 0xc8 -> { lengthBytes = 2; extLength = -1; }  // ext 16
+            case 0xc9 -> { lengthBytes = 4; extLength = -1; }  // ext 32
+            default -> throw new CorruptedFrameException(
+                "Expected MessagePack EXT header but got format 0x%02x".formatted(format));
+        }
+        int headerLength = 1 + lengthBytes + 1; // 格式码 + 长度 + 类型码
+        if (in.readableBytes() < headerLength) {
+            return;
+        }
+        if (lengthBytes > 0) {
+            int lengthIndex = headerStart + 1;
+            extLength = switch (lengthBytes) {
+                case 1 -> in.getUnsignedByte(lengthIndex);
+                case 2 -> in.getUnsignedShort(lengthIndex);
+                default -> in.getUnsignedInt(lengthIndex);
+            };
+        }
+        if (extLength > maxPayloadLength) {
+            throw new TooLongFrameException(
+                "MessagePack EXT payload too large: %d > %d".formatted(extLength, maxPayloadLength));
+        }
+        byte extType = in.getByte(headerStart + headerLength - 1);
 
-            // 推进 ByteBuf 的 readerIndex 到 EXT 负载的开始
-            in.readerIndex((int)(in.readerIndex() + unpacker.getTotalReadBytes()));
+        // 如果当前可读字节不足以包含整个 EXT 负载，等待更多数据
+        if (in.readableBytes() < headerLength + extLength) {
+            return;
+        }
 
-            // 检查 EXT 负载是否完全可读
-            if (in.readableBytes() < extLength) {
-                in.resetReaderIndex();
-                return;
-            }
+        // 验证 EXT 类型
+        if (extType != MessageExtensionConstants.TEN_MSGPACK_EXT_TYPE_MSG) {
+            // 不认识的 EXT 类型：不抛出异常，不打印日志，推进 readerIndex 跳过整个 EXT 帧
+            in.skipBytes((int)(headerLength + extLength));
+            return;
+        }
 
-            // 读取 EXT 负载数据
-            byte[] payload = new byte[extLength];
-            in.readBytes(payload);
+        // 推进 ByteBuf 的 readerIndex 到 EXT 负载的开始，readSlice 得到共享视图并推进到负载末尾
+        in.skipBytes(headerLength);
+        ByteBuf payload = in.readSlice((int)extLength);
 
-            // 使用负载数据创建新的 MessageUnpacker，并传递给 deserializerFacade
-            MessageUnpacker payloadUnpacker = MessagePack.newDefaultUnpacker(payload);
-            try {
-                Message message = deserializerFacade.deserialize(payloadUnpacker);
-                if (message != null) {
-                    out.add(message);
-                }
-            } catch (Throwable throwable) {
-                log.error("DECODER_TRACE: MessagePackDecoder: 解析 EXT 帧失败。", throwable);
-            }finally {
-                payloadUnpacker.close();
+        // 复用本 Channel 的 unpacker 原地解析负载，二进制字段（音频数据）由反序列化器从该视图 retainedSlice
+        try {
+            payloadUnpacker.reset(payloadInput.reset(payload));
+            Message message = deserializerFacade.deserialize(payloadUnpacker, payload);
+            if (message != null) {
+                out.add(message);
             }
-
-        } catch (IOException e) {
-            log.error("DECODER_TRACE: MessagePackDecoder: 解析 EXT 帧失败。", e);
-            // 发生 IO 异常，可能表示数据损坏或格式不正确。
-            // 这里不打印日志，直接抛出，让 Netty 默认的异常处理机制介入。
-            throw e;
+        } catch (Throwable throwable) {
+            log.error("DECODER_TRACE: MessagePackDecoder: 解析 EXT 帧失败。", throwable);
         } finally {
-            unpacker.close(); // 确保关闭 unpacker
+            payloadInput.close(); // 不持有已解析帧的引用
         }
     }
 }
@@ -3,24 +3,59 @@ package source.hanger.server.handler.decoder;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageDecoder;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.ContinuationWebSocketFrame;
 import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * 将二进制 WebSocket 帧及其后续分片（ContinuationWebSocketFrame）逐帧转换为 ByteBuf 流，交给 MessagePackDecoder。
+ * MessagePack EXT 帧自带长度，不依赖 WebSocket 消息边界，因此不再需要 WebSocketFrameAggregator 先把整条消息聚合到
+ * 一块缓冲区：分片到达即进入解码器，解码器只在 EXT 帧不完整时累积剩余字节。
+ *
+ * 单条 WebSocket 消息（所有分片之和）超过 maxMessageSize 时以 1009 (Message Too Big) 关闭连接。
+ */
 @Slf4j
 public class WebSocketFrameToByteBufDecoder extends MessageToMessageDecoder<WebSocketFrame> {
 
+    public static final int DEFAULT_MAX_MESSAGE_SIZE = 1048576;
+
+    private final int maxMessageSize;
+    // 当前是否处于一条未结束的二进制消息中，以及该消息已接收的字节数
+    private boolean inBinaryMessage;
+    private long currentMessageSize;
+
+    public WebSocketFrameToByteBufDecoder() {
+        this(DEFAULT_MAX_MESSAGE_SIZE);
+    }
+
+    public WebSocketFrameToByteBufDecoder(int maxMessageSize) {
+        this.maxMessageSize = maxMessageSize;
+    }
+
     @Override
     protected void decode(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) {
         if (frame instanceof BinaryWebSocketFrame) {
-            ByteBuf binaryData = frame.content();
-            out.add(binaryData.retain()); // retain the ByteBuf for the next handler
-            log.debug("WebSocketFrameToByteBufDecoder: Decoded BinaryWebSocketFrame to ByteBuf, size: {}",
-                binaryData.readableBytes());
+            currentMessageSize = 0;
+            inBinaryMessage = !frame.isFinalFragment();
+            forward(ctx, frame, out);
+        } else if (frame instanceof ContinuationWebSocketFrame) {
+            if (!inBinaryMessage) {
+                // 文本消息的后续分片，与首帧一样忽略
+                log.debug("WebSocketFrameToByteBufDecoder: 忽略非二进制消息的后续分片，size: {}",
+                    frame.content().readableBytes());
+                return;
+            }
+            inBinaryMessage = !frame.isFinalFragment();
+            forward(ctx, frame, out);
         } else if (frame instanceof TextWebSocketFrame) {
+            inBinaryMessage = false;
             // If you expect text frames and want to convert them to ByteBuf, handle here.
             // For now, we only process binary frames for MessagePack.
             log.warn(
@@ -33,9 +68,25 @@ public class WebSocketFrameToByteBufDecoder extends MessageToMessageDecoder<WebS
         }
     }
 
+    private void forward(ChannelHandlerContext ctx, WebSocketFrame frame, List<Object> out) {
+        ByteBuf binaryData = frame.content();
+        currentMessageSize += binaryData.readableBytes();
+        if (currentMessageSize > maxMessageSize) {
+            log.warn("WebSocketFrameToByteBufDecoder: Channel {} 的二进制消息超过 {} 字节，关闭连接。",
+                ctx.channel().id().asShortText(), maxMessageSize);
+            inBinaryMessage = false;
+            ctx.writeAndFlush(new CloseWebSocketFrame(WebSocketCloseStatus.MESSAGE_TOO_BIG))
+                .addListener(ChannelFutureListener.CLOSE);
+            return;
+        }
+        out.add(binaryData.retain()); // retain the ByteBuf for the next handler
+        log.debug("WebSocketFrameToByteBufDecoder: Decoded {} to ByteBuf, size: {}, final: {}",
+            frame.getClass().getSimpleName(), binaryData.readableBytes(), frame.isFinalFragment());
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         log.error("WebSocketFrameToByteBufDecoder encountered an exception", cause);
         ctx.close();
     }
-}
\ No newline at end of file
+}
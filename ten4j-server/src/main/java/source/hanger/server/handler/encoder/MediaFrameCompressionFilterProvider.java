@@ -0,0 +1,49 @@
+package source.hanger.server.handler.encoder;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilter;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionFilterProvider;
+import source.hanger.core.message.MessageType;
+import source.hanger.server.codec.msgpack.MessagePackFrames;
+
+/**
+ * permessage-deflate 的帧过滤器：出站时跳过指定类型（默认音频）消息的压缩。
+ * 音频数据几乎不可压缩，压缩只会增加延迟和 CPU 消耗；命令与数据消息仍按协商结果压缩。
+ * 入站帧由客户端决定是否压缩（RSV1），始终按协商结果解压。
+ */
+public class MediaFrameCompressionFilterProvider implements WebSocketExtensionFilterProvider {
+
+    private final MessageType[] uncompressedTypes;
+    private final WebSocketExtensionFilter encoderFilter = this::mustSkip;
+
+    public MediaFrameCompressionFilterProvider(Set<MessageType> uncompressedTypes) {
+        this.uncompressedTypes = (uncompressedTypes.isEmpty() ? EnumSet.noneOf(MessageType.class)
+            : EnumSet.copyOf(uncompressedTypes)).toArray(new MessageType[0]);
+    }
+
+    private boolean mustSkip(WebSocketFrame frame) {
+        if (!(frame instanceof BinaryWebSocketFrame)) {
+            return false;
+        }
+        for (MessageType type : uncompressedTypes) {
+            if (MessagePackFrames.isMessageType(frame.content(), type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public WebSocketExtensionFilter encoderFilter() {
+        return encoderFilter;
+    }
+
+    @Override
+    public WebSocketExtensionFilter decoderFilter() {
+        return WebSocketExtensionFilter.NEVER_SKIP;
+    }
+}
@@ -0,0 +1,124 @@
+package source.hanger.server.transport;
+
+import java.lang.reflect.Constructor;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.SystemUtils;
+
+/**
+ * 选定的 Netty 传输实现：负责创建 EventLoopGroup 并提供对应的 ServerChannel 类型。
+ * 通过 {@link #select(TransportType)} 按配置与运行环境选择，原生传输不可用时记录原因并回退。
+ *
+ * io_uring 传输属于可选依赖，通过反射加载，classpath 中没有 netty-incubator-transport-native-io_uring 时视为不可用。
+ */
+@Slf4j
+public final class NettyTransport {
+
+    private static final String IO_URING_CLASS = "io.netty.incubator.channel.uring.IOUring";
+    private static final String IO_URING_GROUP_CLASS = "io.netty.incubator.channel.uring.IOUringEventLoopGroup";
+    private static final String IO_URING_CHANNEL_CLASS = "io.netty.incubator.channel.uring.IOUringServerSocketChannel";
+
+    private final TransportType type;
+    private final Class<? extends ServerChannel> serverChannelClass;
+    private final GroupFactory groupFactory;
+
+    private NettyTransport(TransportType type, Class<? extends ServerChannel> serverChannelClass,
+        GroupFactory groupFactory) {
+        this.type = type;
+        this.serverChannelClass = serverChannelClass;
+        this.groupFactory = groupFactory;
+    }
+
+    /**
+     * 按请求的传输类型选择实际可用的传输。
+     *
+     * @param requested 配置的传输类型，null 视为 AUTO。
+     * @return 实际使用的传输，{@link #getType()} 不会是 AUTO。
+     */
+    public static NettyTransport select(TransportType requested) {
+        TransportType type = requested != null ? requested : TransportType.AUTO;
+        if (type == TransportType.IO_URING) {
+            NettyTransport ioUring = ioUring();
+            if (ioUring != null) {
+                return ioUring;
+            }
+            type = TransportType.EPOLL;
+        }
+        if (type == TransportType.AUTO && SystemUtils.IS_OS_LINUX) {
+            type = TransportType.EPOLL;
+        }
+        if (type == TransportType.EPOLL) {
+            if (Epoll.isAvailable()) {
+                return new NettyTransport(TransportType.EPOLL, EpollServerSocketChannel.class,
+                    (threads, name) -> new EpollEventLoopGroup(threads, new DefaultThreadFactory(name)));
+            }
+            log.warn("NettyTransport: epoll 不可用，回退到 NIO: {}", Epoll.unavailabilityCause().toString());
+        }
+        return nio();
+    }
+
+    private static NettyTransport nio() {
+        return new NettyTransport(TransportType.NIO, NioServerSocketChannel.class,
+            (threads, name) -> new NioEventLoopGroup(threads, new DefaultThreadFactory(name)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static NettyTransport ioUring() {
+        try {
+            Class<?> ioUring = Class.forName(IO_URING_CLASS);
+            if (!(boolean)ioUring.getMethod("isAvailable").invoke(null)) {
+                Throwable cause = (Throwable)ioUring.getMethod("unavailabilityCause").invoke(null);
+                log.warn("NettyTransport: io_uring 不可用，尝试 epoll: {}", String.valueOf(cause));
+                return null;
+            }
+            Class<? extends ServerChannel> channelClass =
+                (Class<? extends ServerChannel>)Class.forName(IO_URING_CHANNEL_CLASS);
+            Constructor<?> groupConstructor = Class.forName(IO_URING_GROUP_CLASS)
+                .getConstructor(int.class, java.util.concurrent.ThreadFactory.class);
+            return new NettyTransport(TransportType.IO_URING, channelClass, (threads, name) -> {
+                try {
+                    return (EventLoopGroup)groupConstructor.newInstance(threads, new DefaultThreadFactory(name));
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("创建 io_uring EventLoopGroup 失败", e);
+                }
+            });
+        } catch (ClassNotFoundException e) {
+            log.warn("NettyTransport: classpath 中没有 io_uring 传输，尝试 epoll。");
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("NettyTransport: 加载 io_uring 传输失败，尝试 epoll: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * 创建该传输的 EventLoopGroup。
+     *
+     * @param threads 线程数，0 表示使用 Netty 默认值（CPU 核数 * 2）。
+     * @param name    线程名前缀。
+     */
+    public EventLoopGroup newEventLoopGroup(int threads, String name) {
+        return groupFactory.create(threads, name);
+    }
+
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return serverChannelClass;
+    }
+
+    public TransportType getType() {
+        return type;
+    }
+
+    @FunctionalInterface
+    private interface GroupFactory {
+        EventLoopGroup create(int threads, String name);
+    }
+}
@@ -0,0 +1,38 @@
+package source.hanger.server.transport;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * TenServer 使用的 Netty 传输实现。
+ *
+ * - AUTO：Linux 上优先使用原生 epoll，不可用时回退到 NIO。
+ * - EPOLL：原生 epoll，不可用时回退到 NIO。
+ * - IO_URING：io_uring（需要 netty-incubator-transport-native-io_uring 及 5.9+ 内核），不可用时依次回退到 epoll、NIO。
+ * - NIO：JDK NIO，所有平台可用。
+ */
+public enum TransportType {
+    AUTO,
+    EPOLL,
+    IO_URING,
+    NIO;
+
+    /**
+     * 解析配置中的传输类型，大小写不敏感，"io-uring" 与 "io_uring" 等价。
+     *
+     * @param value        配置值，可以为 null。
+     * @param defaultValue 无法解析时使用的默认值。
+     * @return 解析得到的传输类型。
+     */
+    public static TransportType parse(String value, TransportType defaultValue) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        String normalized = value.trim().replace('-', '_');
+        for (TransportType type : values()) {
+            if (type.name().equalsIgnoreCase(normalized)) {
+                return type;
+            }
+        }
+        return defaultValue;
+    }
+}
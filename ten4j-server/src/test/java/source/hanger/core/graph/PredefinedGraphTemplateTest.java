@@ -0,0 +1,132 @@
+package source.hanger.core.graph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * 使用 resources/graph 下的预定义图，对比 {@link CompiledGraphTemplate#instantiate(Map)} 与此前
+ * “序列化为 JSON -> {@link GraphLoader#loadGraphDefinitionFromJson} 重新解析并求值” 的结果。
+ *
+ * 启动延迟基准默认跳过，使用 -Dten4j.benchmark=true 运行。
+ */
+@Slf4j
+class PredefinedGraphTemplateTest {
+
+    private static final String API_KEY_PROPERTY = "bailian.dashscope.api.key";
+    private static final String BASE_URL_PROPERTY = "bailian.dashscope.api.base_url";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private List<PredefinedGraphEntry> entries;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty(API_KEY_PROPERTY, "sk-test");
+        System.setProperty(BASE_URL_PROPERTY, "https://example.invalid/api");
+        entries = GraphLoader.loadPredefinedGraphsConfig().getPredefinedGraphs();
+        assertFalse(entries.isEmpty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty(API_KEY_PROPERTY);
+        System.clearProperty(BASE_URL_PROPERTY);
+    }
+
+    @Test
+    void templateMatchesJsonRoundTripWithoutProperties() throws Exception {
+        assertSameAsJsonRoundTrip(Map.of());
+    }
+
+    @Test
+    void templateMatchesJsonRoundTripWithStartGraphProperties() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("asr_model", "paraformer-realtime-v2");
+        properties.put("text_model", "qwen-plus");
+        properties.put("text_model_enable_search", true);
+        properties.put("vision_model", "qwen-vl-plus");
+        properties.put("voice_model", "sambert");
+        properties.put("voice_name", "zhichu");
+        properties.put("greeting", "你好");
+        properties.put("prompt", "你是一个语音助手");
+        properties.put("unused", List.of(1, 2, 3));
+        assertSameAsJsonRoundTrip(properties);
+    }
+
+    @Test
+    void instancesDoNotShareProperties() {
+        for (PredefinedGraphEntry entry : entries) {
+            GraphDefinition first = GraphLoader.instantiatePredefinedGraph(entry, Map.of("prompt", "a"));
+            first.getNodes().forEach(node -> {
+                if (node.getProperty() != null) {
+                    node.getProperty().clear();
+                }
+            });
+
+            GraphDefinition second = GraphLoader.instantiatePredefinedGraph(entry, Map.of("prompt", "a"));
+            assertEquals(mapper.valueToTree(expected(entry, Map.of("prompt", "a"))), mapper.valueToTree(second),
+                entry.getName());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+    void benchmarkGraphStart() throws Exception {
+        Map<String, Object> properties = Map.of("prompt", "你是一个语音助手", "voice_name", "longhuohuo");
+        int iterations = 20_000;
+        for (PredefinedGraphEntry entry : entries) {
+            // 第一轮用于预热
+            for (int round = 0; round < 2; round++) {
+                long startNanos = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    expected(entry, properties);
+                }
+                double jsonMicros = (System.nanoTime() - startNanos) / 1e3 / iterations;
+
+                startNanos = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    GraphLoader.instantiatePredefinedGraph(entry, properties);
+                }
+                double templateMicros = (System.nanoTime() - startNanos) / 1e3 / iterations;
+                if (round > 0) {
+                    log.info("graph start '{}': JSON round trip {} us, template {} us", entry.getName(),
+                        String.format("%.1f", jsonMicros), String.format("%.1f", templateMicros));
+                }
+            }
+        }
+    }
+
+    private void assertSameAsJsonRoundTrip(Map<String, Object> properties) throws Exception {
+        for (PredefinedGraphEntry entry : entries) {
+            assertNotNull(entry.getCompiledTemplate(), entry.getName());
+            GraphDefinition instantiated = GraphLoader.instantiatePredefinedGraph(entry, properties);
+
+            assertEquals(mapper.valueToTree(expected(entry, properties)), mapper.valueToTree(instantiated),
+                entry.getName());
+        }
+    }
+
+    /**
+     * 模板化之前 StartGraphCommandHandler 的做法，包括每次新建 ObjectMapper。
+     */
+    private static GraphDefinition expected(PredefinedGraphEntry entry, Map<String, Object> properties) {
+        try {
+            String graphJson = new ObjectMapper().writeValueAsString(entry.getGraph());
+            return GraphLoader.loadGraphDefinitionFromJson(graphJson, properties);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
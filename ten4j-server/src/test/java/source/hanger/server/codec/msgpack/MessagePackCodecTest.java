@@ -0,0 +1,283 @@
+package source.hanger.server.codec.msgpack;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.TooLongFrameException;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+import source.hanger.core.message.AudioFrameMessage;
+import source.hanger.core.message.DataMessage;
+import source.hanger.core.message.Location;
+import source.hanger.core.message.Message;
+import source.hanger.core.message.MessageType;
+import source.hanger.server.handler.decoder.MessagePackDecoder;
+import source.hanger.server.handler.encoder.MessagePackEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link MessagePackEncoder} 与 {@link MessagePackDecoder} 的往返测试：
+ * 覆盖二进制字段的拼接编码与原地解码、任意切分的输入、超长帧与未知 EXT 类型，
+ * 以及与“整体打包负载后再写 EXT 头部”的编码结果逐字节一致。
+ *
+ * 编解码吞吐量基准默认跳过，使用 -Dten4j.benchmark=true 运行。
+ */
+@Slf4j
+class MessagePackCodecTest {
+
+    private static final Location SRC = new Location("msgpack://client", "graph-1", "client");
+    private static final Location DEST = new Location("msgpack://server", "graph-1", "asr");
+    private static final int BENCHMARK_FRAMES = 200_000;
+    private static final MessagePackSerializerFacade SERIALIZER = new MessagePackSerializerFacade();
+
+    @Test
+    void audioFrameRoundTrip() {
+        // 超过拼接阈值，编码时以 retainedSlice 拼接，解码时从接收缓冲区 retainedSlice
+        byte[] pcm = pcm(ByteBufMessageBufferOutput.SPLICE_THRESHOLD * 4);
+        ByteBuf audio = PooledByteBufAllocator.DEFAULT.directBuffer(pcm.length).writeBytes(pcm);
+        AudioFrameMessage frame = audioFrame(audio);
+
+        ByteBuf encoded = encode(frame);
+        assertTrue(MessagePackFrames.isMessageType(encoded, MessageType.AUDIO_FRAME));
+        assertFalse(MessagePackFrames.isMessageType(encoded, MessageType.DATA));
+
+        AudioFrameMessage decoded = assertInstanceOf(AudioFrameMessage.class, decode(new MessagePackDecoder(), encoded));
+        try {
+            assertEquals(frame.getId(), decoded.getId());
+            assertEquals(SRC, decoded.getSrcLoc());
+            assertEquals(List.of(DEST), decoded.getDestLocs());
+            assertEquals("pcm_frame", decoded.getName());
+            assertEquals(frame.getTimestamp(), decoded.getTimestamp());
+            assertEquals("zh", decoded.getProperties().get("language"));
+            assertEquals(1234L, decoded.getFrameTimestamp());
+            assertEquals(16000, decoded.getSampleRate());
+            assertEquals(2, decoded.getBytesPerSample());
+            assertEquals(pcm.length / 2, decoded.getSamplesPerChannel());
+            assertEquals(1, decoded.getNumberOfChannel());
+            assertEquals(0L, decoded.getChannelLayout());
+            assertEquals(1, decoded.getDataFormat());
+            assertEquals(pcm.length, decoded.getLineSize());
+            assertEquals(Boolean.FALSE, decoded.getIsEof());
+            assertArrayEquals(pcm, ByteBufUtil.getBytes(decoded.getBuf()));
+        } finally {
+            decoded.release();
+        }
+        // 编码器释放了原消息，拼接的切片随编码帧一起释放，解码结果释放后不再持有任何引用
+        assertEquals(0, audio.refCnt());
+    }
+
+    @Test
+    void dataMessageRoundTrip() {
+        byte[] payload = "{\"text\":\"你好\"}".getBytes(StandardCharsets.UTF_8);
+        DataMessage message = DataMessage.createBuilder("asr_result")
+            .srcLoc(SRC)
+            .destLocs(List.of(DEST, new Location("msgpack://server", "graph-1", "llm")))
+            .property("final", true)
+            .property("seq", 7L)
+            .property("confidence", 0.5)
+            .property("text", "你好")
+            .data(Unpooled.wrappedBuffer(payload))
+            .build();
+
+        DataMessage decoded = assertInstanceOf(DataMessage.class,
+            decode(new MessagePackDecoder(), encode(message)));
+
+        assertEquals(message.getId(), decoded.getId());
+        assertEquals("asr_result", decoded.getName());
+        assertEquals(message.getDestLocs(), decoded.getDestLocs());
+        assertEquals(true, decoded.getProperties().get("final"));
+        assertEquals(7L, decoded.getProperties().get("seq"));
+        assertEquals(0.5, decoded.getProperties().get("confidence"));
+        assertEquals("你好", decoded.getProperties().get("text"));
+        assertArrayEquals(payload, ByteBufUtil.getBytes(decoded.getData()));
+    }
+
+    @Test
+    void decodesFramesSplitAtEveryByte() {
+        byte[] pcm = pcm(ByteBufMessageBufferOutput.SPLICE_THRESHOLD + 10);
+        ByteBuf encoded = encode(audioFrame(Unpooled.wrappedBuffer(pcm)));
+        byte[] bytes = ByteBufUtil.getBytes(encoded);
+        encoded.release();
+
+        EmbeddedChannel channel = new EmbeddedChannel(new MessagePackDecoder());
+        for (int i = 0; i < bytes.length - 1; i++) {
+            channel.writeInbound(Unpooled.wrappedBuffer(bytes, i, 1));
+            assertNull(channel.readInbound(), "decoded before the frame was complete at byte " + i);
+        }
+        channel.writeInbound(Unpooled.wrappedBuffer(bytes, bytes.length - 1, 1));
+
+        AudioFrameMessage decoded = assertInstanceOf(AudioFrameMessage.class, channel.readInbound());
+        try {
+            assertArrayEquals(pcm, ByteBufUtil.getBytes(decoded.getBuf()));
+        } finally {
+            decoded.release();
+            channel.finishAndReleaseAll();
+        }
+    }
+
+    @Test
+    void rejectsOversizedFrameFromHeader() {
+        ByteBuf encoded = encode(audioFrame(Unpooled.wrappedBuffer(pcm(4096))));
+        // 只送入 EXT 头部即可判断超长，不必等待整帧
+        ByteBuf header = Unpooled.wrappedBuffer(ByteBufUtil.getBytes(encoded, encoded.readerIndex(), 6));
+        encoded.release();
+
+        EmbeddedChannel channel = new EmbeddedChannel(new MessagePackDecoder(1024));
+        assertThrows(TooLongFrameException.class, () -> channel.writeInbound(header));
+    }
+
+    @Test
+    void skipsUnknownExtensionType() {
+        DataMessage message = DataMessage.createBuilder("ping")
+            .srcLoc(SRC)
+            .data(Unpooled.wrappedBuffer(new byte[] {1, 2, 3}))
+            .build();
+        ByteBuf unknown = Unpooled.wrappedBuffer(new byte[] {(byte)0xd5, 0x7f, 0x00, 0x00}); // fixext 2, 类型 127
+        ByteBuf input = Unpooled.wrappedBuffer(unknown, encode(message));
+
+        DataMessage decoded = assertInstanceOf(DataMessage.class, decode(new MessagePackDecoder(), input));
+        assertEquals("ping", decoded.getName());
+        assertArrayEquals(new byte[] {1, 2, 3}, ByteBufUtil.getBytes(decoded.getData()));
+    }
+
+    @Test
+    void encodingMatchesPackedPayloadWithExtensionHeader() throws IOException {
+        int threshold = ByteBufMessageBufferOutput.SPLICE_THRESHOLD;
+        // 依次覆盖 ext8、ext16、ext32 头部，以及拼接阈值两侧的二进制字段
+        int[] dataLengths = {0, 100, threshold - 1, threshold, threshold * 5, 70_000};
+        boolean[] headerFormats = new boolean[3];
+        for (int dataLength : dataLengths) {
+            DataMessage message = DataMessage.createBuilder("chunk")
+                .srcLoc(SRC)
+                .data(Unpooled.wrappedBuffer(pcm(dataLength)))
+                .build();
+            byte[] expected = packedWithExtensionHeader(message);
+            message.getData().readerIndex(0);
+
+            ByteBuf encoded = encode(message);
+            try {
+                assertArrayEquals(expected, ByteBufUtil.getBytes(encoded), "data length " + dataLength);
+            } finally {
+                encoded.release();
+            }
+            headerFormats[(expected[0] & 0xff) - 0xc7] = true;
+        }
+        assertArrayEquals(new boolean[] {true, true, true}, headerFormats);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+    void benchmarkCodecThroughput() throws IOException {
+        // 20 ms 与 100 ms 的 16 kHz 单声道 PCM，分别位于拼接阈值两侧
+        for (int pcmLength : new int[] {640, 3200}) {
+            byte[] pcm = pcm(pcmLength);
+            EmbeddedChannel encoder = new EmbeddedChannel(new MessagePackEncoder());
+            EmbeddedChannel decoder = new EmbeddedChannel(new MessagePackDecoder());
+            ByteBuf sample = encode(audioFrame(Unpooled.wrappedBuffer(pcm)));
+            byte[] frame = ByteBufUtil.getBytes(sample);
+            sample.release();
+
+            // 第一轮用于预热
+            for (int round = 0; round < 2; round++) {
+                long startNanos = System.nanoTime();
+                for (int i = 0; i < BENCHMARK_FRAMES; i++) {
+                    packedWithExtensionHeader(audioFrame(Unpooled.wrappedBuffer(pcm)));
+                }
+                double referenceNanos = (double)(System.nanoTime() - startNanos) / BENCHMARK_FRAMES;
+
+                startNanos = System.nanoTime();
+                for (int i = 0; i < BENCHMARK_FRAMES; i++) {
+                    encoder.writeOutbound(audioFrame(Unpooled.wrappedBuffer(pcm)));
+                    ((ByteBuf)encoder.readOutbound()).release();
+                }
+                double encodeNanos = (double)(System.nanoTime() - startNanos) / BENCHMARK_FRAMES;
+
+                startNanos = System.nanoTime();
+                for (int i = 0; i < BENCHMARK_FRAMES; i++) {
+                    decoder.writeInbound(Unpooled.wrappedBuffer(frame));
+                    ((AudioFrameMessage)decoder.readInbound()).release();
+                }
+                double decodeNanos = (double)(System.nanoTime() - startNanos) / BENCHMARK_FRAMES;
+                if (round > 0) {
+                    log.info("audio frame with {} PCM bytes: encode {} ns, packed payload + EXT header {} ns, "
+                        + "decode {} ns", pcmLength, String.format("%.0f", encodeNanos),
+                        String.format("%.0f", referenceNanos), String.format("%.0f", decodeNanos));
+                }
+            }
+            encoder.finishAndReleaseAll();
+            decoder.finishAndReleaseAll();
+        }
+    }
+
+    /**
+     * 先将负载整体打包，再写入按长度选择宽度的 EXT 头部；单次遍历编码应与之逐字节一致。
+     */
+    private static byte[] packedWithExtensionHeader(Message message) throws IOException {
+        MessageBufferPacker payloadPacker = MessagePack.newDefaultBufferPacker();
+        SERIALIZER.serialize(payloadPacker, message);
+        byte[] payload = payloadPacker.toByteArray();
+
+        MessageBufferPacker framePacker = MessagePack.newDefaultBufferPacker();
+        framePacker.packExtensionTypeHeader(MessageExtensionConstants.TEN_MSGPACK_EXT_TYPE_MSG, payload.length);
+        framePacker.writePayload(payload);
+        return framePacker.toByteArray();
+    }
+
+    private static AudioFrameMessage audioFrame(ByteBuf audio) {
+        return AudioFrameMessage.createBuilder("pcm_frame")
+            .srcLoc(SRC)
+            .destLocs(List.of(DEST))
+            .property("language", "zh")
+            .frameTimestamp(1234L)
+            .sampleRate(16000)
+            .bytesPerSample(2)
+            .samplesPerChannel(audio.readableBytes() / 2)
+            .numberOfChannel(1)
+            .channelLayout(0L)
+            .dataFormat(1)
+            .buf(audio)
+            .lineSize(audio.readableBytes())
+            .isEof(false)
+            .build();
+    }
+
+    private static ByteBuf encode(Object message) {
+        EmbeddedChannel channel = new EmbeddedChannel(new MessagePackEncoder());
+        assertTrue(channel.writeOutbound(message));
+        ByteBuf encoded = channel.readOutbound();
+        assertFalse(channel.finish());
+        return encoded;
+    }
+
+    private static Object decode(MessagePackDecoder decoder, ByteBuf input) {
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+        assertTrue(channel.writeInbound(input));
+        Object decoded = channel.readInbound();
+        assertFalse(channel.finish());
+        return decoded;
+    }
+
+    private static byte[] pcm(int length) {
+        byte[] pcm = new byte[length];
+        for (int i = 0; i < length; i++) {
+            pcm[i] = (byte)(i * 31 + 7);
+        }
+        return pcm;
+    }
+}
@@ -0,0 +1,182 @@
+package source.hanger.server.connection;
+
+import java.util.List;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import source.hanger.core.app.App;
+import source.hanger.core.engine.Engine;
+import source.hanger.core.graph.GraphDefinition;
+import source.hanger.core.message.AudioFrameMessage;
+import source.hanger.core.message.DataMessage;
+import source.hanger.core.message.Location;
+import source.hanger.core.remote.Remote;
+import source.hanger.core.runloop.Runloop;
+import source.hanger.server.handler.decoder.MessagePackDecoder;
+import source.hanger.server.handler.encoder.MessagePackEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 入站音频帧的引用计数测试：池化接收缓冲区经 MessagePack 解码得到的帧，
+ * 无论在连接、Runloop 投递还是 Engine 入队时被丢弃，都要释放对接收缓冲区的引用。
+ */
+class InboundMessageReleaseTest {
+
+    private static final Location SRC = new Location("msgpack://client", "graph-1", "client");
+    private static final Location DEST = new Location("msgpack://server", "graph-1", "asr");
+
+    private Runloop runloop;
+    private Engine engine;
+    private NettyConnection connection;
+
+    @BeforeEach
+    void setUp() {
+        runloop = mock(Runloop.class);
+        // 在调用线程上直接执行投递的任务
+        when(runloop.postTask(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        App app = mock(App.class);
+        when(app.getAppUri()).thenReturn("msgpack://server");
+        when(app.getAppRunloop()).thenReturn(runloop);
+        engine = new Engine("graph-1", new GraphDefinition(), app, false);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        connection = new NettyConnection("conn-1", channel.remoteAddress(), channel, runloop);
+    }
+
+    @Test
+    void decodedFrameRetainsReceiveBuffer() {
+        ByteBuf inbound = pooledFrame();
+        AudioFrameMessage frame = decode(inbound);
+
+        assertEquals(1, inbound.refCnt());
+        frame.release();
+        assertEquals(0, inbound.refCnt());
+    }
+
+    @Test
+    void releasesFrameWhenNotAttachedToRemote() {
+        ByteBuf inbound = pooledFrame();
+
+        connection.onMessageReceived(decode(inbound));
+
+        verify(runloop, never()).postTask(any());
+        assertEquals(0, inbound.refCnt());
+    }
+
+    @Test
+    void releasesFrameWithoutRunloop() {
+        new Remote("msgpack://client", connection, engine, runloop);
+        connection.setRunloop(null);
+        ByteBuf inbound = pooledFrame();
+
+        connection.onMessageReceived(decode(inbound));
+
+        assertEquals(0, inbound.refCnt());
+    }
+
+    @Test
+    void releasesFrameWhenRunloopRejectsTask() {
+        new Remote("msgpack://client", connection, engine, runloop);
+        doReturn(false).when(runloop).postTask(any());
+        ByteBuf inbound = pooledFrame();
+
+        connection.onMessageReceived(decode(inbound));
+
+        assertEquals(0, inbound.refCnt());
+    }
+
+    @Test
+    void releasesFrameWithoutMessageReceiver() {
+        new Remote("msgpack://client", connection, engine, runloop);
+        connection.setMessageReceiver(null);
+        ByteBuf inbound = pooledFrame();
+
+        connection.onMessageReceived(decode(inbound));
+
+        assertEquals(0, inbound.refCnt());
+    }
+
+    @Test
+    void releasesFrameWhenEngineQueueIsFull() {
+        new Remote("msgpack://client", connection, engine, runloop);
+        while (engine.submitInboundMessage(DataMessage.create("filler"), null)) {
+            // 填满 Engine 入站队列
+        }
+        ByteBuf inbound = pooledFrame();
+
+        connection.onMessageReceived(decode(inbound));
+
+        assertEquals(0, inbound.refCnt());
+    }
+
+    @Test
+    void releasesQueuedFrameWhenEngineStops() {
+        new Remote("msgpack://client", connection, engine, runloop);
+        ByteBuf inbound = pooledFrame();
+
+        connection.onMessageReceived(decode(inbound));
+        // 帧已进入 Engine 队列，由 Engine 持有引用
+        assertEquals(1, inbound.refCnt());
+
+        engine.stop();
+
+        assertEquals(0, inbound.refCnt());
+    }
+
+    /**
+     * @return 池化的接收缓冲区，内容为一个完整的 MessagePack 音频帧
+     */
+    private static ByteBuf pooledFrame() {
+        byte[] pcm = new byte[3200];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (byte)i;
+        }
+        AudioFrameMessage frame = AudioFrameMessage.createBuilder("pcm_frame")
+            .srcLoc(SRC)
+            .destLocs(List.of(DEST))
+            .frameTimestamp(0L)
+            .sampleRate(16000)
+            .bytesPerSample(2)
+            .samplesPerChannel(pcm.length / 2)
+            .numberOfChannel(1)
+            .channelLayout(0L)
+            .dataFormat(1)
+            .buf(Unpooled.wrappedBuffer(pcm))
+            .lineSize(pcm.length)
+            .isEof(false)
+            .build();
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessagePackEncoder());
+        assertTrue(encoder.writeOutbound(frame));
+        ByteBuf encoded = encoder.readOutbound();
+        assertFalse(encoder.finish());
+        try {
+            return PooledByteBufAllocator.DEFAULT.directBuffer(encoded.readableBytes()).writeBytes(encoded);
+        } finally {
+            encoded.release();
+        }
+    }
+
+    private static AudioFrameMessage decode(ByteBuf inbound) {
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessagePackDecoder());
+        assertTrue(decoder.writeInbound(inbound));
+        AudioFrameMessage frame = assertInstanceOf(AudioFrameMessage.class, decoder.readInbound());
+        assertFalse(decoder.finish());
+        return frame;
+    }
+}
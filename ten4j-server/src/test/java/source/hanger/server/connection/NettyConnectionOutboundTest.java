@@ -0,0 +1,226 @@
+package source.hanger.server.connection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.Test;
+import source.hanger.core.message.AudioFrameMessage;
+import source.hanger.core.message.DataMessage;
+import source.hanger.core.message.Message;
+import source.hanger.core.message.VideoFrameMessage;
+import source.hanger.core.runloop.Runloop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link NettyConnection} 出站队列测试：批量 flush、按消息类型的溢出策略、硬上限关闭与不可写时的暂停恢复。
+ *
+ * EmbeddedChannel 的 EventLoop 只在 runPendingTasks 时执行任务，未执行前入队的消息都留在出站队列中。
+ */
+class NettyConnectionOutboundTest {
+
+    private EmbeddedChannel channel;
+    private NettyConnection connection;
+
+    @Test
+    void drainsInOneTaskAndFlushesPerBatch() {
+        connect(new NettyOutboundConfig().setMaxMessagesPerFlush(2));
+
+        for (int i = 0; i < 5; i++) {
+            connection.sendOutboundMessage(DataMessage.create("d" + i));
+        }
+        assertEquals(5, connection.getPendingOutboundCount());
+
+        channel.runPendingTasks();
+
+        assertEquals(List.of("d0", "d1", "d2", "d3", "d4"), writtenNames());
+        assertEquals(0, connection.getPendingOutboundCount());
+        NettyOutboundMetrics metrics = connection.getOutboundMetrics();
+        assertEquals(5, metrics.getEnqueued().get());
+        assertEquals(5, metrics.getWritten().get());
+        assertEquals(3, metrics.getFlushes().get());
+    }
+
+    @Test
+    void dropOldestReplacesOldestAudioFrame() {
+        connect(new NettyOutboundConfig().setQueueCapacity(3));
+        AudioFrameMessage a0 = audio("a0");
+        AudioFrameMessage a1 = audio("a1");
+        AudioFrameMessage a2 = audio("a2");
+
+        connection.sendOutboundMessage(a0);
+        connection.sendOutboundMessage(DataMessage.create("d0"));
+        connection.sendOutboundMessage(a1);
+        connection.sendOutboundMessage(a2);
+
+        // 丢弃的是最旧的音频帧，数据消息不受影响
+        assertEquals(0, a0.refCnt());
+        channel.runPendingTasks();
+        assertEquals(List.of("d0", "a1", "a2"), writtenNames());
+        assertEquals(1, connection.getOutboundMetrics().getDroppedAudioFrames().get());
+        assertEquals(1, a1.refCnt());
+        assertEquals(1, a2.refCnt());
+    }
+
+    @Test
+    void dropOldestDropsNewFrameWhenNoAudioIsQueued() {
+        connect(new NettyOutboundConfig().setQueueCapacity(2));
+        AudioFrameMessage a0 = audio("a0");
+
+        connection.sendOutboundMessage(DataMessage.create("d0"));
+        connection.sendOutboundMessage(DataMessage.create("d1"));
+        connection.sendOutboundMessage(a0);
+
+        assertEquals(0, a0.refCnt());
+        assertEquals(2, connection.getPendingOutboundCount());
+        assertEquals(1, connection.getOutboundMetrics().getDroppedAudioFrames().get());
+        channel.runPendingTasks();
+        assertEquals(List.of("d0", "d1"), writtenNames());
+    }
+
+    @Test
+    void dropNewestDropsIncomingVideoFrame() {
+        connect(new NettyOutboundConfig().setQueueCapacity(2));
+
+        connection.sendOutboundMessage(video("v0"));
+        connection.sendOutboundMessage(video("v1"));
+        connection.sendOutboundMessage(video("v2"));
+
+        channel.runPendingTasks();
+        assertEquals(List.of("v0", "v1"), writtenNames());
+        assertEquals(1, connection.getOutboundMetrics().getDroppedVideoFrames().get());
+    }
+
+    @Test
+    void bufferKeepsCommandsAndDataBeyondQueueCapacity() {
+        connect(new NettyOutboundConfig().setQueueCapacity(2).setHardCapacity(4));
+
+        for (int i = 0; i < 4; i++) {
+            connection.sendOutboundMessage(DataMessage.create("d" + i));
+        }
+
+        assertEquals(4, connection.getPendingOutboundCount());
+        assertEquals(2, connection.getOutboundMetrics().getBufferedOverCapacity().get());
+        channel.runPendingTasks();
+        assertEquals(List.of("d0", "d1", "d2", "d3"), writtenNames());
+        assertEquals(0, connection.getOutboundMetrics().getDroppedOthers().get());
+    }
+
+    @Test
+    void hardCapacityClosesChannelAndReleasesQueue() {
+        connect(new NettyOutboundConfig().setQueueCapacity(1).setHardCapacity(2)
+            .setAudioOverflowPolicy(OutboundOverflowPolicy.BUFFER));
+        List<AudioFrameMessage> frames = List.of(audio("a0"), audio("a1"), audio("a2"));
+
+        frames.forEach(connection::sendOutboundMessage);
+
+        for (AudioFrameMessage frame : frames) {
+            assertEquals(0, frame.refCnt());
+        }
+        assertFalse(channel.isOpen());
+        assertEquals(0, connection.getPendingOutboundCount());
+        NettyOutboundMetrics metrics = connection.getOutboundMetrics();
+        assertEquals(1, metrics.getHardCapacityCloses().get());
+        assertEquals(3, metrics.getDiscardedOnClose().get());
+
+        channel.runPendingTasks();
+        assertEquals(List.of(), writtenNames());
+        assertThrows(IllegalStateException.class, () -> connection.sendOutboundMessage(DataMessage.create("late")));
+    }
+
+    @Test
+    void stallsWhileUnwritableAndResumesOnWritabilityChange() {
+        connect(new NettyOutboundConfig());
+        setWritable(false);
+
+        connection.sendOutboundMessage(DataMessage.create("d0"));
+        connection.sendOutboundMessage(DataMessage.create("d1"));
+        channel.runPendingTasks();
+
+        assertEquals(List.of(), writtenNames());
+        assertEquals(2, connection.getPendingOutboundCount());
+        assertEquals(1, connection.getOutboundMetrics().getUnwritableStalls().get());
+
+        // 暂停期间入队不再调度排空任务，也不会重复计入暂停
+        connection.sendOutboundMessage(DataMessage.create("d2"));
+        channel.runPendingTasks();
+        assertEquals(3, connection.getPendingOutboundCount());
+        assertEquals(1, connection.getOutboundMetrics().getUnwritableStalls().get());
+
+        // 仍不可写时的通知被忽略
+        connection.onWritabilityChanged();
+        assertEquals(3, connection.getPendingOutboundCount());
+
+        setWritable(true);
+        connection.onWritabilityChanged();
+
+        assertEquals(List.of("d0", "d1", "d2"), writtenNames());
+        assertEquals(0, connection.getPendingOutboundCount());
+
+        // 恢复后新的消息重新调度排空
+        connection.sendOutboundMessage(DataMessage.create("d3"));
+        channel.runPendingTasks();
+        assertEquals(List.of("d3"), writtenNames());
+    }
+
+    @Test
+    void closeReleasesStalledFrames() {
+        connect(new NettyOutboundConfig());
+        setWritable(false);
+        AudioFrameMessage a0 = audio("a0");
+        AudioFrameMessage a1 = audio("a1");
+        connection.sendOutboundMessage(a0);
+        connection.sendOutboundMessage(a1);
+        channel.runPendingTasks();
+
+        connection.close();
+
+        assertEquals(0, a0.refCnt());
+        assertEquals(0, a1.refCnt());
+        assertEquals(2, connection.getOutboundMetrics().getDiscardedOnClose().get());
+        channel.runPendingTasks();
+        assertEquals(List.of(), writtenNames());
+    }
+
+    private void connect(NettyOutboundConfig config) {
+        channel = new EmbeddedChannel();
+        connection = new NettyConnection("conn-1", channel.remoteAddress(), channel, mock(Runloop.class), config);
+    }
+
+    private void setWritable(boolean writable) {
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, writable);
+        assertEquals(writable, channel.isWritable());
+    }
+
+    private List<String> writtenNames() {
+        List<String> names = new ArrayList<>();
+        Message message;
+        while ((message = channel.readOutbound()) != null) {
+            names.add(message.getName());
+        }
+        return names;
+    }
+
+    private static AudioFrameMessage audio(String name) {
+        return AudioFrameMessage.createBuilder(name)
+            .sampleRate(16000)
+            .bytesPerSample(2)
+            .samplesPerChannel(160)
+            .numberOfChannel(1)
+            .buf(Unpooled.buffer(320).writeZero(320))
+            .build();
+    }
+
+    private static VideoFrameMessage video(String name) {
+        return Message.defaultMessage(VideoFrameMessage.builder())
+            .name(name)
+            .width(2)
+            .height(2)
+            .build();
+    }
+}
@@ -0,0 +1,168 @@
+package source.hanger.server.transport;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * 各 {@link TransportType} 服务端的回环基准：串行建立并关闭连接的速率，以及单连接上 64 字节回显的往返延迟分布。
+ * 客户端统一使用 NIO，当前环境不可用的传输会被跳过。
+ *
+ * 默认跳过，使用 -Dten4j.benchmark=true 运行。
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "ten4j.benchmark", matches = "true")
+class NettyTransportBenchmarkTest {
+
+    private static final int CONNECTIONS = 2_000;
+    private static final int ROUND_TRIPS = 20_000;
+    private static final int MESSAGE_SIZE = 64;
+
+    @Test
+    void transports() throws Exception {
+        EventLoopGroup clientGroup = new NioEventLoopGroup(1);
+        try {
+            for (TransportType requested : new TransportType[] {TransportType.NIO, TransportType.EPOLL,
+                TransportType.IO_URING}) {
+                NettyTransport transport = NettyTransport.select(requested);
+                if (transport.getType() != requested) {
+                    log.info("transport {}: unavailable, skipped", requested);
+                    continue;
+                }
+                benchmark(transport, clientGroup);
+            }
+        } finally {
+            clientGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    private static void benchmark(NettyTransport transport, EventLoopGroup clientGroup) throws Exception {
+        EventLoopGroup bossGroup = transport.newEventLoopGroup(1, "bench-boss");
+        EventLoopGroup workerGroup = transport.newEventLoopGroup(1, "bench-worker");
+        try {
+            Channel server = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(transport.getServerChannelClass())
+                .option(ChannelOption.SO_BACKLOG, 1024)
+                .childOption(ChannelOption.TCP_NODELAY, true)
+                .childHandler(new EchoHandler())
+                .bind(new InetSocketAddress("127.0.0.1", 0)).sync().channel();
+            try {
+                InetSocketAddress address = (InetSocketAddress)server.localAddress();
+                // 第一轮用于预热
+                connectionRate(clientGroup, address);
+                double connectionsPerSecond = connectionRate(clientGroup, address);
+                roundTrips(clientGroup, address);
+                long[] latencies = roundTrips(clientGroup, address);
+                log.info("transport {}: {} connections/s, round trip p50 {} us, p99 {} us", transport.getType(),
+                    String.format("%.0f", connectionsPerSecond), micros(latencies[latencies.length / 2]),
+                    micros(latencies[latencies.length * 99 / 100]));
+            } finally {
+                server.close().sync();
+            }
+        } finally {
+            bossGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+            workerGroup.shutdownGracefully(0, 0, TimeUnit.SECONDS).sync();
+        }
+    }
+
+    private static double connectionRate(EventLoopGroup clientGroup, InetSocketAddress address)
+        throws InterruptedException {
+        // 只建立与关闭连接，不读写数据
+        Bootstrap bootstrap = client(clientGroup, new ChannelInitializer<>() {
+            @Override
+            protected void initChannel(Channel channel) {
+            }
+        });
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < CONNECTIONS; i++) {
+            bootstrap.connect(address).sync().channel().close().sync();
+        }
+        return CONNECTIONS * 1e9 / (System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return 每次往返的纳秒数，已排序
+     */
+    private static long[] roundTrips(EventLoopGroup clientGroup, InetSocketAddress address) throws Exception {
+        EchoClientHandler handler = new EchoClientHandler();
+        Channel channel = client(clientGroup, handler).connect(address).sync().channel();
+        try {
+            byte[] message = new byte[MESSAGE_SIZE];
+            long[] latencies = new long[ROUND_TRIPS];
+            for (int i = 0; i < ROUND_TRIPS; i++) {
+                CompletableFuture<Void> echoed = handler.expect(MESSAGE_SIZE);
+                long startNanos = System.nanoTime();
+                channel.writeAndFlush(Unpooled.wrappedBuffer(message));
+                echoed.get(5, TimeUnit.SECONDS);
+                latencies[i] = System.nanoTime() - startNanos;
+            }
+            Arrays.sort(latencies);
+            return latencies;
+        } finally {
+            channel.close().sync();
+        }
+    }
+
+    private static Bootstrap client(EventLoopGroup clientGroup, ChannelHandler handler) {
+        return new Bootstrap()
+            .group(clientGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, true)
+            .handler(handler);
+    }
+
+    private static String micros(long nanos) {
+        return String.format("%.1f", nanos / 1e3);
+    }
+
+    @ChannelHandler.Sharable
+    private static final class EchoHandler extends ChannelInboundHandlerAdapter {
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            ctx.writeAndFlush(msg);
+        }
+    }
+
+    /**
+     * 累计收到的字节数，达到预期长度时完成当前往返。
+     */
+    private static final class EchoClientHandler extends SimpleChannelInboundHandler<ByteBuf> {
+        private volatile CompletableFuture<Void> echoed;
+        private int remaining;
+
+        CompletableFuture<Void> expect(int bytes) {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            remaining = bytes;
+            echoed = future;
+            return future;
+        }
+
+        @Override
+        protected void channelRead0(ChannelHandlerContext ctx, ByteBuf msg) {
+            remaining -= msg.readableBytes();
+            if (remaining <= 0) {
+                echoed.complete(null);
+            }
+        }
+    }
+}